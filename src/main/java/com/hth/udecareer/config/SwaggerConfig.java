@@ -3,9 +3,12 @@ package com.hth.udecareer.config;
 
 import java.util.List;
 
+import org.springdoc.core.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.hth.udecareer.security.CurrentUser;
+
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
@@ -17,6 +20,11 @@ import io.swagger.v3.oas.models.servers.Server;
 @Configuration
 public class SwaggerConfig {
 
+        static {
+                // CurrentUser được resolve từ token, không phải tham số của request
+                SpringDocUtils.getConfig().addRequestWrapperToIgnore(CurrentUser.class);
+        }
+
         @Bean
         public OpenAPI customOpenAPI() {
                 return new OpenAPI()
@@ -6,7 +6,10 @@ import java.util.Objects;
 
 import javax.sql.DataSource;
 
+import com.zaxxer.hikari.HikariDataSource;
+
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
@@ -38,10 +41,16 @@ public class WordpressDatasourceConfiguration {
 
     @Bean
     @Primary
-    public DataSource wordpressDataSource() {
-        DataSource realDataSource = wordpressDataSourceProperties()
+    public DataSource wordpressDataSource(
+            @Value("${spring.datasource.wordpress.rewrite-batched-statements:true}") boolean rewriteBatchedStatements) {
+        HikariDataSource realDataSource = wordpressDataSourceProperties()
                 .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
                 .build();
+        if (rewriteBatchedStatements) {
+            // Gộp JDBC batch thành một câu INSERT nhiều dòng (QuizSubmissionBatchRepository)
+            realDataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
 
         // return ProxyDataSourceBuilder
         // .create(realDataSource)
@@ -51,9 +60,7 @@ public class WordpressDatasourceConfiguration {
         // .multiline() // dễ đọc
         // .build();
 
-        return wordpressDataSourceProperties()
-                .initializeDataSourceBuilder()
-                .build();
+        return realDataSource;
     }
 
     @Bean
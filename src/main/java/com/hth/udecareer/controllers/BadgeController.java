@@ -9,7 +9,7 @@ import com.hth.udecareer.model.request.BadgeRequest;
 import com.hth.udecareer.model.response.BadgeResponse;
 import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.model.response.UserBadgeResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.BadgeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -37,7 +37,7 @@ import java.util.Map;
 public class BadgeController {
 
     private final BadgeService badgeService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     // ============= PUBLIC ENDPOINTS =============
 
@@ -305,18 +305,6 @@ public class BadgeController {
     // ============= HELPER METHODS =============
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
@@ -8,8 +8,8 @@ import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.model.request.CartRequest;
 import com.hth.udecareer.model.response.ApiResponse;
 import com.hth.udecareer.model.response.CartResponse;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.CartService;
-import com.hth.udecareer.repository.UserRepository;
 import com.hth.udecareer.entities.User;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,7 +29,7 @@ import javax.validation.Valid;
 public class CartController {
 
     private final CartService cartService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @Operation(summary = "Lấy thông tin giỏ hàng của User")
     @GetMapping("/cart")
@@ -97,22 +97,6 @@ public class CartController {
     }
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        if (user.getId() == null) {
-            throw new AppException(ErrorCode.INVALID_KEY);
-        }
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
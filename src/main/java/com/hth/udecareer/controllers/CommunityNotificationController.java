@@ -1,13 +1,12 @@
 package com.hth.udecareer.controllers;
 
 import com.hth.udecareer.annotation.ApiPrefixController;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.response.CommunityNotificationResponse;
 import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.model.response.UnreadCountResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.CommunityNotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,7 +32,7 @@ import java.util.Map;
 public class CommunityNotificationController {
 
     private final CommunityNotificationService notificationService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @Operation(
             summary = "Get notifications",
@@ -125,18 +124,6 @@ public class CommunityNotificationController {
     // ============= HELPER METHODS =============
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
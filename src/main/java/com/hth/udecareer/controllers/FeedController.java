@@ -61,6 +61,7 @@ public class FeedController {
                       - `most_reactions` hoặc `reactions_desc` hoặc `most_liked`: Nhiều like/reaction nhất
                       - `trending`: Đang trending (dựa trên reactions và thời gian)
                     - `disable_sticky`: Tắt sticky posts ('yes' hoặc '') - **OPTIONAL**
+                    - `cursor`: Chế độ cursor (cuộn vô hạn) - truyền `cursor=` (rỗng) cho trang đầu, sau đó `next_cursor` của trang trước; bỏ qua `page`, không đếm tổng (chỉ hỗ trợ sắp xếp `latest`) - **OPTIONAL**
                     
                     **Ví dụ sử dụng:**
                     - Lấy tất cả: `GET /api/feeds`
@@ -68,6 +69,7 @@ public class FeedController {
                     - Lọc theo user: `GET /api/feeds?user_id=1`
                     - Tìm kiếm: `GET /api/feeds?search=đẹp`
                     - Sắp xếp: `GET /api/feeds?order_by_type=most_reactions`
+                    - Cuộn vô hạn: `GET /api/feeds?cursor=` rồi `GET /api/feeds?cursor={next_cursor}`
                     - Combine nhiều filters: `GET /api/feeds?space=start-here&user_id=1&search=đẹp&order_by_type=trending`
                     
                     **Response:** Danh sách bài viết với pagination, comments, reactions, và thông tin user
@@ -97,7 +99,9 @@ public class FeedController {
             @Parameter(description = "Sắp xếp theo: 'latest' (mặc định), 'oldest', 'most_commented', 'most_reactions', 'trending'", example = "latest")
             @RequestParam(value = "order_by_type", required = false) String orderByType,
             @Parameter(description = "Tắt sticky posts ('yes' hoặc '')", example = "")
-            @RequestParam(value = "disable_sticky", required = false) String disableSticky) throws AppException {
+            @RequestParam(value = "disable_sticky", required = false) String disableSticky,
+            @Parameter(description = "Cursor mode: rỗng cho trang đầu, sau đó next_cursor của trang trước", example = "")
+            @RequestParam(value = "cursor", required = false) String cursor) throws AppException {
         
         // Build FeedListRequest from individual parameters
         FeedListRequest request = FeedListRequest.builder()
@@ -109,6 +113,7 @@ public class FeedController {
                 .searchIn(searchIn)
                 .orderByType(orderByType)
                 .disableSticky(disableSticky)
+                .cursor(cursor)
                 .build();
         
         Long currentUserId = getUserIdFromPrincipal(principal, false);
@@ -116,6 +121,45 @@ public class FeedController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            tags = {"Feed"},
+            summary = "Lấy bài viết mới kể từ lần tải trước",
+            description = """
+                    **Lấy các bài viết mới được đăng sau lần tải trước (pull-to-refresh)**
+                    
+                    **Request Parameters:**
+                    - `since_cursor`: `since_cursor` của trang 1 danh sách feeds (lần gọi đầu) hoặc của lần gọi trước
+                    - `since`: `last_fetched_timestamp` của danh sách feeds (epoch giây) - cho client cũ, có thể trả lại bài viết cùng giây đã thấy
+                    - `space`, `user_id`: Bộ lọc giống `GET /api/feeds` - **OPTIONAL**
+                    - `limit`: Số bài viết tối đa (mặc định: 20, tối đa: 100) - **OPTIONAL**
+                    
+                    **Response:** Bài viết mới (mới nhất trước), `since_cursor` cho lần gọi sau và `has_more`
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lấy danh sách thành công",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = FeedDeltaResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Thiếu since/since_cursor hoặc cursor không hợp lệ")
+    })
+    @GetMapping("/feeds/new")
+    public ResponseEntity<FeedDeltaResponse> listNewFeeds(
+            @Parameter(hidden = true) Principal principal,
+            @Parameter(description = "last_fetched_timestamp (epoch giây)", example = "1767225600")
+            @RequestParam(value = "since", required = false) Long since,
+            @Parameter(description = "since_cursor của trang 1 danh sách feeds hoặc của lần gọi trước")
+            @RequestParam(value = "since_cursor", required = false) String sinceCursor,
+            @Parameter(description = "Slug của space để lọc bài viết", example = "start-here")
+            @RequestParam(value = "space", required = false) String space,
+            @Parameter(description = "User ID để lọc bài viết của user", example = "1")
+            @RequestParam(value = "user_id", required = false) Long userId,
+            @Parameter(description = "Số bài viết tối đa (mặc định: 20)", example = "20")
+            @RequestParam(value = "limit", required = false) Integer limit) throws AppException {
+
+        Long currentUserId = getUserIdFromPrincipal(principal, false);
+        FeedDeltaResponse response = feedService.listNewFeeds(space, userId, since, sinceCursor, limit, currentUserId);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
             tags = {"Feed"},
             summary = "Lấy bài viết theo slug",
@@ -2,12 +2,11 @@ package com.hth.udecareer.controllers;
 
 import com.hth.udecareer.annotation.ApiPrefixController;
 import com.hth.udecareer.entities.OrderEntity;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.dto.FirebaseOrderDto;
 import com.hth.udecareer.model.response.ApiResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.FirebaseOrderSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -36,7 +35,7 @@ import java.util.Optional;
 public class FirebaseOrderController {
 
     private final FirebaseOrderSyncService firebaseOrderSyncService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     /**
      * Kiểm tra trạng thái Firebase configuration.
@@ -179,12 +178,6 @@ public class FirebaseOrderController {
     }
 
     private Long getUserIdFromPrincipal(Principal principal) {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-        String email = principal.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
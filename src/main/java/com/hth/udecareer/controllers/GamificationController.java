@@ -3,6 +3,7 @@ package com.hth.udecareer.controllers;
 
 import com.hth.udecareer.annotation.ApiPrefixController;
 import com.hth.udecareer.enums.LeaderBoardType;
+import com.hth.udecareer.model.response.LeaderBoardResponse;
 import com.hth.udecareer.model.response.LeaderBoardWithUserPageResponse;
 import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.model.response.PointHistoryResponse;
@@ -25,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -71,6 +73,31 @@ public class GamificationController {
         return ResponseEntity.ok(userService.getLeaderboardWithPagination(type, email, page, size));
     }
 
+    @Operation(
+            summary = "Lấy bảng xếp hạng quanh user hiện tại",
+            description = """
+        Trả về những người xếp ngay trên và ngay dưới user đang đăng nhập (bao gồm chính user).
+
+        Tham số:
+        - type: WEEK (mặc định), MONTH, YEAR
+        - radius: Số người mỗi phía (mặc định: 5, tối đa: 50)
+
+        Danh sách rỗng nếu user chưa có điểm trong kỳ hiện tại.
+        """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lấy bảng xếp hạng thành công"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Chưa đăng nhập")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/gamification/leaderboard/around-me")
+    public ResponseEntity<List<LeaderBoardResponse>> leaderboardAroundMe(
+            @RequestParam(defaultValue = "WEEK") LeaderBoardType type,
+            @RequestParam(required = false, defaultValue = "5") Integer radius,
+            Principal principal) {
+        return ResponseEntity.ok(userPointsService.getLeaderboardAroundUser(principal.getName(), type, radius));
+    }
+
 
 
     @Operation(
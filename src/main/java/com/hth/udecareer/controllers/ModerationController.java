@@ -1,7 +1,6 @@
 package com.hth.udecareer.controllers;
 
 import com.hth.udecareer.annotation.ApiPrefixController;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.request.ReportRequest;
@@ -9,7 +8,7 @@ import com.hth.udecareer.model.request.ReportUpdateRequest;
 import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.model.response.ReportResponse;
 import com.hth.udecareer.model.response.ReportStatsResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.ModerationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,7 +35,7 @@ import java.util.Map;
 public class ModerationController {
 
     private final ModerationService moderationService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     // ============= USER ENDPOINTS =============
 
@@ -195,18 +194,6 @@ public class ModerationController {
     // ============= HELPER METHODS =============
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
@@ -9,6 +9,7 @@ import com.hth.udecareer.model.response.FollowResponse;
 import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.model.response.XProfileResponse;
 import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.FollowService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,6 +35,7 @@ public class ProfileController {
 
     private final FollowService followService;
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     // ============= PROFILE ENDPOINTS =============
 
@@ -254,19 +256,7 @@ public class ProfileController {
     // ============= PRIVATE HELPER METHODS =============
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 
     private Long getUserIdFromPrincipalOptional(Principal principal) {
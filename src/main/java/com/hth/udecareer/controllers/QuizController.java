@@ -33,6 +33,7 @@ import com.hth.udecareer.model.response.SubmitAnswerResponse;
 import com.hth.udecareer.service.QuestionService;
 import com.hth.udecareer.service.QuizCategoryService;
 import com.hth.udecareer.service.QuizMasterService;
+import com.hth.udecareer.service.QuizSubmissionService;
 import com.hth.udecareer.model.dto.QuizSearchRequestDto;
 import org.springframework.data.domain.Page;
 
@@ -52,6 +53,7 @@ public class QuizController {
         private final QuizMasterService quizMasterService;
         private final QuizCategoryService quizCategoryService;
         private final QuestionService questionService;
+        private final QuizSubmissionService quizSubmissionService;
 
 
     @Operation(
@@ -423,6 +425,12 @@ public class QuizController {
                         - Backend chỉ lưu các câu trả lời, **không chấm điểm**, và đánh dấu bài làm là "chưa hoàn thành".
                         - Response trả về sẽ không chứa điểm số.
 
+                        **3. Nộp bất đồng bộ (khi server bật `app.quiz-submission.async-enabled`):**
+                        - Gửi kèm **`"submissionId"`** do client sinh (vd. UUID) khi nộp bài cuối cùng.
+                        - Điểm số được trả về ngay, `submissionStatus` là `PENDING`; `activityId` có sau khi ghi xong
+                          (xem `GET /quiz/submission/{submissionId}`).
+                        - Gửi lại cùng `submissionId` trả về kết quả cũ, không tạo bài nộp mới.
+
                         **Request body:**
                         - `data`: Danh sách câu trả lời của user.
                         - `startTime`, `endTime` (Chỉ cần thiết khi nộp bài cuối cùng).
@@ -462,7 +470,31 @@ public class QuizController {
                     )
                     @RequestBody SubmitAnswerRequest request) throws Exception {
                 log.info("submitAnswerData: user {}, quizId {}", principal.getName(), quizId);
-                return quizMasterService.submitAnswer(principal.getName(), quizId, request);
+                return quizSubmissionService.submit(principal.getName(), quizId, request);
+        }
+
+        @Operation(
+                summary = "Trạng thái bài nộp bất đồng bộ",
+                description = """
+                        Trả về kết quả chấm điểm của bài nộp có `submissionId`, cùng `submissionStatus`
+                        (`PENDING`, `PROCESSING`, `COMPLETED`, `FAILED`) và `activityId` khi đã ghi xong.
+                        """
+        )
+        @SecurityRequirement(name = "bearerAuth")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Thành công"),
+                        @ApiResponse(responseCode = "401", description = "Chưa xác thực - Token không hợp lệ hoặc thiếu", content = @Content),
+                        @ApiResponse(responseCode = "404", description = "Không tìm thấy bài nộp", content = @Content)
+        })
+        @GetMapping("/quiz/submission/{submissionId}")
+        public SubmitAnswerResponse getSubmission(
+                    @io.swagger.v3.oas.annotations.Parameter(hidden = true) Principal principal,
+                    @io.swagger.v3.oas.annotations.Parameter(
+                            description = "submissionId client đã gửi khi nộp bài",
+                            required = true
+                    )
+                    @PathVariable("submissionId") String submissionId) throws Exception {
+                return quizSubmissionService.getSubmission(principal.getName(), submissionId);
         }
 
         @Operation(
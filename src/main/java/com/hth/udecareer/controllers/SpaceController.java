@@ -2,12 +2,11 @@ package com.hth.udecareer.controllers;
 
 
 import com.hth.udecareer.annotation.ApiPrefixController;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.response.SpaceMembershipResponse;
 import com.hth.udecareer.model.response.SpaceResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.SpaceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,7 +34,7 @@ import java.util.List;
 @Tag(name = "Community Spaces Public API", description = "API quản lý các không gian cộng đồng (Spaces/Groups)")
 public class SpaceController {
     private final SpaceService spaceService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @Operation(
             summary = "Lấy danh sách tất cả Spaces (Menu Tree)",
@@ -210,18 +209,6 @@ public class SpaceController {
     }
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
@@ -1,11 +1,10 @@
 package com.hth.udecareer.controllers;
 
 import com.hth.udecareer.annotation.ApiPrefixController;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.response.*;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.StreakService;
 import com.hth.udecareer.service.StreakGoalService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,7 +31,7 @@ public class StreakController {
 
     private final StreakService streakService;
     private final StreakGoalService streakGoalService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     // ============= STREAK ENDPOINTS =============
 
@@ -197,18 +196,6 @@ public class StreakController {
     // ============= HELPER METHODS =============
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
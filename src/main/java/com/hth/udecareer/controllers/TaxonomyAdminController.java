@@ -1,6 +1,7 @@
 package com.hth.udecareer.controllers;
 
 import com.hth.udecareer.annotation.ApiPrefixController;
+import com.hth.udecareer.eil.service.QuestionSkillIndex;
 import com.hth.udecareer.model.response.ApiResponse;
 import com.hth.udecareer.service.TaxonomyOptimizationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +32,7 @@ import java.util.Map;
 public class TaxonomyAdminController {
 
     private final TaxonomyOptimizationService taxonomyService;
+    private final QuestionSkillIndex questionSkillIndex;
 
     @GetMapping("/statistics")
     @PreAuthorize("hasRole('ADMIN')")
@@ -69,6 +71,32 @@ public class TaxonomyAdminController {
         return ResponseEntity.ok(ApiResponse.success(hierarchy));
     }
 
+    @GetMapping("/skill-index")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get question-skill index status", description = "Returns size, version and last rebuild time of the in-memory question-skill index")
+    public ResponseEntity<ApiResponse> getSkillIndexStatus() {
+        return ResponseEntity.ok(ApiResponse.success(skillIndexStatus()));
+    }
+
+    @PostMapping("/skill-index/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Rebuild question-skill index",
+        description = "Reload question-skill mappings into memory after bulk changes in wp_ez_question_skills / eil_question_skills"
+    )
+    public ResponseEntity<ApiResponse> rebuildSkillIndex() {
+        questionSkillIndex.rebuild();
+        return ResponseEntity.ok(ApiResponse.success(skillIndexStatus()));
+    }
+
+    private Map<String, Object> skillIndexStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", questionSkillIndex.size());
+        result.put("version", questionSkillIndex.getVersion());
+        result.put("lastRebuildMs", questionSkillIndex.getLastRebuildMillis());
+        return result;
+    }
+
     @PostMapping("/duplicates/dry-run")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
@@ -7,10 +7,10 @@ import com.hth.udecareer.model.request.CheckoutRequest;
 import com.hth.udecareer.model.request.VnpayPaymentRequest;
 import com.hth.udecareer.model.request.FirebasePaymentRequest;
 import com.hth.udecareer.model.response.VnpayIpnResponse;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.OrderService;
 import com.hth.udecareer.service.VnpayService;
 import com.hth.udecareer.service.FirebaseOrderSyncService;
-import com.hth.udecareer.repository.UserRepository;
 import com.hth.udecareer.entities.User;
 
 // Thêm các imports Swagger/OpenAPI cần thiết
@@ -44,7 +44,7 @@ public class VnpayController {
 
     private final VnpayService vnpayService;
     private final OrderService orderService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final FirebaseOrderSyncService firebaseOrderSyncService;
 
     @Operation(
@@ -325,32 +325,7 @@ public class VnpayController {
     }
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            log.error("Principal is null - user not authenticated");
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        log.debug("Principal email: {}", email);
-
-        if (email == null || email.trim().isEmpty()) {
-            log.error("Principal email is null or empty");
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.error("User not found with email: {}", email);
-                    return new AppException(ErrorCode.EMAIL_USER_NOT_FOUND);
-                });
-
-        if (user.getId() == null) {
-            log.error("User ID is null for email: {}", email);
-            throw new AppException(ErrorCode.INVALID_KEY);
-        }
-
-        log.debug("Found user ID: {} for email: {}", user.getId(), email);
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 
 }
\ No newline at end of file
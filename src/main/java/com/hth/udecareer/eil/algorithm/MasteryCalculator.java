@@ -22,6 +22,9 @@ import java.math.RoundingMode;
  * Alpha (learning rate) adjusts based on number of attempts:
  * - More attempts = smaller alpha (more stable)
  * - Fewer attempts = larger alpha (faster convergence)
+ *
+ * The math runs on doubles; the BigDecimal methods are thin wrappers that round to the
+ * stored scale (4 decimals) for persistence and API responses.
  */
 @Slf4j
 @Component
@@ -52,25 +55,55 @@ public class MasteryCalculator {
             DifficultyLevel difficulty,
             int totalAttempts) {
 
+        double current = currentMastery != null ? currentMastery.doubleValue() : initialMasteryLevel;
+        BigDecimal result = toDecimal(nextMastery(current, isCorrect, difficulty, totalAttempts));
+
+        log.debug("Mastery update: current={}, isCorrect={}, difficulty={}, attempts={}, new={}",
+                currentMastery, isCorrect, difficulty, totalAttempts, result);
+
+        return result;
+    }
+
+    /**
+     * EMA step in double precision, without rounding (used by the in-memory mastery state).
+     *
+     * @param currentMastery Current mastery level (0.0-1.0)
+     * @param isCorrect      Whether the answer was correct
+     * @param difficulty     Difficulty level of the question
+     * @param totalAttempts  Total attempts on this skill
+     * @return New mastery level (0.0-1.0)
+     */
+    public double nextMastery(double currentMastery, boolean isCorrect, DifficultyLevel difficulty, int totalAttempts) {
         // Calculate adaptive alpha based on number of attempts
         double alpha = calculateAdaptiveAlpha(totalAttempts);
 
         // Calculate performance score based on correctness and difficulty
         double performance = calculatePerformance(isCorrect, difficulty);
 
-        // Apply EMA formula
-        double current = currentMastery != null ? currentMastery.doubleValue() : initialMasteryLevel;
-        double newMastery = alpha * performance + (1 - alpha) * current;
-
-        // Clamp to [0.0, 1.0] range
-        newMastery = Math.max(0.0, Math.min(1.0, newMastery));
-
-        BigDecimal result = BigDecimal.valueOf(newMastery).setScale(SCALE, RoundingMode.HALF_UP);
+        // Apply EMA formula, clamped to [0.0, 1.0] range
+        double newMastery = alpha * performance + (1 - alpha) * currentMastery;
+        return Math.max(0.0, Math.min(1.0, newMastery));
+    }
 
-        log.debug("Mastery update: current={}, isCorrect={}, difficulty={}, attempts={}, alpha={}, performance={}, new={}",
-                currentMastery, isCorrect, difficulty, totalAttempts, alpha, performance, result);
+    /**
+     * Confidence in a mastery value after a number of attempts.
+     * Grows logarithmically with attempts, from 0.1 up to 0.95.
+     *
+     * @param attempts Number of attempts on the skill
+     * @return Confidence (0.1-0.95)
+     */
+    public double calculateConfidence(int attempts) {
+        return Math.min(0.95, 0.1 + 0.85 * (1 - 1.0 / (1 + Math.log(1 + attempts))));
+    }
 
-        return result;
+    /**
+     * Round a mastery or confidence value to the stored scale (4 decimals).
+     *
+     * @param value Value in double precision
+     * @return Value as stored in eil_skill_mastery
+     */
+    public BigDecimal toDecimal(double value) {
+        return BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP);
     }
 
     /**
@@ -139,16 +172,21 @@ public class MasteryCalculator {
      * @return Mastery label (WEAK, DEVELOPING, PROFICIENT, STRONG)
      */
     public MasteryLabel getMasteryLabel(BigDecimal mastery) {
-        if (mastery == null) {
-            return MasteryLabel.WEAK;
-        }
+        return mastery != null ? getMasteryLabel(mastery.doubleValue()) : MasteryLabel.WEAK;
+    }
 
-        double value = mastery.doubleValue();
-        if (value < 0.4) {
+    /**
+     * Convert mastery level to descriptive label.
+     *
+     * @param mastery Mastery level (0.0-1.0)
+     * @return Mastery label (WEAK, DEVELOPING, PROFICIENT, STRONG)
+     */
+    public MasteryLabel getMasteryLabel(double mastery) {
+        if (mastery < 0.4) {
             return MasteryLabel.WEAK;
-        } else if (value < 0.6) {
+        } else if (mastery < 0.6) {
             return MasteryLabel.DEVELOPING;
-        } else if (value < 0.8) {
+        } else if (mastery < 0.8) {
             return MasteryLabel.PROFICIENT;
         } else {
             return MasteryLabel.STRONG;
@@ -167,18 +205,23 @@ public class MasteryCalculator {
      * @return Recommended difficulty level
      */
     public DifficultyLevel getTargetDifficulty(BigDecimal mastery) {
-        if (mastery == null) {
-            return DifficultyLevel.EASY;
-        }
+        return mastery != null ? getTargetDifficulty(mastery.doubleValue()) : DifficultyLevel.EASY;
+    }
 
-        double value = mastery.doubleValue();
-        if (value < 0.25) {
+    /**
+     * Calculate target difficulty for next question based on mastery.
+     *
+     * @param mastery Current mastery level
+     * @return Recommended difficulty level
+     */
+    public DifficultyLevel getTargetDifficulty(double mastery) {
+        if (mastery < 0.25) {
             return DifficultyLevel.VERY_EASY;
-        } else if (value < 0.4) {
+        } else if (mastery < 0.4) {
             return DifficultyLevel.EASY;
-        } else if (value < 0.6) {
+        } else if (mastery < 0.6) {
             return DifficultyLevel.MEDIUM;
-        } else if (value < 0.8) {
+        } else if (mastery < 0.8) {
             return DifficultyLevel.HARD;
         } else {
             return DifficultyLevel.VERY_HARD;
@@ -191,7 +234,16 @@ public class MasteryCalculator {
      * @return Initial mastery value
      */
     public BigDecimal getInitialMastery() {
-        return BigDecimal.valueOf(initialMasteryLevel).setScale(SCALE, RoundingMode.HALF_UP);
+        return toDecimal(initialMasteryLevel);
+    }
+
+    /**
+     * Get initial mastery level for new skills, in double precision.
+     *
+     * @return Initial mastery value
+     */
+    public double getInitialMasteryLevel() {
+        return initialMasteryLevel;
     }
 
     /**
@@ -206,9 +258,9 @@ public class MasteryCalculator {
             return getInitialMastery();
         }
 
+        // Same sums as weightedAverage, read straight from the decimals; null masteries are skipped
         double totalWeight = 0;
         double weightedSum = 0;
-
         for (int i = 0; i < masteries.length; i++) {
             if (masteries[i] != null && weights[i] > 0) {
                 weightedSum += masteries[i].doubleValue() * weights[i];
@@ -216,11 +268,29 @@ public class MasteryCalculator {
             }
         }
 
-        if (totalWeight == 0) {
-            return getInitialMastery();
+        return totalWeight == 0 ? getInitialMastery() : toDecimal(weightedSum / totalWeight);
+    }
+
+    /**
+     * Weighted average of the first {@code count} masteries; entries with a weight of 0 or less are skipped.
+     *
+     * @param masteries Mastery values
+     * @param weights   Weights (e.g., question counts)
+     * @param count     Number of entries to use
+     * @return Weighted average, or the initial mastery when nothing has weight
+     */
+    public double weightedAverage(double[] masteries, int[] weights, int count) {
+        double totalWeight = 0;
+        double weightedSum = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (weights[i] > 0) {
+                weightedSum += masteries[i] * weights[i];
+                totalWeight += weights[i];
+            }
         }
 
-        return BigDecimal.valueOf(weightedSum / totalWeight).setScale(SCALE, RoundingMode.HALF_UP);
+        return totalWeight == 0 ? initialMasteryLevel : weightedSum / totalWeight;
     }
 
     /**
@@ -236,7 +306,6 @@ public class MasteryCalculator {
 
         double sum = 0;
         int count = 0;
-
         for (BigDecimal mastery : masteries) {
             if (mastery != null) {
                 sum += mastery.doubleValue();
@@ -244,10 +313,25 @@ public class MasteryCalculator {
             }
         }
 
+        return count == 0 ? getInitialMastery() : toDecimal(sum / count);
+    }
+
+    /**
+     * Simple average of the first {@code count} masteries.
+     *
+     * @param masteries Mastery values
+     * @param count     Number of entries to use
+     * @return Average, or the initial mastery when {@code count} is 0
+     */
+    public double simpleAverage(double[] masteries, int count) {
         if (count == 0) {
-            return getInitialMastery();
+            return initialMasteryLevel;
         }
 
-        return BigDecimal.valueOf(sum / count).setScale(SCALE, RoundingMode.HALF_UP);
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += masteries[i];
+        }
+        return sum / count;
     }
 }
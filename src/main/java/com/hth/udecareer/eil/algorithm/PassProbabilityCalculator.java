@@ -20,12 +20,16 @@ import java.util.Map;
  *
  * The algorithm maps mastery levels to expected scores using empirically-derived
  * conversion functions calibrated for each test type.
+ *
+ * All score models work on doubles; BigDecimal is only used for the inputs and outputs
+ * of the public API (rounded to 4 decimals).
  */
 @Slf4j
 @Component
 public class PassProbabilityCalculator {
 
     private static final int SCALE = 4;
+    private static final double DEFAULT_MASTERY = 0.5;
 
     // TOEIC score ranges
     private static final int TOEIC_MIN_SCORE = 10;
@@ -48,6 +52,28 @@ public class PassProbabilityCalculator {
             Integer targetScore,
             TestType testType) {
 
+        return calculatePrediction(
+                listeningMastery != null ? listeningMastery.doubleValue() : DEFAULT_MASTERY,
+                readingMastery != null ? readingMastery.doubleValue() : DEFAULT_MASTERY,
+                targetScore,
+                testType);
+    }
+
+    /**
+     * Calculate predicted scores and pass probability from double masteries.
+     *
+     * @param listeningMastery Listening section mastery (0.0-1.0)
+     * @param readingMastery   Reading section mastery (0.0-1.0)
+     * @param targetScore      User's target score
+     * @param testType         Type of test (TOEIC, IELTS, etc.)
+     * @return Prediction result with scores and probability
+     */
+    public PredictionResult calculatePrediction(
+            double listeningMastery,
+            double readingMastery,
+            Integer targetScore,
+            TestType testType) {
+
         if (testType == null) {
             testType = TestType.TOEIC;
         }
@@ -66,13 +92,10 @@ public class PassProbabilityCalculator {
      * Calculate TOEIC-specific prediction.
      */
     private PredictionResult calculateToeicPrediction(
-            BigDecimal listeningMastery,
-            BigDecimal readingMastery,
+            double lMastery,
+            double rMastery,
             Integer targetScore) {
 
-        double lMastery = listeningMastery != null ? listeningMastery.doubleValue() : 0.5;
-        double rMastery = readingMastery != null ? readingMastery.doubleValue() : 0.5;
-
         // Convert mastery to predicted section scores using sigmoid-like curve
         int listeningScore = masteryToToeicSectionScore(lMastery, TOEIC_LISTENING_MAX);
         int readingScore = masteryToToeicSectionScore(rMastery, TOEIC_READING_MAX);
@@ -104,9 +127,9 @@ public class PassProbabilityCalculator {
                 .totalScore(totalScore)
                 .predictedScoreMin(minScore)
                 .predictedScoreMax(maxScore)
-                .passProbability(BigDecimal.valueOf(passProbability).setScale(SCALE, RoundingMode.HALF_UP))
+                .passProbability(toDecimal(passProbability))
                 .passStatus(passStatus)
-                .confidenceLevel(BigDecimal.valueOf(confidence).setScale(SCALE, RoundingMode.HALF_UP))
+                .confidenceLevel(toDecimal(confidence))
                 .targetScore(target)
                 .gapToTarget(target - totalScore)
                 .build();
@@ -116,13 +139,10 @@ public class PassProbabilityCalculator {
      * Calculate IELTS-specific prediction.
      */
     private PredictionResult calculateIeltsPrediction(
-            BigDecimal listeningMastery,
-            BigDecimal readingMastery,
+            double lMastery,
+            double rMastery,
             Integer targetScore) {
 
-        double lMastery = listeningMastery != null ? listeningMastery.doubleValue() : 0.5;
-        double rMastery = readingMastery != null ? readingMastery.doubleValue() : 0.5;
-
         // IELTS uses band scores 0-9
         double listeningBand = masteryToIeltsBand(lMastery);
         double readingBand = masteryToIeltsBand(rMastery);
@@ -141,9 +161,9 @@ public class PassProbabilityCalculator {
                 .totalScore(totalScore)
                 .predictedScoreMin(Math.max(0, totalScore - 5))
                 .predictedScoreMax(Math.min(90, totalScore + 5))
-                .passProbability(BigDecimal.valueOf(passProbability).setScale(SCALE, RoundingMode.HALF_UP))
+                .passProbability(toDecimal(passProbability))
                 .passStatus(determinePassStatus(passProbability))
-                .confidenceLevel(BigDecimal.valueOf(0.75).setScale(SCALE, RoundingMode.HALF_UP))
+                .confidenceLevel(toDecimal(0.75))
                 .targetScore(target)
                 .gapToTarget(target - totalScore)
                 .build();
@@ -162,7 +182,7 @@ public class PassProbabilityCalculator {
         // Low mastery: steep improvement, High mastery: diminishing returns
         double k = 5.0; // Steepness
         double x0 = 0.5; // Midpoint
-        double sigmoid = 1.0 / (1.0 + Math.exp(-k * (mastery - x0)));
+        double sigmoid = sigmoid(k * (mastery - x0));
 
         // Map sigmoid output [~0.007, ~0.993] to score range
         // Minimum score is about 5% of max (even for complete beginners)
@@ -196,7 +216,7 @@ public class PassProbabilityCalculator {
         // Use logistic function centered at target score
         double k = 4.0 / uncertainty; // Steepness inversely proportional to uncertainty
         double x = predictedScore - targetScore;
-        return 1.0 / (1.0 + Math.exp(-k * x));
+        return sigmoid(k * x);
     }
 
     /**
@@ -205,7 +225,14 @@ public class PassProbabilityCalculator {
     private double calculateIeltsPassProbability(double predictedBand, double targetBand) {
         double diff = predictedBand - targetBand;
         double k = 2.0; // Steepness for IELTS bands
-        return 1.0 / (1.0 + Math.exp(-k * diff));
+        return sigmoid(k * diff);
+    }
+
+    /**
+     * Standard logistic function.
+     */
+    static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
     }
 
     /**
@@ -260,7 +287,7 @@ public class PassProbabilityCalculator {
             Map<String, Double> weights) {
 
         if (categoryMasteries == null || categoryMasteries.isEmpty()) {
-            return BigDecimal.valueOf(0.5);
+            return BigDecimal.valueOf(DEFAULT_MASTERY);
         }
 
         double totalWeight = 0;
@@ -270,17 +297,17 @@ public class PassProbabilityCalculator {
             double weight = weights != null && weights.containsKey(entry.getKey())
                     ? weights.get(entry.getKey())
                     : 1.0;
-            double mastery = entry.getValue() != null ? entry.getValue().doubleValue() : 0.5;
+            double mastery = entry.getValue() != null ? entry.getValue().doubleValue() : DEFAULT_MASTERY;
 
             weightedSum += mastery * weight;
             totalWeight += weight;
         }
 
         if (totalWeight == 0) {
-            return BigDecimal.valueOf(0.5);
+            return BigDecimal.valueOf(DEFAULT_MASTERY);
         }
 
-        return BigDecimal.valueOf(weightedSum / totalWeight).setScale(SCALE, RoundingMode.HALF_UP);
+        return toDecimal(weightedSum / totalWeight);
     }
 
     /**
@@ -292,7 +319,7 @@ public class PassProbabilityCalculator {
      * @return Readiness score (0.0-1.0)
      */
     public BigDecimal calculateReadiness(BigDecimal passProbability, int gapToTarget, TestType testType) {
-        double prob = passProbability != null ? passProbability.doubleValue() : 0.5;
+        double prob = passProbability != null ? passProbability.doubleValue() : DEFAULT_MASTERY;
 
         // Readiness is primarily based on pass probability
         // Adjusted by how close the predicted score is to target
@@ -303,7 +330,11 @@ public class PassProbabilityCalculator {
             readiness = Math.min(1.0, readiness + 0.1);
         }
 
-        return BigDecimal.valueOf(readiness).setScale(SCALE, RoundingMode.HALF_UP);
+        return toDecimal(readiness);
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        return BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP);
     }
 
     /**
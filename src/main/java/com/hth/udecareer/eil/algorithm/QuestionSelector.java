@@ -2,6 +2,7 @@ package com.hth.udecareer.eil.algorithm;
 
 import com.hth.udecareer.eil.enums.DifficultyLevel;
 import com.hth.udecareer.eil.enums.SessionType;
+import com.hth.udecareer.eil.model.dto.UserMasterySnapshot;
 import lombok.Builder;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +28,8 @@ import java.util.stream.Collectors;
 @Component
 public class QuestionSelector {
 
+    public static final long NO_QUESTION = -1L;
+
     private final MasteryCalculator masteryCalculator;
 
     // How many recent questions to avoid
@@ -35,6 +39,12 @@ public class QuestionSelector {
     private static final double WEAK_THRESHOLD = 0.4;
     private static final double STRONG_THRESHOLD = 0.8;
 
+    // How many top-priority skills the weighted random pick chooses from
+    private static final int TOP_PRIORITIES = 5;
+
+    // Random probes into a question pool before falling back to a scan for an unseen question
+    private static final int MAX_PROBES = 8;
+
     public QuestionSelector(MasteryCalculator masteryCalculator) {
         this.masteryCalculator = masteryCalculator;
     }
@@ -85,7 +95,88 @@ public class QuestionSelector {
 
         // For ADAPTIVE and MIXED, use weighted random selection from top priorities
         // This adds variety while still focusing on weak skills
-        return selectWeightedRandom(priorities.subList(0, Math.min(5, priorities.size())));
+        return selectWeightedRandom(priorities.subList(0, Math.min(TOP_PRIORITIES, priorities.size())));
+    }
+
+    /**
+     * Select the next skill to practice from the in-memory mastery state.
+     * Same rules as {@link #selectNextSkill(Map, SessionType, Long, Set)}, computed over the snapshot
+     * arrays without sorting or boxing every skill.
+     *
+     * @param masteries      User's mastery snapshot
+     * @param sessionType    Type of practice session
+     * @param targetSkillId  Optional target skill for SKILL_FOCUS sessions
+     * @param recentSkillIds Skills practiced recently (to avoid)
+     * @return Selected skill ID
+     */
+    public Long selectNextSkill(
+            UserMasterySnapshot masteries,
+            SessionType sessionType,
+            Long targetSkillId,
+            Set<Long> recentSkillIds) {
+
+        if (masteries == null || masteries.isEmpty()) {
+            log.warn("No skill masteries provided for selection");
+            return null;
+        }
+
+        // For SKILL_FOCUS sessions, always return the target skill
+        if (sessionType == SessionType.SKILL_FOCUS && targetSkillId != null) {
+            return targetSkillId;
+        }
+
+        // Keep the top priorities in order (ties keep snapshot order), plus the best strong skill for REVIEW
+        int[] topSlots = new int[Math.min(TOP_PRIORITIES, masteries.size())];
+        double[] topPriorities = new double[topSlots.length];
+        int topCount = 0;
+        int bestStrongSlot = -1;
+        double bestStrongPriority = 0;
+
+        for (int slot = 0; slot < masteries.size(); slot++) {
+            double mastery = masteries.getMastery(slot);
+            double priority = calculatePriority(mastery,
+                    recentSkillIds != null && recentSkillIds.contains(masteries.getSkillId(slot)));
+
+            if (mastery >= STRONG_THRESHOLD && (bestStrongSlot < 0 || priority > bestStrongPriority)) {
+                bestStrongSlot = slot;
+                bestStrongPriority = priority;
+            }
+
+            if (topCount < topSlots.length || priority > topPriorities[topCount - 1]) {
+                int i = topCount < topSlots.length ? topCount++ : topCount - 1;
+                while (i > 0 && topPriorities[i - 1] < priority) {
+                    topSlots[i] = topSlots[i - 1];
+                    topPriorities[i] = topPriorities[i - 1];
+                    i--;
+                }
+                topSlots[i] = slot;
+                topPriorities[i] = priority;
+            }
+        }
+
+        // For REVIEW sessions, focus on strong skills to maintain them
+        if (sessionType == SessionType.REVIEW) {
+            return masteries.getSkillId(bestStrongSlot >= 0 ? bestStrongSlot : topSlots[0]);
+        }
+
+        // For ADAPTIVE and MIXED, use weighted random selection from top priorities
+        double totalPriority = 0;
+        for (int i = 0; i < topCount; i++) {
+            totalPriority += topPriorities[i];
+        }
+        if (totalPriority <= 0) {
+            return masteries.getSkillId(topSlots[0]);
+        }
+
+        double random = ThreadLocalRandom.current().nextDouble() * totalPriority;
+        double cumulative = 0;
+        for (int i = 0; i < topCount; i++) {
+            cumulative += topPriorities[i];
+            if (random <= cumulative) {
+                return masteries.getSkillId(topSlots[i]);
+            }
+        }
+        return masteries.getSkillId(topSlots[topCount - 1]);
     }
 
     /**
@@ -95,6 +186,15 @@ public class QuestionSelector {
     private SkillPriority calculateSkillPriority(Long skillId, BigDecimal mastery, Set<Long> recentSkillIds) {
         double masteryValue = mastery != null ? mastery.doubleValue() : 0.5;
 
+        return SkillPriority.builder()
+                .skillId(skillId)
+                .mastery(masteryValue)
+                .priority(calculatePriority(masteryValue,
+                        recentSkillIds != null && recentSkillIds.contains(skillId)))
+                .build();
+    }
+
+    private static double calculatePriority(double masteryValue, boolean recent) {
         // Base priority inversely proportional to mastery
         // Weak skills (0.0-0.4) get priority 1.0-0.6
         // Medium skills (0.4-0.6) get priority 0.6-0.4
@@ -107,15 +207,11 @@ public class QuestionSelector {
         }
 
         // Penalty for recently practiced skills
-        if (recentSkillIds != null && recentSkillIds.contains(skillId)) {
+        if (recent) {
             priority -= 0.5;
         }
 
-        return SkillPriority.builder()
-                .skillId(skillId)
-                .mastery(masteryValue)
-                .priority(priority)
-                .build();
+        return priority;
     }
 
     /**
@@ -136,7 +232,7 @@ public class QuestionSelector {
             return priorities.get(0).getSkillId();
         }
 
-        double random = Math.random() * totalPriority;
+        double random = ThreadLocalRandom.current().nextDouble() * totalPriority;
         double cumulative = 0;
 
         for (SkillPriority p : priorities) {
@@ -159,6 +255,16 @@ public class QuestionSelector {
         return masteryCalculator.getTargetDifficulty(mastery);
     }
 
+    /**
+     * Select target difficulty for a question based on mastery.
+     *
+     * @param mastery Current mastery level for the skill
+     * @return Target difficulty level
+     */
+    public DifficultyLevel selectTargetDifficulty(double mastery) {
+        return masteryCalculator.getTargetDifficulty(mastery);
+    }
+
     /**
      * Filter out recently seen questions.
      *
@@ -188,6 +294,43 @@ public class QuestionSelector {
         return filtered;
     }
 
+    /**
+     * Pick a random question from a pool, avoiding recently answered ones.
+     * <p>
+     * Random probes find an unseen question in a few tries whenever the pool is much larger than the recent
+     * window; the scan from a random start only runs when most of the pool was seen, so the cost is bounded
+     * by the window size rather than the pool size. When every question was seen, any pool question is
+     * returned (as {@link #filterRecentQuestions} does).
+     *
+     * @param pool   Candidate question IDs
+     * @param recent Recently answered question IDs, may be null
+     * @return Selected question ID, or {@link #NO_QUESTION} when the pool is empty
+     */
+    public long pickQuestion(long[] pool, RecentQuestions recent) {
+        if (pool == null || pool.length == 0) {
+            return NO_QUESTION;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            long questionId = pool[random.nextInt(pool.length)];
+            if (recent == null || !recent.contains(questionId)) {
+                return questionId;
+            }
+        }
+
+        int start = random.nextInt(pool.length);
+        for (int i = 0; i < pool.length; i++) {
+            long questionId = pool[(start + i) % pool.length];
+            if (!recent.contains(questionId)) {
+                return questionId;
+            }
+        }
+
+        log.warn("All candidate questions have been seen recently, picking from the full pool");
+        return pool[start];
+    }
+
     /**
      * Select questions for diagnostic test ensuring skill coverage.
      *
@@ -0,0 +1,48 @@
+package com.hth.udecareer.eil.algorithm;
+
+/**
+ * Ring buffer of the question ids a session answered last, oldest dropped first.
+ * <p>
+ * The capacity is small ({@link QuestionSelector#getRecentQuestionsBufferSize()}), so membership is a scan
+ * of at most that many longs. Not thread-safe.
+ */
+public final class RecentQuestions {
+
+    private final long[] ring;
+    private int size;
+    private int next;
+
+    public RecentQuestions(int capacity) {
+        this.ring = new long[capacity];
+    }
+
+    public RecentQuestions(RecentQuestions other) {
+        this.ring = other.ring.clone();
+        this.size = other.size;
+        this.next = other.next;
+    }
+
+    public void add(long questionId) {
+        if (ring.length == 0 || contains(questionId)) {
+            return;
+        }
+        ring[next] = questionId;
+        next = (next + 1) % ring.length;
+        if (size < ring.length) {
+            size++;
+        }
+    }
+
+    public boolean contains(long questionId) {
+        for (int i = 0; i < size; i++) {
+            if (ring[i] == questionId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -7,10 +7,9 @@ import com.hth.udecareer.eil.model.response.DiagnosticHistoryResponse;
 import com.hth.udecareer.eil.model.response.DiagnosticResultResponse;
 import com.hth.udecareer.eil.model.response.DiagnosticSessionResponse;
 import com.hth.udecareer.eil.service.DiagnosticService;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,7 +29,7 @@ import java.security.Principal;
 public class DiagnosticController {
 
     private final DiagnosticService diagnosticService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @PostMapping("/start")
     @Operation(summary = "Start diagnostic test", description = "Start a new diagnostic test to assess initial skill levels")
@@ -143,29 +142,19 @@ public class DiagnosticController {
     public ResponseEntity<DiagnosticHistoryResponse> getDiagnosticHistory(
             @Parameter(hidden = true) Principal principal,
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) throws AppException {
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Cursor from the previous page's nextCursor (takes precedence over page)")
+            @RequestParam(required = false) String cursor) throws AppException {
 
         Long userId = getUserIdFromPrincipal(principal);
         log.debug("Getting diagnostic history for user {}", userId);
-        DiagnosticHistoryResponse response = diagnosticService.getDiagnosticHistory(userId, page, size);
+        DiagnosticHistoryResponse response = diagnosticService.getDiagnosticHistory(userId, page, size, cursor);
         return ResponseEntity.ok(response);
     }
 
     // ============= HELPER METHODS =============
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
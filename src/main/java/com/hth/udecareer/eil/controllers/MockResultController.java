@@ -5,10 +5,9 @@ import com.hth.udecareer.eil.model.request.SaveMockResultRequest;
 import com.hth.udecareer.eil.model.response.MockResultResponse;
 import com.hth.udecareer.eil.model.response.MockResultStatsResponse;
 import com.hth.udecareer.eil.service.MockResultService;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -28,7 +27,7 @@ import java.security.Principal;
 public class MockResultController {
 
     private final MockResultService mockResultService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @Operation(
             summary = "Save mock test result",
@@ -103,18 +102,6 @@ public class MockResultController {
     }
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
@@ -3,11 +3,10 @@ package com.hth.udecareer.eil.controllers;
 import com.hth.udecareer.eil.model.request.PatternAnalysisRequest;
 import com.hth.udecareer.eil.model.response.PatternAnalysisResponse;
 import com.hth.udecareer.eil.service.PatternDetectionService;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.response.ApiResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,7 +27,7 @@ import java.security.Principal;
 public class PatternAnalysisController {
 
     private final PatternDetectionService patternDetectionService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @PostMapping("/analyze")
     @Operation(summary = "Analyze session patterns", description = "Analyze a completed session to detect learning patterns")
@@ -100,18 +99,6 @@ public class PatternAnalysisController {
     // ============= HELPER METHODS =============
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
@@ -3,13 +3,13 @@ package com.hth.udecareer.eil.controllers;
 import com.hth.udecareer.eil.model.request.PracticeStartRequest;
 import com.hth.udecareer.eil.model.request.PracticeSubmitRequest;
 import com.hth.udecareer.eil.model.response.NextQuestionResponse;
+import com.hth.udecareer.eil.model.response.PracticeHistoryResponse;
 import com.hth.udecareer.eil.model.response.PracticeResultResponse;
 import com.hth.udecareer.eil.model.response.PracticeSessionResponse;
 import com.hth.udecareer.eil.service.PracticeService;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,7 +29,7 @@ import java.security.Principal;
 public class PracticeController {
 
     private final PracticeService practiceService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @PostMapping("/start")
     @Operation(summary = "Start practice session", description = "Start a new adaptive practice session")
@@ -102,21 +102,23 @@ public class PracticeController {
         return ResponseEntity.ok(response);
     }
 
-    // ============= HELPER METHODS =============
-
-    private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
+    @GetMapping("/history")
+    @Operation(summary = "Get practice history", description = "Get user's completed practice sessions, newest first")
+    public ResponseEntity<PracticeHistoryResponse> getPracticeHistory(
+            @Parameter(hidden = true) Principal principal,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Cursor from the previous page's nextCursor")
+            @RequestParam(required = false) String cursor) throws AppException {
 
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
+        Long userId = getUserIdFromPrincipal(principal);
+        log.debug("Getting practice history for user {}", userId);
+        PracticeHistoryResponse response = practiceService.getPracticeHistory(userId, size, cursor);
+        return ResponseEntity.ok(response);
+    }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
+    // ============= HELPER METHODS =============
 
-        return user.getId();
+    private Long getUserIdFromPrincipal(Principal principal) throws AppException {
+        return currentUserResolver.getUserId(principal);
     }
 }
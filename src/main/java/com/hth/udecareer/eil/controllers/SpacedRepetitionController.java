@@ -3,11 +3,10 @@ package com.hth.udecareer.eil.controllers;
 import com.hth.udecareer.eil.model.request.SrsCardRequest;
 import com.hth.udecareer.eil.model.response.SrsCardResponse;
 import com.hth.udecareer.eil.service.SpacedRepetitionService;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.response.ApiResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,7 +28,7 @@ import java.util.List;
 public class SpacedRepetitionController {
 
     private final SpacedRepetitionService srsService;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @PostMapping("/cards")
     @Operation(summary = "Create SRS card", description = "Create a new SRS card for a question")
@@ -182,18 +181,6 @@ public class SpacedRepetitionController {
     // ============= HELPER METHODS =============
 
     private Long getUserIdFromPrincipal(Principal principal) throws AppException {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
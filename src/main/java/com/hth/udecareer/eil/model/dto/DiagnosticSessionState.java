@@ -0,0 +1,83 @@
+package com.hth.udecareer.eil.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Working state of a diagnostic session: question list, answered set, counters and the adaptive
+ * early-termination state that the attempt row keeps in its {@code metadata} JSON.
+ * <p>
+ * Held in the session-state store while the session is in progress and written back to the attempt row
+ * at checkpoints and when the session ends.
+ */
+@Data
+@NoArgsConstructor
+public class DiagnosticSessionState {
+
+    // Wrong answers in a row that terminate a skill
+    public static final int SKILL_TERMINATION_WRONG = 2;
+
+    private Long attemptId;
+    private String sessionId;
+    private Long userId;
+    private String status;
+    private String mode;
+    private String certificationCode;
+    private String careerPath;
+
+    private int totalQuestions;
+    private int answeredQuestions;
+    private int correctCount;
+    private int timeSpentSeconds;
+
+    private List<Long> questionIds = new ArrayList<>();
+    private Set<Long> answeredQuestionIds = new LinkedHashSet<>();
+
+    private int consecutiveWrong;
+    private Map<Long, Integer> skillConsecutiveWrong = new HashMap<>();
+    private Set<Long> terminatedSkills = new LinkedHashSet<>();
+    private String terminationReason;
+
+    // Answers recorded since the attempt row was last written
+    private int unsavedAnswers;
+
+    /**
+     * Apply one answer to the counters and adaptive state.
+     *
+     * @return {@code true} when this answer terminated its skill
+     */
+    public boolean recordAnswer(long questionId, Long skillId, boolean isCorrect, int timeSpent) {
+        answeredQuestionIds.add(questionId);
+        answeredQuestions++;
+        timeSpentSeconds += timeSpent;
+        unsavedAnswers++;
+
+        if (isCorrect) {
+            correctCount++;
+            consecutiveWrong = 0;
+            if (skillId != null) {
+                skillConsecutiveWrong.put(skillId, 0);
+            }
+            return false;
+        }
+
+        consecutiveWrong++;
+        if (skillId == null) {
+            return false;
+        }
+        int skillWrong = skillConsecutiveWrong.getOrDefault(skillId, 0) + 1;
+        skillConsecutiveWrong.put(skillId, skillWrong);
+        return skillWrong >= SKILL_TERMINATION_WRONG && terminatedSkills.add(skillId);
+    }
+
+    public int skillWrongCount(Long skillId) {
+        return skillId != null ? skillConsecutiveWrong.getOrDefault(skillId, 0) : 0;
+    }
+}
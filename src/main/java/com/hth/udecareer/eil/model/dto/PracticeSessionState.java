@@ -0,0 +1,35 @@
+package com.hth.udecareer.eil.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Working state of a practice session: last answered questions (oldest first) and practiced skills.
+ */
+@Data
+@NoArgsConstructor
+public class PracticeSessionState {
+
+    private List<Long> recentQuestionIds = new ArrayList<>();
+    private Set<Long> skillIds = new LinkedHashSet<>();
+
+    /**
+     * Record an answered question, keeping at most {@code capacity} recent questions.
+     */
+    public void recordAttempt(long questionId, Long skillId, int capacity) {
+        if (!recentQuestionIds.contains(questionId)) {
+            recentQuestionIds.add(questionId);
+            while (recentQuestionIds.size() > capacity) {
+                recentQuestionIds.remove(0);
+            }
+        }
+        if (skillId != null) {
+            skillIds.add(skillId);
+        }
+    }
+}
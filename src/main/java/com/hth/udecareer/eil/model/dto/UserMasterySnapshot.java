@@ -0,0 +1,101 @@
+package com.hth.udecareer.eil.model.dto;
+
+import com.hth.udecareer.eil.util.LongLongHashMap;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Read-only copy of one user's skill masteries, as held by the in-memory mastery state.
+ * <p>
+ * Values are kept in primitive arrays indexed by slot ({@code 0 .. size() - 1}); {@link #indexOf(long)}
+ * maps a skill id to its slot.
+ */
+public final class UserMasterySnapshot {
+
+    public static final int NOT_FOUND = -1;
+
+    private final long version;
+    private final LongLongHashMap index;
+    private final long[] skillIds;
+    private final double[] masteries;
+    private final int[] attempts;
+    private final int[] correctCounts;
+    private final int[] streaks;
+    private final long[] lastPracticedMillis;
+
+    /**
+     * @param version             state version the copy was taken at
+     * @param index               skill id → slot; must not be modified afterwards
+     * @param lastPracticedMillis epoch millis per slot, {@code 0} when never practiced
+     */
+    public UserMasterySnapshot(long version, LongLongHashMap index, long[] skillIds, double[] masteries, int[] attempts,
+                               int[] correctCounts, int[] streaks, long[] lastPracticedMillis) {
+        this.version = version;
+        this.index = index;
+        this.skillIds = skillIds;
+        this.masteries = masteries;
+        this.attempts = attempts;
+        this.correctCounts = correctCounts;
+        this.streaks = streaks;
+        this.lastPracticedMillis = lastPracticedMillis;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return skillIds.length;
+    }
+
+    public boolean isEmpty() {
+        return skillIds.length == 0;
+    }
+
+    public int indexOf(long skillId) {
+        return (int) index.get(skillId);
+    }
+
+    public long getSkillId(int slot) {
+        return skillIds[slot];
+    }
+
+    public double getMastery(int slot) {
+        return masteries[slot];
+    }
+
+    public int getAttempts(int slot) {
+        return attempts[slot];
+    }
+
+    public int getCorrectCount(int slot) {
+        return correctCounts[slot];
+    }
+
+    public int getStreak(int slot) {
+        return streaks[slot];
+    }
+
+    public LocalDateTime getLastPracticedAt(int slot) {
+        long millis = lastPracticedMillis[slot];
+        return millis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Mastery of a skill, or {@code defaultValue} when the user has no row for it.
+     */
+    public double getMasteryOf(long skillId, double defaultValue) {
+        int slot = indexOf(skillId);
+        return slot == NOT_FOUND ? defaultValue : masteries[slot];
+    }
+
+    public long getTotalAttempts() {
+        long total = 0;
+        for (int count : attempts) {
+            total += count;
+        }
+        return total;
+    }
+}
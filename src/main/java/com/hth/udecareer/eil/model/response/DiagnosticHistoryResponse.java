@@ -20,7 +20,7 @@ public class DiagnosticHistoryResponse {
     @Schema(description = "List of diagnostic attempts")
     private List<DiagnosticHistoryItem> items;
 
-    @Schema(description = "Total number of completed diagnostics", example = "5")
+    @Schema(description = "Total number of completed diagnostics (only on page requests without cursor)", example = "5")
     private Long totalCount;
 
     @Schema(description = "Current page number", example = "0")
@@ -29,6 +29,12 @@ public class DiagnosticHistoryResponse {
     @Schema(description = "Page size", example = "10")
     private Integer size;
 
+    @Schema(description = "Cursor for the next page; null when there are no more items")
+    private String nextCursor;
+
+    @Schema(description = "Whether more items exist after this page", example = "true")
+    private Boolean hasMore;
+
     @Data
     @Builder
     @NoArgsConstructor
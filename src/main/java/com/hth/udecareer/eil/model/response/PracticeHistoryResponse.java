@@ -0,0 +1,29 @@
+package com.hth.udecareer.eil.model.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Response containing a page of user's completed practice sessions")
+public class PracticeHistoryResponse {
+
+    @Schema(description = "Completed practice sessions, newest first")
+    private List<PracticeSessionResponse> items;
+
+    @Schema(description = "Page size", example = "10")
+    private Integer size;
+
+    @Schema(description = "Cursor for the next page; null when there are no more items")
+    private String nextCursor;
+
+    @Schema(description = "Whether more items exist after this page", example = "true")
+    private Boolean hasMore;
+}
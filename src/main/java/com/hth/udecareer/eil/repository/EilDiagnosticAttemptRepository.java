@@ -1,12 +1,14 @@
 package com.hth.udecareer.eil.repository;
 
 import com.hth.udecareer.eil.entities.EilDiagnosticAttemptEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +31,25 @@ public interface EilDiagnosticAttemptRepository extends JpaRepository<EilDiagnos
     @Query("SELECT d FROM EilDiagnosticAttemptEntity d WHERE d.userId = :userId AND d.status = 'COMPLETED' ORDER BY d.endTime DESC")
     List<EilDiagnosticAttemptEntity> findCompletedByUserId(@Param("userId") Long userId);
 
+    /**
+     * First page of completed attempts, newest first (index idx_eil_diag_user_completed).
+     * Legacy rows without an end time have no keyset position and are left out of the history pages.
+     */
+    @Query("SELECT d FROM EilDiagnosticAttemptEntity d WHERE d.userId = :userId AND d.status = 'COMPLETED' " +
+           "AND d.endTime IS NOT NULL ORDER BY d.endTime DESC, d.id DESC")
+    List<EilDiagnosticAttemptEntity> findCompletedPage(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Completed attempts strictly after the keyset position {@code (endTime, id)}, newest first.
+     */
+    @Query("SELECT d FROM EilDiagnosticAttemptEntity d WHERE d.userId = :userId AND d.status = 'COMPLETED' " +
+           "AND d.endTime IS NOT NULL AND (d.endTime < :endTime OR (d.endTime = :endTime AND d.id < :id)) " +
+           "ORDER BY d.endTime DESC, d.id DESC")
+    List<EilDiagnosticAttemptEntity> findCompletedPageAfter(@Param("userId") Long userId,
+                                                            @Param("endTime") LocalDateTime endTime,
+                                                            @Param("id") Long id,
+                                                            Pageable pageable);
+
     @Query("SELECT d FROM EilDiagnosticAttemptEntity d WHERE d.userId = :userId AND d.testType = :testType AND d.status = 'COMPLETED' ORDER BY d.endTime DESC")
     List<EilDiagnosticAttemptEntity> findCompletedByUserIdAndTestType(@Param("userId") Long userId, @Param("testType") String testType);
 
@@ -38,6 +59,13 @@ public interface EilDiagnosticAttemptRepository extends JpaRepository<EilDiagnos
     @Query("SELECT COUNT(d) FROM EilDiagnosticAttemptEntity d WHERE d.userId = :userId AND d.status = 'COMPLETED'")
     long countCompletedByUserId(@Param("userId") Long userId);
 
+    /**
+     * Completed attempts listed by the history pages, i.e. those with an end time.
+     */
+    @Query("SELECT COUNT(d) FROM EilDiagnosticAttemptEntity d WHERE d.userId = :userId AND d.status = 'COMPLETED' " +
+           "AND d.endTime IS NOT NULL")
+    long countCompletedWithEndTimeByUserId(@Param("userId") Long userId);
+
     @Modifying
     @Query("UPDATE EilDiagnosticAttemptEntity d SET d.status = :status WHERE d.sessionId = :sessionId")
     int updateStatus(@Param("sessionId") String sessionId, @Param("status") String status);
@@ -46,5 +74,14 @@ public interface EilDiagnosticAttemptRepository extends JpaRepository<EilDiagnos
     @Query("UPDATE EilDiagnosticAttemptEntity d SET d.answeredQuestions = d.answeredQuestions + 1 WHERE d.sessionId = :sessionId")
     int incrementAnsweredQuestions(@Param("sessionId") String sessionId);
 
+    /**
+     * Write the progress of an in-progress session in one statement (metadata is kept when null).
+     */
+    @Modifying
+    @Query("UPDATE EilDiagnosticAttemptEntity d SET d.answeredQuestions = :answered, d.timeSpentSeconds = :timeSpent, " +
+           "d.metadata = COALESCE(:metadata, d.metadata) WHERE d.id = :id")
+    int checkpoint(@Param("id") Long id, @Param("answered") int answeredQuestions,
+                   @Param("timeSpent") int timeSpentSeconds, @Param("metadata") String metadata);
+
     boolean existsBySessionId(String sessionId);
 }
@@ -32,6 +32,25 @@ public interface EilPracticeSessionRepository extends JpaRepository<EilPracticeS
     @Query("SELECT p FROM EilPracticeSessionEntity p WHERE p.userId = :userId AND p.status = 'COMPLETED' ORDER BY p.endTime DESC")
     List<EilPracticeSessionEntity> findCompletedByUserId(@Param("userId") Long userId);
 
+    /**
+     * First page of completed sessions, newest first (index idx_eil_practice_user_completed).
+     * Legacy rows without an end time have no keyset position and are left out of the history pages.
+     */
+    @Query("SELECT p FROM EilPracticeSessionEntity p WHERE p.userId = :userId AND p.status = 'COMPLETED' " +
+           "AND p.endTime IS NOT NULL ORDER BY p.endTime DESC, p.id DESC")
+    List<EilPracticeSessionEntity> findCompletedPage(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Completed sessions strictly after the keyset position {@code (endTime, id)}, newest first.
+     */
+    @Query("SELECT p FROM EilPracticeSessionEntity p WHERE p.userId = :userId AND p.status = 'COMPLETED' " +
+           "AND p.endTime IS NOT NULL AND (p.endTime < :endTime OR (p.endTime = :endTime AND p.id < :id)) " +
+           "ORDER BY p.endTime DESC, p.id DESC")
+    List<EilPracticeSessionEntity> findCompletedPageAfter(@Param("userId") Long userId,
+                                                          @Param("endTime") LocalDateTime endTime,
+                                                          @Param("id") Long id,
+                                                          Pageable pageable);
+
     @Query("SELECT p FROM EilPracticeSessionEntity p WHERE p.userId = :userId AND p.sessionType = :type ORDER BY p.createdAt DESC")
     List<EilPracticeSessionEntity> findByUserIdAndSessionType(@Param("userId") Long userId, @Param("type") String sessionType);
 
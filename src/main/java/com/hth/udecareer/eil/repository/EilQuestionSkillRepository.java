@@ -58,5 +58,9 @@ public interface EilQuestionSkillRepository extends JpaRepository<EilQuestionSki
            "WHERE s.category = :category")
     List<Long> findQuestionIdsBySkillCategory(@Param("category") String category);
 
+    @Query(value = "SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(id), 0), ':', COALESCE(MAX(updated_at), '')) FROM eil_question_skills",
+           nativeQuery = true)
+    String findChangeSignature();
+
     void deleteByQuestionId(Long questionId);
 }
@@ -59,6 +59,11 @@ public interface WpEzQuestionSkillRepository extends JpaRepository<WpEzQuestionS
     @Query("SELECT qs.skillId FROM WpEzQuestionSkillEntity qs WHERE qs.questionId = :questionId")
     List<Long> findSkillIdsByQuestionId(@Param("questionId") Long questionId);
 
+    // Change-detection signature for in-memory indexes (row count + latest mapping)
+    @Query(value = "SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(id), 0), ':', COALESCE(MAX(mapped_at), '')) FROM wp_ez_question_skills",
+           nativeQuery = true)
+    String findChangeSignature();
+
     // Delete mappings by question
     void deleteByQuestionId(Long questionId);
 
@@ -17,6 +17,13 @@ public interface WpEzSkillRepository extends JpaRepository<WpEzSkillEntity, Long
 
     List<WpEzSkillEntity> findByCertificationIdOrderBySortOrderAsc(String certificationId);
 
+    List<WpEzSkillEntity> findByStatusOrderBySortOrderAsc(String status);
+
+    // Change-detection signature for in-memory indexes (row count + latest update)
+    @Query(value = "SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(id), 0), ':', COALESCE(MAX(updated_at), '')) FROM wp_ez_skills",
+           nativeQuery = true)
+    String findChangeSignature();
+
     // Find root skills (no parent)
     @Query("SELECT s FROM WpEzSkillEntity s WHERE s.parentId IS NULL AND s.status = 'active' ORDER BY s.sortOrder")
     List<WpEzSkillEntity> findAllRootSkills();
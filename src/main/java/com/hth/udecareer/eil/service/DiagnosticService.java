@@ -4,6 +4,7 @@ import com.hth.udecareer.eil.algorithm.QuestionSelector;
 import com.hth.udecareer.eil.entities.*;
 import com.hth.udecareer.eil.enums.DifficultyLevel;
 import com.hth.udecareer.eil.enums.SessionStatus;
+import com.hth.udecareer.eil.model.dto.DiagnosticSessionState;
 import com.hth.udecareer.eil.model.request.DiagnosticAnswerRequest;
 import com.hth.udecareer.eil.model.request.DiagnosticStartRequest;
 import com.hth.udecareer.eil.model.response.DiagnosticAnswerResponse;
@@ -12,14 +13,18 @@ import com.hth.udecareer.eil.model.response.DiagnosticResultResponse;
 import com.hth.udecareer.eil.model.response.DiagnosticSessionResponse;
 import com.hth.udecareer.eil.repository.EilDiagnosticAnswerRepository;
 import com.hth.udecareer.eil.repository.EilDiagnosticAttemptRepository;
-import com.hth.udecareer.entities.QuestionEntity;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
+import com.hth.udecareer.model.dto.AnswerKey;
+import com.hth.udecareer.model.request.PaginationRequest;
 import com.hth.udecareer.model.response.QuestionResponse;
-import com.hth.udecareer.repository.QuestionRepository;
+import com.hth.udecareer.service.GradingEngine;
+import com.hth.udecareer.service.cache.QuestionBankCache;
+import com.hth.udecareer.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -48,8 +53,10 @@ public class DiagnosticService {
     private final MasteryService masteryService;
     private final ReadinessService readinessService;
     private final QuestionSelector questionSelector;
-    private final QuestionRepository questionRepository;
+    private final QuestionBankCache questionBankCache;
+    private final GradingEngine gradingEngine;
     private final ObjectMapper objectMapper;
+    private final SessionStateStore sessionStateStore;
 
     @Value("${eil.diagnostic.default-questions:30}")
     private int defaultQuestions;
@@ -57,6 +64,9 @@ public class DiagnosticService {
     @Value("${eil.diagnostic.timeout-minutes:60}")
     private int timeoutMinutes;
 
+    @Value("${eil.diagnostic.checkpoint-every:5}")
+    private int checkpointEvery;
+
     /**
      * Start a new diagnostic test.
      * Supports two modes:
@@ -121,6 +131,7 @@ public class DiagnosticService {
                 .build();
 
         attempt = attemptRepository.save(attempt);
+        saveState(newState(attempt, selectedQuestions, mode, certificationCode, careerPath));
 
         log.info("Started diagnostic session {} for user {} with {} questions (mode: {})",
                 sessionId, userId, selectedQuestions.size(), mode);
@@ -197,17 +208,8 @@ public class DiagnosticService {
             return Collections.emptyList();
         }
 
-        List<QuestionEntity> questions = questionRepository.findAllById(questionIds);
-
-        // Create a map for ordering
-        Map<Long, QuestionEntity> questionMap = questions.stream()
-                .collect(Collectors.toMap(QuestionEntity::getId, q -> q));
-
-        // Return in the same order as questionIds
-        return questionIds.stream()
-                .filter(questionMap::containsKey)
-                .map(id -> QuestionResponse.from(questionMap.get(id)))
-                .collect(Collectors.toList());
+        // Returned in the same order as questionIds
+        return questionBankCache.getAll(questionIds);
     }
 
     /**
@@ -218,25 +220,21 @@ public class DiagnosticService {
      */
     @Transactional
     public DiagnosticAnswerResponse submitAnswer(Long userId, DiagnosticAnswerRequest request) throws AppException {
-        // Find active session
-        EilDiagnosticAttemptEntity attempt = attemptRepository
-                .findBySessionId(request.getSessionId())
-                .orElseThrow(() -> new AppException(ErrorCode.EIL_DIAGNOSTIC_SESSION_NOT_FOUND));
+        // Find active session (typed state, no attempt row read)
+        DiagnosticSessionState state = loadState(request.getSessionId());
 
         // Validate ownership
-        if (!attempt.getUserId().equals(userId)) {
+        if (!userId.equals(state.getUserId())) {
             throw new AppException(ErrorCode.UNAUTHORIZED);
         }
 
         // Check status
-        if (!SessionStatus.IN_PROGRESS.getCode().equals(attempt.getStatus())) {
+        if (!SessionStatus.IN_PROGRESS.getCode().equals(state.getStatus())) {
             throw new AppException(ErrorCode.EIL_DIAGNOSTIC_ALREADY_COMPLETED);
         }
 
         // Check if question already answered
-        Optional<EilDiagnosticAnswerEntity> existingAnswer = answerRepository
-                .findByDiagnosticAttemptIdAndQuestionId(attempt.getId(), request.getQuestionId());
-        if (existingAnswer.isPresent()) {
+        if (state.getAnsweredQuestionIds().contains(request.getQuestionId())) {
             throw new AppException(ErrorCode.EIL_DIAGNOSTIC_QUESTION_ALREADY_ANSWERED);
         }
 
@@ -257,10 +255,10 @@ public class DiagnosticService {
 
         // Save answer - skillId can be NULL if no mapping exists (DB allows NULL)
         EilDiagnosticAnswerEntity answer = EilDiagnosticAnswerEntity.builder()
-                .diagnosticAttemptId(attempt.getId())
+                .diagnosticAttemptId(state.getAttemptId())
                 .questionId(request.getQuestionId())
                 .skillId(skillId)
-                .questionOrder(attempt.getAnsweredQuestions() + 1)
+                .questionOrder(state.getAnsweredQuestions() + 1)
                 .userAnswer(userAnswerStr)
                 .isCorrect(isCorrect)
                 .timeSpentSeconds(timeSpent)
@@ -269,10 +267,6 @@ public class DiagnosticService {
 
         answerRepository.save(answer);
 
-        // Update attempt stats
-        attempt.setAnsweredQuestions(attempt.getAnsweredQuestions() + 1);
-        attempt.setTimeSpentSeconds(attempt.getTimeSpentSeconds() + timeSpent);
-
         // Update mastery if skill found
         if (skillId != null) {
             masteryService.updateMastery(userId, skillId, isCorrect, DifficultyLevel.MEDIUM);
@@ -280,56 +274,39 @@ public class DiagnosticService {
 
         // ============= ADAPTIVE EARLY TERMINATION LOGIC =============
 
-        // Parse metadata for tracking
-        Map<String, Object> metadata = parseMetadata(attempt.getMetadata());
-        int consecutiveWrong = getIntFromMetadata(metadata, "consecutiveWrong", 0);
-
         // Check if should auto-terminate (3 consecutive wrong)
-        boolean shouldAutoTerminate = !isCorrect && consecutiveWrong >= 2; // Will be 3 after update
+        boolean shouldAutoTerminate = !isCorrect && state.getConsecutiveWrong() >= 2; // Will be 3 after update
         String terminationReason = shouldAutoTerminate ? "3 consecutive wrong answers" : null;
 
-        // Update metadata tracking
-        String updatedMetadata = updateMetadataTracking(
-                attempt.getMetadata(),
-                isCorrect,
-                skillId,
-                shouldAutoTerminate,
-                terminationReason
-        );
-        attempt.setMetadata(updatedMetadata);
+        // Update counters and adaptive tracking
+        if (state.recordAnswer(request.getQuestionId(), skillId, isCorrect, timeSpent)) {
+            log.info("Skill {} terminated after {} consecutive wrong answers",
+                    skillId, DiagnosticSessionState.SKILL_TERMINATION_WRONG);
+        }
+        if (shouldAutoTerminate) {
+            state.setTerminationReason(terminationReason);
+        }
 
         // Get updated counters for response
-        Map<String, Object> updatedMetadataMap = parseMetadata(updatedMetadata);
-        int newConsecutiveWrong = getIntFromMetadata(updatedMetadataMap, "consecutiveWrong", 0);
-        int newSkillConsecutiveWrong = skillId != null
-                ? getIntFromMetadata(updatedMetadataMap, "skillConsecutiveWrong." + skillId, 0)
-                : 0;
+        int newConsecutiveWrong = state.getConsecutiveWrong();
+        int newSkillConsecutiveWrong = state.skillWrongCount(skillId);
 
         // Auto-terminate if conditions met
         if (shouldAutoTerminate) {
-            attempt.setStatus(SessionStatus.COMPLETED.getCode());
-            attempt.setEndTime(LocalDateTime.now());
-
-            long correctCount = answerRepository.countCorrectByDiagnosticAttemptId(attempt.getId());
-            double rawScore = attempt.getTotalQuestions() > 0
-                    ? ((double) correctCount / attempt.getTotalQuestions()) * 100
-                    : 0.0;
-            attempt.setRawScore(BigDecimal.valueOf(rawScore));
-
-            attemptRepository.save(attempt);
+            endSession(state, null, SessionStatus.COMPLETED);
 
             log.info("Diagnostic session {} auto-terminated: {}", request.getSessionId(), terminationReason);
 
             // Build adaptive state for terminated session
             DiagnosticSessionResponse.AdaptiveState adaptiveState = buildAdaptiveState(
-                    (int) correctCount,
-                    attempt.getAnsweredQuestions(),
-                    attempt.getTotalQuestions()
+                    state.getCorrectCount(),
+                    state.getAnsweredQuestions(),
+                    state.getTotalQuestions()
             );
 
             return DiagnosticAnswerResponse.builder()
                     .isCorrect(isCorrect)
-                    .questionsAnswered(attempt.getAnsweredQuestions())
+                    .questionsAnswered(state.getAnsweredQuestions())
                     .questionsRemaining(0)
                     .nextQuestion(null)
                     .currentProgress(1.0)
@@ -344,90 +321,53 @@ public class DiagnosticService {
         }
 
         // Check if normally complete
-        boolean isComplete = attempt.getAnsweredQuestions() >= attempt.getTotalQuestions();
-
-        if (isComplete) {
-            attempt.setStatus(SessionStatus.COMPLETED.getCode());
-            attempt.setEndTime(LocalDateTime.now());
-
-            long correctCount = answerRepository.countCorrectByDiagnosticAttemptId(attempt.getId());
-            double rawScore = attempt.getTotalQuestions() > 0
-                    ? ((double) correctCount / attempt.getTotalQuestions()) * 100
-                    : 0.0;
-            attempt.setRawScore(BigDecimal.valueOf(rawScore));
-        }
-
-        attemptRepository.save(attempt);
+        boolean isComplete = state.getAnsweredQuestions() >= state.getTotalQuestions();
 
         // Get next question if not complete
         QuestionResponse nextQuestion = null;
         String nextSkillName = null;
         int nextSkillConsecutiveWrong = 0;
 
-        if (!isComplete) {
+        if (isComplete) {
+            endSession(state, null, SessionStatus.COMPLETED);
+        } else {
             // Find next unanswered question from non-terminated skill
-            List<Long> questionIds = getQuestionIdsFromMetadata(updatedMetadataMap);
-            Set<Long> terminatedSkills = getTerminatedSkillsFromMetadata(updatedMetadataMap);
-            Set<Long> answeredQuestionIds = getAnsweredQuestionIds(attempt.getId());
-
-            for (Long qId : questionIds) {
-                if (answeredQuestionIds.contains(qId)) {
-                    continue;
-                }
-
-                Long nextSkillId = skillService.getPrimarySkillIdForQuestion(qId);
-                if (nextSkillId != null && terminatedSkills.contains(nextSkillId)) {
-                    continue; // Skip terminated skill
-                }
-
-                // Found next question
-                nextQuestion = questionRepository.findById(qId)
-                        .map(QuestionResponse::from)
-                        .orElse(null);
-
+            Long nextQuestionId = findNextQuestionId(state);
+            if (nextQuestionId != null) {
+                nextQuestion = questionBankCache.findById(nextQuestionId).orElse(null);
+                Long nextSkillId = skillService.getPrimarySkillIdForQuestion(nextQuestionId);
                 if (nextQuestion != null && nextSkillId != null) {
                     nextSkillName = getSkillName(nextSkillId);
-                    nextSkillConsecutiveWrong = getIntFromMetadata(
-                            updatedMetadataMap,
-                            "skillConsecutiveWrong." + nextSkillId,
-                            0
-                    );
+                    nextSkillConsecutiveWrong = state.skillWrongCount(nextSkillId);
                 }
-                break;
             }
 
             // If no valid next question, auto-complete
             if (nextQuestion == null) {
-                attempt.setStatus(SessionStatus.COMPLETED.getCode());
-                attempt.setEndTime(LocalDateTime.now());
-                long correctCount = answerRepository.countCorrectByDiagnosticAttemptId(attempt.getId());
-                double rawScore = attempt.getTotalQuestions() > 0
-                        ? ((double) correctCount / attempt.getTotalQuestions()) * 100
-                        : 0.0;
-                attempt.setRawScore(BigDecimal.valueOf(rawScore));
-                attemptRepository.save(attempt);
+                endSession(state, null, SessionStatus.COMPLETED);
                 log.info("Diagnostic session {} auto-completed: all skills exhausted", request.getSessionId());
+            } else {
+                saveState(state);
             }
         }
 
         // Calculate progress
-        int questionsAnswered = attempt.getAnsweredQuestions();
-        int questionsRemaining = attempt.getTotalQuestions() - questionsAnswered;
-        double progress = attempt.getTotalQuestions() > 0
-                ? (double) questionsAnswered / attempt.getTotalQuestions()
+        int questionsAnswered = state.getAnsweredQuestions();
+        int questionsRemaining = state.getTotalQuestions() - questionsAnswered;
+        double progress = state.getTotalQuestions() > 0
+                ? (double) questionsAnswered / state.getTotalQuestions()
                 : 0.0;
 
         // Calculate adaptive state for UI
-        long correctCount = answerRepository.countCorrectByDiagnosticAttemptId(attempt.getId());
         DiagnosticSessionResponse.AdaptiveState adaptiveState = buildAdaptiveState(
-                (int) correctCount,
+                state.getCorrectCount(),
                 questionsAnswered,
-                attempt.getTotalQuestions()
+                state.getTotalQuestions()
         );
 
         log.debug("Answer submitted for diagnostic {}: question={}, correct={}, consecutive={}, progress={}/{}",
                 request.getSessionId(), request.getQuestionId(), isCorrect, newConsecutiveWrong,
-                questionsAnswered, attempt.getTotalQuestions());
+                questionsAnswered, state.getTotalQuestions());
 
         return DiagnosticAnswerResponse.builder()
                 .isCorrect(isCorrect)
@@ -458,19 +398,9 @@ public class DiagnosticService {
             throw new AppException(ErrorCode.UNAUTHORIZED);
         }
 
-        // Mark as completed if still in progress
+        // Mark as completed if still in progress (writes counters and adaptive state back to the row)
         if (SessionStatus.IN_PROGRESS.getCode().equals(attempt.getStatus())) {
-            attempt.setStatus(SessionStatus.COMPLETED.getCode());
-            attempt.setEndTime(LocalDateTime.now());
-
-            // Calculate raw score
-            long correctCount = answerRepository.countCorrectByDiagnosticAttemptId(attempt.getId());
-            double rawScore = attempt.getTotalQuestions() > 0
-                    ? ((double) correctCount / attempt.getTotalQuestions()) * 100
-                    : 0.0;
-            attempt.setRawScore(BigDecimal.valueOf(rawScore));
-
-            attemptRepository.save(attempt);
+            endSession(loadState(attempt), attempt, SessionStatus.COMPLETED);
         }
 
         // Get all answers
@@ -542,78 +472,42 @@ public class DiagnosticService {
      * - Returns null if session should auto-terminate (3 consecutive wrong overall)
      */
     public DiagnosticAnswerResponse getNextQuestion(Long userId, String sessionId) throws AppException {
-        EilDiagnosticAttemptEntity attempt = attemptRepository
-                .findBySessionId(sessionId)
-                .orElseThrow(() -> new AppException(ErrorCode.EIL_DIAGNOSTIC_SESSION_NOT_FOUND));
+        DiagnosticSessionState state = loadState(sessionId);
 
-        if (!attempt.getUserId().equals(userId)) {
+        if (!userId.equals(state.getUserId())) {
             throw new AppException(ErrorCode.UNAUTHORIZED);
         }
 
-        if (!SessionStatus.IN_PROGRESS.getCode().equals(attempt.getStatus())) {
+        if (!SessionStatus.IN_PROGRESS.getCode().equals(state.getStatus())) {
             throw new AppException(ErrorCode.EIL_DIAGNOSTIC_ALREADY_COMPLETED);
         }
 
-        // Parse metadata for tracking
-        Map<String, Object> metadata = parseMetadata(attempt.getMetadata());
-        List<Long> questionIds = getQuestionIdsFromMetadata(metadata);
-        Set<Long> terminatedSkills = getTerminatedSkillsFromMetadata(metadata);
-        Set<Long> answeredQuestionIds = getAnsweredQuestionIds(attempt.getId());
-
         // Find next unanswered question from non-terminated skill
-        QuestionResponse nextQuestion = null;
-        Long nextSkillId = null;
-
-        for (Long questionId : questionIds) {
-            if (answeredQuestionIds.contains(questionId)) {
-                continue; // Already answered
-            }
-
-            Long skillId = skillService.getPrimarySkillIdForQuestion(questionId);
-            if (skillId != null && terminatedSkills.contains(skillId)) {
-                continue; // Skill terminated
-            }
+        Long nextQuestionId = findNextQuestionId(state);
+        QuestionResponse nextQuestion = nextQuestionId != null
+                ? questionBankCache.findById(nextQuestionId).orElse(null)
+                : null;
+        Long nextSkillId = nextQuestionId != null
+                ? skillService.getPrimarySkillIdForQuestion(nextQuestionId)
+                : null;
 
-            // Found valid next question
-            nextQuestion = questionRepository.findById(questionId)
-                    .map(QuestionResponse::from)
-                    .orElse(null);
-            nextSkillId = skillId;
-            break;
-        }
-
-        // Get current tracking state
-        int consecutiveWrong = getIntFromMetadata(metadata, "consecutiveWrong", 0);
-        int skillConsecutiveWrong = nextSkillId != null
-                ? getIntFromMetadata(metadata, "skillConsecutiveWrong." + nextSkillId, 0)
-                : 0;
-
-        String skillName = null;
-        if (nextSkillId != null) {
-            try {
-                EilSkillEntity skill = skillService.getSkillById(nextSkillId);
-                skillName = skill.getName();
-            } catch (AppException e) {
-                log.warn("Skill not found: {}", nextSkillId);
-            }
-        }
+        String skillName = getSkillName(nextSkillId);
 
         // Calculate adaptive state
-        long correctCount = answerRepository.countCorrectByDiagnosticAttemptId(attempt.getId());
         DiagnosticSessionResponse.AdaptiveState adaptiveState = buildAdaptiveState(
-                (int) correctCount,
-                attempt.getAnsweredQuestions(),
-                attempt.getTotalQuestions()
+                state.getCorrectCount(),
+                state.getAnsweredQuestions(),
+                state.getTotalQuestions()
         );
 
         return DiagnosticAnswerResponse.builder()
-                .questionsAnswered(attempt.getAnsweredQuestions())
-                .questionsRemaining(attempt.getTotalQuestions() - attempt.getAnsweredQuestions())
+                .questionsAnswered(state.getAnsweredQuestions())
+                .questionsRemaining(state.getTotalQuestions() - state.getAnsweredQuestions())
                 .nextQuestion(nextQuestion)
-                .currentProgress((double) attempt.getAnsweredQuestions() / attempt.getTotalQuestions())
+                .currentProgress((double) state.getAnsweredQuestions() / state.getTotalQuestions())
                 .autoTerminated(false)
-                .consecutiveWrong(consecutiveWrong)
-                .skillConsecutiveWrong(skillConsecutiveWrong)
+                .consecutiveWrong(state.getConsecutiveWrong())
+                .skillConsecutiveWrong(state.skillWrongCount(nextSkillId))
                 .currentSkillName(skillName)
                 .flowMode("ADAPTIVE")
                 .adaptiveState(adaptiveState)
@@ -632,42 +526,7 @@ public class DiagnosticService {
             throw new AppException(ErrorCode.UNAUTHORIZED);
         }
 
-        // Get all questions from metadata
-        List<Long> questionIds = parseQuestionIdsFromMetadata(attempt.getMetadata());
-        List<QuestionResponse> allQuestions = getAllQuestions(questionIds);
-
-        // Parse mode and certification from metadata
-        String mode = parseStringFromMetadata(attempt.getMetadata(), "mode");
-        String certificationCode = parseStringFromMetadata(attempt.getMetadata(), "certificationCode");
-
-        // Get current question for backward compatibility
-        int currentIndex = attempt.getAnsweredQuestions();
-        QuestionResponse currentQuestion = (currentIndex < allQuestions.size()) ? allQuestions.get(currentIndex) : null;
-
-        // Calculate adaptive state
-        long correctCount = answerRepository.countCorrectByDiagnosticAttemptId(attempt.getId());
-        DiagnosticSessionResponse.AdaptiveState adaptiveState = buildAdaptiveState(
-                (int) correctCount,
-                attempt.getAnsweredQuestions(),
-                attempt.getTotalQuestions()
-        );
-
-        return DiagnosticSessionResponse.builder()
-                .sessionId(sessionId)
-                .totalQuestions(attempt.getTotalQuestions())
-                .currentQuestion(attempt.getAnsweredQuestions() + 1)
-                .status(attempt.getStatus())
-                .startTime(attempt.getStartTime())
-                .timeoutMinutes(timeoutMinutes)
-                .firstQuestion(currentQuestion) // backward compatibility
-                .questions(null) // DEPRECATED: Now using adaptive mode
-                .answeredQuestions(attempt.getAnsweredQuestions())
-                .testType(attempt.getTestType())
-                .mode(mode)
-                .certificationCode(certificationCode)
-                .flowMode("ADAPTIVE")
-                .adaptiveState(adaptiveState)
-                .build();
+        return toSessionResponse(attempt, loadState(attempt));
     }
 
     /**
@@ -747,44 +606,41 @@ public class DiagnosticService {
         Optional<EilDiagnosticAttemptEntity> activeAttempt = attemptRepository
                 .findFirstByUserIdAndStatusOrderByCreatedAtDesc(userId, SessionStatus.IN_PROGRESS.getCode());
 
-        if (activeAttempt.isEmpty()) {
-            return null;
-        }
-
-        EilDiagnosticAttemptEntity attempt = activeAttempt.get();
-
-        // Get all questions from metadata
-        List<Long> questionIds = parseQuestionIdsFromMetadata(attempt.getMetadata());
-        List<QuestionResponse> allQuestions = getAllQuestions(questionIds);
-
-        // Parse mode and certification from metadata
-        String mode = parseStringFromMetadata(attempt.getMetadata(), "mode");
-        String certificationCode = parseStringFromMetadata(attempt.getMetadata(), "certificationCode");
+        return activeAttempt
+                .map(attempt -> toSessionResponse(attempt, loadState(attempt)))
+                .orElse(null);
+    }
 
-        int currentIndex = attempt.getAnsweredQuestions();
-        QuestionResponse currentQuestion = (currentIndex < allQuestions.size()) ? allQuestions.get(currentIndex) : null;
+    /**
+     * Build session response from the attempt row (start time, test type) and its working state.
+     */
+    private DiagnosticSessionResponse toSessionResponse(EilDiagnosticAttemptEntity attempt, DiagnosticSessionState state) {
+        // Current question for backward compatibility
+        int currentIndex = state.getAnsweredQuestions();
+        QuestionResponse currentQuestion = currentIndex < state.getQuestionIds().size()
+                ? questionBankCache.findById(state.getQuestionIds().get(currentIndex)).orElse(null)
+                : null;
 
         // Calculate adaptive state
-        long correctCount = answerRepository.countCorrectByDiagnosticAttemptId(attempt.getId());
         DiagnosticSessionResponse.AdaptiveState adaptiveState = buildAdaptiveState(
-                (int) correctCount,
-                attempt.getAnsweredQuestions(),
-                attempt.getTotalQuestions()
+                state.getCorrectCount(),
+                state.getAnsweredQuestions(),
+                state.getTotalQuestions()
         );
 
         return DiagnosticSessionResponse.builder()
                 .sessionId(attempt.getSessionId())
-                .totalQuestions(attempt.getTotalQuestions())
-                .currentQuestion(attempt.getAnsweredQuestions() + 1)
-                .answeredQuestions(attempt.getAnsweredQuestions())
-                .status(attempt.getStatus())
+                .totalQuestions(state.getTotalQuestions())
+                .currentQuestion(state.getAnsweredQuestions() + 1)
+                .answeredQuestions(state.getAnsweredQuestions())
+                .status(state.getStatus())
                 .startTime(attempt.getStartTime())
                 .timeoutMinutes(timeoutMinutes)
                 .testType(attempt.getTestType())
                 .firstQuestion(currentQuestion) // backward compatibility
                 .questions(null) // DEPRECATED: Now using adaptive mode
-                .mode(mode)
-                .certificationCode(certificationCode)
+                .mode(state.getMode())
+                .certificationCode(state.getCertificationCode())
                 .flowMode("ADAPTIVE")
                 .adaptiveState(adaptiveState)
                 .build();
@@ -828,9 +684,7 @@ public class DiagnosticService {
 
         // Only abandon if still in progress
         if (SessionStatus.IN_PROGRESS.getCode().equals(attempt.getStatus())) {
-            attempt.setStatus(SessionStatus.ABANDONED.getCode());
-            attempt.setEndTime(LocalDateTime.now());
-            attemptRepository.save(attempt);
+            endSession(loadState(attempt), attempt, SessionStatus.ABANDONED);
             log.info("Abandoned diagnostic session {} for user {}", sessionId, userId);
         }
     }
@@ -838,15 +692,13 @@ public class DiagnosticService {
     /**
      * Abandon any active diagnostic session for user.
      */
-    private void abandonActiveSession(Long userId) {
+    private void abandonActiveSession(Long userId) throws AppException {
         Optional<EilDiagnosticAttemptEntity> activeAttempt = attemptRepository
                 .findFirstByUserIdAndStatusOrderByCreatedAtDesc(userId, SessionStatus.IN_PROGRESS.getCode());
 
         if (activeAttempt.isPresent()) {
             EilDiagnosticAttemptEntity attempt = activeAttempt.get();
-            attempt.setStatus(SessionStatus.ABANDONED.getCode());
-            attempt.setEndTime(LocalDateTime.now());
-            attemptRepository.save(attempt);
+            endSession(loadState(attempt), attempt, SessionStatus.ABANDONED);
             log.info("Abandoned active diagnostic session {} for user {}", attempt.getSessionId(), userId);
         }
     }
@@ -901,6 +753,7 @@ public class DiagnosticService {
                 .build();
 
         attempt = attemptRepository.save(attempt);
+        saveState(newState(attempt, selectedQuestions, mode, certificationCode, careerPath));
 
         log.info("Started diagnostic session {} for user {} with {} questions (mode: {})",
                 sessionId, userId, selectedQuestions.size(), mode);
@@ -930,24 +783,41 @@ public class DiagnosticService {
     }
 
     /**
-     * Get paginated history of user's diagnostic attempts.
+     * Get paginated history of user's diagnostic attempts, newest first.
+     * With a cursor (from the previous page's nextCursor) the page starts right after it and
+     * {@code page} is ignored; without one, {@code page} is used as an offset.
      */
-    public DiagnosticHistoryResponse getDiagnosticHistory(Long userId, int page, int size) {
-        // Get completed diagnostics
-        List<EilDiagnosticAttemptEntity> allCompleted = attemptRepository.findCompletedByUserId(userId);
-        long totalCount = allCompleted.size();
-
-        // Apply pagination manually (could use Pageable for better performance with large datasets)
-        int start = page * size;
-        int end = Math.min(start + size, allCompleted.size());
-
-        List<DiagnosticHistoryResponse.DiagnosticHistoryItem> items;
-        if (start >= allCompleted.size()) {
-            items = new ArrayList<>();
+    public DiagnosticHistoryResponse getDiagnosticHistory(Long userId, int page, int size, String cursor) throws AppException {
+        if (page < 0 || size < 1 || size > PaginationRequest.MAX_SIZE) {
+            throw new AppException(ErrorCode.VALIDATION_ERROR,
+                    "page must be >= 0 and size between 1 and " + PaginationRequest.MAX_SIZE);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<EilDiagnosticAttemptEntity> attempts;
+        Long totalCount = null;
+        boolean hasMore;
+        if (after != null) {
+            // Fetch one extra row to know whether another page exists
+            attempts = attemptRepository.findCompletedPageAfter(userId, after.time(), after.id(), PageRequest.of(0, size + 1));
+            hasMore = attempts.size() > size;
+            if (hasMore) {
+                attempts = attempts.subList(0, size);
+            }
         } else {
-            items = allCompleted.subList(start, end).stream()
-                    .map(this::toHistoryItem)
-                    .collect(Collectors.toList());
+            attempts = attemptRepository.findCompletedPage(userId, PageRequest.of(page, size));
+            totalCount = attemptRepository.countCompletedWithEndTimeByUserId(userId);
+            hasMore = (long) (page + 1) * size < totalCount;
+        }
+
+        List<DiagnosticHistoryResponse.DiagnosticHistoryItem> items = attempts.stream()
+                .map(this::toHistoryItem)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore && !attempts.isEmpty()) {
+            EilDiagnosticAttemptEntity last = attempts.get(attempts.size() - 1);
+            nextCursor = new KeysetCursor(last.getEndTime(), last.getId()).encode();
         }
 
         return DiagnosticHistoryResponse.builder()
@@ -955,6 +825,8 @@ public class DiagnosticService {
                 .totalCount(totalCount)
                 .page(page)
                 .size(size)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
                 .build();
     }
 
@@ -992,61 +864,25 @@ public class DiagnosticService {
             return false;
         }
 
-        // Fetch question from database
-        QuestionEntity question = questionRepository.findById(request.getQuestionId()).orElse(null);
-        if (question == null || question.getAnswerData() == null) {
-            log.warn("Question not found or has no answer data: {}", request.getQuestionId());
+        // Precomputed answer key (correct options bitmask) from the question bank
+        AnswerKey answerKey = questionBankCache.findAnswerKey(request.getQuestionId()).orElse(null);
+        if (answerKey == null) {
+            log.warn("Question not found: {}", request.getQuestionId());
             return false;
         }
-
-        // Parse question to get answer options with correct flags
-        QuestionResponse questionResponse = QuestionResponse.from(question);
-        List<QuestionResponse.AnswerData> answerOptions = questionResponse.getAnswerData();
-
-        if (answerOptions == null || answerOptions.isEmpty()) {
+        if (answerKey.getOptionCount() == 0) {
             log.warn("Question {} has no parsed answer options", request.getQuestionId());
             return false;
         }
-
-        List<Boolean> userSelections = request.getAnswerData();
-
-        // Validate array sizes match
-        if (userSelections.size() != answerOptions.size()) {
+        if (request.getAnswerData().size() != answerKey.getOptionCount()) {
             log.warn("Answer array size mismatch: user={}, question={} for questionId={}",
-                    userSelections.size(), answerOptions.size(), request.getQuestionId());
-            // Still try to validate with available data
+                    request.getAnswerData().size(), answerKey.getOptionCount(), request.getQuestionId());
+            // Still grade the options the user sent
         }
 
-        // Compare user selections against correct answers
-        // For single choice: exactly one correct answer must be selected
-        // For multiple choice: all correct answers must be selected, no incorrect ones
-        int correctCount = 0;
-        int userCorrectSelections = 0;
-        int userIncorrectSelections = 0;
-
-        for (int i = 0; i < answerOptions.size(); i++) {
-            QuestionResponse.AnswerData option = answerOptions.get(i);
-            boolean isCorrectOption = option.isCorrect();
-            boolean userSelected = i < userSelections.size() && Boolean.TRUE.equals(userSelections.get(i));
-
-            if (isCorrectOption) {
-                correctCount++;
-                if (userSelected) {
-                    userCorrectSelections++;
-                }
-            } else {
-                if (userSelected) {
-                    userIncorrectSelections++;
-                }
-            }
-        }
-
-        // Answer is correct if user selected all correct options and no incorrect ones
-        boolean isCorrect = (userCorrectSelections == correctCount) && (userIncorrectSelections == 0);
-
-        log.debug("Question {}: correctOptions={}, userCorrect={}, userIncorrect={}, result={}",
-                request.getQuestionId(), correctCount, userCorrectSelections, userIncorrectSelections, isCorrect);
-
+        // All correct options and no incorrect one must be selected
+        boolean isCorrect = gradingEngine.isCorrectSelection(answerKey, request.getAnswerData());
+        log.debug("Question {}: result={}", request.getQuestionId(), isCorrect);
         return isCorrect;
     }
 
@@ -1232,34 +1068,6 @@ public class DiagnosticService {
         }
     }
 
-    /**
-     * Parse question IDs from metadata JSON.
-     */
-    @SuppressWarnings("unchecked")
-    private List<Long> parseQuestionIdsFromMetadata(String metadataJson) {
-        if (metadataJson == null || metadataJson.isEmpty()) {
-            return Collections.emptyList();
-        }
-        try {
-            Map<String, Object> metadata = objectMapper.readValue(metadataJson, new TypeReference<Map<String, Object>>() {});
-            Object questionIdsObj = metadata.get("questionIds");
-            if (questionIdsObj instanceof List) {
-                List<?> rawList = (List<?>) questionIdsObj;
-                return rawList.stream()
-                        .map(obj -> {
-                            if (obj instanceof Number) {
-                                return ((Number) obj).longValue();
-                            }
-                            return Long.valueOf(obj.toString());
-                        })
-                        .collect(Collectors.toList());
-            }
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse question IDs from metadata", e);
-        }
-        return Collections.emptyList();
-    }
-
     /**
      * Parse a string value from metadata JSON.
      */
@@ -1285,9 +1093,7 @@ public class DiagnosticService {
             return null;
         }
         Long questionId = questionIds.get(index);
-        return questionRepository.findById(questionId)
-                .map(QuestionResponse::from)
-                .orElse(null);
+        return questionBankCache.findById(questionId).orElse(null);
     }
 
     // ============= ADAPTIVE DIAGNOSTIC HELPER METHODS =============
@@ -1309,7 +1115,7 @@ public class DiagnosticService {
     }
 
     /**
-     * Get question IDs from metadata (same as parseQuestionIdsFromMetadata but from Map).
+     * Get question IDs from parsed metadata.
      */
     @SuppressWarnings("unchecked")
     private List<Long> getQuestionIdsFromMetadata(Map<String, Object> metadata) {
@@ -1328,65 +1134,6 @@ public class DiagnosticService {
         return Collections.emptyList();
     }
 
-    /**
-     * Get terminated skills from metadata.
-     */
-    @SuppressWarnings("unchecked")
-    private Set<Long> getTerminatedSkillsFromMetadata(Map<String, Object> metadata) {
-        Object terminatedObj = metadata.get("terminatedSkills");
-        if (terminatedObj instanceof List) {
-            List<?> rawList = (List<?>) terminatedObj;
-            return rawList.stream()
-                    .map(obj -> {
-                        if (obj instanceof Number) {
-                            return ((Number) obj).longValue();
-                        }
-                        return Long.valueOf(obj.toString());
-                    })
-                    .collect(Collectors.toSet());
-        }
-        return new HashSet<>();
-    }
-
-    /**
-     * Get answered question IDs for a diagnostic session.
-     */
-    private Set<Long> getAnsweredQuestionIds(Long diagnosticAttemptId) {
-        List<EilDiagnosticAnswerEntity> answers = answerRepository.findByDiagnosticAttemptId(diagnosticAttemptId);
-        return answers.stream()
-                .map(EilDiagnosticAnswerEntity::getQuestionId)
-                .collect(Collectors.toSet());
-    }
-
-    /**
-     * Get integer value from nested metadata path.
-     */
-    private int getIntFromMetadata(Map<String, Object> metadata, String key, int defaultValue) {
-        try {
-            if (key.contains(".")) {
-                // Handle nested keys like "skillConsecutiveWrong.167"
-                String[] parts = key.split("\\.", 2);
-                Object nestedObj = metadata.get(parts[0]);
-                if (nestedObj instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> nested = (Map<String, Object>) nestedObj;
-                    Object value = nested.get(parts[1]);
-                    if (value instanceof Number) {
-                        return ((Number) value).intValue();
-                    }
-                }
-            } else {
-                Object value = metadata.get(key);
-                if (value instanceof Number) {
-                    return ((Number) value).intValue();
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Failed to get int from metadata key: {}", key);
-        }
-        return defaultValue;
-    }
-
     /**
      * Get skill name by ID (helper).
      */
@@ -1453,59 +1200,170 @@ public class DiagnosticService {
                 .build();
     }
 
+    // ============= SESSION STATE =============
+
+    private static String stateKey(String sessionId) {
+        return "diagnostic:" + sessionId;
+    }
+
     /**
-     * Update metadata with new tracking values.
+     * Working state of a session, rebuilt from the attempt row and its answers when not in the store.
      */
-    private String updateMetadataTracking(String metadataJson, boolean isCorrect, Long skillId,
-                                           boolean shouldTerminate, String terminationReason) {
+    private DiagnosticSessionState loadState(String sessionId) throws AppException {
+        DiagnosticSessionState state = sessionStateStore.get(stateKey(sessionId), DiagnosticSessionState.class);
+        if (state != null) {
+            return state;
+        }
+        EilDiagnosticAttemptEntity attempt = attemptRepository
+                .findBySessionId(sessionId)
+                .orElseThrow(() -> new AppException(ErrorCode.EIL_DIAGNOSTIC_SESSION_NOT_FOUND));
+        return rebuildState(attempt);
+    }
+
+    private DiagnosticSessionState loadState(EilDiagnosticAttemptEntity attempt) {
+        DiagnosticSessionState state = sessionStateStore.get(stateKey(attempt.getSessionId()), DiagnosticSessionState.class);
+        return state != null ? state : rebuildState(attempt);
+    }
+
+    private DiagnosticSessionState newState(EilDiagnosticAttemptEntity attempt, List<Long> questionIds,
+                                            String mode, String certificationCode, String careerPath) {
+        DiagnosticSessionState state = new DiagnosticSessionState();
+        state.setAttemptId(attempt.getId());
+        state.setSessionId(attempt.getSessionId());
+        state.setUserId(attempt.getUserId());
+        state.setStatus(attempt.getStatus());
+        state.setMode(mode);
+        state.setCertificationCode(certificationCode);
+        state.setCareerPath(careerPath);
+        state.setTotalQuestions(attempt.getTotalQuestions());
+        state.setQuestionIds(new ArrayList<>(questionIds));
+        return state;
+    }
+
+    /**
+     * Rebuild state from the row metadata (question list, mode) and by replaying the saved answers,
+     * which are authoritative for counters and adaptive tracking.
+     */
+    private DiagnosticSessionState rebuildState(EilDiagnosticAttemptEntity attempt) {
+        Map<String, Object> metadata = parseMetadata(attempt.getMetadata());
+        DiagnosticSessionState state = newState(attempt, getQuestionIdsFromMetadata(metadata),
+                (String) metadata.get("mode"),
+                (String) metadata.get("certificationCode"),
+                (String) metadata.get("careerPath"));
+
+        for (EilDiagnosticAnswerEntity answer
+                : answerRepository.findByDiagnosticAttemptIdOrderByQuestionOrderAsc(attempt.getId())) {
+            state.recordAnswer(answer.getQuestionId(), answer.getSkillId(),
+                    Boolean.TRUE.equals(answer.getIsCorrect()),
+                    answer.getTimeSpentSeconds() != null ? answer.getTimeSpentSeconds() : 0);
+        }
+        Object terminationReason = metadata.get("terminationReason");
+        state.setTerminationReason(terminationReason != null ? terminationReason.toString() : null);
+        state.setUnsavedAnswers(0);
+
+        if (SessionStatus.IN_PROGRESS.getCode().equals(state.getStatus())) {
+            sessionStateStore.put(stateKey(state.getSessionId()), state);
+        }
+        return state;
+    }
+
+    /**
+     * Store the state; every {@code checkpointEvery} answers the counters and metadata are also written
+     * to the attempt row in a single update.
+     */
+    private void saveState(DiagnosticSessionState state) {
+        if (state.getUnsavedAnswers() >= checkpointEvery) {
+            attemptRepository.checkpoint(state.getAttemptId(), state.getAnsweredQuestions(),
+                    state.getTimeSpentSeconds(), toMetadataJson(state));
+            state.setUnsavedAnswers(0);
+        }
+        sessionStateStore.put(stateKey(state.getSessionId()), state);
+    }
+
+    /**
+     * Write the state to the attempt row and close the session.
+     *
+     * @param attempt Attempt row if already loaded, otherwise read by ID
+     */
+    private void endSession(DiagnosticSessionState state, EilDiagnosticAttemptEntity attempt, SessionStatus status)
+            throws AppException {
+        if (attempt == null) {
+            attempt = attemptRepository.findById(state.getAttemptId())
+                    .orElseThrow(() -> new AppException(ErrorCode.EIL_DIAGNOSTIC_SESSION_NOT_FOUND));
+        }
+
+        attempt.setAnsweredQuestions(state.getAnsweredQuestions());
+        attempt.setTimeSpentSeconds(state.getTimeSpentSeconds());
+        String metadataJson = toMetadataJson(state);
+        if (metadataJson != null) {
+            attempt.setMetadata(metadataJson);
+        }
+        attempt.setStatus(status.getCode());
+        attempt.setEndTime(LocalDateTime.now());
+
+        if (status == SessionStatus.COMPLETED) {
+            double rawScore = state.getTotalQuestions() > 0
+                    ? ((double) state.getCorrectCount() / state.getTotalQuestions()) * 100
+                    : 0.0;
+            attempt.setRawScore(BigDecimal.valueOf(rawScore));
+        }
+
+        attemptRepository.save(attempt);
+        state.setStatus(status.getCode());
+        state.setUnsavedAnswers(0);
+        sessionStateStore.remove(stateKey(state.getSessionId()));
+        masteryService.flush(state.getUserId());
+    }
+
+    /**
+     * Metadata JSON of the attempt row: question list, mode and adaptive tracking.
+     */
+    private String toMetadataJson(DiagnosticSessionState state) {
         try {
-            Map<String, Object> metadata = parseMetadata(metadataJson);
-
-            // Get current counters
-            int consecutiveWrong = getIntFromMetadata(metadata, "consecutiveWrong", 0);
-            Set<Long> terminatedSkills = getTerminatedSkillsFromMetadata(metadata);
-
-            // Get or create skillConsecutiveWrong map
-            @SuppressWarnings("unchecked")
-            Map<String, Integer> skillConsecutiveWrong =
-                    (Map<String, Integer>) metadata.getOrDefault("skillConsecutiveWrong", new HashMap<>());
-
-            if (isCorrect) {
-                // Reset counters on correct answer
-                consecutiveWrong = 0;
-                if (skillId != null) {
-                    skillConsecutiveWrong.put(skillId.toString(), 0);
-                }
-            } else {
-                // Increment counters on wrong answer
-                consecutiveWrong++;
-                if (skillId != null) {
-                    int skillWrong = skillConsecutiveWrong.getOrDefault(skillId.toString(), 0) + 1;
-                    skillConsecutiveWrong.put(skillId.toString(), skillWrong);
-
-                    // Check if skill should be terminated (2 consecutive wrong)
-                    if (skillWrong >= 2) {
-                        terminatedSkills.add(skillId);
-                        log.info("Skill {} terminated after 2 consecutive wrong answers", skillId);
-                    }
-                }
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("questionIds", state.getQuestionIds());
+            if (state.getMode() != null) {
+                metadata.put("mode", state.getMode());
+            }
+            if (state.getCertificationCode() != null) {
+                metadata.put("certificationCode", state.getCertificationCode());
+            }
+            if (state.getCareerPath() != null) {
+                metadata.put("careerPath", state.getCareerPath());
             }
 
-            // Update metadata
-            metadata.put("consecutiveWrong", consecutiveWrong);
+            Map<String, Integer> skillConsecutiveWrong = new HashMap<>();
+            state.getSkillConsecutiveWrong().forEach((skillId, count) -> skillConsecutiveWrong.put(skillId.toString(), count));
+            metadata.put("consecutiveWrong", state.getConsecutiveWrong());
             metadata.put("skillConsecutiveWrong", skillConsecutiveWrong);
-            metadata.put("terminatedSkills", new ArrayList<>(terminatedSkills));
-            if (shouldTerminate) {
-                metadata.put("terminationReason", terminationReason);
+            metadata.put("terminatedSkills", new ArrayList<>(state.getTerminatedSkills()));
+            if (state.getTerminationReason() != null) {
+                metadata.put("terminationReason", state.getTerminationReason());
             }
-
             return objectMapper.writeValueAsString(metadata);
         } catch (JsonProcessingException e) {
-            log.error("Failed to update metadata tracking", e);
-            return metadataJson; // Return original if update fails
+            log.error("Failed to build metadata JSON for diagnostic {}", state.getSessionId(), e);
+            return null;
         }
     }
 
+    /**
+     * Next unanswered question of the session whose skill is not terminated.
+     */
+    private Long findNextQuestionId(DiagnosticSessionState state) {
+        for (Long questionId : state.getQuestionIds()) {
+            if (state.getAnsweredQuestionIds().contains(questionId)) {
+                continue; // Already answered
+            }
+            Long skillId = skillService.getPrimarySkillIdForQuestion(questionId);
+            if (skillId != null && state.getTerminatedSkills().contains(skillId)) {
+                continue; // Skill terminated
+            }
+            return questionId;
+        }
+        return null;
+    }
+
     /**
      * Build adaptive state based on current progress.
      * Estimates confidence based on correct/total ratio.
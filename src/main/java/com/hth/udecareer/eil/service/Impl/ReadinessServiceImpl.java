@@ -7,11 +7,10 @@ import com.hth.udecareer.eil.model.dto.WeakSkillDto;
 import com.hth.udecareer.eil.repository.EilReadinessSnapshotRepository;
 import com.hth.udecareer.eil.service.MasteryService;
 import com.hth.udecareer.eil.service.ReadinessService;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.response.PageResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -34,7 +33,7 @@ import java.util.Map;
 public class ReadinessServiceImpl implements ReadinessService {
 
     private final EilReadinessSnapshotRepository readinessSnapshotRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final MasteryService masteryService;
     private final ObjectMapper objectMapper;
 
@@ -60,16 +59,7 @@ public class ReadinessServiceImpl implements ReadinessService {
     }
 
     private Long getUserIdFromPrincipal(Principal principal) {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 
     @Override
@@ -5,137 +5,74 @@ import com.hth.udecareer.eil.entities.EilSkillEntity;
 import com.hth.udecareer.eil.entities.EilSkillMasteryEntity;
 import com.hth.udecareer.eil.enums.DifficultyLevel;
 import com.hth.udecareer.eil.enums.EstimatedLevel;
+import com.hth.udecareer.eil.model.dto.UserMasterySnapshot;
 import com.hth.udecareer.eil.model.dto.WeakSkillDto;
 import com.hth.udecareer.eil.model.response.SkillMapResponse;
 import com.hth.udecareer.eil.model.response.SkillMasteryResponse;
-import com.hth.udecareer.eil.repository.EilSkillMasteryRepository;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing user skill mastery levels.
+ * Reads and updates go through the in-memory {@link MasteryStateBuffer}, which writes eil_skill_mastery behind.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MasteryService {
 
-    private final EilSkillMasteryRepository masteryRepository;
+    private final MasteryStateBuffer masteryStateBuffer;
     private final SkillService skillService;
     private final MasteryCalculator masteryCalculator;
+    private final SkillMapCache skillMapCache;
 
-    private static final int SCALE = 4;
     private static final BigDecimal WEAK_THRESHOLD = new BigDecimal("0.4000");
     private static final BigDecimal STRONG_THRESHOLD = new BigDecimal("0.8000");
 
     /**
      * Get or create mastery record for a user and skill.
+     * The returned entity is a detached view of the in-memory state.
      */
-    @Transactional
     public EilSkillMasteryEntity getOrCreateMastery(Long userId, Long skillId) {
-        return masteryRepository.findByUserIdAndSkillId(userId, skillId)
-                .orElseGet(() -> initializeMastery(userId, skillId));
-    }
-
-    /**
-     * Initialize mastery for a new skill.
-     */
-    @Transactional
-    public EilSkillMasteryEntity initializeMastery(Long userId, Long skillId) {
-        EilSkillMasteryEntity mastery = EilSkillMasteryEntity.builder()
-                .userId(userId)
-                .skillId(skillId)
-                .masteryLevel(masteryCalculator.getInitialMastery())
-                .confidence(new BigDecimal("0.1000"))
-                .attempts(0)
-                .correctCount(0)
-                .streak(0)
-                .lastPracticedAt(LocalDateTime.now())
-                .build();
-
-        return masteryRepository.save(mastery);
+        masteryStateBuffer.ensureSkills(userId, List.of(skillId));
+        UserMasterySnapshot masteries = masteryStateBuffer.snapshot(userId);
+        return toEntity(userId, masteries, masteries.indexOf(skillId));
     }
 
     /**
      * Initialize mastery for all skills for a user.
      */
-    @Transactional
     public void initializeAllMasteries(Long userId) {
-        List<EilSkillEntity> leafSkills = skillService.getLeafSkills();
-        List<Long> existingSkillIds = masteryRepository.findByUserId(userId).stream()
-                .map(EilSkillMasteryEntity::getSkillId)
+        List<Long> leafSkillIds = skillService.getLeafSkills().stream()
+                .map(EilSkillEntity::getId)
                 .collect(Collectors.toList());
 
-        List<EilSkillMasteryEntity> newMasteries = leafSkills.stream()
-                .filter(skill -> !existingSkillIds.contains(skill.getId()))
-                .map(skill -> EilSkillMasteryEntity.builder()
-                        .userId(userId)
-                        .skillId(skill.getId())
-                        .masteryLevel(masteryCalculator.getInitialMastery())
-                        .confidence(new BigDecimal("0.1000"))
-                        .attempts(0)
-                        .correctCount(0)
-                        .streak(0)
-                        .build())
-                .collect(Collectors.toList());
-
-        if (!newMasteries.isEmpty()) {
-            masteryRepository.saveAll(newMasteries);
-            log.info("Initialized {} mastery records for user {}", newMasteries.size(), userId);
+        int added = masteryStateBuffer.ensureSkills(userId, leafSkillIds);
+        if (added > 0) {
+            masteryStateBuffer.flush(userId);
+            log.info("Initialized {} mastery records for user {}", added, userId);
         }
     }
 
     /**
      * Update mastery after an attempt.
+     * Only the in-memory state changes here; the row is written by the next flush.
      */
-    @Transactional
     public MasteryUpdateResult updateMastery(Long userId, Long skillId, boolean isCorrect, DifficultyLevel difficulty) {
-        EilSkillMasteryEntity mastery = getOrCreateMastery(userId, skillId);
-
-        BigDecimal oldMastery = mastery.getMasteryLevel();
-
-        // Calculate new mastery using EMA algorithm
-        BigDecimal newMastery = masteryCalculator.calculateNewMastery(
-                oldMastery,
-                isCorrect,
-                difficulty,
-                mastery.getAttempts()
-        );
+        MasteryStateBuffer.MasteryStep step = masteryStateBuffer.update(userId, skillId, isCorrect, difficulty);
+        skillMapCache.onMasteryChanged(userId, skillId, step);
 
+        BigDecimal oldMastery = masteryCalculator.toDecimal(step.before());
+        BigDecimal newMastery = masteryCalculator.toDecimal(step.after());
         BigDecimal delta = masteryCalculator.calculateDelta(oldMastery, newMastery);
 
-        // Update stats
-        mastery.setMasteryLevel(newMastery);
-        mastery.setAttempts(mastery.getAttempts() + 1);
-
-        int correctIncrement = isCorrect ? 1 : 0;
-        mastery.setCorrectCount(mastery.getCorrectCount() + correctIncrement);
-
-        // Update streak (positive for correct, negative for wrong)
-        if (isCorrect) {
-            mastery.setStreak(Math.max(0, mastery.getStreak()) + 1);
-        } else {
-            mastery.setStreak(Math.min(0, mastery.getStreak()) - 1);
-        }
-
-        // Update confidence (increases with more attempts)
-        BigDecimal newConfidence = calculateConfidence(mastery.getAttempts());
-        mastery.setConfidence(newConfidence);
-
-        mastery.setLastPracticedAt(LocalDateTime.now());
-
-        masteryRepository.save(mastery);
-
         log.debug("Updated mastery for user {} skill {}: {} -> {} (delta: {})",
                 userId, skillId, oldMastery, newMastery, delta);
 
@@ -148,68 +85,87 @@ public class MasteryService {
     }
 
     /**
-     * Calculate confidence based on number of attempts.
+     * Write the user's pending mastery changes (called when a diagnostic or practice session ends).
+     */
+    public void flush(Long userId) {
+        masteryStateBuffer.flush(userId);
+    }
+
+    /**
+     * Get the in-memory masteries of a user.
      */
-    private BigDecimal calculateConfidence(int attempts) {
-        // Confidence grows logarithmically with attempts, maxing at 0.95
-        double confidence = Math.min(0.95, 0.1 + 0.85 * (1 - 1.0 / (1 + Math.log(1 + attempts))));
-        return BigDecimal.valueOf(confidence).setScale(SCALE, RoundingMode.HALF_UP);
+    public UserMasterySnapshot getMasterySnapshot(Long userId) {
+        return masteryStateBuffer.snapshot(userId);
     }
 
     /**
      * Get all masteries for a user.
      */
     public List<EilSkillMasteryEntity> getUserMasteries(Long userId) {
-        return masteryRepository.findByUserId(userId);
+        return toEntities(userId, masteryStateBuffer.snapshot(userId));
     }
 
     /**
      * Get mastery map (skillId -> mastery level) for a user.
      */
     public Map<Long, BigDecimal> getMasteryMap(Long userId) {
-        return masteryRepository.findByUserId(userId).stream()
-                .collect(Collectors.toMap(
-                        EilSkillMasteryEntity::getSkillId,
-                        EilSkillMasteryEntity::getMasteryLevel
-                ));
+        UserMasterySnapshot masteries = masteryStateBuffer.snapshot(userId);
+        Map<Long, BigDecimal> result = new HashMap<>(masteries.size() * 2);
+        for (int slot = 0; slot < masteries.size(); slot++) {
+            result.put(masteries.getSkillId(slot), masteryCalculator.toDecimal(masteries.getMastery(slot)));
+        }
+        return result;
     }
 
     /**
      * Get weak skills for a user.
      */
     public List<WeakSkillDto> getWeakSkills(Long userId, int limit) {
-        List<EilSkillMasteryEntity> weakMasteries = masteryRepository.findWeakSkills(userId, WEAK_THRESHOLD);
+        return getWeakSkills(masteryStateBuffer.snapshot(userId), limit);
+    }
 
-        // Limit results
-        if (weakMasteries.size() > limit) {
-            weakMasteries = weakMasteries.subList(0, limit);
+    private List<WeakSkillDto> getWeakSkills(UserMasterySnapshot masteries, int limit) {
+        // Weakest first, limited
+        double threshold = WEAK_THRESHOLD.doubleValue();
+        List<Integer> weakSlots = new ArrayList<>();
+        for (int slot = 0; slot < masteries.size(); slot++) {
+            if (masteries.getMastery(slot) < threshold) {
+                weakSlots.add(slot);
+            }
+        }
+        weakSlots.sort(Comparator.comparingDouble(masteries::getMastery));
+        if (weakSlots.size() > limit) {
+            weakSlots = weakSlots.subList(0, limit);
         }
 
         int rank = 1;
         List<WeakSkillDto> result = new ArrayList<>();
 
-        for (EilSkillMasteryEntity m : weakMasteries) {
+        for (int slot : weakSlots) {
+            Long skillId = masteries.getSkillId(slot);
             EilSkillEntity skill = null;
             try {
-                skill = skillService.getSkillById(m.getSkillId());
+                skill = skillService.getSkillById(skillId);
             } catch (AppException e) {
-                log.warn("Skill not found: {}", m.getSkillId());
+                log.warn("Skill not found: {}", skillId);
             }
 
-            double accuracy = m.getAttempts() > 0
-                    ? (m.getCorrectCount() * 100.0 / m.getAttempts())
+            int attempts = masteries.getAttempts(slot);
+            double accuracy = attempts > 0
+                    ? (masteries.getCorrectCount(slot) * 100.0 / attempts)
                     : 0.0;
+            BigDecimal masteryLevel = masteryCalculator.toDecimal(masteries.getMastery(slot));
 
             WeakSkillDto dto = WeakSkillDto.builder()
-                    .skillId(m.getSkillId())
+                    .skillId(skillId)
                     .skillCode(skill != null ? skill.getCode() : null)
                     .skillName(skill != null ? skill.getName() : null)
                     .skillNameVi(skill != null ? skill.getNameVi() : null)
                     .category(skill != null ? skill.getCategory() : null)
                     .subcategory(skill != null ? skill.getSubcategory() : null)
-                    .masteryLevel(m.getMasteryLevel().doubleValue())
-                    .masteryLabel(masteryCalculator.getMasteryLabel(m.getMasteryLevel()).name())
-                    .attempts(m.getAttempts())
+                    .masteryLevel(masteryLevel.doubleValue())
+                    .masteryLabel(masteryCalculator.getMasteryLabel(masteryLevel).name())
+                    .attempts(attempts)
                     .accuracy(accuracy)
                     .priorityRank(rank++)
                     .build();
@@ -290,12 +246,33 @@ public class MasteryService {
      * Get category-level mastery averages.
      */
     public Map<String, BigDecimal> getCategoryMasteries(Long userId) {
-        List<String> categories = skillService.getAllActiveCategories();
-        Map<String, BigDecimal> result = new HashMap<>();
+        return getCategoryMasteries(masteryStateBuffer.snapshot(userId));
+    }
 
-        for (String category : categories) {
-            BigDecimal avgMastery = masteryRepository.getAverageMasteryByUserIdAndCategory(userId, category);
-            result.put(category, avgMastery != null ? avgMastery : masteryCalculator.getInitialMastery());
+    private Map<String, BigDecimal> getCategoryMasteries(UserMasterySnapshot masteries) {
+        Map<Long, String> categoryBySkill = new HashMap<>();
+        for (EilSkillEntity skill : skillService.getAllActiveSkills()) {
+            if (skill.getCategory() != null) {
+                categoryBySkill.put(skill.getId(), skill.getCategory());
+            }
+        }
+
+        Map<String, double[]> sums = new HashMap<>();
+        for (int slot = 0; slot < masteries.size(); slot++) {
+            String category = categoryBySkill.get(masteries.getSkillId(slot));
+            if (category != null) {
+                double[] sum = sums.computeIfAbsent(category, c -> new double[2]);
+                sum[0] += masteries.getMastery(slot);
+                sum[1]++;
+            }
+        }
+
+        Map<String, BigDecimal> result = new HashMap<>();
+        for (String category : skillService.getAllActiveCategories()) {
+            double[] sum = sums.get(category);
+            result.put(category, sum != null
+                    ? masteryCalculator.toDecimal(sum[0] / sum[1])
+                    : masteryCalculator.getInitialMastery());
         }
 
         return result;
@@ -305,108 +282,94 @@ public class MasteryService {
      * Get overall mastery for a user.
      */
     public BigDecimal getOverallMastery(Long userId) {
-        BigDecimal avg = masteryRepository.getAverageMasteryByUserId(userId);
-        return avg != null ? avg : masteryCalculator.getInitialMastery();
+        return getOverallMastery(masteryStateBuffer.snapshot(userId));
     }
 
-    /**
-     * Get estimated level based on overall mastery.
-     */
-    public EstimatedLevel getEstimatedLevel(BigDecimal overallMastery) {
-        if (overallMastery == null) {
-            return EstimatedLevel.BEGINNER;
+    private BigDecimal getOverallMastery(UserMasterySnapshot masteries) {
+        if (masteries.isEmpty()) {
+            return masteryCalculator.getInitialMastery();
+        }
+        double sum = 0;
+        for (int slot = 0; slot < masteries.size(); slot++) {
+            sum += masteries.getMastery(slot);
         }
+        return masteryCalculator.toDecimal(sum / masteries.size());
+    }
 
-        double value = overallMastery.doubleValue();
-        if (value < 0.3) {
-            return EstimatedLevel.BEGINNER;
-        } else if (value < 0.5) {
-            return EstimatedLevel.ELEMENTARY;
-        } else if (value < 0.65) {
-            return EstimatedLevel.INTERMEDIATE;
-        } else if (value < 0.8) {
-            return EstimatedLevel.UPPER_INTERMEDIATE;
+    /**
+     * Average mastery of the user's skills in a category (all skills when category is null),
+     * or null when the user has no mastery there.
+     */
+    public BigDecimal getAverageMastery(Long userId, String category) {
+        UserMasterySnapshot masteries = masteryStateBuffer.snapshot(userId);
+        double sum = 0;
+        int count = 0;
+        if (category == null) {
+            for (int slot = 0; slot < masteries.size(); slot++) {
+                sum += masteries.getMastery(slot);
+                count++;
+            }
         } else {
-            return EstimatedLevel.ADVANCED;
+            for (EilSkillEntity skill : skillService.getSkillsByCategory(category)) {
+                int slot = masteries.indexOf(skill.getId());
+                if (slot != UserMasterySnapshot.NOT_FOUND) {
+                    sum += masteries.getMastery(slot);
+                    count++;
+                }
+            }
         }
+        return count > 0 ? masteryCalculator.toDecimal(sum / count) : null;
+    }
+
+    /**
+     * Get estimated level based on overall mastery.
+     */
+    public EstimatedLevel getEstimatedLevel(BigDecimal overallMastery) {
+        return SkillMapCache.estimatedLevel(overallMastery);
     }
 
     /**
      * Build complete skill map response for a user.
+     * Served from {@link SkillMapCache} while it is at the current state version, otherwise rebuilt from one snapshot.
      */
     public SkillMapResponse buildSkillMap(Long userId) {
-        List<EilSkillMasteryEntity> masteries = getUserMasteries(userId);
+        SkillMapResponse cached = skillMapCache.get(userId, masteryStateBuffer.version(userId));
+        if (cached != null) {
+            return cached;
+        }
 
-        if (masteries.isEmpty()) {
+        UserMasterySnapshot snapshot = masteryStateBuffer.snapshot(userId);
+
+        if (snapshot.isEmpty()) {
             // Initialize masteries if user has none
             initializeAllMasteries(userId);
-            masteries = getUserMasteries(userId);
+            snapshot = masteryStateBuffer.snapshot(userId);
         }
 
-        Map<String, BigDecimal> categoryMasteries = getCategoryMasteries(userId);
-        BigDecimal overallMastery = getOverallMastery(userId);
-        EstimatedLevel estimatedLevel = getEstimatedLevel(overallMastery);
-
-        // Get weak and strong skills
-        List<SkillMasteryResponse> weakSkills = getWeakSkills(userId, 5).stream()
-                .map(this::toSkillMasteryResponse)
-                .collect(Collectors.toList());
-
-        List<SkillMasteryResponse> allSkillResponses = masteries.stream()
-                .map(this::toSkillMasteryResponse)
-                .collect(Collectors.toList());
-
-        List<SkillMasteryResponse> strongSkills = allSkillResponses.stream()
-                .filter(s -> s.getMasteryLevel() != null && s.getMasteryLevel() >= 0.8)
-                .sorted(Comparator.comparing(SkillMasteryResponse::getMasteryLevel).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-
-        // Calculate estimated score
-        SkillMapResponse.ScoreRange scoreRange = calculateScoreRange(overallMastery);
-
-        // Get total questions answered
-        Long totalAttempts = masteryRepository.getTotalAttemptsByUserId(userId);
-
-        return SkillMapResponse.builder()
-                .userId(userId)
-                .testType("TOEIC")
-                .overallMastery(overallMastery)
-                .estimatedLevel(estimatedLevel)
-                .estimatedScore(scoreRange)
-                .categoryMastery(SkillMapResponse.CategoryMastery.builder()
-                        .listening(categoryMasteries.get("LISTENING"))
-                        .reading(categoryMasteries.get("READING"))
-                        .grammar(categoryMasteries.get("GRAMMAR"))
-                        .vocabulary(categoryMasteries.get("VOCABULARY"))
-                        .build())
-                .skills(allSkillResponses)
-                .weakSkills(weakSkills)
-                .strongSkills(strongSkills)
-                .diagnosticCompleted(!masteries.isEmpty() && masteries.stream().anyMatch(m -> m.getAttempts() > 0))
-                .totalQuestionsAnswered(totalAttempts != null ? totalAttempts.intValue() : 0)
-                .lastUpdatedAt(masteries.stream()
-                        .map(EilSkillMasteryEntity::getLastPracticedAt)
-                        .filter(Objects::nonNull)
-                        .max(LocalDateTime::compareTo)
-                        .orElse(null))
-                .build();
+        return skillMapCache.build(userId, snapshot);
     }
 
     /**
-     * Convert weak skill DTO to skill mastery response.
+     * Detached entity views of all slots of a snapshot.
      */
-    private SkillMasteryResponse toSkillMasteryResponse(WeakSkillDto dto) {
-        return SkillMasteryResponse.builder()
-                .skillId(dto.getSkillId())
-                .skillCode(dto.getSkillCode())
-                .skillName(dto.getSkillName())
-                .skillNameVi(dto.getSkillNameVi())
-                .category(dto.getCategory())
-                .subcategory(dto.getSubcategory())
-                .masteryLevel(dto.getMasteryLevel())
-                .masteryLabel(dto.getMasteryLabel())
-                .attempts(dto.getAttempts())
+    private List<EilSkillMasteryEntity> toEntities(Long userId, UserMasterySnapshot masteries) {
+        List<EilSkillMasteryEntity> result = new ArrayList<>(masteries.size());
+        for (int slot = 0; slot < masteries.size(); slot++) {
+            result.add(toEntity(userId, masteries, slot));
+        }
+        return result;
+    }
+
+    private EilSkillMasteryEntity toEntity(Long userId, UserMasterySnapshot masteries, int slot) {
+        return EilSkillMasteryEntity.builder()
+                .userId(userId)
+                .skillId(masteries.getSkillId(slot))
+                .masteryLevel(masteryCalculator.toDecimal(masteries.getMastery(slot)))
+                .confidence(masteryCalculator.toDecimal(masteryCalculator.calculateConfidence(masteries.getAttempts(slot))))
+                .attempts(masteries.getAttempts(slot))
+                .correctCount(masteries.getCorrectCount(slot))
+                .streak(masteries.getStreak(slot))
+                .lastPracticedAt(masteries.getLastPracticedAt(slot))
                 .build();
     }
 
@@ -438,29 +401,6 @@ public class MasteryService {
                 .build();
     }
 
-    /**
-     * Calculate estimated score range based on mastery.
-     */
-    private SkillMapResponse.ScoreRange calculateScoreRange(BigDecimal mastery) {
-        double value = mastery != null ? mastery.doubleValue() : 0.5;
-
-        // TOEIC score mapping (10-990)
-        int midScore = (int) (10 + value * 980);
-        int minScore = Math.max(10, midScore - 50);
-        int maxScore = Math.min(990, midScore + 50);
-
-        // Round to nearest 5
-        midScore = (midScore / 5) * 5;
-        minScore = (minScore / 5) * 5;
-        maxScore = (maxScore / 5) * 5;
-
-        return SkillMapResponse.ScoreRange.builder()
-                .min(minScore)
-                .max(maxScore)
-                .mid(midScore)
-                .build();
-    }
-
     /**
      * Result of mastery update operation.
      */
@@ -0,0 +1,435 @@
+package com.hth.udecareer.eil.service;
+
+import com.hth.udecareer.eil.algorithm.MasteryCalculator;
+import com.hth.udecareer.eil.entities.EilSkillMasteryEntity;
+import com.hth.udecareer.eil.enums.DifficultyLevel;
+import com.hth.udecareer.eil.model.dto.UserMasterySnapshot;
+import com.hth.udecareer.eil.repository.EilSkillMasteryRepository;
+import com.hth.udecareer.eil.util.LongLongHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-user in-memory skill mastery with write-behind to {@code eil_skill_mastery}.
+ * <p>
+ * A user's rows are loaded once into primitive arrays indexed by skill slot. Answers only update the arrays
+ * and mark the slot dirty; the dirty slots of a user are written in one batch by {@link MasteryStateWriter}
+ * when a diagnostic or practice session ends, every {@code eil.mastery.write-behind.flush-interval-ms} and on
+ * shutdown. Clean users idle for {@code eil.mastery.write-behind.idle-evict-ms} are dropped and reloaded on
+ * next access. With {@code eil.mastery.write-behind.enabled} off every update is written right away.
+ * <p>
+ * The state belongs to this instance and is not rolled back with the answer transaction, so all mastery
+ * reads and writes go through {@link MasteryService}.
+ */
+@Slf4j
+@Component
+public class MasteryStateBuffer {
+
+    private final EilSkillMasteryRepository masteryRepository;
+    private final MasteryStateWriter masteryStateWriter;
+    private final MasteryCalculator masteryCalculator;
+    private final MeterRegistry meterRegistry;
+    private final boolean writeBehindEnabled;
+    private final long idleEvictMillis;
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final Map<Long, UserState> states = new ConcurrentHashMap<>();
+    private Counter flushedCounter;
+    private Counter flushFailedCounter;
+
+    public MasteryStateBuffer(EilSkillMasteryRepository masteryRepository,
+                              MasteryStateWriter masteryStateWriter,
+                              MasteryCalculator masteryCalculator,
+                              MeterRegistry meterRegistry,
+                              @Value("${eil.mastery.write-behind.enabled:true}") boolean writeBehindEnabled,
+                              @Value("${eil.mastery.write-behind.idle-evict-ms:1800000}") long idleEvictMillis) {
+        this.masteryRepository = masteryRepository;
+        this.masteryStateWriter = masteryStateWriter;
+        this.masteryCalculator = masteryCalculator;
+        this.meterRegistry = meterRegistry;
+        this.writeBehindEnabled = writeBehindEnabled;
+        this.idleEvictMillis = idleEvictMillis;
+    }
+
+    /**
+     * A skill row waiting to be written.
+     */
+    public record DirtySkill(long skillId, double mastery, int attempts, int correctCount, int streak,
+                             LocalDateTime lastPracticedAt) {
+    }
+
+    /**
+     * One update of a skill: its slot, mastery before and after, counters after the update and the
+     * state versions before and after it.
+     */
+    public record MasteryStep(int slot, double before, double after, int attempts, int correctCount, int streak,
+                              LocalDateTime practicedAt, long previousVersion, long version) {
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        flushedCounter = Counter.builder("eil.mastery_state.flushed_rows")
+                .description("Mastery rows written by write-behind flushes")
+                .register(meterRegistry);
+        flushFailedCounter = Counter.builder("eil.mastery_state.flush_failures")
+                .description("Write-behind flushes that failed and were kept for retry")
+                .register(meterRegistry);
+        Gauge.builder("eil.mastery_state.users", states, Map::size)
+                .description("Users whose mastery is held in memory")
+                .register(meterRegistry);
+        Gauge.builder("eil.mastery_state.dirty_rows", this, MasteryStateBuffer::dirtyRows)
+                .description("Mastery rows changed in memory and not written yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Apply one answer to the user's mastery of a skill, creating the skill at the initial level if needed.
+     */
+    public MasteryStep update(Long userId, Long skillId, boolean isCorrect, DifficultyLevel difficulty) {
+        final long now = System.currentTimeMillis();
+        final MasteryStep step = withState(userId, state -> {
+            int slot = state.slotOf(skillId);
+            if (slot == UserMasterySnapshot.NOT_FOUND) {
+                slot = state.addSlot(skillId, masteryCalculator.getInitialMasteryLevel(), 0, 0, 0, now);
+            }
+            final long previousVersion = state.version;
+            final double before = state.masteries[slot];
+            final double after = masteryCalculator.nextMastery(before, isCorrect, difficulty, state.attempts[slot]);
+            state.record(slot, after, isCorrect, now);
+            return new MasteryStep(slot, before, after, state.attempts[slot], state.correctCounts[slot],
+                                   state.streaks[slot], toTime(now), previousVersion, state.version);
+        });
+        if (!writeBehindEnabled) {
+            flush(userId);
+        }
+        return step;
+    }
+
+    /**
+     * Add the skills the user has no row for yet, at the initial level. Returns the number added.
+     */
+    public int ensureSkills(Long userId, Collection<Long> skillIds) {
+        final int added = withState(userId, state -> {
+            int count = 0;
+            for (Long skillId : skillIds) {
+                if (state.slotOf(skillId) == UserMasterySnapshot.NOT_FOUND) {
+                    state.addSlot(skillId, masteryCalculator.getInitialMasteryLevel(), 0, 0, 0, 0L);
+                    count++;
+                }
+            }
+            return count;
+        });
+        if (added > 0 && !writeBehindEnabled) {
+            flush(userId);
+        }
+        return added;
+    }
+
+    public UserMasterySnapshot snapshot(Long userId) {
+        return withState(userId, UserState::snapshot);
+    }
+
+    /**
+     * Version of the user's state. Versions come from one sequence, so they also differ across reloads
+     * of the same user.
+     */
+    public long version(Long userId) {
+        return withState(userId, state -> state.version);
+    }
+
+    /**
+     * Write the user's pending changes now. Failures are logged and the rows are kept for the next flush.
+     */
+    public void flush(Long userId) {
+        final UserState state = states.get(userId);
+        if (state != null) {
+            flush(userId, state);
+        }
+    }
+
+    /**
+     * Write all pending changes and drop users that are clean and idle.
+     */
+    @Scheduled(fixedDelayString = "${eil.mastery.write-behind.flush-interval-ms:60000}",
+            initialDelayString = "${eil.mastery.write-behind.flush-interval-ms:60000}")
+    public void flushDirty() {
+        final long idleBefore = System.currentTimeMillis() - idleEvictMillis;
+        int evicted = 0;
+        for (Map.Entry<Long, UserState> entry : states.entrySet()) {
+            final UserState state = entry.getValue();
+            synchronized (state.flushLock) {
+                if (!flush(entry.getKey(), state)) {
+                    continue;
+                }
+                synchronized (state) {
+                    if (state.dirtyCount == 0 && state.lastAccessMillis < idleBefore) {
+                        state.evicted = true;
+                        states.remove(entry.getKey(), state);
+                        evicted++;
+                    }
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted mastery state of {} idle users", evicted);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        int failed = 0;
+        for (Map.Entry<Long, UserState> entry : states.entrySet()) {
+            if (!flush(entry.getKey(), entry.getValue())) {
+                failed++;
+            }
+        }
+        log.info("Flushed mastery state of {} users on shutdown, {} failed", states.size(), failed);
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    private long dirtyRows() {
+        long dirty = 0;
+        for (UserState state : states.values()) {
+            dirty += state.dirtyCount;
+        }
+        return dirty;
+    }
+
+    /**
+     * Drain and write the dirty rows of one user; flushes of the same user never overlap.
+     */
+    private boolean flush(Long userId, UserState state) {
+        synchronized (state.flushLock) {
+            final List<DirtySkill> rows;
+            synchronized (state) {
+                rows = state.drainDirty();
+            }
+            if (rows.isEmpty()) {
+                return true;
+            }
+            try {
+                masteryStateWriter.write(userId, rows);
+                flushedCounter.increment(rows.size());
+                return true;
+            } catch (Exception e) {
+                synchronized (state) {
+                    state.markDirty(rows);
+                }
+                flushFailedCounter.increment();
+                log.error("Failed to flush {} mastery rows for user {}: {}", rows.size(), userId, e.getMessage(), e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Run {@code action} under the user's state lock, retrying when the state was evicted meanwhile.
+     */
+    private <T> T withState(Long userId, Function<UserState, T> action) {
+        while (true) {
+            final UserState state = state(userId);
+            synchronized (state) {
+                if (!state.evicted) {
+                    state.lastAccessMillis = System.currentTimeMillis();
+                    return action.apply(state);
+                }
+            }
+        }
+    }
+
+    private UserState state(Long userId) {
+        final UserState state = states.get(userId);
+        if (state != null) {
+            return state;
+        }
+        final UserState loaded = load(userId);
+        final UserState existing = states.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private UserState load(Long userId) {
+        final List<EilSkillMasteryEntity> rows = masteryRepository.findByUserId(userId);
+        final UserState state = new UserState(rows.size());
+        for (EilSkillMasteryEntity row : rows) {
+            if (state.slotOf(row.getSkillId()) != UserMasterySnapshot.NOT_FOUND) {
+                continue;
+            }
+            state.addSlot(row.getSkillId(),
+                          row.getMasteryLevel() != null
+                                  ? row.getMasteryLevel().doubleValue()
+                                  : masteryCalculator.getInitialMasteryLevel(),
+                          row.getAttempts() != null ? row.getAttempts() : 0,
+                          row.getCorrectCount() != null ? row.getCorrectCount() : 0,
+                          row.getStreak() != null ? row.getStreak() : 0,
+                          toMillis(row.getLastPracticedAt()));
+            state.clearDirty(state.size - 1);
+        }
+        return state;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0L : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toTime(long millis) {
+        return millis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Mastery rows of one user. Guarded by its own monitor; {@link #flushLock} serializes flushes.
+     */
+    private static final class UserState {
+
+        private final Object flushLock = new Object();
+
+        private LongLongHashMap index;
+        private boolean indexShared;
+        private long[] skillIds;
+        private double[] masteries;
+        private int[] attempts;
+        private int[] correctCounts;
+        private int[] streaks;
+        private long[] lastPracticedMillis;
+        private boolean[] dirty;
+        private int size;
+        private long version;
+        private volatile int dirtyCount;
+        private long lastAccessMillis;
+        private boolean evicted;
+
+        private UserState(int expectedSize) {
+            final int capacity = Math.max(8, expectedSize);
+            version = VERSIONS.incrementAndGet();
+            index = new LongLongHashMap(capacity, UserMasterySnapshot.NOT_FOUND);
+            skillIds = new long[capacity];
+            masteries = new double[capacity];
+            attempts = new int[capacity];
+            correctCounts = new int[capacity];
+            streaks = new int[capacity];
+            lastPracticedMillis = new long[capacity];
+            dirty = new boolean[capacity];
+        }
+
+        private int slotOf(long skillId) {
+            return (int) index.get(skillId);
+        }
+
+        /**
+         * Append a skill; new slots are dirty so they get inserted on the next flush.
+         */
+        private int addSlot(long skillId, double mastery, int attemptCount, int correctCount, int streak,
+                            long practicedMillis) {
+            if (size == skillIds.length) {
+                final int capacity = size << 1;
+                skillIds = Arrays.copyOf(skillIds, capacity);
+                masteries = Arrays.copyOf(masteries, capacity);
+                attempts = Arrays.copyOf(attempts, capacity);
+                correctCounts = Arrays.copyOf(correctCounts, capacity);
+                streaks = Arrays.copyOf(streaks, capacity);
+                lastPracticedMillis = Arrays.copyOf(lastPracticedMillis, capacity);
+                dirty = Arrays.copyOf(dirty, capacity);
+            }
+            if (indexShared) {
+                // Snapshots hold the current index; copy before modifying
+                index = new LongLongHashMap(index);
+                indexShared = false;
+            }
+            final int slot = size++;
+            index.put(skillId, slot);
+            skillIds[slot] = skillId;
+            masteries[slot] = mastery;
+            attempts[slot] = attemptCount;
+            correctCounts[slot] = correctCount;
+            streaks[slot] = streak;
+            lastPracticedMillis[slot] = practicedMillis;
+            markDirty(slot);
+            version = VERSIONS.incrementAndGet();
+            return slot;
+        }
+
+        private void record(int slot, double mastery, boolean isCorrect, long now) {
+            masteries[slot] = mastery;
+            attempts[slot]++;
+            if (isCorrect) {
+                correctCounts[slot]++;
+                streaks[slot] = Math.max(0, streaks[slot]) + 1;
+            } else {
+                streaks[slot] = Math.min(0, streaks[slot]) - 1;
+            }
+            lastPracticedMillis[slot] = now;
+            markDirty(slot);
+            version = VERSIONS.incrementAndGet();
+        }
+
+        private void markDirty(int slot) {
+            if (!dirty[slot]) {
+                dirty[slot] = true;
+                dirtyCount++;
+            }
+        }
+
+        private void clearDirty(int slot) {
+            if (dirty[slot]) {
+                dirty[slot] = false;
+                dirtyCount--;
+            }
+        }
+
+        private void markDirty(List<DirtySkill> rows) {
+            for (DirtySkill row : rows) {
+                markDirty(slotOf(row.skillId()));
+            }
+        }
+
+        private List<DirtySkill> drainDirty() {
+            if (dirtyCount == 0) {
+                return List.of();
+            }
+            final List<DirtySkill> rows = new ArrayList<>(dirtyCount);
+            for (int slot = 0; slot < size; slot++) {
+                if (dirty[slot]) {
+                    rows.add(new DirtySkill(skillIds[slot], masteries[slot], attempts[slot], correctCounts[slot],
+                                            streaks[slot], toTime(lastPracticedMillis[slot])));
+                    dirty[slot] = false;
+                }
+            }
+            dirtyCount = 0;
+            return rows;
+        }
+
+        private UserMasterySnapshot snapshot() {
+            indexShared = true;
+            return new UserMasterySnapshot(version,
+                                           index,
+                                           Arrays.copyOf(skillIds, size),
+                                           Arrays.copyOf(masteries, size),
+                                           Arrays.copyOf(attempts, size),
+                                           Arrays.copyOf(correctCounts, size),
+                                           Arrays.copyOf(streaks, size),
+                                           Arrays.copyOf(lastPracticedMillis, size));
+        }
+    }
+}
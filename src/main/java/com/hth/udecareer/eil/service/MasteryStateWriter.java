@@ -0,0 +1,63 @@
+package com.hth.udecareer.eil.service;
+
+import com.hth.udecareer.eil.algorithm.MasteryCalculator;
+import com.hth.udecareer.eil.entities.EilSkillMasteryEntity;
+import com.hth.udecareer.eil.repository.EilSkillMasteryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes flushed {@link MasteryStateBuffer} rows, kept in its own bean so the calls go through the
+ * transaction proxy.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MasteryStateWriter {
+
+    private final EilSkillMasteryRepository masteryRepository;
+    private final MasteryCalculator masteryCalculator;
+
+    /**
+     * Upsert the given rows of one user in a transaction of their own, so a flush at session end commits
+     * independently of the request that triggered it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void write(Long userId, List<MasteryStateBuffer.DirtySkill> rows) {
+        final Map<Long, EilSkillMasteryEntity> existing = masteryRepository
+                .findByUserIdAndSkillIdIn(userId, rows.stream().map(MasteryStateBuffer.DirtySkill::skillId).toList())
+                .stream()
+                .collect(Collectors.toMap(EilSkillMasteryEntity::getSkillId, Function.identity(), (a, b) -> a));
+
+        final List<EilSkillMasteryEntity> entities = new ArrayList<>(rows.size());
+        for (MasteryStateBuffer.DirtySkill row : rows) {
+            EilSkillMasteryEntity entity = existing.get(row.skillId());
+            if (entity == null) {
+                entity = EilSkillMasteryEntity.builder()
+                        .userId(userId)
+                        .skillId(row.skillId())
+                        .build();
+            }
+            entity.setMasteryLevel(masteryCalculator.toDecimal(row.mastery()));
+            entity.setConfidence(masteryCalculator.toDecimal(masteryCalculator.calculateConfidence(row.attempts())));
+            entity.setAttempts(row.attempts());
+            entity.setCorrectCount(row.correctCount());
+            entity.setStreak(row.streak());
+            entity.setLastPracticedAt(row.lastPracticedAt());
+            entities.add(entity);
+        }
+        masteryRepository.saveAll(entities);
+
+        log.debug("Wrote {} mastery rows for user {} ({} new)", entities.size(), userId,
+                  entities.size() - existing.size());
+    }
+}
@@ -7,22 +7,28 @@ import com.hth.udecareer.eil.enums.DifficultyLevel;
 import com.hth.udecareer.eil.enums.SessionStatus;
 import com.hth.udecareer.eil.enums.SessionType;
 import com.hth.udecareer.eil.model.dto.SkillDto;
+import com.hth.udecareer.eil.model.dto.UserMasterySnapshot;
 import com.hth.udecareer.eil.model.request.PracticeStartRequest;
 import com.hth.udecareer.eil.model.request.PracticeSubmitRequest;
 import com.hth.udecareer.eil.model.response.NextQuestionResponse;
+import com.hth.udecareer.eil.model.response.PracticeHistoryResponse;
 import com.hth.udecareer.eil.model.response.PracticeResultResponse;
 import com.hth.udecareer.eil.model.response.PracticeSessionResponse;
 import com.hth.udecareer.eil.model.response.SkillMasteryResponse;
 import com.hth.udecareer.eil.repository.EilPracticeAttemptRepository;
 import com.hth.udecareer.eil.repository.EilPracticeSessionRepository;
-import com.hth.udecareer.entities.QuestionEntity;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
+import com.hth.udecareer.model.dto.AnswerKey;
+import com.hth.udecareer.model.request.PaginationRequest;
 import com.hth.udecareer.model.response.QuestionResponse;
-import com.hth.udecareer.repository.QuestionRepository;
+import com.hth.udecareer.service.GradingEngine;
+import com.hth.udecareer.service.cache.QuestionBankCache;
+import com.hth.udecareer.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,7 +52,9 @@ public class PracticeService {
     private final ReadinessService readinessService;
     private final MasteryCalculator masteryCalculator;
     private final QuestionSelector questionSelector;
-    private final QuestionRepository questionRepository;
+    private final QuestionBankCache questionBankCache;
+    private final GradingEngine gradingEngine;
+    private final PracticeSessionTracker sessionTracker;
 
     @Value("${eil.practice.max-questions:20}")
     private int maxQuestions;
@@ -155,19 +163,19 @@ public class PracticeService {
             throw new AppException(ErrorCode.EIL_PRACTICE_MAX_QUESTIONS_REACHED);
         }
 
-        // Get user's mastery map
-        Map<Long, BigDecimal> masteryMap = masteryService.getMasteryMap(userId);
+        // Get user's masteries (in-memory state)
+        UserMasterySnapshot masteries = masteryService.getMasterySnapshot(userId);
 
-        // Get recent questions to avoid
-        Set<Long> recentQuestionIds = getRecentQuestionIds(session.getId());
+        // Get recent questions and skills to avoid
+        PracticeSessionTracker.History history = sessionTracker.get(session.getId());
 
         // Select next skill based on session type
         SessionType sessionType = SessionType.valueOf(session.getSessionType());
         Long selectedSkillId = questionSelector.selectNextSkill(
-                masteryMap,
+                masteries,
                 sessionType,
                 session.getTargetSkillId(),
-                getRecentSkillIds(session.getId())
+                history.skillIds()
         );
 
         if (selectedSkillId == null) {
@@ -175,33 +183,22 @@ public class PracticeService {
         }
 
         // Get mastery level for selected skill
-        BigDecimal mastery = masteryMap.getOrDefault(selectedSkillId, masteryCalculator.getInitialMastery());
+        double mastery = masteries.getMasteryOf(selectedSkillId, masteryCalculator.getInitialMasteryLevel());
 
         // Determine target difficulty
         DifficultyLevel targetDifficulty = questionSelector.selectTargetDifficulty(mastery);
 
-        // Get question candidates for this skill and difficulty
-        List<Long> candidates = skillService.getQuestionIdsForSkillAndDifficulty(
-                selectedSkillId, targetDifficulty.getLevel());
+        // Pick a random unseen question from the skill's pool for this difficulty (all of its questions if none)
+        long[] pool = skillService.getQuestionPool(selectedSkillId, targetDifficulty.getLevel());
+        long picked = questionSelector.pickQuestion(pool, history.recentQuestions());
 
-        // If no questions at exact difficulty, expand search
-        if (candidates.isEmpty()) {
-            candidates = skillService.getQuestionIdsForSkill(selectedSkillId);
-        }
-
-        // Filter out recent questions
-        candidates = questionSelector.filterRecentQuestions(candidates, recentQuestionIds);
-
-        if (candidates.isEmpty()) {
+        if (picked == QuestionSelector.NO_QUESTION) {
             throw new AppException(ErrorCode.EIL_PRACTICE_NO_QUESTIONS_AVAILABLE);
         }
-
-        // Select a random question from candidates
-        Long selectedQuestionId = candidates.get(new Random().nextInt(candidates.size()));
+        Long selectedQuestionId = picked;
 
         // Load question entity and convert to response
-        QuestionResponse questionResponse = questionRepository.findById(selectedQuestionId)
-                .map(QuestionResponse::from)
+        QuestionResponse questionResponse = questionBankCache.findById(selectedQuestionId)
                 .orElseThrow(() -> new AppException(ErrorCode.EIL_PRACTICE_NO_QUESTIONS_AVAILABLE));
 
         // Get skill info
@@ -270,16 +267,10 @@ public class PracticeService {
         int timeSpent = request.getTimeSpentSeconds() != null ? request.getTimeSpentSeconds() : 0;
         int difficulty = 3; // Default difficulty
 
-        // Get mastery before update
-        BigDecimal masteryBefore = BigDecimal.ZERO;
-        MasteryService.MasteryUpdateResult masteryResult = null;
-
-        // Always update mastery since skillId is guaranteed non-null
-        masteryBefore = masteryService.getOrCreateMastery(userId, skillId).getMasteryLevel();
-
-        // Update mastery
+        // Update mastery (always, since skillId is guaranteed non-null)
         DifficultyLevel diffLevel = DifficultyLevel.fromLevel(difficulty);
-        masteryResult = masteryService.updateMastery(userId, skillId, isCorrect, diffLevel);
+        MasteryService.MasteryUpdateResult masteryResult = masteryService.updateMastery(userId, skillId, isCorrect, diffLevel);
+        BigDecimal masteryBefore = masteryResult.getMasteryBefore();
 
         // Calculate points
         int points = calculatePoints(isCorrect, difficulty, session.getCorrectCount());
@@ -302,6 +293,7 @@ public class PracticeService {
                 .build();
 
         attempt = attemptRepository.save(attempt);
+        sessionTracker.recordAttempt(session.getId(), request.getQuestionId(), skillId);
 
         // Update session
         session.setTotalQuestions(session.getTotalQuestions() + 1);
@@ -327,8 +319,10 @@ public class PracticeService {
 
         sessionRepository.save(session);
 
-        // Create readiness snapshot when session auto-completes
+        // Write mastery and create readiness snapshot when session auto-completes
         if (isComplete) {
+            masteryService.flush(userId);
+            sessionTracker.remove(session.getId());
             try {
                 String testType = session.getSessionType();
                 readinessService.createSnapshot(userId, testType, session.getTotalQuestions(), session.getCorrectCount());
@@ -377,6 +371,8 @@ public class PracticeService {
             session.setStatus(SessionStatus.COMPLETED.name());
             session.setEndTime(LocalDateTime.now());
             sessionRepository.save(session);
+            masteryService.flush(userId);
+            sessionTracker.remove(session.getId());
 
             // Create readiness snapshot after practice session completion
             try {
@@ -406,6 +402,40 @@ public class PracticeService {
         return buildSessionResponse(session);
     }
 
+    /**
+     * Get a page of user's completed practice sessions, newest first, starting after the cursor
+     * (from the previous page's nextCursor; none for the first page).
+     */
+    public PracticeHistoryResponse getPracticeHistory(Long userId, int size, String cursor) throws AppException {
+        if (size < 1 || size > PaginationRequest.MAX_SIZE) {
+            throw new AppException(ErrorCode.VALIDATION_ERROR, "size must be between 1 and " + PaginationRequest.MAX_SIZE);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<EilPracticeSessionEntity> sessions = after != null
+                ? sessionRepository.findCompletedPageAfter(userId, after.time(), after.id(), limit)
+                : sessionRepository.findCompletedPage(userId, limit);
+        boolean hasMore = sessions.size() > size;
+        if (hasMore) {
+            sessions = sessions.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            EilPracticeSessionEntity last = sessions.get(sessions.size() - 1);
+            nextCursor = new KeysetCursor(last.getEndTime(), last.getId()).encode();
+        }
+
+        return PracticeHistoryResponse.builder()
+                .items(sessions.stream().map(this::buildSessionResponse).collect(Collectors.toList()))
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
     /**
      * Build session response from entity.
      */
@@ -436,25 +466,6 @@ public class PracticeService {
                 .build();
     }
 
-    /**
-     * Get recent question IDs from a session.
-     */
-    private Set<Long> getRecentQuestionIds(Long sessionId) {
-        return attemptRepository.findBySessionId(sessionId).stream()
-                .map(EilPracticeAttemptEntity::getQuestionId)
-                .collect(Collectors.toSet());
-    }
-
-    /**
-     * Get recent skill IDs from a session.
-     */
-    private Set<Long> getRecentSkillIds(Long sessionId) {
-        return attemptRepository.findBySessionId(sessionId).stream()
-                .map(EilPracticeAttemptEntity::getSkillId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-    }
-
     /**
      * Calculate points earned for an answer.
      */
@@ -498,59 +509,25 @@ public class PracticeService {
             return false;
         }
 
-        // Fetch question from database
-        QuestionEntity question = questionRepository.findById(questionId).orElse(null);
-        if (question == null || question.getAnswerData() == null) {
-            log.warn("Question not found or has no answer data: {}", questionId);
+        // Precomputed answer key (correct options bitmask) from the question bank
+        AnswerKey answerKey = questionBankCache.findAnswerKey(questionId).orElse(null);
+        if (answerKey == null) {
+            log.warn("Question not found: {}", questionId);
             return false;
         }
-
-        // Parse question to get answer options with correct flags
-        QuestionResponse questionResponse = QuestionResponse.from(question);
-        List<QuestionResponse.AnswerData> answerOptions = questionResponse.getAnswerData();
-
-        if (answerOptions == null || answerOptions.isEmpty()) {
+        if (answerKey.getOptionCount() == 0) {
             log.warn("Question {} has no parsed answer options", questionId);
             return false;
         }
-
-        // Validate array sizes match
-        if (userAnswerData.size() != answerOptions.size()) {
+        if (userAnswerData.size() != answerKey.getOptionCount()) {
             log.warn("Answer array size mismatch: user={}, question={} for questionId={}",
-                    userAnswerData.size(), answerOptions.size(), questionId);
-            // Still try to validate with available data
-        }
-
-        // Compare user selections against correct answers
-        // For single choice: exactly one correct answer must be selected
-        // For multiple choice: all correct answers must be selected, no incorrect ones
-        int correctCount = 0;
-        int userCorrectSelections = 0;
-        int userIncorrectSelections = 0;
-
-        for (int i = 0; i < answerOptions.size(); i++) {
-            QuestionResponse.AnswerData option = answerOptions.get(i);
-            boolean isCorrectOption = option.isCorrect();
-            boolean userSelected = i < userAnswerData.size() && Boolean.TRUE.equals(userAnswerData.get(i));
-
-            if (isCorrectOption) {
-                correctCount++;
-                if (userSelected) {
-                    userCorrectSelections++;
-                }
-            } else {
-                if (userSelected) {
-                    userIncorrectSelections++;
-                }
-            }
+                    userAnswerData.size(), answerKey.getOptionCount(), questionId);
+            // Still grade the options the user sent
         }
 
-        // Answer is correct if user selected all correct options and no incorrect ones
-        boolean isCorrect = (userCorrectSelections == correctCount) && (userIncorrectSelections == 0);
-
-        log.debug("Question {}: correctOptions={}, userCorrect={}, userIncorrect={}, result={}",
-                questionId, correctCount, userCorrectSelections, userIncorrectSelections, isCorrect);
-
+        // All correct options and no incorrect one must be selected
+        boolean isCorrect = gradingEngine.isCorrectSelection(answerKey, userAnswerData);
+        log.debug("Question {}: result={}", questionId, isCorrect);
         return isCorrect;
     }
 }
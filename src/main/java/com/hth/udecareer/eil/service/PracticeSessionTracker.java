@@ -0,0 +1,84 @@
+package com.hth.udecareer.eil.service;
+
+import com.hth.udecareer.eil.algorithm.QuestionSelector;
+import com.hth.udecareer.eil.algorithm.RecentQuestions;
+import com.hth.udecareer.eil.entities.EilPracticeAttemptEntity;
+import com.hth.udecareer.eil.model.dto.PracticeSessionState;
+import com.hth.udecareer.eil.repository.EilPracticeAttemptRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Answered questions and practiced skills per active practice session, so picking the next question does
+ * not re-read the session's attempts.
+ * <p>
+ * The state lives in {@link SessionStateStore}. A session is loaded from eil_practice_attempts on first use
+ * (one query) and then kept up to date by {@link #recordAttempt}; a state that is missing from the store
+ * is simply loaded again.
+ */
+@Component
+public class PracticeSessionTracker {
+
+    private final EilPracticeAttemptRepository attemptRepository;
+    private final SessionStateStore sessionStateStore;
+    private final int recentCapacity;
+
+    public PracticeSessionTracker(EilPracticeAttemptRepository attemptRepository,
+                                  SessionStateStore sessionStateStore,
+                                  QuestionSelector questionSelector) {
+        this.attemptRepository = attemptRepository;
+        this.sessionStateStore = sessionStateStore;
+        this.recentCapacity = questionSelector.getRecentQuestionsBufferSize();
+    }
+
+    /**
+     * Copy of a session's history.
+     *
+     * @param recentQuestions Last answered question IDs
+     * @param skillIds        Skills practiced in the session
+     */
+    public record History(RecentQuestions recentQuestions, Set<Long> skillIds) {
+    }
+
+    /**
+     * History of a session (by eil_practice_sessions.id), loaded on first use.
+     */
+    public History get(Long sessionId) {
+        PracticeSessionState state = sessionStateStore.get(stateKey(sessionId), PracticeSessionState.class);
+        if (state == null) {
+            state = new PracticeSessionState();
+            for (EilPracticeAttemptEntity attempt : attemptRepository.findBySessionIdOrderByQuestionOrderAsc(sessionId)) {
+                state.recordAttempt(attempt.getQuestionId(), attempt.getSkillId(), recentCapacity);
+            }
+            sessionStateStore.put(stateKey(sessionId), state);
+        }
+
+        RecentQuestions recentQuestions = new RecentQuestions(recentCapacity);
+        for (Long questionId : state.getRecentQuestionIds()) {
+            recentQuestions.add(questionId);
+        }
+        return new History(recentQuestions, new LinkedHashSet<>(state.getSkillIds()));
+    }
+
+    /**
+     * Add an answered question to a session that is already tracked; untracked sessions load it from the
+     * attempt table when next used.
+     */
+    public void recordAttempt(Long sessionId, long questionId, Long skillId) {
+        PracticeSessionState state = sessionStateStore.get(stateKey(sessionId), PracticeSessionState.class);
+        if (state != null) {
+            state.recordAttempt(questionId, skillId, recentCapacity);
+            sessionStateStore.put(stateKey(sessionId), state);
+        }
+    }
+
+    public void remove(Long sessionId) {
+        sessionStateStore.remove(stateKey(sessionId));
+    }
+
+    private static String stateKey(Long sessionId) {
+        return "practice:" + sessionId;
+    }
+}
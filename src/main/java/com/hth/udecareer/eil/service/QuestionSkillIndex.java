@@ -0,0 +1,415 @@
+package com.hth.udecareer.eil.service;
+
+import com.hth.udecareer.eil.entities.EilQuestionSkillEntity;
+import com.hth.udecareer.eil.entities.WpEzQuestionSkillEntity;
+import com.hth.udecareer.eil.entities.WpEzSkillEntity;
+import com.hth.udecareer.eil.repository.EilQuestionSkillRepository;
+import com.hth.udecareer.eil.repository.WpEzQuestionSkillRepository;
+import com.hth.udecareer.eil.repository.WpEzSkillRepository;
+import com.hth.udecareer.eil.util.LongLongHashMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versioned in-memory index of question-to-skill mappings.
+ * <p>
+ * Holds question → primary skill (eil_question_skills first, wp_ez_question_skills by weight as fallback),
+ * skill → question ids per confidence level and certification → active skills, so diagnostic start and
+ * practice question selection never query the mapping tables.
+ * <p>
+ * Each rebuild publishes a new immutable {@link Snapshot}; readers always see a consistent version.
+ * The index is loaded at startup, rebuilt when the mapping tables change (signature check on a schedule)
+ * and patched incrementally when a single mapping is saved through {@link SkillService#mapQuestionToSkill}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuestionSkillIndex {
+
+    public static final long NO_SKILL = -1L;
+
+    private static final String STATUS_ACTIVE = "active";
+    private static final String CONF_HIGH = "high";
+    private static final String CONF_MEDIUM = "medium";
+    private static final String CONF_LOW = "low";
+    private static final long[] EMPTY = new long[0];
+
+    private final EilQuestionSkillRepository questionSkillRepository;
+    private final WpEzQuestionSkillRepository wpQuestionSkillRepository;
+    private final WpEzSkillRepository wpSkillRepository;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Snapshot snapshot;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        rebuildTimer = Timer.builder("eil.question_skill_index.rebuild")
+                .description("Time to rebuild the question-skill index")
+                .register(meterRegistry);
+        Gauge.builder("eil.question_skill_index.size", this, QuestionSkillIndex::size)
+                .description("Number of question-skill mappings held in memory")
+                .register(meterRegistry);
+        Gauge.builder("eil.question_skill_index.version", this, QuestionSkillIndex::getVersion)
+                .description("Current index version")
+                .register(meterRegistry);
+        Gauge.builder("eil.question_skill_index.last_rebuild_ms", this, QuestionSkillIndex::getLastRebuildMillis)
+                .description("Duration of the last full rebuild in milliseconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Will be loaded lazily on first access
+            log.error("Failed to load question-skill index at startup: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild the index if any mapping table changed since the current version was built.
+     */
+    @Scheduled(fixedDelayString = "${eil.skill-index.refresh-interval-ms:300000}",
+            initialDelayString = "${eil.skill-index.refresh-interval-ms:300000}")
+    public void refreshIfChanged() {
+        try {
+            Snapshot current = snapshot;
+            if (current == null || !current.signature.equals(readSignature())) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Question-skill index refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Full rebuild from the mapping tables (three queries), then atomic swap.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        String signature = readSignature();
+
+        List<EilQuestionSkillEntity> eilMappings = questionSkillRepository.findAll();
+        List<WpEzQuestionSkillEntity> wpMappings = wpQuestionSkillRepository.findAll();
+        List<WpEzSkillEntity> activeSkills = wpSkillRepository.findByStatusOrderBySortOrderAsc(STATUS_ACTIVE);
+
+        // eil_question_skills: first primary mapping (by id) wins
+        eilMappings.sort(Comparator.comparing(EilQuestionSkillEntity::getId));
+        LongLongHashMap eilPrimary = new LongLongHashMap(eilMappings.size(), NO_SKILL);
+        for (EilQuestionSkillEntity qs : eilMappings) {
+            if (Boolean.TRUE.equals(qs.getIsPrimary())) {
+                eilPrimary.putIfAbsent(qs.getQuestionId(), qs.getSkillId());
+            }
+        }
+
+        // wp_ez_question_skills: highest weight per question, question lists per skill and confidence
+        wpMappings.sort(Comparator.comparing(WpEzQuestionSkillEntity::getId));
+        LongLongHashMap wpTopSkill = new LongLongHashMap(wpMappings.size(), NO_SKILL);
+        LongLongHashMap wpTopWeight = new LongLongHashMap(wpMappings.size(), Long.MIN_VALUE);
+        Map<Long, SkillQuestionsBuilder> builders = new HashMap<>();
+        for (WpEzQuestionSkillEntity qs : wpMappings) {
+            long questionId = qs.getQuestionId();
+            long weight = scaledWeight(qs.getWeight());
+            if (weight > wpTopWeight.get(questionId)) {
+                wpTopWeight.put(questionId, weight);
+                wpTopSkill.put(questionId, qs.getSkillId());
+            }
+            builders.computeIfAbsent(qs.getSkillId(), k -> new SkillQuestionsBuilder())
+                    .add(questionId, qs.getConfidence());
+        }
+        Map<Long, SkillQuestions> skillQuestions = new HashMap<>(builders.size() * 2);
+        builders.forEach((skillId, builder) -> skillQuestions.put(skillId, builder.build()));
+
+        // Certification → active skills in sort order
+        Map<String, List<Long>> certSkillLists = new HashMap<>();
+        for (WpEzSkillEntity skill : activeSkills) {
+            certSkillLists.computeIfAbsent(skill.getCertificationId(), k -> new ArrayList<>()).add(skill.getId());
+        }
+        Map<String, long[]> certificationSkills = new HashMap<>(certSkillLists.size() * 2);
+        certSkillLists.forEach((certId, ids) -> certificationSkills.put(certId, toArray(ids)));
+
+        long elapsedNanos = System.nanoTime() - start;
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(
+                previous == null ? 1 : previous.version + 1,
+                signature,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                eilPrimary,
+                wpTopSkill,
+                skillQuestions,
+                certificationSkills,
+                wpMappings.size());
+        if (rebuildTimer != null) {
+            rebuildTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        log.info("Question-skill index v{} built in {} ms: {} wp mappings, {} eil primary, {} skills, {} certifications",
+                snapshot.version, snapshot.rebuildMillis, wpMappings.size(), eilPrimary.size(),
+                skillQuestions.size(), certificationSkills.size());
+    }
+
+    /**
+     * Incremental update after an eil_question_skills mapping of one question changed.
+     * Re-reads that question's primary mapping and publishes a new version (copy-on-write).
+     */
+    public synchronized void refreshQuestion(long questionId) {
+        Snapshot current = current();
+        LongLongHashMap eilPrimary = new LongLongHashMap(current.eilPrimarySkill);
+        eilPrimary.remove(questionId);
+        questionSkillRepository.findByQuestionIdAndIsPrimaryTrue(questionId).stream()
+                .min(Comparator.comparing(EilQuestionSkillEntity::getId))
+                .ifPresent(qs -> eilPrimary.put(questionId, qs.getSkillId()));
+
+        snapshot = new Snapshot(
+                current.version + 1,
+                current.signature,
+                current.rebuildMillis,
+                eilPrimary,
+                current.wpTopSkill,
+                current.skillQuestions,
+                current.certificationSkills,
+                current.wpMappingCount);
+        log.debug("Question-skill index v{}: refreshed primary skill of question {}", snapshot.version, questionId);
+    }
+
+    // ============= LOOKUPS =============
+
+    /**
+     * Primary skill of a question from eil_question_skills, or {@link #NO_SKILL}.
+     */
+    public long getEilPrimarySkillId(long questionId) {
+        return current().eilPrimarySkill.get(questionId);
+    }
+
+    /**
+     * Highest-weight skill of a question from wp_ez_question_skills, or {@link #NO_SKILL}.
+     */
+    public long getWpTopSkillId(long questionId) {
+        return current().wpTopSkill.get(questionId);
+    }
+
+    /**
+     * Distinct question ids mapped to a skill (wp_ez_question_skills).
+     */
+    public long[] getQuestionIds(long skillId) {
+        SkillQuestions questions = current().skillQuestions.get(skillId);
+        return questions != null ? questions.all : EMPTY;
+    }
+
+    /**
+     * Distinct question ids mapped to a skill with the given confidence level.
+     */
+    public long[] getQuestionIds(long skillId, String confidence) {
+        SkillQuestions questions = current().skillQuestions.get(skillId);
+        if (questions == null) {
+            return EMPTY;
+        }
+        switch (confidence) {
+            case CONF_HIGH:
+                return questions.high;
+            case CONF_MEDIUM:
+                return questions.medium;
+            case CONF_LOW:
+                return questions.low;
+            default:
+                return EMPTY;
+        }
+    }
+
+    /**
+     * Practice pool of a skill for a difficulty level (1-5): high and medium confidence questions for easy
+     * levels, medium for level 3, medium and low for hard levels. Arrays are shared and must not be modified.
+     */
+    public long[] getQuestionIdsForDifficulty(long skillId, int difficulty) {
+        SkillQuestions questions = current().skillQuestions.get(skillId);
+        if (questions == null) {
+            return EMPTY;
+        }
+        if (difficulty <= 2) {
+            return questions.easyPool;
+        }
+        return difficulty == 3 ? questions.medium : questions.hardPool;
+    }
+
+    /**
+     * Active skill ids of a certification, in sort order.
+     */
+    public long[] getSkillIdsForCertification(String certificationId) {
+        if (certificationId == null) {
+            return EMPTY;
+        }
+        return current().certificationSkills.getOrDefault(certificationId, EMPTY);
+    }
+
+    /**
+     * Question ids grouped by skill for all mapped skills.
+     */
+    public Map<Long, List<Long>> getQuestionsGroupedBySkill() {
+        Snapshot current = current();
+        Map<Long, List<Long>> result = new HashMap<>(current.skillQuestions.size() * 2);
+        current.skillQuestions.forEach((skillId, questions) -> result.put(skillId, toList(questions.all)));
+        return result;
+    }
+
+    /**
+     * Question ids grouped by skill, restricted to the given skills (skills without questions are omitted).
+     */
+    public Map<Long, List<Long>> getQuestionsGroupedBySkill(long[] skillIds) {
+        Snapshot current = current();
+        Map<Long, List<Long>> result = new HashMap<>();
+        for (long skillId : skillIds) {
+            SkillQuestions questions = current.skillQuestions.get(skillId);
+            if (questions != null && questions.all.length > 0) {
+                result.put(skillId, toList(questions.all));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.wpMappingCount;
+    }
+
+    public long getVersion() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.version;
+    }
+
+    public long getLastRebuildMillis() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.rebuildMillis;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    rebuild();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private String readSignature() {
+        return wpQuestionSkillRepository.findChangeSignature()
+                + "|" + questionSkillRepository.findChangeSignature()
+                + "|" + wpSkillRepository.findChangeSignature();
+    }
+
+    private static long scaledWeight(BigDecimal weight) {
+        return weight == null ? 100L : weight.movePointRight(2).longValue();
+    }
+
+    private static long[] toArray(Collection<Long> ids) {
+        long[] result = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            result[i++] = id;
+        }
+        return result;
+    }
+
+    private static long[] union(long[] first, long[] second) {
+        Set<Long> ids = new LinkedHashSet<>(first.length + second.length);
+        for (long id : first) {
+            ids.add(id);
+        }
+        for (long id : second) {
+            ids.add(id);
+        }
+        return toArray(ids);
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    // ============= INTERNAL STRUCTURES =============
+
+    private static final class Snapshot {
+        private final long version;
+        private final String signature;
+        private final long rebuildMillis;
+        private final LongLongHashMap eilPrimarySkill;
+        private final LongLongHashMap wpTopSkill;
+        private final Map<Long, SkillQuestions> skillQuestions;
+        private final Map<String, long[]> certificationSkills;
+        private final int wpMappingCount;
+
+        private Snapshot(long version, String signature, long rebuildMillis,
+                         LongLongHashMap eilPrimarySkill, LongLongHashMap wpTopSkill,
+                         Map<Long, SkillQuestions> skillQuestions, Map<String, long[]> certificationSkills,
+                         int wpMappingCount) {
+            this.version = version;
+            this.signature = signature;
+            this.rebuildMillis = rebuildMillis;
+            this.eilPrimarySkill = eilPrimarySkill;
+            this.wpTopSkill = wpTopSkill;
+            this.skillQuestions = skillQuestions;
+            this.certificationSkills = certificationSkills;
+            this.wpMappingCount = wpMappingCount;
+        }
+    }
+
+    private static final class SkillQuestions {
+        private final long[] all;
+        private final long[] high;
+        private final long[] medium;
+        private final long[] low;
+        private final long[] easyPool;
+        private final long[] hardPool;
+
+        private SkillQuestions(long[] all, long[] high, long[] medium, long[] low) {
+            this.all = all;
+            this.high = high;
+            this.medium = medium;
+            this.low = low;
+            this.easyPool = union(high, medium);
+            this.hardPool = union(medium, low);
+        }
+    }
+
+    private static final class SkillQuestionsBuilder {
+        private final Set<Long> all = new LinkedHashSet<>();
+        private final Set<Long> high = new LinkedHashSet<>();
+        private final Set<Long> medium = new LinkedHashSet<>();
+        private final Set<Long> low = new LinkedHashSet<>();
+
+        private void add(long questionId, String confidence) {
+            all.add(questionId);
+            if (CONF_HIGH.equals(confidence)) {
+                high.add(questionId);
+            } else if (CONF_MEDIUM.equals(confidence)) {
+                medium.add(questionId);
+            } else if (CONF_LOW.equals(confidence)) {
+                low.add(questionId);
+            }
+        }
+
+        private SkillQuestions build() {
+            return new SkillQuestions(toArray(all), toArray(high), toArray(medium), toArray(low));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.hth.udecareer.eil.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed state of active diagnostic and practice sessions.
+ * <p>
+ * With {@code eil.session-state.redis-enabled} the state lives in Redis, so every node sees the same copy;
+ * otherwise it is kept in a local LRU map (single node). The store is a cache: callers rebuild a missing
+ * state from the database, and a Redis failure is logged and treated as a miss. Inside a transaction,
+ * writes are applied after commit, so a rolled back request never leaves state the database does not have.
+ */
+@Slf4j
+@Component
+public class SessionStateStore {
+
+    private static final String KEY_PREFIX = "eil:session-state:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean redisEnabled;
+    private final Duration ttl;
+    private final int localMaxSize;
+    private final LinkedHashMap<String, Object> local;
+
+    public SessionStateStore(RedisTemplate<String, Object> redisTemplate,
+                             @Value("${eil.session-state.redis-enabled:true}") boolean redisEnabled,
+                             @Value("${eil.session-state.ttl-minutes:180}") long ttlMinutes,
+                             @Value("${eil.session-state.local-max-size:10000}") int localMaxSize) {
+        this.redisTemplate = redisTemplate;
+        this.redisEnabled = redisEnabled;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.localMaxSize = localMaxSize;
+        this.local = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > SessionStateStore.this.localMaxSize;
+            }
+        };
+    }
+
+    /**
+     * State stored under {@code key}, or {@code null} when there is none (or it has another type).
+     */
+    public <T> T get(String key, Class<T> type) {
+        Object value;
+        if (redisEnabled) {
+            try {
+                value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            } catch (Exception e) {
+                log.warn("Failed to read session state {} from Redis: {}", key, e.getMessage());
+                return null;
+            }
+        } else {
+            synchronized (local) {
+                value = local.get(key);
+            }
+        }
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    /**
+     * Store a state; deferred until commit when a transaction is active, dropped on rollback.
+     */
+    public void put(String key, Object value) {
+        afterCommit(() -> write(key, value), () -> delete(key));
+    }
+
+    /**
+     * Remove a state now and again after the transaction completes.
+     */
+    public void remove(String key) {
+        delete(key);
+        afterCommit(() -> delete(key), () -> delete(key));
+    }
+
+    private void write(String key, Object value) {
+        if (!redisEnabled) {
+            synchronized (local) {
+                local.put(key, value);
+            }
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, value, ttl);
+        } catch (Exception e) {
+            log.warn("Failed to write session state {} to Redis: {}", key, e.getMessage());
+            // Do not leave an older copy behind
+            delete(key);
+        }
+    }
+
+    private void delete(String key) {
+        if (!redisEnabled) {
+            synchronized (local) {
+                local.remove(key);
+            }
+            return;
+        }
+        try {
+            redisTemplate.delete(KEY_PREFIX + key);
+        } catch (Exception e) {
+            log.warn("Failed to delete session state {} from Redis: {}", key, e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,395 @@
+package com.hth.udecareer.eil.service;
+
+import com.hth.udecareer.eil.algorithm.MasteryCalculator;
+import com.hth.udecareer.eil.entities.EilSkillEntity;
+import com.hth.udecareer.eil.enums.EstimatedLevel;
+import com.hth.udecareer.eil.model.dto.UserMasterySnapshot;
+import com.hth.udecareer.eil.model.response.SkillMapResponse;
+import com.hth.udecareer.eil.model.response.SkillMasteryResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Skill map per user, kept next to the in-memory mastery state.
+ * <p>
+ * An entry is tagged with the {@link MasteryStateBuffer#version(Long) state version} it reflects. Each
+ * answer is applied as a delta when the entry is exactly one step behind ({@link #onMasteryChanged}); any
+ * other change (new skills, reload after eviction, a missed step) leaves the entry on an old version, so the
+ * next {@link #get} misses and the caller rebuilds it. Skill names and categories are read once per build,
+ * so entries also expire after the max age.
+ */
+@Component
+public class SkillMapCache {
+
+    private static final String[] CATEGORIES = {"LISTENING", "READING", "GRAMMAR", "VOCABULARY"};
+    private static final double WEAK_THRESHOLD = 0.4;
+    private static final double STRONG_THRESHOLD = 0.8;
+    private static final int TOP_SKILLS = 5;
+
+    private final SkillService skillService;
+    private final MasteryCalculator masteryCalculator;
+    private final int maxSize;
+    private final long maxAgeMillis;
+    private final LinkedHashMap<Long, Entry> cache;
+
+    public SkillMapCache(SkillService skillService,
+                         MasteryCalculator masteryCalculator,
+                         @Value("${eil.skill-map-cache.max-size:10000}") int maxSize,
+                         @Value("${eil.skill-map-cache.max-age-ms:600000}") long maxAgeMillis) {
+        this.skillService = skillService;
+        this.masteryCalculator = masteryCalculator;
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > SkillMapCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Cached skill map of the user at {@code version}, or {@code null} when there is none.
+     */
+    public SkillMapResponse get(Long userId, long version) {
+        final Entry entry = entry(userId);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            if (entry.version != version || entry.builtAtMillis < System.currentTimeMillis() - maxAgeMillis) {
+                return null;
+            }
+            return entry.toResponse(userId);
+        }
+    }
+
+    /**
+     * Build the skill map of a snapshot and cache it under the snapshot's version.
+     */
+    public SkillMapResponse build(Long userId, UserMasterySnapshot masteries) {
+        final List<Long> skillIds = new ArrayList<>(masteries.size());
+        for (int slot = 0; slot < masteries.size(); slot++) {
+            skillIds.add(masteries.getSkillId(slot));
+        }
+        final Map<Long, EilSkillEntity> skills = skillService.getSkillsByIds(skillIds);
+
+        final Map<Long, String> categoryBySkill = new HashMap<>();
+        for (EilSkillEntity skill : skillService.getAllActiveSkills()) {
+            if (skill.getCategory() != null) {
+                categoryBySkill.put(skill.getId(), skill.getCategory());
+            }
+        }
+        final Set<String> activeCategories = new HashSet<>(skillService.getAllActiveCategories());
+
+        final Entry entry = new Entry(masteries, skills, categoryBySkill, activeCategories);
+        synchronized (this) {
+            final Entry current = cache.get(userId);
+            if (current == null || current.version < entry.version) {
+                cache.put(userId, entry);
+            }
+        }
+        synchronized (entry) {
+            return entry.toResponse(userId);
+        }
+    }
+
+    /**
+     * Apply one answer to the cached skill map, if it is at the version the answer started from.
+     */
+    public void onMasteryChanged(Long userId, long skillId, MasteryStateBuffer.MasteryStep step) {
+        final Entry entry = entry(userId);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.version == step.previousVersion()
+                && step.slot() < entry.skillIds.length
+                && entry.skillIds[step.slot()] == skillId) {
+                entry.apply(step);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private synchronized Entry entry(Long userId) {
+        return cache.get(userId);
+    }
+
+    private final class Entry {
+
+        private final long builtAtMillis = System.currentTimeMillis();
+        private long version;
+
+        private final long[] skillIds;
+        private final double[] masteries;
+        private final int[] attempts;
+        private final int[] categories;
+        private final SkillMasteryResponse[] responses;
+        private final EilSkillEntity[] skills;
+
+        private final boolean[] activeCategories = new boolean[CATEGORIES.length];
+        private final double[] categorySums = new double[CATEGORIES.length];
+        private final int[] categoryCounts = new int[CATEGORIES.length];
+        private double masterySum;
+        private long totalAttempts;
+        private int practicedCount;
+        private LocalDateTime lastUpdatedAt;
+
+        private List<SkillMasteryResponse> weakSkills;
+        private List<SkillMasteryResponse> strongSkills;
+
+        private Entry(UserMasterySnapshot snapshot, Map<Long, EilSkillEntity> skillById,
+                      Map<Long, String> categoryBySkill, Set<String> active) {
+            final int size = snapshot.size();
+            this.version = snapshot.getVersion();
+            this.skillIds = new long[size];
+            this.masteries = new double[size];
+            this.attempts = new int[size];
+            this.categories = new int[size];
+            this.responses = new SkillMasteryResponse[size];
+            this.skills = new EilSkillEntity[size];
+
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                activeCategories[c] = active.contains(CATEGORIES[c]);
+            }
+
+            for (int slot = 0; slot < size; slot++) {
+                final long skillId = snapshot.getSkillId(slot);
+                skillIds[slot] = skillId;
+                masteries[slot] = snapshot.getMastery(slot);
+                attempts[slot] = snapshot.getAttempts(slot);
+                categories[slot] = categoryIndex(categoryBySkill.get(skillId));
+                skills[slot] = skillById.get(skillId);
+
+                masterySum += masteries[slot];
+                totalAttempts += attempts[slot];
+                if (attempts[slot] > 0) {
+                    practicedCount++;
+                }
+                if (categories[slot] >= 0) {
+                    categorySums[categories[slot]] += masteries[slot];
+                    categoryCounts[categories[slot]]++;
+                }
+                final LocalDateTime practicedAt = snapshot.getLastPracticedAt(slot);
+                if (practicedAt != null && (lastUpdatedAt == null || practicedAt.isAfter(lastUpdatedAt))) {
+                    lastUpdatedAt = practicedAt;
+                }
+                responses[slot] = slotResponse(slot, snapshot.getCorrectCount(slot), snapshot.getStreak(slot), practicedAt);
+            }
+            rankSkills();
+        }
+
+        private void apply(MasteryStateBuffer.MasteryStep step) {
+            final int slot = step.slot();
+            final double delta = step.after() - masteries[slot];
+
+            masterySum += delta;
+            if (categories[slot] >= 0) {
+                categorySums[categories[slot]] += delta;
+            }
+            totalAttempts += step.attempts() - attempts[slot];
+            if (attempts[slot] == 0 && step.attempts() > 0) {
+                practicedCount++;
+            }
+            if (step.practicedAt() != null && (lastUpdatedAt == null || step.practicedAt().isAfter(lastUpdatedAt))) {
+                lastUpdatedAt = step.practicedAt();
+            }
+
+            masteries[slot] = step.after();
+            attempts[slot] = step.attempts();
+            responses[slot] = slotResponse(slot, step.correctCount(), step.streak(), step.practicedAt());
+            version = step.version();
+            rankSkills();
+        }
+
+        /**
+         * Recompute the weak and strong top lists with a bounded insertion pass over the slots.
+         */
+        private void rankSkills() {
+            final int[] weak = new int[TOP_SKILLS];
+            final int[] strong = new int[TOP_SKILLS];
+            int weakCount = 0;
+            int strongCount = 0;
+
+            for (int slot = 0; slot < skillIds.length; slot++) {
+                if (masteries[slot] < WEAK_THRESHOLD) {
+                    weakCount = insert(weak, weakCount, slot, false);
+                }
+                if (responses[slot].getMasteryLevel() >= STRONG_THRESHOLD) {
+                    strongCount = insert(strong, strongCount, slot, true);
+                }
+            }
+
+            final List<SkillMasteryResponse> weakList = new ArrayList<>(weakCount);
+            for (int i = 0; i < weakCount; i++) {
+                weakList.add(toWeakResponse(responses[weak[i]]));
+            }
+            final List<SkillMasteryResponse> strongList = new ArrayList<>(strongCount);
+            for (int i = 0; i < strongCount; i++) {
+                strongList.add(responses[strong[i]]);
+            }
+            weakSkills = weakList;
+            strongSkills = strongList;
+        }
+
+        /**
+         * Insert a slot into a top list ordered by mastery; later slots go after equal ones.
+         */
+        private int insert(int[] top, int count, int slot, boolean descending) {
+            final double value = descending ? responses[slot].getMasteryLevel() : masteries[slot];
+            int pos = count;
+            while (pos > 0) {
+                final double other = descending ? responses[top[pos - 1]].getMasteryLevel() : masteries[top[pos - 1]];
+                if (descending ? other >= value : other <= value) {
+                    break;
+                }
+                pos--;
+            }
+            if (pos >= top.length) {
+                return count;
+            }
+            final int moved = Math.min(count, top.length - 1) - pos;
+            System.arraycopy(top, pos, top, pos + 1, moved);
+            top[pos] = slot;
+            return Math.min(count + 1, top.length);
+        }
+
+        private SkillMapResponse toResponse(Long userId) {
+            final BigDecimal overallMastery = skillIds.length == 0
+                    ? masteryCalculator.getInitialMastery()
+                    : masteryCalculator.toDecimal(masterySum / skillIds.length);
+
+            return SkillMapResponse.builder()
+                    .userId(userId)
+                    .testType("TOEIC")
+                    .overallMastery(overallMastery)
+                    .estimatedLevel(estimatedLevel(overallMastery))
+                    .estimatedScore(scoreRange(overallMastery))
+                    .categoryMastery(SkillMapResponse.CategoryMastery.builder()
+                            .listening(categoryMastery(0))
+                            .reading(categoryMastery(1))
+                            .grammar(categoryMastery(2))
+                            .vocabulary(categoryMastery(3))
+                            .build())
+                    .skills(new ArrayList<>(Arrays.asList(responses)))
+                    .weakSkills(new ArrayList<>(weakSkills))
+                    .strongSkills(new ArrayList<>(strongSkills))
+                    .diagnosticCompleted(practicedCount > 0)
+                    .totalQuestionsAnswered((int) totalAttempts)
+                    .lastUpdatedAt(lastUpdatedAt)
+                    .build();
+        }
+
+        private BigDecimal categoryMastery(int category) {
+            if (!activeCategories[category]) {
+                return null;
+            }
+            return categoryCounts[category] > 0
+                    ? masteryCalculator.toDecimal(categorySums[category] / categoryCounts[category])
+                    : masteryCalculator.getInitialMastery();
+        }
+
+        private SkillMasteryResponse slotResponse(int slot, int correctCount, int streak, LocalDateTime lastPracticed) {
+            final EilSkillEntity skill = skills[slot];
+            final BigDecimal mastery = masteryCalculator.toDecimal(masteries[slot]);
+            return SkillMasteryResponse.builder()
+                    .skillId(skillIds[slot])
+                    .skillCode(skill != null ? skill.getCode() : null)
+                    .skillName(skill != null ? skill.getName() : null)
+                    .skillNameVi(skill != null ? skill.getNameVi() : null)
+                    .category(skill != null ? skill.getCategory() : null)
+                    .subcategory(skill != null ? skill.getSubcategory() : null)
+                    .masteryLevel(mastery.doubleValue())
+                    .confidence(masteryCalculator.toDecimal(masteryCalculator.calculateConfidence(attempts[slot]))
+                                        .doubleValue())
+                    .masteryLabel(masteryCalculator.getMasteryLabel(mastery).name())
+                    .attempts(attempts[slot])
+                    .correctCount(correctCount)
+                    .streak(streak)
+                    .lastPracticed(lastPracticed)
+                    .build();
+        }
+    }
+
+    /**
+     * Weak skills carry only the fields of a {@code WeakSkillDto}.
+     */
+    private static SkillMasteryResponse toWeakResponse(SkillMasteryResponse response) {
+        return SkillMasteryResponse.builder()
+                .skillId(response.getSkillId())
+                .skillCode(response.getSkillCode())
+                .skillName(response.getSkillName())
+                .skillNameVi(response.getSkillNameVi())
+                .category(response.getCategory())
+                .subcategory(response.getSubcategory())
+                .masteryLevel(response.getMasteryLevel())
+                .masteryLabel(response.getMasteryLabel())
+                .attempts(response.getAttempts())
+                .build();
+    }
+
+    private static int categoryIndex(String category) {
+        if (category != null) {
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                if (CATEGORIES[c].equals(category)) {
+                    return c;
+                }
+            }
+        }
+        return -1;
+    }
+
+    static EstimatedLevel estimatedLevel(BigDecimal overallMastery) {
+        if (overallMastery == null) {
+            return EstimatedLevel.BEGINNER;
+        }
+
+        double value = overallMastery.doubleValue();
+        if (value < 0.3) {
+            return EstimatedLevel.BEGINNER;
+        } else if (value < 0.5) {
+            return EstimatedLevel.ELEMENTARY;
+        } else if (value < 0.65) {
+            return EstimatedLevel.INTERMEDIATE;
+        } else if (value < 0.8) {
+            return EstimatedLevel.UPPER_INTERMEDIATE;
+        } else {
+            return EstimatedLevel.ADVANCED;
+        }
+    }
+
+    static SkillMapResponse.ScoreRange scoreRange(BigDecimal mastery) {
+        double value = mastery != null ? mastery.doubleValue() : 0.5;
+
+        // TOEIC score mapping (10-990)
+        int midScore = (int) (10 + value * 980);
+        int minScore = Math.max(10, midScore - 50);
+        int maxScore = Math.min(990, midScore + 50);
+
+        // Round to nearest 5
+        midScore = (midScore / 5) * 5;
+        minScore = (minScore / 5) * 5;
+        maxScore = (maxScore / 5) * 5;
+
+        return SkillMapResponse.ScoreRange.builder()
+                .min(minScore)
+                .max(maxScore)
+                .mid(midScore)
+                .build();
+    }
+}
@@ -2,7 +2,6 @@ package com.hth.udecareer.eil.service;
 
 import com.hth.udecareer.eil.entities.EilQuestionSkillEntity;
 import com.hth.udecareer.eil.entities.EilSkillEntity;
-import com.hth.udecareer.eil.entities.WpEzQuestionSkillEntity;
 import com.hth.udecareer.eil.entities.WpEzSkillEntity;
 import com.hth.udecareer.eil.model.dto.SkillDto;
 import com.hth.udecareer.eil.repository.EilQuestionSkillRepository;
@@ -18,7 +17,10 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,11 +43,12 @@ public class SkillService {
     private final WpEzSkillRepository wpSkillRepository;
     private final WpEzQuestionSkillRepository wpQuestionSkillRepository;
 
+    // In-memory question-skill mappings (no mapping queries on hot paths)
+    private final QuestionSkillIndex questionSkillIndex;
+
     // I18n support
     private final MessageService messageService;
 
-    private static final String STATUS_ACTIVE = "active";
-
     /**
      * Get all active skills.
      */
@@ -78,6 +81,32 @@ public class SkillService {
                 .orElseThrow(() -> new AppException(ErrorCode.EIL_SKILL_NOT_FOUND));
     }
 
+    /**
+     * Get skills by ID in two queries, with the same lookup order as {@link #getSkillById(Long)}.
+     * Unknown IDs are left out of the map.
+     */
+    public Map<Long, EilSkillEntity> getSkillsByIds(Collection<Long> skillIds) {
+        Map<Long, EilSkillEntity> result = new HashMap<>();
+        if (skillIds.isEmpty()) {
+            return result;
+        }
+
+        for (WpEzSkillEntity wpSkill : wpSkillRepository.findAllById(skillIds)) {
+            result.put(wpSkill.getId(), convertWpEzToEilSkill(wpSkill));
+        }
+
+        List<Long> missing = skillIds.stream()
+                .filter(id -> !result.containsKey(id))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            for (EilSkillEntity skill : skillRepository.findAllById(missing)) {
+                result.put(skill.getId(), skill);
+            }
+        }
+        return result;
+    }
+
     /**
      * Get all skill IDs for a specific certification.
      * Used to filter user skill mastery by certification to prevent cross-contamination.
@@ -87,15 +116,11 @@ public class SkillService {
      * @param certificationId Certification code (e.g., "ISTQB_CTFL", "PSM_I")
      * @return List of skill IDs belonging to this certification
      */
-    @Cacheable(value = "eil:skills", key = "'cert:' + #certificationId + ':ids'")
     public List<Long> getSkillIdsByCertification(String certificationId) {
         log.debug("Getting skill IDs for certification: {}", certificationId);
 
-        List<WpEzSkillEntity> skills = wpSkillRepository
-                .findByCertificationIdAndStatusOrderBySortOrderAsc(certificationId, STATUS_ACTIVE);
-
-        List<Long> skillIds = skills.stream()
-                .map(WpEzSkillEntity::getId)
+        List<Long> skillIds = Arrays.stream(questionSkillIndex.getSkillIdsForCertification(certificationId))
+                .boxed()
                 .collect(Collectors.toList());
 
         log.debug("Found {} skills for certification {}", skillIds.size(), certificationId);
@@ -157,20 +182,16 @@ public class SkillService {
      */
     public Long getPrimarySkillIdForQuestion(Long questionId) {
         // PRIORITY 1: Use old eil_question_skills table (FK compatible with eil_diagnostic_answers)
-        Long eilSkillId = questionSkillRepository.findFirstByQuestionIdAndIsPrimaryTrue(questionId)
-                .map(EilQuestionSkillEntity::getSkillId)
-                .orElse(null);
+        long eilSkillId = questionSkillIndex.getEilPrimarySkillId(questionId);
 
-        if (eilSkillId != null) {
+        if (eilSkillId != QuestionSkillIndex.NO_SKILL) {
             return eilSkillId;  // Found in eil_question_skills → compatible with FK
         }
 
         // PRIORITY 2: Fallback to wp_ez_question_skills (may cause FK issues in diagnostic)
-        List<WpEzQuestionSkillEntity> mappings = wpQuestionSkillRepository
-                .findByQuestionIdOrderByWeightDesc(questionId);
+        long wpSkillId = questionSkillIndex.getWpTopSkillId(questionId);  // Highest weight
 
-        if (!mappings.isEmpty()) {
-            Long wpSkillId = mappings.get(0).getSkillId();  // Highest weight
+        if (wpSkillId != QuestionSkillIndex.NO_SKILL) {
             log.warn("Question {} only has wp_ez_skills mapping (skill_id={}), may cause FK violations in diagnostic",
                     questionId, wpSkillId);
             return wpSkillId;  // Return anyway - let FK constraint fail with clear error
@@ -187,13 +208,14 @@ public class SkillService {
             return Collections.emptyMap();
         }
 
-        return questionSkillRepository.findAll().stream()
-                .filter(qs -> questionIds.contains(qs.getQuestionId()) && Boolean.TRUE.equals(qs.getIsPrimary()))
-                .collect(Collectors.toMap(
-                        EilQuestionSkillEntity::getQuestionId,
-                        EilQuestionSkillEntity::getSkillId,
-                        (first, second) -> first
-                ));
+        Map<Long, Long> result = new HashMap<>();
+        for (Long questionId : questionIds) {
+            long skillId = questionSkillIndex.getEilPrimarySkillId(questionId);
+            if (skillId != QuestionSkillIndex.NO_SKILL) {
+                result.put(questionId, skillId);
+            }
+        }
+        return result;
     }
 
     /**
@@ -225,9 +247,8 @@ public class SkillService {
      * Uses wp_ez_question_skills (primary table with actual data).
      */
     public List<Long> getQuestionIdsForSkill(Long skillId) {
-        return wpQuestionSkillRepository.findBySkillId(skillId).stream()
-                .map(WpEzQuestionSkillEntity::getQuestionId)
-                .distinct()
+        return Arrays.stream(questionSkillIndex.getQuestionIds(skillId))
+                .boxed()
                 .collect(Collectors.toList());
     }
 
@@ -239,38 +260,26 @@ public class SkillService {
      * Difficulty 4-5 → medium/low confidence
      */
     public List<Long> getQuestionIdsForSkillAndDifficulty(Long skillId, Integer difficulty) {
-        // Map difficulty to confidence levels (Java-based - no JPQL CASE needed)
-        final String CONF_HIGH = "high";
-        final String CONF_MEDIUM = "medium";
-        final String CONF_LOW = "low";
-
-        List<String> confidenceLevels;
-        if (difficulty <= 2) {
-            confidenceLevels = List.of(CONF_HIGH, CONF_MEDIUM);
-        } else if (difficulty == 3) {
-            confidenceLevels = List.of(CONF_MEDIUM);
-        } else {
-            confidenceLevels = List.of(CONF_MEDIUM, CONF_LOW);
-        }
-
-        // Get questions for each confidence level and combine
-        return confidenceLevels.stream()
-                .flatMap(confidence -> wpQuestionSkillRepository.findBySkillIdAndConfidence(skillId, confidence).stream())
-                .map(WpEzQuestionSkillEntity::getQuestionId)
-                .distinct()
+        return Arrays.stream(questionSkillIndex.getQuestionIdsForDifficulty(skillId, difficulty))
+                .boxed()
                 .toList();
     }
 
+    /**
+     * Practice pool of a skill for a difficulty, falling back to all of the skill's questions when the
+     * difficulty has none. The array is shared and must not be modified.
+     */
+    public long[] getQuestionPool(Long skillId, int difficulty) {
+        long[] pool = questionSkillIndex.getQuestionIdsForDifficulty(skillId, difficulty);
+        return pool.length > 0 ? pool : questionSkillIndex.getQuestionIds(skillId);
+    }
+
     /**
      * Get question IDs grouped by skill.
      * Uses wp_ez_question_skills as primary source.
      */
     public Map<Long, List<Long>> getQuestionsGroupedBySkill() {
-        return wpQuestionSkillRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        WpEzQuestionSkillEntity::getSkillId,
-                        Collectors.mapping(WpEzQuestionSkillEntity::getQuestionId, Collectors.toList())
-                ));
+        return questionSkillIndex.getQuestionsGroupedBySkill();
     }
 
     /**
@@ -286,22 +295,17 @@ public class SkillService {
         }
 
         // Get skill IDs for the specified certifications from wp_ez_skills
-        List<Long> skillIdsInCategories = categories.stream()
-                .flatMap(certId -> wpSkillRepository.findByCertificationIdAndStatusOrderBySortOrderAsc(certId, STATUS_ACTIVE).stream())
-                .map(WpEzSkillEntity::getId)
-                .collect(Collectors.toList());
+        long[] skillIdsInCategories = categories.stream()
+                .flatMapToLong(certId -> Arrays.stream(questionSkillIndex.getSkillIdsForCertification(certId)))
+                .toArray();
 
-        if (skillIdsInCategories.isEmpty()) {
+        if (skillIdsInCategories.length == 0) {
             log.warn("No skills found for categories/certifications: {}", categories);
             return Map.of();
         }
 
         // Filter question-skill mappings to only include skills in categories
-        return wpQuestionSkillRepository.findBySkillIdIn(skillIdsInCategories).stream()
-                .collect(Collectors.groupingBy(
-                        WpEzQuestionSkillEntity::getSkillId,
-                        Collectors.mapping(WpEzQuestionSkillEntity::getQuestionId, Collectors.toList())
-                ));
+        return questionSkillIndex.getQuestionsGroupedBySkill(skillIdsInCategories);
     }
 
     /**
@@ -338,6 +342,9 @@ public class SkillService {
             questionSkillRepository.save(entity);
         }
 
+        // Keep the in-memory primary skill of this question in sync
+        questionSkillIndex.refreshQuestion(questionId);
+
         log.debug("Mapped question {} to skill {} with difficulty {} (primary: {})",
                 questionId, skillId, difficulty, isPrimary);
     }
@@ -419,31 +426,22 @@ public class SkillService {
         }
 
         // Get skills directly by certification_id from wp_ez_skills
-        List<WpEzSkillEntity> skillsForCert = wpSkillRepository.findByCertificationIdAndStatusOrderBySortOrderAsc(
-                certificationCode.toUpperCase(), STATUS_ACTIVE);
+        long[] skillIdsForCert = questionSkillIndex.getSkillIdsForCertification(certificationCode.toUpperCase());
 
-        if (skillsForCert.isEmpty()) {
+        if (skillIdsForCert.length == 0) {
             // Try with different variations
-            skillsForCert = wpSkillRepository.findByCertificationIdAndStatusOrderBySortOrderAsc(certificationCode, STATUS_ACTIVE);
+            skillIdsForCert = questionSkillIndex.getSkillIdsForCertification(certificationCode);
         }
 
-        if (skillsForCert.isEmpty()) {
+        if (skillIdsForCert.length == 0) {
             log.warn("No skills found for certification: {}", certificationCode);
             return Map.of();
         }
 
-        List<Long> skillIdsForCert = skillsForCert.stream()
-                .map(WpEzSkillEntity::getId)
-                .collect(Collectors.toList());
-
-        log.info("Found {} skills for certification {}", skillIdsForCert.size(), certificationCode);
+        log.info("Found {} skills for certification {}", skillIdsForCert.length, certificationCode);
 
         // Get question mappings for these skills
-        return wpQuestionSkillRepository.findBySkillIdIn(skillIdsForCert).stream()
-                .collect(Collectors.groupingBy(
-                        WpEzQuestionSkillEntity::getSkillId,
-                        Collectors.mapping(WpEzQuestionSkillEntity::getQuestionId, Collectors.toList())
-                ));
+        return questionSkillIndex.getQuestionsGroupedBySkill(skillIdsForCert);
     }
 
     /**
@@ -5,7 +5,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hth.udecareer.eil.entities.EilTimeEstimateEntity;
 import com.hth.udecareer.eil.model.request.TimeEstimateRequest;
 import com.hth.udecareer.eil.model.response.TimeEstimateResponse;
-import com.hth.udecareer.eil.repository.EilSkillMasteryRepository;
 import com.hth.udecareer.eil.repository.EilTimeEstimateRepository;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
@@ -34,7 +33,7 @@ import java.util.stream.Collectors;
 public class TimeEstimationService {
 
     private final EilTimeEstimateRepository timeEstimateRepository;
-    private final EilSkillMasteryRepository skillMasteryRepository;
+    private final MasteryService masteryService;
     private final ObjectMapper objectMapper;
 
     // Default values
@@ -269,9 +268,10 @@ public class TimeEstimationService {
     // ==================== Private Helper Methods ====================
 
     private BigDecimal calculateCurrentMastery(Long userId, String certificationCode) {
-        BigDecimal avgMastery = skillMasteryRepository.getAverageMasteryByUserIdAndCategory(userId, certificationCode);
+        // Through the mastery buffer: eil_skill_mastery lags behind until the next flush
+        BigDecimal avgMastery = masteryService.getAverageMastery(userId, certificationCode);
         if (avgMastery == null) {
-            avgMastery = skillMasteryRepository.getAverageMasteryByUserId(userId);
+            avgMastery = masteryService.getAverageMastery(userId, null);
         }
         return avgMastery != null ? avgMastery : BigDecimal.ZERO;
     }
@@ -0,0 +1,149 @@
+package com.hth.udecareer.eil.util;
+
+/**
+ * Minimal open-addressing hash map from primitive {@code long} keys to {@code long} values.
+ * <p>
+ * Used by the in-memory EIL indexes to avoid boxing one {@code Long} pair per mapping.
+ * Not thread-safe: build it once, then publish it read-only (copy before modifying).
+ */
+public final class LongLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final long missingValue;
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * @param expectedSize  number of entries expected (avoids rehashing)
+     * @param missingValue  value returned by {@link #get(long)} when the key is absent
+     */
+    public LongLongHashMap(int expectedSize, long missingValue) {
+        this.missingValue = missingValue;
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Copy constructor (used for copy-on-write updates).
+     */
+    public LongLongHashMap(LongLongHashMap other) {
+        this.missingValue = other.missingValue;
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.used = other.used.clone();
+        this.size = other.size;
+        this.resizeAt = other.resizeAt;
+    }
+
+    public long get(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public void put(long key, long value) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Put only if the key is not present yet (first mapping wins).
+     */
+    public void putIfAbsent(long key, long value) {
+        if (!containsKey(key)) {
+            put(key, value);
+        }
+    }
+
+    public void remove(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                used[slot] = false;
+                size--;
+                // Re-insert the rest of the probe chain so lookups keep working
+                int next = (slot + 1) & mask;
+                while (used[next]) {
+                    long k = keys[next];
+                    long v = values[next];
+                    used[next] = false;
+                    size--;
+                    put(k, v);
+                    next = (next + 1) & mask;
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "LongLongHashMap{size=" + size + ", capacity=" + keys.length + "}";
+    }
+}
@@ -0,0 +1,89 @@
+package com.hth.udecareer.entities;
+
+import com.hth.udecareer.enums.QuizSubmissionStatus;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Compact record of a quiz submission accepted in async mode.
+ * <p>
+ * Written when the request is graded, before the LearnDash rows exist. The worker in
+ * {@link com.hth.udecareer.service.QuizSubmissionService} later writes the statistic ref, statistics,
+ * activity and activity meta from {@code payload} and {@code graded} and stores the resulting {@code activityId}.
+ * {@code submissionId} is supplied by the client and makes retried requests idempotent.
+ */
+@Data
+@Entity
+@Table(name = "ez_quiz_submission")
+public class QuizSubmissionEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "submission_id", nullable = false, unique = true, length = 64)
+    private String submissionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private QuizSubmissionStatus status;
+
+    /**
+     * SubmitAnswerRequest as JSON.
+     */
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String payload;
+
+    /**
+     * Graded answers captured when the submission was accepted, as JSON. The worker writes them without
+     * grading again.
+     */
+    @Lob
+    @Column(name = "graded", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String graded;
+
+    /**
+     * SubmitAnswerResponse returned to the client, as JSON.
+     */
+    @Lob
+    @Column(name = "response", columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "activity_id")
+    private Long activityId;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,44 @@
+package com.hth.udecareer.entities;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per (user, chapter) answer counts over the user's graded quiz statistics, chapters from {@code ez_quizmeta}.
+ * <p>
+ * Maintained by {@link com.hth.udecareer.service.UserChapterStatsService} on every graded submit and rebuilt
+ * by its backfill job, so the AI analytics endpoint reads one row per chapter.
+ */
+@Data
+@Entity
+@Table(name = "ez_user_chapter_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "chapter_idx"}))
+public class UserChapterStatsEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "chapter_idx", nullable = false)
+    private Integer chapterIdx;
+
+    @Column(name = "total_count", nullable = false)
+    private Long totalCount = 0L;
+
+    @Column(name = "correct_count", nullable = false)
+    private Long correctCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,117 @@
+package com.hth.udecareer.entities;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per (user, quiz) progress projection over the LearnDash activity tables.
+ * <p>
+ * Maintained by {@link com.hth.udecareer.service.UserQuizProgressService} on every submit and rebuilt by
+ * its backfill job, so quiz listings read one row per quiz instead of activities + activity meta + statistics.
+ * The "last_*" columns describe the latest graded attempt (by completion time), "best_*" the highest
+ * percentage, and "draft_*" the open draft that has not been submitted yet.
+ */
+@Data
+@Entity
+@Table(name = "ez_user_quiz_progress",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "quiz_post_id"}))
+public class UserQuizProgressEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "quiz_post_id", nullable = false)
+    private Long quizPostId;
+
+    @Column(name = "attempt_count", nullable = false)
+    private Integer attemptCount = 0;
+
+    // ============= LATEST GRADED ATTEMPT =============
+
+    @Column(name = "last_activity_id")
+    private Long lastActivityId;
+
+    @Column(name = "last_completed_at")
+    private Long lastCompletedAt;
+
+    @Column(name = "last_statistic_ref_id")
+    private Long lastStatisticRefId;
+
+    @Column(name = "last_score")
+    private Long lastScore;
+
+    @Column(name = "last_points")
+    private Long lastPoints;
+
+    @Column(name = "last_pass")
+    private Long lastPass;
+
+    @Column(name = "last_percentage")
+    private Double lastPercentage;
+
+    /**
+     * answeredCount activity meta (questions with a selected answer).
+     */
+    @Column(name = "last_answered_count")
+    private Long lastAnsweredCount;
+
+    /**
+     * Statistic rows with non-empty answer data.
+     */
+    @Column(name = "last_statistic_answered_count")
+    private Long lastStatisticAnsweredCount;
+
+    @Column(name = "last_corrects")
+    private Long lastCorrects;
+
+    // ============= BEST ATTEMPT =============
+
+    @Column(name = "best_activity_id")
+    private Long bestActivityId;
+
+    @Column(name = "best_score")
+    private Long bestScore;
+
+    @Column(name = "best_percentage")
+    private Double bestPercentage;
+
+    // ============= OPEN DRAFT =============
+
+    @Column(name = "draft_activity_id")
+    private Long draftActivityId;
+
+    @Column(name = "draft_started_at")
+    private Long draftStartedAt;
+
+    @Column(name = "draft_elapsed_time")
+    private Long draftElapsedTime;
+
+    @Column(name = "draft_answered_count")
+    private Long draftAnsweredCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public boolean hasDraft() {
+        return draftActivityId != null;
+    }
+
+    public void clearDraft() {
+        draftActivityId = null;
+        draftStartedAt = null;
+        draftElapsedTime = null;
+        draftAnsweredCount = null;
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.http.HttpStatus;
 public enum ErrorCode {
     // General errors
     INVALID_KEY(9999, "error.uncategorized", HttpStatus.INTERNAL_SERVER_ERROR),
+    INTERNAL_ERROR(9998, "error.internal", HttpStatus.INTERNAL_SERVER_ERROR),
     NOT_FOUND(1000, "error.not_found", HttpStatus.NOT_FOUND),
 
     // Email/Password validation (1001-1012)
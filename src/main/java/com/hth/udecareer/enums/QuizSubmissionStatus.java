@@ -0,0 +1,8 @@
+package com.hth.udecareer.enums;
+
+public enum QuizSubmissionStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,65 @@
+package com.hth.udecareer.model.dto;
+
+import com.hth.udecareer.model.response.QuestionResponse;
+import com.hth.udecareer.model.response.QuestionResponse.AnswerData;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Correct options of one question as a bitmask, in answer index order (bit {@code i} of word {@code i / 64}).
+ * Built once per parsed question and shared, so it is immutable.
+ */
+public final class AnswerKey {
+
+    private final Long questionId;
+    private final int optionCount;
+    private final long[] correctWords;
+    private final int points;
+
+    private AnswerKey(Long questionId, int optionCount, long[] correctWords, int points) {
+        this.questionId = questionId;
+        this.optionCount = optionCount;
+        this.correctWords = correctWords;
+        this.points = points;
+    }
+
+    public static AnswerKey from(QuestionResponse question) {
+        final List<AnswerData> answers = question.getAnswerData() == null
+                ? List.of()
+                : question.getAnswerData()
+                        .stream()
+                        .sorted(Comparator.comparing(AnswerData::getIndex,
+                                                     Comparator.nullsLast(Comparator.naturalOrder())))
+                        .toList();
+
+        final long[] words = new long[(answers.size() + 63) >>> 6];
+        for (int i = 0; i < answers.size(); i++) {
+            if (answers.get(i).isCorrect()) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        return new AnswerKey(question.getId(), answers.size(), words,
+                             Objects.requireNonNullElse(question.getPoints(), 0));
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public int getOptionCount() {
+        return optionCount;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Correct-option bits {@code 64 * word .. 64 * word + 63}.
+     */
+    public long getCorrectWord(int word) {
+        return correctWords[word];
+    }
+}
@@ -0,0 +1,43 @@
+package com.hth.udecareer.model.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Parsed LearnDash {@code _sfwd-quiz} post meta. Instances are cached and shared, so they are immutable.
+ */
+@Value
+@Builder
+public class QuizSettings {
+    public static final String KEY_PASSING_PERCENTAGE = "sfwd-quiz_passingpercentage";
+
+    public static final QuizSettings EMPTY = from(Collections.emptyMap());
+
+    /**
+     * {@code sfwd-quiz_passingpercentage}, or null when the quiz does not set it.
+     */
+    Integer passingPercentage;
+
+    /**
+     * All string-keyed scalar settings (String / Integer / Boolean), read-only.
+     */
+    Map<String, Object> values;
+
+    public int getPassingPercentageOrDefault(int defaultValue) {
+        return passingPercentage != null ? passingPercentage : defaultValue;
+    }
+
+    public static QuizSettings from(Map<String, Object> settings) {
+        final Object passingPercentage = settings.get(KEY_PASSING_PERCENTAGE);
+        return builder()
+                .passingPercentage(passingPercentage == null
+                        ? null
+                        : NumberUtils.toInt(passingPercentage.toString().strip(), 0))
+                .values(Collections.unmodifiableMap(settings))
+                .build();
+    }
+}
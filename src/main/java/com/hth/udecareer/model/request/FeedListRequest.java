@@ -38,5 +38,8 @@ public class FeedListRequest {
 
     @Schema(description = "Disable sticky posts ('yes' or '')", example = "")
     private String disableSticky;
+
+    @Schema(description = "Cursor mode: next_cursor of the previous page, empty for the first page; page is ignored", example = "")
+    private String cursor;
 }
 
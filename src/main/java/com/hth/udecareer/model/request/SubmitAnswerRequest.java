@@ -22,4 +22,10 @@ public class SubmitAnswerRequest {
     }
 
     private Boolean isDraft;
+
+    /**
+     * Id do client sinh cho mỗi lần nộp (vd. UUID), dùng cho chế độ nộp bất đồng bộ.
+     * Gửi lại cùng id sẽ nhận lại kết quả cũ thay vì tạo bài nộp mới.
+     */
+    private String submissionId;
 }
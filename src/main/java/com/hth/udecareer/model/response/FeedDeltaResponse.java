@@ -0,0 +1,37 @@
+package com.hth.udecareer.model.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Posts published since the client's last fetch")
+public class FeedDeltaResponse {
+
+    @Schema(description = "New posts, newest first")
+    private List<FeedResponse> feeds;
+
+    @Schema(description = "Position of the newest post returned; pass as 'since_cursor' on the next call")
+    @JsonProperty("since_cursor")
+    private String sinceCursor;
+
+    @Schema(description = "More new posts exist than returned; call again with since_cursor (or reload the feed)")
+    @JsonProperty("has_more")
+    private Boolean hasMore;
+
+    @Schema(description = "Server time of this fetch (epoch seconds)")
+    @JsonProperty("last_fetched_timestamp")
+    private Long lastFetchedTimestamp;
+
+    @Schema(description = "Execution time in seconds")
+    @JsonProperty("execution_time")
+    private Double executionTime;
+}
@@ -14,16 +14,25 @@ import lombok.NoArgsConstructor;
 @Schema(description = "Feed list response with pagination")
 public class FeedListResponse {
 
-    @Schema(description = "Feeds data with pagination")
+    @Schema(description = "Feeds data with pagination (cursor mode: totalElements/totalPages = -1, not counted)")
     private PageResponse<FeedResponse> feeds;
 
     @Schema(description = "Sticky feed (only on page 1)")
     private FeedResponse sticky;
 
-    @Schema(description = "Last fetched timestamp (only on page 1, main feed)")
+    @Schema(description = "Last fetched timestamp (only on page 1, main feed); legacy 'since' for GET /feeds/new, "
+            + "prefer since_cursor")
     @JsonProperty("last_fetched_timestamp")
     private Long lastFetchedTimestamp;
 
+    @Schema(description = "Position of the newest post (only on page 1); pass as 'since_cursor' to GET /feeds/new")
+    @JsonProperty("since_cursor")
+    private String sinceCursor;
+
+    @Schema(description = "Cursor of the next page (cursor mode only, null on the last page)")
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
     @Schema(description = "Execution time in seconds")
     @JsonProperty("execution_time")
     private Double executionTime;
@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.validation.constraints.NotNull;
 
@@ -20,7 +21,7 @@ import lombok.Builder;
 import lombok.Data;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class QuestionResponse {
     private static final Pattern ANSWER_DATA_PATTERN = Pattern.compile(
             "i:(?<answerIndex>\\d+);O:27:\"WpProQuiz_Model_AnswerTypes\":\\d+:\\{(?<answerData>[^}]*)}");
@@ -72,7 +73,7 @@ public class QuestionResponse {
     private QuestionTypeInfo questionTypeInfo;
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     public static class AnswerData {
         private String answer;
 
@@ -132,11 +133,13 @@ public class QuestionResponse {
                                         Integer randomAnswer) {
         final List<AnswerData> answerDataList = new ArrayList<>();
 
-        final Matcher answerDataMatcher = ANSWER_DATA_PATTERN.matcher(entity.getAnswerData());
-        while (answerDataMatcher.find()) {
-            final String answerDataStr = answerDataMatcher.group("answerData");
-            final String index = answerDataMatcher.group("answerIndex");
-            answerDataList.add(AnswerData.from(answerDataStr, Integer.valueOf(index)));
+        if (entity.getAnswerData() != null) {
+            final Matcher answerDataMatcher = ANSWER_DATA_PATTERN.matcher(entity.getAnswerData());
+            while (answerDataMatcher.find()) {
+                final String answerDataStr = answerDataMatcher.group("answerData");
+                final String index = answerDataMatcher.group("answerIndex");
+                answerDataList.add(AnswerData.from(answerDataStr, Integer.valueOf(index)));
+            }
         }
         // Shuffle answers - Currently disabled
         // if (BooleanUtil.isTrue(randomAnswer)) {
@@ -172,4 +175,15 @@ public class QuestionResponse {
                 .questionTypeInfo(questionTypeInfo)
                 .build();
     }
+
+    /**
+     * Copy that shares no mutable state with this instance (answer list and answers are copied).
+     */
+    public QuestionResponse copy() {
+        return toBuilder()
+                .answerData(answerData == null ? null : answerData.stream()
+                        .map(answer -> answer.toBuilder().build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .build();
+    }
 }
@@ -1,13 +1,18 @@
 package com.hth.udecareer.model.response;
 
+import com.hth.udecareer.enums.QuizSubmissionStatus;
 import com.hth.udecareer.enums.QuizType;
 import com.hth.udecareer.model.dto.PointInfoDto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class SubmitAnswerResponse {
     private Long activityId;
 
@@ -34,4 +39,11 @@ public class SubmitAnswerResponse {
     private QuizType quizType;
 
     private PointInfoDto pointInfo;
+
+    /**
+     * Chỉ có ở chế độ nộp bất đồng bộ; activityId có khi status là COMPLETED.
+     */
+    private String submissionId;
+
+    private QuizSubmissionStatus submissionStatus;
 }
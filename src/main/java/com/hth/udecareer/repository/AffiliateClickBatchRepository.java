@@ -0,0 +1,106 @@
+package com.hth.udecareer.repository;
+
+import com.hth.udecareer.entities.AffiliateVisit;
+import com.hth.udecareer.enums.DeviceType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Batched writes of aggregated affiliate clicks: counter deltas applied in SQL (no read-modify-write of
+ * the link row) and visit rows as one JDBC batch, which the MySQL driver rewrites into a multi-row
+ * INSERT when {@code rewriteBatchedStatements} is on.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AffiliateClickBatchRepository {
+
+    private static final String UPDATE_CLICK_COUNTS =
+            "UPDATE wp_affiliate_links SET total_clicks = total_clicks + ?, unique_clicks = unique_clicks + ?, "
+                    + "updated_at = NOW() WHERE link_id = ?";
+
+    private static final String INSERT_VISIT =
+            "INSERT INTO wp_affiliate_visits "
+                    + "(affiliate_id, link_id, ip_address, user_agent, referrer_url, landing_url, campaign, medium, "
+                    + "source, device_type, browser, os, country, city, is_unique, is_converted, session_id, "
+                    + "cookie_value, expires_at, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Click counts to add to one link.
+     */
+    public record ClickCountDelta(long linkId, long totalClicks, long uniqueClicks) {
+    }
+
+    /**
+     * Add the click count deltas to their links in a single batch, in one transaction: a failed batch
+     * leaves no link updated, so the caller can resend all the deltas.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void addClickCounts(Collection<ClickCountDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(UPDATE_CLICK_COUNTS)) {
+                for (ClickCountDelta delta : deltas) {
+                    ps.setLong(1, delta.totalClicks());
+                    ps.setLong(2, delta.uniqueClicks());
+                    ps.setLong(3, delta.linkId());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Insert visit rows in a single batch. Generated ids are not read back.
+     */
+    public void insertVisits(List<AffiliateVisit> visits) {
+        if (visits.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_VISIT)) {
+                for (AffiliateVisit visit : visits) {
+                    DeviceType deviceType = visit.getDeviceType() != null ? visit.getDeviceType() : DeviceType.UNKNOWN;
+                    ps.setLong(1, visit.getAffiliateId());
+                    ps.setObject(2, visit.getLinkId());
+                    ps.setString(3, visit.getIpAddress());
+                    ps.setString(4, visit.getUserAgent());
+                    ps.setString(5, visit.getReferrerUrl());
+                    ps.setString(6, visit.getLandingUrl());
+                    ps.setString(7, visit.getCampaign());
+                    ps.setString(8, visit.getMedium());
+                    ps.setString(9, visit.getSource());
+                    // Same value as DeviceTypeConverter
+                    ps.setString(10, deviceType.name().toLowerCase());
+                    ps.setString(11, visit.getBrowser());
+                    ps.setString(12, visit.getOs());
+                    ps.setString(13, visit.getCountry());
+                    ps.setString(14, visit.getCity());
+                    ps.setObject(15, visit.getIsUnique());
+                    ps.setObject(16, visit.getIsConverted());
+                    ps.setString(17, visit.getSessionId());
+                    ps.setString(18, visit.getCookieValue());
+                    ps.setTimestamp(19, visit.getExpiresAt() != null ? Timestamp.valueOf(visit.getExpiresAt()) : null);
+                    ps.setTimestamp(20, Timestamp.valueOf(visit.getCreatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+}
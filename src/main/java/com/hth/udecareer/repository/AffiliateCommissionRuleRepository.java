@@ -2,13 +2,20 @@ package com.hth.udecareer.repository;
 
 import com.hth.udecareer.entities.AffiliateCommissionRule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface AffiliateCommissionRuleRepository extends JpaRepository<AffiliateCommissionRule, Long> {
     List<AffiliateCommissionRule> findByIsActiveTrueOrderByPriorityDesc();
-}
-
-
-
 
+    /**
+     * Changes when a rule is added, removed or edited (also directly in WordPress, without updated_at).
+     */
+    @Query(value = "SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(rule_id), 0), ':', COALESCE(MAX(updated_at), ''), ':', "
+            + "COALESCE(SUM(CRC32(CONCAT_WS('|', rule_id, rule_type, affiliate_id, product_id, category_id, "
+            + "commission_type, commission_rate, fixed_amount, min_order_amount, max_commission_amount, priority, "
+            + "is_active, valid_from, valid_until))), 0)) FROM wp_affiliate_commission_rules",
+            nativeQuery = true)
+    String findChangeSignature();
+}
@@ -0,0 +1,275 @@
+package com.hth.udecareer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes the affiliate statistics rollups (ez_affiliate_click_stats_hourly/daily and
+ * ez_affiliate_income_stats_daily).
+ * <p>
+ * Clicks are added as deltas; a recount replaces the rows of one day (optionally one link or affiliate)
+ * with a single INSERT ... SELECT over the raw visits or referrals.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AffiliateStatsRollupRepository {
+
+    private static final String ADD_HOURLY_CLICKS =
+            "INSERT INTO ez_affiliate_click_stats_hourly "
+                    + "(bucket_start, affiliate_id, link_id, source, device_type, country, clicks, unique_clicks) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE clicks = clicks + VALUES(clicks), "
+                    + "unique_clicks = unique_clicks + VALUES(unique_clicks)";
+
+    private static final String ADD_DAILY_CLICKS =
+            "INSERT INTO ez_affiliate_click_stats_daily "
+                    + "(bucket_date, affiliate_id, link_id, source, device_type, country, clicks, unique_clicks) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE clicks = clicks + VALUES(clicks), "
+                    + "unique_clicks = unique_clicks + VALUES(unique_clicks)";
+
+    // Group keys of one visit, as stored in the rollups
+    private static final String VISIT_KEYS =
+            "v.link_id, COALESCE(v.source, ''), COALESCE(v.device_type, 'unknown'), COALESCE(v.country, '')";
+
+    private static final String RECOUNT_UPDATE =
+            " ON DUPLICATE KEY UPDATE affiliate_id = VALUES(affiliate_id), clicks = VALUES(clicks), "
+                    + "unique_clicks = VALUES(unique_clicks), conversions = VALUES(conversions)";
+
+    private static final String RECOUNT_HOURLY =
+            "INSERT INTO ez_affiliate_click_stats_hourly "
+                    + "(bucket_start, affiliate_id, link_id, source, device_type, country, clicks, unique_clicks, conversions) "
+                    + "SELECT DATE_FORMAT(v.created_at, '%Y-%m-%d %H:00:00'), MAX(v.affiliate_id), " + VISIT_KEYS + ", "
+                    + "COUNT(*), SUM(v.is_unique = 1), SUM(v.is_converted = 1) "
+                    + "FROM wp_affiliate_visits v "
+                    + "WHERE v.created_at >= ? AND v.created_at < ? AND v.link_id IS NOT NULL";
+
+    private static final String RECOUNT_DAILY =
+            "INSERT INTO ez_affiliate_click_stats_daily "
+                    + "(bucket_date, affiliate_id, link_id, source, device_type, country, clicks, unique_clicks, conversions) "
+                    + "SELECT ?, MAX(v.affiliate_id), " + VISIT_KEYS + ", "
+                    + "COUNT(*), SUM(v.is_unique = 1), SUM(v.is_converted = 1) "
+                    + "FROM wp_affiliate_visits v "
+                    + "WHERE v.created_at >= ? AND v.created_at < ? AND v.link_id IS NOT NULL";
+
+    private static final String RECOUNT_INCOME =
+            "INSERT INTO ez_affiliate_income_stats_daily (affiliate_id, stat_date, status, commission, orders) "
+                    + "SELECT r.affiliate_id, ?, r.status, COALESCE(SUM(r.commission_amount), 0), COUNT(*) "
+                    + "FROM wp_affiliate_referrals r "
+                    + "WHERE r.created_at >= ? AND r.created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Clicks to add to one hourly row (and its daily row).
+     */
+    public record ClickDelta(LocalDateTime hour, long affiliateId, long linkId, String source, String deviceType,
+                             String country, long clicks, long uniqueClicks) {
+    }
+
+    public record LinkDay(long linkId, LocalDate day) {
+    }
+
+    public record AffiliateDay(long affiliateId, LocalDate day) {
+    }
+
+    public record BreakdownRow(String source, String deviceType, String country, long clicks, long uniqueClicks,
+                               long conversions) {
+    }
+
+    public record PeriodCount(LocalDateTime start, long clicks, long conversions) {
+    }
+
+    public record IncomeRow(LocalDate day, String status, BigDecimal commission, long orders) {
+    }
+
+    /**
+     * Add click deltas to the hourly and daily rows in one batch per table.
+     */
+    public void addClicks(Collection<ClickDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement hourly = connection.prepareStatement(ADD_HOURLY_CLICKS);
+                 PreparedStatement daily = connection.prepareStatement(ADD_DAILY_CLICKS)) {
+                for (ClickDelta delta : deltas) {
+                    hourly.setTimestamp(1, Timestamp.valueOf(delta.hour()));
+                    daily.setDate(1, Date.valueOf(delta.hour().toLocalDate()));
+                    for (PreparedStatement ps : List.of(hourly, daily)) {
+                        ps.setLong(2, delta.affiliateId());
+                        ps.setLong(3, delta.linkId());
+                        ps.setString(4, delta.source());
+                        ps.setString(5, delta.deviceType());
+                        ps.setString(6, delta.country());
+                        ps.setLong(7, delta.clicks());
+                        ps.setLong(8, delta.uniqueClicks());
+                        ps.addBatch();
+                    }
+                }
+                hourly.executeBatch();
+                daily.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Recount the click rows of one link and day from the visits (picks up conversions).
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void recountLinkDay(long linkId, LocalDate day) {
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        String linkFilter = " AND v.link_id = ? GROUP BY 1, " + VISIT_KEYS + RECOUNT_UPDATE;
+        jdbcTemplate.update(RECOUNT_HOURLY + linkFilter, start, end, linkId);
+        jdbcTemplate.update(RECOUNT_DAILY + linkFilter, Date.valueOf(day), start, end, linkId);
+    }
+
+    /**
+     * Replace the income rows of one affiliate and day.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void recountIncomeDay(long affiliateId, LocalDate day) {
+        jdbcTemplate.update("DELETE FROM ez_affiliate_income_stats_daily WHERE affiliate_id = ? AND stat_date = ?",
+                            affiliateId, Date.valueOf(day));
+        jdbcTemplate.update(RECOUNT_INCOME + " AND r.affiliate_id = ? GROUP BY r.affiliate_id, r.status",
+                            Date.valueOf(day), Timestamp.valueOf(day.atStartOfDay()),
+                            Timestamp.valueOf(day.plusDays(1).atStartOfDay()), affiliateId);
+    }
+
+    /**
+     * Replace every rollup row of one day.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuildDay(LocalDate day) {
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        jdbcTemplate.update("DELETE FROM ez_affiliate_click_stats_hourly WHERE bucket_start >= ? AND bucket_start < ?",
+                            start, end);
+        jdbcTemplate.update("DELETE FROM ez_affiliate_click_stats_daily WHERE bucket_date = ?", Date.valueOf(day));
+        jdbcTemplate.update("DELETE FROM ez_affiliate_income_stats_daily WHERE stat_date = ?", Date.valueOf(day));
+
+        String groupBy = " GROUP BY 1, " + VISIT_KEYS + RECOUNT_UPDATE;
+        jdbcTemplate.update(RECOUNT_HOURLY + groupBy, start, end);
+        jdbcTemplate.update(RECOUNT_DAILY + groupBy, Date.valueOf(day), start, end);
+        jdbcTemplate.update(RECOUNT_INCOME + " GROUP BY r.affiliate_id, r.status", Date.valueOf(day), start, end);
+    }
+
+    public List<LinkDay> findConvertedVisitDays(LocalDateTime since) {
+        return jdbcTemplate.query(
+                "SELECT DISTINCT link_id, DATE(created_at) FROM wp_affiliate_visits "
+                        + "WHERE converted_at >= ? AND link_id IS NOT NULL",
+                (rs, i) -> new LinkDay(rs.getLong(1), rs.getDate(2).toLocalDate()),
+                Timestamp.valueOf(since));
+    }
+
+    public List<AffiliateDay> findUpdatedReferralDays(LocalDateTime since) {
+        return jdbcTemplate.query(
+                "SELECT DISTINCT affiliate_id, DATE(created_at) FROM wp_affiliate_referrals WHERE updated_at >= ?",
+                (rs, i) -> new AffiliateDay(rs.getLong(1), rs.getDate(2).toLocalDate()),
+                Timestamp.valueOf(since));
+    }
+
+    /**
+     * Day of the oldest visit or referral, or {@code null} when there are none.
+     */
+    public LocalDate findFirstActivityDay() {
+        Date visits = jdbcTemplate.queryForObject("SELECT DATE(MIN(created_at)) FROM wp_affiliate_visits", Date.class);
+        Date referrals = jdbcTemplate.queryForObject("SELECT DATE(MIN(created_at)) FROM wp_affiliate_referrals",
+                                                     Date.class);
+        if (visits == null || referrals == null) {
+            return visits != null ? visits.toLocalDate() : referrals != null ? referrals.toLocalDate() : null;
+        }
+        return visits.before(referrals) ? visits.toLocalDate() : referrals.toLocalDate();
+    }
+
+    public int deleteHourlyBefore(LocalDateTime before) {
+        return jdbcTemplate.update("DELETE FROM ez_affiliate_click_stats_hourly WHERE bucket_start < ?",
+                                   Timestamp.valueOf(before));
+    }
+
+    /**
+     * All-time totals of one link per (source, device, country).
+     */
+    public List<BreakdownRow> findLinkBreakdown(long linkId) {
+        return jdbcTemplate.query(
+                "SELECT source, device_type, country, SUM(clicks), SUM(unique_clicks), SUM(conversions) "
+                        + "FROM ez_affiliate_click_stats_daily WHERE link_id = ? "
+                        + "GROUP BY source, device_type, country",
+                (rs, i) -> new BreakdownRow(rs.getString(1), rs.getString(2), rs.getString(3),
+                                            rs.getLong(4), rs.getLong(5), rs.getLong(6)),
+                linkId);
+    }
+
+    /**
+     * Clicks and conversions of one link per day, from {@code fromDay}.
+     */
+    public List<PeriodCount> findLinkDailyCounts(long linkId, LocalDate fromDay) {
+        return jdbcTemplate.query(
+                "SELECT bucket_date, SUM(clicks), SUM(conversions) FROM ez_affiliate_click_stats_daily "
+                        + "WHERE link_id = ? AND bucket_date >= ? GROUP BY bucket_date",
+                (rs, i) -> new PeriodCount(rs.getDate(1).toLocalDate().atStartOfDay(), rs.getLong(2), rs.getLong(3)),
+                linkId, Date.valueOf(fromDay));
+    }
+
+    /**
+     * Clicks and conversions of one link per hour of the given days.
+     */
+    public List<PeriodCount> findLinkHourlyCounts(long linkId, Collection<LocalDate> days) {
+        if (days.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder(
+                "SELECT bucket_start, SUM(clicks), SUM(conversions) FROM ez_affiliate_click_stats_hourly "
+                        + "WHERE link_id = ? AND (");
+        Object[] args = new Object[1 + days.size() * 2];
+        args[0] = linkId;
+        int index = 1;
+        for (LocalDate day : days) {
+            sql.append(index > 1 ? " OR " : "").append("(bucket_start >= ? AND bucket_start < ?)");
+            args[index++] = Timestamp.valueOf(day.atStartOfDay());
+            args[index++] = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        }
+        sql.append(") GROUP BY bucket_start");
+        return jdbcTemplate.query(sql.toString(),
+                                  (rs, i) -> new PeriodCount(rs.getTimestamp(1).toLocalDateTime(),
+                                                             rs.getLong(2), rs.getLong(3)),
+                                  args);
+    }
+
+    /**
+     * Clicks of an affiliate per day in [fromDay, toDay].
+     */
+    public List<PeriodCount> findAffiliateDailyClicks(long affiliateId, LocalDate fromDay, LocalDate toDay) {
+        return jdbcTemplate.query(
+                "SELECT bucket_date, SUM(clicks), SUM(conversions) FROM ez_affiliate_click_stats_daily "
+                        + "WHERE affiliate_id = ? AND bucket_date BETWEEN ? AND ? GROUP BY bucket_date",
+                (rs, i) -> new PeriodCount(rs.getDate(1).toLocalDate().atStartOfDay(), rs.getLong(2), rs.getLong(3)),
+                affiliateId, Date.valueOf(fromDay), Date.valueOf(toDay));
+    }
+
+    /**
+     * Referral income of an affiliate per day and status in [fromDay, toDay].
+     */
+    public List<IncomeRow> findAffiliateDailyIncome(long affiliateId, LocalDate fromDay, LocalDate toDay) {
+        return jdbcTemplate.query(
+                "SELECT stat_date, status, commission, orders FROM ez_affiliate_income_stats_daily "
+                        + "WHERE affiliate_id = ? AND stat_date BETWEEN ? AND ?",
+                (rs, i) -> new IncomeRow(rs.getDate(1).toLocalDate(), rs.getString(2), rs.getBigDecimal(3),
+                                         rs.getLong(4)),
+                affiliateId, Date.valueOf(fromDay), Date.valueOf(toDay));
+    }
+}
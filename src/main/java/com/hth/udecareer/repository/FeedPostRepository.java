@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -34,6 +35,61 @@ public interface FeedPostRepository extends JpaRepository<FeedPostEntity, Long>
             @Param("termId") Long termId,
             Pageable pageable);
 
+    /**
+     * Cursor mode of the feed: posts after the keyset position (sticky, priority, createdAt, id),
+     * pass {@code null} position values for the first page. No count query; fetch one extra row
+     * through {@code pageable} to know whether there is a next page.
+     */
+    @Query("SELECT f FROM FeedPostEntity f " +
+           "WHERE f.status = 'published' " +
+           "AND (:spaceId IS NULL OR f.spaceId = :spaceId) " +
+           "AND (:userId IS NULL OR f.userId = :userId) " +
+           "AND (:search IS NULL OR f.title LIKE CONCAT('%', :search, '%') OR f.message LIKE CONCAT('%', :search, '%')) " +
+           "AND (:createdAt IS NULL " +
+           "  OR f.isSticky < :sticky " +
+           "  OR (f.isSticky = :sticky AND f.priority < :priority) " +
+           "  OR (f.isSticky = :sticky AND f.priority = :priority AND f.createdAt < :createdAt) " +
+           "  OR (f.isSticky = :sticky AND f.priority = :priority AND f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.isSticky DESC, f.priority DESC, f.createdAt DESC, f.id DESC")
+    List<FeedPostEntity> findFeedsAfterCursor(
+            @Param("spaceId") Long spaceId,
+            @Param("userId") Long userId,
+            @Param("search") String search,
+            @Param("sticky") Integer sticky,
+            @Param("priority") Integer priority,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * Posts published after the position (createdAt, id), oldest first, for the "new posts since" delta.
+     */
+    @Query("SELECT f FROM FeedPostEntity f " +
+           "WHERE f.status = 'published' " +
+           "AND (:spaceId IS NULL OR f.spaceId = :spaceId) " +
+           "AND (:userId IS NULL OR f.userId = :userId) " +
+           "AND (f.createdAt > :createdAt OR (f.createdAt = :createdAt AND f.id > :id)) " +
+           "ORDER BY f.createdAt ASC, f.id ASC")
+    List<FeedPostEntity> findFeedsCreatedAfter(
+            @Param("spaceId") Long spaceId,
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * Newest published posts by (createdAt, id), for the position the first delta starts from.
+     */
+    @Query("SELECT f FROM FeedPostEntity f " +
+           "WHERE f.status = 'published' " +
+           "AND (:spaceId IS NULL OR f.spaceId = :spaceId) " +
+           "AND (:userId IS NULL OR f.userId = :userId) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FeedPostEntity> findNewestFeeds(
+            @Param("spaceId") Long spaceId,
+            @Param("userId") Long userId,
+            Pageable pageable);
+
     @Query("SELECT COUNT(f) FROM FeedPostEntity f WHERE f.status = 'published'")
     long countPublishedFeeds();
 
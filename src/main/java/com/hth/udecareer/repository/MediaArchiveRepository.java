@@ -4,6 +4,7 @@ import com.hth.udecareer.entities.MediaArchiveEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,8 @@ public interface MediaArchiveRepository extends JpaRepository<MediaArchiveEntity
 
     List<MediaArchiveEntity> findByFeedId(Long feedId);
 
+    List<MediaArchiveEntity> findByFeedIdInOrderByIdAsc(Collection<Long> feedIds);
+
     List<MediaArchiveEntity> findBySubObjectId(Long subObjectId);
 }
 
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,8 @@ public interface PostReactionRepository extends JpaRepository<PostReactionEntity
 
     Optional<PostReactionEntity> findByUserIdAndObjectIdAndObjectTypeAndType(Long userId, Long objectId, String objectType, String type);
 
+    List<PostReactionEntity> findByUserIdAndObjectTypeAndObjectIdIn(Long userId, String objectType, Collection<Long> objectIds);
+
     List<PostReactionEntity> findByObjectIdAndObjectTypeAndType(Long objectId, String objectType, String type);
 
     @Query("SELECT COUNT(r) FROM PostReactionEntity r WHERE r.objectId = :objectId AND r.objectType = :objectType")
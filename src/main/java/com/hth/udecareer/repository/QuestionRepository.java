@@ -1,5 +1,6 @@
 package com.hth.udecareer.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import javax.persistence.Tuple;
@@ -27,4 +28,7 @@ public interface QuestionRepository extends JpaRepository<QuestionEntity, Long>
     List<QuestionEntity> getQuestionByQuizId(@Param("quizId") Long quizId);
 
     List<QuestionEntity> findAllByIdIn(List<Long> questionIds);
+
+    @Query("SELECT q.id, q.points FROM QuestionEntity q WHERE q.id IN :questionIds")
+    List<Tuple> findPointsByIdIn(@Param("questionIds") Collection<Long> questionIds);
 }
@@ -48,4 +48,9 @@ public interface QuizCategoryRepository extends JpaRepository<QuizCategoryEntity
         ORDER BY qc.order
     """)
     List<Object[]> findAllActiveWithQuizCount();
+
+    @Query(value = "SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(id), 0), ':', COALESCE(SUM(enable), 0), ':', "
+            + "COALESCE(SUM(CRC32(CONCAT_WS('|', code, title, `order`))), 0)) FROM ez_quiz_category",
+            nativeQuery = true)
+    String findChangeSignature();
 }
@@ -82,4 +82,11 @@ public interface QuizMasterRepository extends JpaRepository<QuizMaster, Long> {
                                         @Param("maxTimeLimit") Integer maxTimeLimit,
                                         @Param("courseIdValue") String courseIdValue,
                                         Pageable pageable);
+
+    /**
+     * Cheap change marker for the quiz catalog: quiz/question post count, max id and max post_modified.
+     */
+    @Query(value = "SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(ID), 0), ':', COALESCE(MAX(post_modified), '')) "
+            + "FROM wp_posts WHERE post_type IN ('sfwd-quiz', 'sfwd-question')", nativeQuery = true)
+    String findCatalogSignature();
 }
@@ -2,6 +2,7 @@ package com.hth.udecareer.repository;
 
 import com.hth.udecareer.entities.QuizMetaEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -10,5 +11,8 @@ import java.util.List;
 @Repository
 public interface QuizMetaRepository extends JpaRepository<QuizMetaEntity, Long> {
     List<QuizMetaEntity> findAllByQuestionTitleIn(Collection<String> questionTitles);
+
+    @Query("SELECT DISTINCT m.chapterIdx FROM QuizMetaEntity m WHERE m.chapterIdx IS NOT NULL")
+    List<Integer> findDistinctChapterIdx();
 }
 
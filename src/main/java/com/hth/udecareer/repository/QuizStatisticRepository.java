@@ -3,9 +3,12 @@ package com.hth.udecareer.repository;
 import java.util.Collection;
 import java.util.List;
 
+import javax.persistence.Tuple;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.hth.udecareer.entities.QuizStatisticEntity;
@@ -17,4 +20,18 @@ public interface QuizStatisticRepository extends JpaRepository<QuizStatisticEnti
     List<QuizStatisticEntity> findAllById_StatisticRefId(@NotNull Long statisticRefId);
 
     List<QuizStatisticEntity> findAllById_StatisticRefIdIn(@NotNull Collection<Long> statisticRefIds);
+
+    /**
+     * (question title, statistic rows, correct rows) over every completed quiz attempt of a user, one row per title.
+     */
+    @Query(value = "SELECT q.title AS title, COUNT(*) AS total, "
+            + "SUM(CASE WHEN s.correct_count > 0 THEN 1 ELSE 0 END) AS correct "
+            + "FROM wp_learndash_user_activity a "
+            + "JOIN wp_learndash_user_activity_meta m ON m.activity_id = a.activity_id "
+            + "AND m.activity_meta_key = 'statistic_ref_id' "
+            + "JOIN wp_learndash_pro_quiz_statistic s ON s.statistic_ref_id = CAST(m.activity_meta_value AS UNSIGNED) "
+            + "JOIN wp_learndash_pro_quiz_question q ON q.id = s.question_id "
+            + "WHERE a.user_id = :userId AND a.activity_type = 'quiz' AND a.activity_completed > 0 "
+            + "GROUP BY q.title", nativeQuery = true)
+    List<Tuple> sumResultsByQuestionTitle(@Param("userId") Long userId);
 }
@@ -0,0 +1,94 @@
+package com.hth.udecareer.repository;
+
+import com.hth.udecareer.entities.QuizStatisticEntity;
+import com.hth.udecareer.entities.UserActivityMetaEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk inserts for the rows written by one quiz submission.
+ * <p>
+ * {@code saveAll} on these entities costs one round-trip per row (plus a SELECT per row for the
+ * embedded-id statistics, since Spring Data merges them). Here each table is one JDBC batch, which the
+ * MySQL driver rewrites into a multi-row INSERT when {@code rewriteBatchedStatements} is on. Runs on the
+ * connection of the surrounding JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class QuizSubmissionBatchRepository {
+
+    private static final String INSERT_STATISTIC =
+            "INSERT INTO wp_learndash_pro_quiz_statistic "
+                    + "(statistic_ref_id, question_id, question_post_id, correct_count, incorrect_count, "
+                    + "hint_count, points, question_time, answer_data) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACTIVITY_META =
+            "INSERT INTO wp_learndash_user_activity_meta "
+                    + "(activity_id, activity_meta_key, activity_meta_value) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the per-question statistics of one statistic ref in a single batch.
+     */
+    public void insertStatistics(Collection<QuizStatisticEntity> statistics) {
+        if (statistics.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_STATISTIC)) {
+                for (QuizStatisticEntity statistic : statistics) {
+                    ps.setLong(1, statistic.getId().getStatisticRefId());
+                    ps.setLong(2, statistic.getId().getQuestionId());
+                    ps.setObject(3, statistic.getQuestionPostId());
+                    ps.setObject(4, statistic.getCorrectCount());
+                    ps.setObject(5, statistic.getIncorrectCount());
+                    ps.setObject(6, statistic.getHintCount());
+                    ps.setObject(7, statistic.getPoints());
+                    ps.setObject(8, statistic.getQuestionTime());
+                    ps.setString(9, statistic.getAnswerData());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Insert activity meta rows in a single batch and set their generated ids, in input order.
+     */
+    public void insertActivityMeta(List<UserActivityMetaEntity> metas) {
+        if (metas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_ACTIVITY_META,
+                                                                    Statement.RETURN_GENERATED_KEYS)) {
+                for (UserActivityMetaEntity meta : metas) {
+                    ps.setLong(1, meta.getActivityId());
+                    ps.setString(2, meta.getActivityMetaKey());
+                    ps.setString(3, meta.getActivityMetaValue());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int index = 0;
+                    while (keys.next() && index < metas.size()) {
+                        metas.get(index++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
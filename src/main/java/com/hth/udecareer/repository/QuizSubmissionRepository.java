@@ -0,0 +1,49 @@
+package com.hth.udecareer.repository;
+
+import com.hth.udecareer.entities.QuizSubmissionEntity;
+import com.hth.udecareer.enums.QuizSubmissionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface QuizSubmissionRepository extends JpaRepository<QuizSubmissionEntity, Long> {
+
+    Optional<QuizSubmissionEntity> findBySubmissionId(String submissionId);
+
+    /**
+     * Claim a submission for processing. Returns 0 if another worker already claimed it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QuizSubmissionEntity s SET s.status = com.hth.udecareer.enums.QuizSubmissionStatus.PROCESSING, "
+            + "s.attempts = s.attempts + 1, s.updatedAt = :now "
+            + "WHERE s.id = :id AND s.status = com.hth.udecareer.enums.QuizSubmissionStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Put submissions stuck in PROCESSING (worker died mid-way) back to PENDING.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QuizSubmissionEntity s SET s.status = com.hth.udecareer.enums.QuizSubmissionStatus.PENDING, "
+            + "s.updatedAt = :now "
+            + "WHERE s.status = com.hth.udecareer.enums.QuizSubmissionStatus.PROCESSING AND s.updatedAt < :before")
+    int releaseStale(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now);
+
+    @Query("SELECT s.id FROM QuizSubmissionEntity s WHERE s.status = :status AND s.updatedAt < :before ORDER BY s.id")
+    List<Long> findIdsByStatusAndUpdatedBefore(@Param("status") QuizSubmissionStatus status,
+                                               @Param("before") LocalDateTime before,
+                                               Pageable pageable);
+
+    long countByStatus(QuizSubmissionStatus status);
+
+    @Query("SELECT MIN(s.createdAt) FROM QuizSubmissionEntity s WHERE s.status IN :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") List<QuizSubmissionStatus> statuses);
+}
@@ -4,6 +4,8 @@ import org.springframework.data.domain.Pageable;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.Tuple;
+
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -66,6 +68,30 @@ public interface UserActivityRepository extends JpaRepository<UserActivityEntity
     List<UserActivityEntity> findAllActivitiesByUserIdAndPostIds(@Param("userId") Long userId,
                                                                   @Param("postIds") List<Long> postIds);
 
+    List<UserActivityEntity> findAllByUserIdAndActivityType(Long userId, String activityType);
+
+    @Query("SELECT DISTINCT ua.postId FROM UserActivityEntity ua "
+            + "WHERE ua.userId = :userId AND ua.activityType = :activityType")
+    List<Long> findDistinctPostIdsByUserIdAndActivityType(@Param("userId") Long userId,
+                                                          @Param("activityType") String activityType);
+
+    // User ids có quiz activity, phân trang theo user_id (dùng cho backfill)
+    @Query(value = "SELECT DISTINCT user_id FROM wp_learndash_user_activity "
+            + "WHERE activity_type = 'quiz' AND user_id > :afterUserId "
+            + "ORDER BY user_id LIMIT :limit", nativeQuery = true)
+    List<Long> findQuizUserIdsAfter(@Param("afterUserId") Long afterUserId, @Param("limit") int limit);
+
+    // Số lượt làm quiz đã hoàn thành và điểm % trung bình (chỉ tính percentage > 0), như thống kê lịch sử
+    @Query(value = "SELECT COUNT(DISTINCT a.activity_id) AS attempts, "
+            + "AVG(CASE WHEN CAST(m.activity_meta_value AS DECIMAL(10,4)) > 0 "
+            + "THEN CAST(m.activity_meta_value AS DECIMAL(10,4)) END) AS average_percentage "
+            + "FROM wp_learndash_user_activity a "
+            + "LEFT JOIN wp_learndash_user_activity_meta m ON m.activity_id = a.activity_id "
+            + "AND m.activity_meta_key = 'percentage' "
+            + "WHERE a.user_id = :userId AND a.activity_type = 'quiz' AND a.activity_completed > 0",
+            nativeQuery = true)
+    Tuple findCompletedQuizSummary(@Param("userId") Long userId);
+
     // Lấy lịch sử làm bài của user (chỉ những bài đã hoàn thành, không lấy draft)
     @Query("SELECT ua FROM UserActivityEntity ua " +
             "WHERE ua.userId = :userId " +
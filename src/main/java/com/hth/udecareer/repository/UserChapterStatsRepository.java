@@ -0,0 +1,46 @@
+package com.hth.udecareer.repository;
+
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hth.udecareer.entities.UserChapterStatsEntity;
+
+@Repository
+public interface UserChapterStatsRepository extends JpaRepository<UserChapterStatsEntity, Long> {
+
+    List<UserChapterStatsEntity> findAllByUserIdOrderByChapterIdx(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserChapterStatsEntity s WHERE s.userId = :userId ORDER BY s.chapterIdx")
+    List<UserChapterStatsEntity> findAllByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Create an empty row if missing without failing on a concurrent insert (unique user_id, chapter_idx).
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO ez_user_chapter_stats "
+            + "(user_id, chapter_idx, total_count, correct_count, updated_at) "
+            + "VALUES (:userId, :chapterIdx, 0, 0, NOW())", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("chapterIdx") Integer chapterIdx);
+
+    /**
+     * Add to a chapter's counts, creating the row if missing (unique user_id, chapter_idx).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ez_user_chapter_stats (user_id, chapter_idx, total_count, correct_count, updated_at) "
+            + "VALUES (:userId, :chapterIdx, :total, :correct, NOW()) "
+            + "ON DUPLICATE KEY UPDATE total_count = total_count + VALUES(total_count), "
+            + "correct_count = correct_count + VALUES(correct_count), updated_at = NOW()", nativeQuery = true)
+    int increment(@Param("userId") Long userId,
+                  @Param("chapterIdx") Integer chapterIdx,
+                  @Param("total") long total,
+                  @Param("correct") long correct);
+}
@@ -7,12 +7,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserMetaRepository extends JpaRepository<UserMetaEntity, Long> {
     List<UserMetaEntity> findByUserId(Long userId);
     Optional<UserMetaEntity> findByUserIdAndMetaKey(Long userId, String metaKey);
+    List<UserMetaEntity> findByUserIdInAndMetaKey(Collection<Long> userIds, String metaKey);
+    List<UserMetaEntity> findByUserIdInAndMetaKeyIn(Collection<Long> userIds, Collection<String> metaKeys);
     @Query(value = """
         SELECT COUNT(*) 
         FROM wp_usermeta 
@@ -95,6 +98,22 @@ public interface UserMetaRepository extends JpaRepository<UserMetaEntity, Long>
             @Param("offset") int offset
     );
 
+    /**
+     * (user_id, points) of every user with points in the given period, for the Redis leaderboard rebuild.
+     */
+    @Query(value = "SELECT m_point.user_id, CAST(m_point.meta_value AS SIGNED) " +
+            "FROM wp_usermeta m_point " +
+            "JOIN wp_usermeta m_start ON m_point.user_id = m_start.user_id AND m_start.meta_key = :startKey " +
+            "JOIN wp_users u ON u.ID = m_point.user_id " +
+            "WHERE m_point.meta_key = :pointKey " +
+            "AND m_start.meta_value = :startValue",
+            nativeQuery = true)
+    List<Object[]> findScoresByKeyAndStart(
+            @Param("pointKey") String pointKey,
+            @Param("startKey") String startKey,
+            @Param("startValue") String startValue
+    );
+
     @Query(value = "SELECT COUNT(DISTINCT u.ID) " +
             "FROM wp_users u " +
             "JOIN wp_usermeta m_point ON u.ID = m_point.user_id AND m_point.meta_key = :pointKey " +
@@ -0,0 +1,43 @@
+package com.hth.udecareer.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hth.udecareer.entities.UserQuizProgressEntity;
+
+@Repository
+public interface UserQuizProgressRepository extends JpaRepository<UserQuizProgressEntity, Long> {
+
+    List<UserQuizProgressEntity> findAllByUserIdAndQuizPostIdIn(Long userId, Collection<Long> quizPostIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM UserQuizProgressEntity p WHERE p.userId = :userId AND p.quizPostId = :quizPostId")
+    Optional<UserQuizProgressEntity> findForUpdate(@Param("userId") Long userId,
+                                                   @Param("quizPostId") Long quizPostId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM UserQuizProgressEntity p WHERE p.userId = :userId ORDER BY p.quizPostId")
+    List<UserQuizProgressEntity> findAllByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Create the row if missing without failing on a concurrent insert (unique user_id, quiz_post_id).
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO ez_user_quiz_progress (user_id, quiz_post_id, attempt_count, updated_at) "
+            + "VALUES (:userId, :quizPostId, 0, NOW())", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("quizPostId") Long quizPostId);
+
+    @Modifying
+    @Query("DELETE FROM UserQuizProgressEntity p WHERE p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
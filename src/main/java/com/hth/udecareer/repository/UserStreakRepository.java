@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,12 @@ public interface UserStreakRepository extends JpaRepository<UserStreakEntity, Lo
 
     Optional<UserStreakEntity> findByUserId(Long userId);
 
+    List<UserStreakEntity> findByUserIdIn(Collection<Long> userIds);
+
+    // (userId, longestStreak, currentStreak) of every user, for the Redis leaderboard rebuild
+    @Query("SELECT s.userId, s.longestStreak, s.currentStreak FROM UserStreakEntity s")
+    List<Object[]> findAllStreakScores();
+
     // Leaderboard queries
     @Query(value = "SELECT * FROM wp_fcom_user_streaks " +
             "ORDER BY longest_streak DESC, current_streak DESC " +
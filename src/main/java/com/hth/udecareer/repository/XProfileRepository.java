@@ -4,6 +4,8 @@ import com.hth.udecareer.entities.XProfileEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +14,7 @@ public interface XProfileRepository extends JpaRepository<XProfileEntity, Long>
     Optional<XProfileEntity> findByUserId(Long userId);
 
     Optional<XProfileEntity> findByUsername(String username);
+
+    List<XProfileEntity> findByUserIdIn(Collection<Long> userIds);
 }
 
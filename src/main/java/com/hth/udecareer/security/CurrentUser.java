@@ -0,0 +1,47 @@
+package com.hth.udecareer.security;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The authenticated user of the current request, resolved once by {@link JwtRequestFilter}.
+ * <p>
+ * Controllers can take it as a handler argument; services get it through {@link CurrentUserResolver}.
+ */
+@Value
+@Builder
+public class CurrentUser {
+
+    /**
+     * Request attribute holding the {@link CurrentUser} of an authenticated request.
+     */
+    public static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName();
+
+    Long id;
+    String email;
+    /**
+     * wp_users.user_login; may be null for tokens authenticated from claims issued before it was added.
+     */
+    String username;
+    Set<String> roles;
+
+    public boolean hasRole(String role) {
+        return roles.contains(role.startsWith("ROLE_") ? role : "ROLE_" + role);
+    }
+
+    static CurrentUser from(JwtUserPrincipal principal) {
+        return CurrentUser.builder()
+                          .id(principal.getUserId())
+                          .email(principal.getUsername())
+                          .username(principal.getLogin())
+                          .roles(principal.getAuthorities().stream()
+                                          .map(GrantedAuthority::getAuthority)
+                                          .collect(Collectors.toUnmodifiableSet()))
+                          .build();
+    }
+}
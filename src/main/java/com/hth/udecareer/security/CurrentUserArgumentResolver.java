@@ -0,0 +1,36 @@
+package com.hth.udecareer.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.hth.udecareer.enums.ErrorCode;
+import com.hth.udecareer.exception.AppException;
+
+/**
+ * Resolves {@link CurrentUser} handler arguments. Unauthenticated requests get {@link ErrorCode#UNAUTHORIZED},
+ * or null when the parameter is annotated {@code @Nullable}.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CurrentUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        final Object currentUser = webRequest.getAttribute(CurrentUser.REQUEST_ATTRIBUTE,
+                                                           RequestAttributes.SCOPE_REQUEST);
+        if (currentUser == null && !parameter.isOptional()) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        return currentUser;
+    }
+}
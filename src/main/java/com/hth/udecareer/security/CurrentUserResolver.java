@@ -0,0 +1,87 @@
+package com.hth.udecareer.security;
+
+import java.security.Principal;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.hth.udecareer.entities.User;
+import com.hth.udecareer.enums.ErrorCode;
+import com.hth.udecareer.exception.AppException;
+import com.hth.udecareer.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves users for services that are called with an email or {@link Principal}.
+ * <p>
+ * Inside a request the id comes from the {@link CurrentUser} set by the auth filter (no query), and the
+ * {@link User} entity is loaded at most once per request. Outside a request (schedulers, async workers)
+ * every call falls back to {@code findByEmail}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private static final String USER_ATTRIBUTE = CurrentUserResolver.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+
+    /**
+     * Current user of the request, if it is authenticated.
+     */
+    public Optional<CurrentUser> current() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(
+                (CurrentUser) attributes.getAttribute(CurrentUser.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    /**
+     * Id of the user with this email; no query when it is the current user.
+     */
+    public Optional<Long> findUserId(String email) {
+        final Optional<CurrentUser> current = current().filter(user -> user.getEmail() != null && user.getEmail().equalsIgnoreCase(email));
+        if (current.isPresent()) {
+            return Optional.of(current.get().getId());
+        }
+        return findUser(email).map(User::getId);
+    }
+
+    /**
+     * Id of the authenticated user behind the principal, for controllers that take a {@link Principal}.
+     */
+    public Long getUserId(Principal principal) throws AppException {
+        if (principal == null || principal.getName() == null || principal.getName().isBlank()) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        return findUserId(principal.getName())
+                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
+    }
+
+    /**
+     * User entity with this email. The current user's entity is loaded once per request and shared by every
+     * service of that request; it is detached outside the loading transaction, so code that modifies users
+     * should keep loading its own.
+     */
+    public Optional<User> findUser(String email) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            final Object cached = attributes.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof User user && email != null && email.equalsIgnoreCase(user.getEmail())) {
+                return Optional.of(user);
+            }
+        }
+
+        final Optional<User> user = userRepository.findByEmail(email);
+        if (attributes != null && user.isPresent()
+                && current().map(c -> c.getId().equals(user.get().getId())).orElse(false)) {
+            attributes.setAttribute(USER_ATTRIBUTE, user.get(), RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
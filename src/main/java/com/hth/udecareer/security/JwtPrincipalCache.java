@@ -0,0 +1,122 @@
+package com.hth.udecareer.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived cache of authenticated principals keyed by JWT subject + issued-at.
+ * <p>
+ * Saves the user + wp_capabilities lookups that {@link JwtUserDetailsService} would otherwise run on every
+ * request. The TTL bounds how long a role change made outside this service (WordPress admin) takes to apply;
+ * password changes and account deletion here call {@link #invalidate(String)}. The cache is per instance.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<Key, CachedPrincipal> cache;
+
+    public JwtPrincipalCache(@Value("${jwt.principal-cache.max-size:10000}") int maxSize,
+                             @Value("${jwt.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedPrincipal> eldest) {
+                return size() > JwtPrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Cached principal for the token, or the loader's result (cached when the TTL is positive).
+     */
+    public UserDetails get(String subject, long issuedAt, Supplier<UserDetails> loader) {
+        final Key key = new Key(subject, issuedAt);
+        final long now = System.currentTimeMillis();
+        synchronized (cache) {
+            final CachedPrincipal cached = cache.get(key);
+            if (cached != null && cached.expiresAt > now) {
+                return cached.userDetails;
+            }
+        }
+
+        final UserDetails loaded = loader.get();
+        if (ttlMillis > 0) {
+            synchronized (cache) {
+                cache.put(key, new CachedPrincipal(loaded, now + ttlMillis));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop every cached principal of the user. {@code email} is matched against both the token subject
+     * and the principal username, since tokens may be issued for the username or the email.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.entrySet().removeIf(entry -> email.equalsIgnoreCase(entry.getKey().subject)
+                    || email.equalsIgnoreCase(entry.getValue().userDetails.getUsername()));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static final class Key {
+        private final String subject;
+        private final long issuedAt;
+
+        private Key(String subject, long issuedAt) {
+            this.subject = subject;
+            this.issuedAt = issuedAt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return issuedAt == other.issuedAt && Objects.equals(subject, other.subject);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subject, issuedAt);
+        }
+    }
+
+    private static final class CachedPrincipal {
+        private final UserDetails userDetails;
+        private final long expiresAt;
+
+        private CachedPrincipal(UserDetails userDetails, long expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
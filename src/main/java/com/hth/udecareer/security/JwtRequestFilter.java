@@ -1,12 +1,14 @@
 package com.hth.udecareer.security;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,22 +18,53 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.hth.udecareer.utils.CookieUtil;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Component
-@RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtUserDetailsService jwtUserDetailsService;
     private final JwtTokenUtil jwtTokenUtil;
     private final CookieUtil cookieUtil;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final boolean trustRoleClaims;
+    private final Timer cacheAuthTimer;
+    private final Timer dbAuthTimer;
+    private final Timer claimsAuthTimer;
+
+    public JwtRequestFilter(JwtUserDetailsService jwtUserDetailsService,
+                            JwtTokenUtil jwtTokenUtil,
+                            CookieUtil cookieUtil,
+                            JwtPrincipalCache jwtPrincipalCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${jwt.trust-role-claims:false}") boolean trustRoleClaims) {
+        this.jwtUserDetailsService = jwtUserDetailsService;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.cookieUtil = cookieUtil;
+        this.jwtPrincipalCache = jwtPrincipalCache;
+        this.trustRoleClaims = trustRoleClaims;
+        // Thời gian xác thực mỗi request (parse token + load principal), so sánh được giữa các chế độ
+        this.cacheAuthTimer = authTimer(meterRegistry, "cache");
+        this.dbAuthTimer = authTimer(meterRegistry, "db");
+        this.claimsAuthTimer = authTimer(meterRegistry, "claims");
+    }
+
+    private static Timer authTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("security.jwt.authentication")
+                    .tag("source", source)
+                    .description("JWT parsing and principal lookup per request")
+                    .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
-        String username = null;
+        final long start = System.nanoTime();
+        Claims claims = null;
         String jwtToken = null;
 
         // 1. Ưu tiên lấy từ Authorization header (cho mobile app, Postman)
@@ -40,7 +73,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                claims = jwtTokenUtil.getClaimsFromToken(jwtToken);
             } catch (IllegalArgumentException e) {
                 logger.error("Unable to get JWT Token from header");
             } catch (ExpiredJwtException e) {
@@ -52,7 +85,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             jwtToken = cookieUtil.getJwtFromCookie(request);
             if (jwtToken != null) {
                 try {
-                    username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                    claims = jwtTokenUtil.getClaimsFromToken(jwtToken);
                 } catch (IllegalArgumentException e) {
                     logger.error("Unable to get JWT Token from cookie");
                 } catch (ExpiredJwtException e) {
@@ -64,11 +97,22 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
 
         // Validate token và set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            final UserDetails userDetails = jwtUserDetailsService.loadUserByUsername(username);
-
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            final String username = claims.getSubject();
+            final UserDetails claimsPrincipal = trustRoleClaims ? jwtTokenUtil.getPrincipalFromClaims(claims) : null;
+            final boolean[] loadedFromDb = {false};
+            final UserDetails userDetails = claimsPrincipal != null
+                    ? claimsPrincipal
+                    : jwtPrincipalCache.get(username,
+                                            claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                                            () -> {
+                                                loadedFromDb[0] = true;
+                                                return jwtUserDetailsService.loadUserByUsername(username);
+                                            });
+
+            if (jwtTokenUtil.validateToken(claims, userDetails)) {
 
                 final UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                         new UsernamePasswordAuthenticationToken(
@@ -77,7 +121,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                if (userDetails instanceof JwtUserPrincipal principal) {
+                    request.setAttribute(CurrentUser.REQUEST_ATTRIBUTE, CurrentUser.from(principal));
+                }
             }
+            (claimsPrincipal != null ? claimsAuthTimer : loadedFromDb[0] ? dbAuthTimer : cacheAuthTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
         chain.doFilter(request, response);
     }
@@ -1,13 +1,18 @@
 package com.hth.udecareer.security;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -20,10 +25,28 @@ public class JwtTokenUtil {
 
     public static final long JWT_TOKEN_VALIDITY = 7 * 24 * 60 * 60;
 
+    /**
+     * Signed claims carried by tokens issued for a {@link JwtUserPrincipal}.
+     */
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_LOGIN = "login";
+
     @Value("${jwt.secret}")
     private String secret;
 
+    private volatile SecretKey signingKey;
+
     private SecretKey getSigningKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = buildSigningKey();
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private SecretKey buildSigningKey() {
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         // Ensure key is at least 256 bits (32 bytes) for HS256
         if (keyBytes.length < 32) {
@@ -44,17 +67,33 @@ public class JwtTokenUtil {
     }
 
     private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser()
-                                  .verifyWith(getSigningKey())
-                                  .build()
-                                  .parseSignedClaims(token)
-                                  .getPayload();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(getClaimsFromToken(token));
+    }
+
+    /**
+     * Verify the signature and expiry once and return all claims.
+     */
+    public Claims getClaimsFromToken(String token) {
+        return Jwts.parser()
+                   .verifyWith(getSigningKey())
+                   .build()
+                   .parseSignedClaims(token)
+                   .getPayload();
     }
 
     public String generateToken(UserDetails userDetails) {
+        final Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof JwtUserPrincipal principal && principal.getUserId() != null) {
+            claims.put(CLAIM_USER_ID, principal.getUserId());
+            if (principal.getLogin() != null) {
+                claims.put(CLAIM_LOGIN, principal.getLogin());
+            }
+            claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream()
+                                               .map(GrantedAuthority::getAuthority)
+                                               .toList());
+        }
         return Jwts.builder()
-                   .claims(new HashMap<>())
+                   .claims(claims)
                    .subject(userDetails.getUsername())
                    .issuedAt(new Date(System.currentTimeMillis()))
                    .expiration(new Date(System.currentTimeMillis() + JWT_TOKEN_VALIDITY * 1000))
@@ -63,8 +102,30 @@ public class JwtTokenUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return validateToken(getClaimsFromToken(token), userDetails);
+    }
+
+    /**
+     * Same as {@link #validateToken(String, UserDetails)} for claims that were already parsed.
+     */
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * Principal built from the signed uid/roles claims alone, or null for tokens issued without them.
+     */
+    public JwtUserPrincipal getPrincipalFromClaims(Claims claims) {
+        final Object userId = claims.get(CLAIM_USER_ID);
+        final Object roles = claims.get(CLAIM_ROLES);
+        if (!(userId instanceof Number) || !(roles instanceof Collection<?> roleNames)) {
+            return null;
+        }
+        final List<SimpleGrantedAuthority> authorities = roleNames.stream()
+                                                                  .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                                                                  .toList();
+        return new JwtUserPrincipal(((Number) userId).longValue(), claims.getSubject(),
+                                    claims.get(CLAIM_LOGIN, String.class), "", authorities);
     }
 
     private Boolean isTokenExpired(String token) {
@@ -43,7 +43,8 @@ public class JwtUserDetailsService implements UserDetailsService {
 
         log.debug("User {} loaded with roles: {}", usernameOrEmail, authorities);
 
-        return new org.springframework.security.core.userdetails.User(user.getEmail(), user.getPassword(), authorities);
+        return new JwtUserPrincipal(user.getId(), user.getEmail(), user.getUsername(), user.getPassword(),
+                                    authorities);
     }
 
     /**
@@ -0,0 +1,36 @@
+package com.hth.udecareer.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Authenticated principal with the wp_users id, so request handling does not have to look the user up by email.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class JwtUserPrincipal extends User {
+
+    private final Long userId;
+
+    /**
+     * wp_users.user_login; {@link #getUsername()} is the email used as JWT subject.
+     */
+    private final String login;
+
+    public JwtUserPrincipal(Long userId, String username, String password,
+                            Collection<? extends GrantedAuthority> authorities) {
+        this(userId, username, null, password, authorities);
+    }
+
+    public JwtUserPrincipal(Long userId, String username, String login, String password,
+                            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.userId = userId;
+        this.login = login;
+    }
+}
@@ -0,0 +1,218 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.entities.AffiliateVisit;
+import com.hth.udecareer.repository.AffiliateClickBatchRepository;
+import com.hth.udecareer.repository.AffiliateClickBatchRepository.ClickCountDelta;
+import com.hth.udecareer.utils.RollingBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory aggregation of affiliate link clicks, written to the database in batches.
+ * <p>
+ * Each click bumps {@link LongAdder} counters of its link and queues its visit row; nothing on the click
+ * path touches the database or takes a lock. A click is unique when (link, IP, user agent) was not seen
+ * within {@code app.affiliate.click-tracking.unique-window-hours}, checked against a {@link RollingBloomFilter}
+ * instead of scanning wp_affiliate_visits. {@code unique-filter-fpp} is the rate of new visitors wrongly
+ * counted as repeats, over all generations.
+ * <p>
+ * Every {@code app.affiliate.click-tracking.flush-interval-ms} (and on shutdown) the counters are applied as
+ * {@code total_clicks = total_clicks + ?} deltas and the queued visits are inserted in batches, together with
+ * their hourly/daily rollup rows ({@link AffiliateStatsRollupService}), each in one transaction. Failed writes
+ * are retried on the next flush; visits arriving while the queue is full are dropped (counted in
+ * {@code affiliate.clicks.dropped_visits}). The filter belongs to this instance: after a restart, or when the
+ * same visitor reaches another instance, a repeat click can be counted as unique again.
+ */
+@Slf4j
+@Component
+public class AffiliateClickAggregator {
+
+    private final AffiliateClickBatchRepository batchRepository;
+    private final AffiliateStatsRollupService statsRollupService;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long rotationIntervalMillis;
+    private final RollingBloomFilter uniqueFilter;
+    private final BlockingQueue<AffiliateVisit> pendingVisits;
+    private final Map<Long, LinkCounters> counters = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private long nextRotationMillis;
+    private Counter flushedVisitsCounter;
+    private Counter droppedVisitsCounter;
+    private Counter flushFailedCounter;
+
+    public AffiliateClickAggregator(AffiliateClickBatchRepository batchRepository,
+                                    AffiliateStatsRollupService statsRollupService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.affiliate.click-tracking.batch-size:500}") int batchSize,
+                                    @Value("${app.affiliate.click-tracking.max-pending-visits:50000}") int maxPendingVisits,
+                                    @Value("${app.affiliate.click-tracking.unique-window-hours:24}") long uniqueWindowHours,
+                                    @Value("${app.affiliate.click-tracking.unique-filter-generations:5}") int generations,
+                                    @Value("${app.affiliate.click-tracking.unique-filter-expected-clicks:2000000}") long expectedClicks,
+                                    @Value("${app.affiliate.click-tracking.unique-filter-fpp:0.01}") double falsePositiveRate) {
+        this.batchRepository = batchRepository;
+        this.statsRollupService = statsRollupService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.pendingVisits = new ArrayBlockingQueue<>(maxPendingVisits);
+        // One generation fills while the others cover the whole window
+        this.rotationIntervalMillis = TimeUnit.HOURS.toMillis(uniqueWindowHours) / (generations - 1);
+        // A lookup checks every generation, so each one gets its share of the combined false positive rate
+        this.uniqueFilter = new RollingBloomFilter(generations,
+                                                   Math.max(1, expectedClicks / (generations - 1)),
+                                                   1 - Math.pow(1 - falsePositiveRate, 1.0 / generations));
+        this.nextRotationMillis = System.currentTimeMillis() + rotationIntervalMillis;
+    }
+
+    /**
+     * Click counters of one link. {@code flushedTotal}/{@code flushedUnique} are guarded by the flush lock.
+     */
+    private static final class LinkCounters {
+        private final LongAdder totalClicks = new LongAdder();
+        private final LongAdder uniqueClicks = new LongAdder();
+        private long flushedTotal;
+        private long flushedUnique;
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        flushedVisitsCounter = Counter.builder("affiliate.clicks.flushed_visits")
+                .description("Affiliate visit rows written by batched flushes")
+                .register(meterRegistry);
+        droppedVisitsCounter = Counter.builder("affiliate.clicks.dropped_visits")
+                .description("Affiliate visit rows dropped because the pending queue was full")
+                .register(meterRegistry);
+        flushFailedCounter = Counter.builder("affiliate.clicks.flush_failures")
+                .description("Affiliate click flushes that failed and were kept for retry")
+                .register(meterRegistry);
+        Gauge.builder("affiliate.clicks.pending_visits", pendingVisits, BlockingQueue::size)
+                .description("Affiliate visit rows waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count a click and queue its visit row. Sets {@code isUnique} and {@code createdAt} on the visit.
+     *
+     * @return whether the click is unique
+     */
+    public boolean record(AffiliateVisit visit) {
+        long key = RollingBloomFilter.mix(
+                RollingBloomFilter.mix(RollingBloomFilter.mix(visit.getLinkId()), visit.getIpAddress()),
+                visit.getUserAgent());
+        boolean unique = !uniqueFilter.putIfAbsent(key);
+
+        LinkCounters linkCounters = counters.computeIfAbsent(visit.getLinkId(), id -> new LinkCounters());
+        linkCounters.totalClicks.increment();
+        if (unique) {
+            linkCounters.uniqueClicks.increment();
+        }
+
+        visit.setIsUnique(unique);
+        visit.setCreatedAt(LocalDateTime.now());
+        if (!pendingVisits.offer(visit)) {
+            // Queue full (writes are failing or falling behind): drop the row, the click is still counted.
+            // Flushing here would put click threads behind the flush lock and its database I/O.
+            droppedVisitsCounter.increment();
+            log.warn("Dropped affiliate visit for link {}: pending queue is full", visit.getLinkId());
+        }
+        return unique;
+    }
+
+    /**
+     * Write the counter deltas and the queued visits, and rotate the unique filter when due.
+     */
+    @Scheduled(fixedDelayString = "${app.affiliate.click-tracking.flush-interval-ms:2000}",
+            initialDelayString = "${app.affiliate.click-tracking.flush-interval-ms:2000}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (System.currentTimeMillis() >= nextRotationMillis) {
+                uniqueFilter.rotate();
+                nextRotationMillis = System.currentTimeMillis() + rotationIntervalMillis;
+            }
+            flushCounters();
+            flushVisits();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+        log.info("Flushed affiliate clicks on shutdown, {} visits left unwritten", pendingVisits.size());
+    }
+
+    public int pendingVisits() {
+        return pendingVisits.size();
+    }
+
+    private void flushCounters() {
+        List<ClickCountDelta> deltas = new ArrayList<>();
+        List<long[]> flushed = new ArrayList<>();
+        for (Map.Entry<Long, LinkCounters> entry : counters.entrySet()) {
+            LinkCounters linkCounters = entry.getValue();
+            // The adders only grow, so the delta since the last flush never loses a concurrent increment
+            long total = linkCounters.totalClicks.sum();
+            long unique = linkCounters.uniqueClicks.sum();
+            if (total == linkCounters.flushedTotal && unique == linkCounters.flushedUnique) {
+                continue;
+            }
+            deltas.add(new ClickCountDelta(entry.getKey(), total - linkCounters.flushedTotal,
+                                           unique - linkCounters.flushedUnique));
+            flushed.add(new long[]{total, unique});
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            batchRepository.addClickCounts(deltas);
+        } catch (Exception e) {
+            flushFailedCounter.increment();
+            log.error("Failed to flush click counts of {} affiliate links: {}", deltas.size(), e.getMessage(), e);
+            return;
+        }
+        for (int i = 0; i < deltas.size(); i++) {
+            LinkCounters linkCounters = counters.get(deltas.get(i).linkId());
+            linkCounters.flushedTotal = flushed.get(i)[0];
+            linkCounters.flushedUnique = flushed.get(i)[1];
+        }
+    }
+
+    private void flushVisits() {
+        List<AffiliateVisit> batch = new ArrayList<>(batchSize);
+        while (pendingVisits.drainTo(batch, batchSize) > 0) {
+            try {
+                statsRollupService.recordVisits(batch);
+                flushedVisitsCounter.increment(batch.size());
+            } catch (Exception e) {
+                flushFailedCounter.increment();
+                log.error("Failed to insert {} affiliate visits: {}", batch.size(), e.getMessage(), e);
+                int requeued = 0;
+                for (AffiliateVisit visit : batch) {
+                    if (pendingVisits.offer(visit)) {
+                        requeued++;
+                    }
+                }
+                droppedVisitsCounter.increment(batch.size() - requeued);
+                return;
+            }
+            batch.clear();
+        }
+    }
+}
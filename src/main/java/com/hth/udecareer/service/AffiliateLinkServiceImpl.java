@@ -12,6 +12,7 @@ import com.hth.udecareer.model.response.AffiliateLinkResponse;
 import com.hth.udecareer.model.response.AffiliateLinkStatsResponse;
 import com.hth.udecareer.repository.AffiliateLinkRepository;
 import com.hth.udecareer.repository.AffiliateSettingRepository;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository;
 import com.hth.udecareer.repository.AffiliateVisitRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,8 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -46,6 +49,9 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
     private final AffiliateSettingRepository affiliateSettingRepository;
     private final AffiliateLinkRepository affiliateLinkRepository;
     private final AffiliateVisitRepository affiliateVisitRepository;
+    private final GeoIPService geoIPService;
+    private final AffiliateClickAggregator affiliateClickAggregator;
+    private final AffiliateStatsRollupService affiliateStatsRollupService;
 
     @Value("${app.affiliate.base-url}")
     private String baseUrl;
@@ -208,42 +214,10 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
 
     @Override
     @Async
-    @Transactional
     public void trackClick(Long linkId, Long affiliateId, String ip, String userAgent, String referer, String landingUrl) {
         try {
-            log.info("Async tracking click for link ID: {}, affiliate: {}, IP: {}", linkId, affiliateId, ip);
-
-            // Validation: Check if the link exists
-            Optional<AffiliateLink> linkOptional = affiliateLinkRepository.findById(linkId);
-            if (linkOptional.isEmpty()) {
-                log.warn("Cannot track click: Link ID {} not found", linkId);
-                return;
-            }
-
-            AffiliateLink affiliateLink = linkOptional.get();
-
-            // Check if this is a unique click (IP + User Agent not seen in last 24h)
-            LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-            boolean isUnique = !affiliateVisitRepository.existsByLinkIdAndIpAddressAndUserAgentAndCreatedAtAfter(
-                    linkId,
-                    ip,
-                    userAgent,
-                    oneDayAgo
-            );
-
-            // Update click counters in the AffiliateLink entity
-            affiliateLink.setTotalClicks(affiliateLink.getTotalClicks() + 1);
+            log.debug("Async tracking click for link ID: {}, affiliate: {}, IP: {}", linkId, affiliateId, ip);
 
-            // Only increment unique clicks if this is truly unique
-            if (isUnique) {
-                affiliateLink.setUniqueClicks(affiliateLink.getUniqueClicks() + 1);
-            }
-
-            affiliateLinkRepository.save(affiliateLink);
-            log.debug("Updated click counters for link ID {}: total={}, unique={}, isUniqueClick={}",
-                     linkId, affiliateLink.getTotalClicks(), affiliateLink.getUniqueClicks(), isUnique);
-
-            // Create and save AffiliateVisit record
             AffiliateVisit visit = new AffiliateVisit();
             visit.setAffiliateId(affiliateId);
             visit.setLinkId(linkId);
@@ -252,15 +226,12 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
             visit.setReferrerUrl(referer);
             visit.setLandingUrl(landingUrl);
 
-            // Mark visit as unique based on IP + User Agent + 24h window
-            visit.setIsUnique(isUnique);
-
             // Not converted yet
             visit.setIsConverted(false);
 
-            affiliateVisitRepository.save(visit);
-            log.info("Successfully tracked click: link_id={}, affiliate_id={}, visit_id={}",
-                    linkId, affiliateId, visit.getId());
+            // Counters and the visit row are written in batches by the aggregator
+            boolean isUnique = affiliateClickAggregator.record(visit);
+            log.debug("Tracked click: link_id={}, affiliate_id={}, isUniqueClick={}", linkId, affiliateId, isUnique);
 
         } catch (Exception e) {
             // Error handling: Log the error but don't crash the application
@@ -276,63 +247,21 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
      * Nếu có lỗi, chỉ log lại nhưng không throw exception
      * 
      * Flow:
-     * 1. Validate link tồn tại
-     * 2. Check click có unique không (IP + UA trong 24h)
-     * 3. Update click counters trong AffiliateLink
-     * 4. Save AffiliateVisit record với đầy đủ tracking data
+     * 1. Resolve country/city từ GeoIP index (nếu chưa có)
+     * 2. Tạo AffiliateVisit record với đầy đủ tracking data
+     * 3. Giao cho AffiliateClickAggregator: check unique (IP + UA trong 24h), cộng click counters
+     *    và ghi visit theo batch (link đã được validate ở redirect controller)
      * 
      * @param trackingData ClickTrackingData object với đầy đủ thông tin
      */
     @Override
     @Async  // Thực hiện async để không block redirect
-    @Transactional  // Đảm bảo transaction cho database operations
     public void trackClick(ClickTrackingData trackingData) {
         try {
-            log.info("Async tracking click with full data for link ID: {}, affiliate: {}, IP: {}",
+            log.debug("Async tracking click with full data for link ID: {}, affiliate: {}, IP: {}",
                     trackingData.getLinkId(), trackingData.getAffiliateId(), trackingData.getIpAddress());
 
-            // ========== STEP 1: VALIDATE LINK ==========
-            // Kiểm tra link có tồn tại trong database không
-            // (Có thể bị xóa sau khi user click nhưng trước khi track)
-            Optional<AffiliateLink> linkOptional = affiliateLinkRepository.findById(trackingData.getLinkId());
-            if (linkOptional.isEmpty()) {
-                log.warn("Cannot track click: Link ID {} not found", trackingData.getLinkId());
-                return;  // Exit early nếu link không tồn tại
-            }
-
-            AffiliateLink affiliateLink = linkOptional.get();
-
-            // ========== STEP 2: CHECK UNIQUE CLICK ==========
-            // Click được coi là unique nếu:
-            // - Cùng linkId
-            // - Cùng IP address
-            // - Cùng User Agent
-            // - Trong vòng 24 giờ
-            // - Chưa có record nào match trong database
-            LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-            boolean isUnique = !affiliateVisitRepository.existsByLinkIdAndIpAddressAndUserAgentAndCreatedAtAfter(
-                    trackingData.getLinkId(),
-                    trackingData.getIpAddress(),
-                    trackingData.getUserAgent(),
-                    oneDayAgo
-            );
-
-            // ========== STEP 3: UPDATE CLICK COUNTERS ==========
-            // Update tổng số clicks (luôn tăng)
-            affiliateLink.setTotalClicks(affiliateLink.getTotalClicks() + 1);
-
-            // Chỉ tăng unique clicks nếu click này thực sự unique
-            // Tránh double counting khi user click nhiều lần
-            if (isUnique) {
-                affiliateLink.setUniqueClicks(affiliateLink.getUniqueClicks() + 1);
-            }
-
-            // Save updated counters
-            affiliateLinkRepository.save(affiliateLink);
-            log.debug("Updated click counters for link ID {}: total={}, unique={}, isUniqueClick={}",
-                     trackingData.getLinkId(), affiliateLink.getTotalClicks(), affiliateLink.getUniqueClicks(), isUnique);
-
-            // ========== STEP 4: SAVE VISIT RECORD ==========
+            // ========== BUILD VISIT RECORD ==========
             // Tạo AffiliateVisit record với đầy đủ tracking data
             // Record này dùng để:
             // - Hiển thị click reports
@@ -360,10 +289,18 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
             visit.setOs(trackingData.getOs());  // OS name: Windows, macOS, Linux, iOS, Android
             
             // ========== GEOGRAPHIC INFO ==========
-            // Chưa implement GeoIP service, để null
-            // Có thể thêm sau bằng cách tích hợp GeoIP API (MaxMind, ipapi.co, etc.)
-            visit.setCountry(trackingData.getCountry());  // Country code (2 letters): VN, US, etc.
-            visit.setCity(trackingData.getCity());  // City name: "Ho Chi Minh", "Hanoi", etc.
+            // Lookup từ GeoIP index trong memory (ở đây, ngoài request thread), null nếu không có trong dataset
+            String country = trackingData.getCountry();
+            String city = trackingData.getCity();
+            if (country == null && trackingData.getIpAddress() != null) {
+                GeoIPService.GeoIPResult geoResult = geoIPService.getLocationFromIP(trackingData.getIpAddress());
+                if (geoResult != null) {
+                    country = geoResult.getCountryCode();
+                    city = geoResult.getCity();
+                }
+            }
+            visit.setCountry(country);  // Country code (2 letters): VN, US, etc.
+            visit.setCity(city);  // City name: "Ho Chi Minh", "Hanoi", etc.
             
             // ========== SESSION & COOKIE TRACKING ==========
             visit.setSessionId(trackingData.getSessionId());  // Session ID để track user session
@@ -371,7 +308,6 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
             visit.setExpiresAt(trackingData.getExpiresAt());  // Cookie expiration date (30 days from now)
             
             // ========== CLICK METADATA ==========
-            visit.setIsUnique(isUnique);  // Click có unique không (dựa trên IP + UA trong 24h)
             visit.setIsConverted(false);  // Chưa convert (sẽ update thành true khi có order)
             
             // ========== CONVERSION TRACKING ==========
@@ -379,10 +315,12 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
             visit.setConvertedAt(null);  // Thời gian convert (null cho đến khi có conversion)
             visit.setReferralId(null);  // ID của referral record (null cho đến khi có conversion)
 
-            // Save visit record
-            affiliateVisitRepository.save(visit);
-            log.info("Successfully tracked click with full data: link_id={}, affiliate_id={}, visit_id={}, device={}, browser={}, os={}",
-                    trackingData.getLinkId(), trackingData.getAffiliateId(), visit.getId(),
+            // ========== COUNT CLICK & QUEUE VISIT ==========
+            // Click được coi là unique nếu cùng linkId + IP + User Agent chưa xuất hiện trong 24 giờ
+            // Counters (total/unique clicks) và visit record được ghi xuống DB theo batch
+            boolean isUnique = affiliateClickAggregator.record(visit);
+            log.debug("Tracked click with full data: link_id={}, affiliate_id={}, isUniqueClick={}, device={}, browser={}, os={}",
+                    trackingData.getLinkId(), trackingData.getAffiliateId(), isUnique,
                     visit.getDeviceType(), visit.getBrowser(), visit.getOs());
 
         } catch (Exception e) {
@@ -461,6 +399,11 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
         AffiliateLink link = affiliateLinkRepository.findByIdAndAffiliateId(linkId, affiliateId)
                 .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
 
+        if (affiliateStatsRollupService.isReadEnabled()) {
+            // Pre-aggregated rows instead of counting wp_affiliate_visits
+            return toLinkStatsResponse(link, affiliateStatsRollupService.getLinkStats(linkId, LocalDateTime.now()));
+        }
+
         // Overall stats
         Long totalClicks = affiliateVisitRepository.countByLinkId(linkId);
         Long uniqueClicks = affiliateVisitRepository.countByLinkIdAndIsUnique(linkId, true);
@@ -585,6 +528,77 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
                 .build();
     }
 
+    private AffiliateLinkStatsResponse toLinkStatsResponse(AffiliateLink link, AffiliateStatsRollupService.LinkStats stats) {
+        BigDecimal conversionRate = BigDecimal.ZERO;
+        if (stats.totalClicks() > 0) {
+            conversionRate = BigDecimal.valueOf(stats.totalConversions())
+                    .divide(BigDecimal.valueOf(stats.totalClicks()), 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+        }
+
+        // Rollup rows are per (source, device, country): sum them per dimension
+        Map<String, long[]> bySource = new HashMap<>();
+        Map<String, long[]> byCountry = new HashMap<>();
+        List<Object[]> deviceData = new ArrayList<>();
+        for (AffiliateStatsRollupRepository.BreakdownRow row : stats.breakdown()) {
+            if (!row.source().isEmpty()) {
+                long[] counts = bySource.computeIfAbsent(row.source(), key -> new long[2]);
+                counts[0] += row.clicks();
+                counts[1] += row.conversions();
+            }
+            if (!row.country().isEmpty()) {
+                long[] counts = byCountry.computeIfAbsent(row.country(), key -> new long[2]);
+                counts[0] += row.clicks();
+                counts[1] += row.conversions();
+            }
+            deviceData.add(new Object[]{AffiliateStatsRollupService.toDeviceType(row.deviceType()), row.clicks()});
+        }
+
+        List<AffiliateLinkStatsResponse.SourceStat> topSources = topByClicks(bySource).stream()
+                .map(entry -> AffiliateLinkStatsResponse.SourceStat.builder()
+                        .source(entry.getKey())
+                        .clicks((int) entry.getValue()[0])
+                        .conversions((int) entry.getValue()[1])
+                        .build())
+                .collect(Collectors.toList());
+
+        List<AffiliateLinkStatsResponse.GeoStat> topCountries = topByClicks(byCountry).stream()
+                .map(entry -> AffiliateLinkStatsResponse.GeoStat.builder()
+                        .country(entry.getKey())
+                        .clicks((int) entry.getValue()[0])
+                        .conversions((int) entry.getValue()[1])
+                        .build())
+                .collect(Collectors.toList());
+
+        return AffiliateLinkStatsResponse.builder()
+                .linkId(link.getId())
+                .shortUrl(link.getShortUrl())
+                .prettyUrl(link.getPrettyUrl())
+                .originalUrl(link.getOriginalUrl())
+                .totalClicks((int) stats.totalClicks())
+                .uniqueClicks((int) stats.uniqueClicks())
+                .totalConversions((int) stats.totalConversions())
+                .totalCommission(link.getTotalCommission())
+                .conversionRate(conversionRate)
+                .clicksToday((int) stats.clicksToday())
+                .clicksThisWeek((int) stats.clicksThisWeek())
+                .clicksThisMonth((int) stats.clicksThisMonth())
+                .conversionsToday((int) stats.conversionsToday())
+                .conversionsThisWeek((int) stats.conversionsThisWeek())
+                .conversionsThisMonth((int) stats.conversionsThisMonth())
+                .topSources(topSources)
+                .deviceStats(buildDeviceStats(deviceData))
+                .topCountries(topCountries)
+                .build();
+    }
+
+    private static List<Map.Entry<String, long[]>> topByClicks(Map<String, long[]> counts) {
+        return counts.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+
     private AffiliateLinkStatsResponse.DeviceStats buildDeviceStats(List<Object[]> deviceData) {
         int desktop = 0, mobile = 0, tablet = 0, unknown = 0;
 
@@ -597,13 +611,13 @@ public class AffiliateLinkServiceImpl implements AffiliateLinkService {
             } else {
                 switch (deviceType) {
                     case DESKTOP:
-                        desktop = count;
+                        desktop += count;
                         break;
                     case MOBILE:
-                        mobile = count;
+                        mobile += count;
                         break;
                     case TABLET:
-                        tablet = count;
+                        tablet += count;
                         break;
                     default:
                         unknown += count;
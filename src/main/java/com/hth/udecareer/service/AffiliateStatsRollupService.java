@@ -0,0 +1,330 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.entities.AffiliateVisit;
+import com.hth.udecareer.enums.CommissionStatus;
+import com.hth.udecareer.enums.DeviceType;
+import com.hth.udecareer.repository.AffiliateClickBatchRepository;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.AffiliateDay;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.BreakdownRow;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.ClickDelta;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.IncomeRow;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.LinkDay;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.PeriodCount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains and reads the affiliate statistics rollups: clicks per hour/day and (link, source, device,
+ * country), and referral income per day and status.
+ * <p>
+ * Click rows are added to in the same transaction that inserts the batched visits. Conversions and
+ * referral income change outside this service, so every {@code app.affiliate-stats.refresh-interval-ms}
+ * the days with newly converted visits or updated referrals are recounted. The full rebuild job
+ * ({@code app.affiliate-stats.rebuild-cron}, off by default) recounts every day, one transaction per day;
+ * the stats endpoints read the rollups once {@code app.affiliate-stats.read-enabled} is set, i.e. after
+ * the rebuild has run.
+ */
+@Slf4j
+@Service
+public class AffiliateStatsRollupService {
+
+    // Re-read a little before the last refresh, for rows committed late
+    private static final long REFRESH_OVERLAP_SECONDS = 60;
+
+    private final AffiliateClickBatchRepository clickBatchRepository;
+    private final AffiliateStatsRollupRepository rollupRepository;
+    private final boolean readEnabled;
+    private final int hourlyRetentionDays;
+
+    private LocalDateTime lastRefreshAt;
+
+    public AffiliateStatsRollupService(AffiliateClickBatchRepository clickBatchRepository,
+                                       AffiliateStatsRollupRepository rollupRepository,
+                                       @Value("${app.affiliate-stats.read-enabled:false}") boolean readEnabled,
+                                       @Value("${app.affiliate-stats.startup-lookback-hours:48}") long startupLookbackHours,
+                                       @Value("${app.affiliate-stats.hourly-retention-days:40}") int hourlyRetentionDays) {
+        this.clickBatchRepository = clickBatchRepository;
+        this.rollupRepository = rollupRepository;
+        this.readEnabled = readEnabled;
+        this.hourlyRetentionDays = hourlyRetentionDays;
+        this.lastRefreshAt = LocalDateTime.now().minusHours(startupLookbackHours);
+    }
+
+    /**
+     * Click and conversion counts of one link.
+     *
+     * @param breakdown All-time counts per (source, device, country)
+     */
+    public record LinkStats(long totalClicks, long uniqueClicks, long totalConversions,
+                            long clicksToday, long clicksThisWeek, long clicksThisMonth,
+                            long conversionsToday, long conversionsThisWeek, long conversionsThisMonth,
+                            List<BreakdownRow> breakdown) {
+    }
+
+    /**
+     * Income and clicks of an affiliate over a day range.
+     *
+     * @param approvedEarnings Commission of APPROVED referrals
+     * @param orders           APPROVED and PAID referrals
+     */
+    public record IncomeTotals(BigDecimal approvedEarnings, BigDecimal pendingEarnings, BigDecimal paidEarnings,
+                               long clicks, long orders) {
+    }
+
+    /**
+     * Daily rows of one affiliate, summed over any sub-range by {@link #totals}.
+     */
+    public static final class IncomeDays {
+
+        private final NavigableMap<LocalDate, long[]> clicks = new TreeMap<>();
+        private final NavigableMap<LocalDate, Map<CommissionStatus, IncomeRow>> income = new TreeMap<>();
+
+        public IncomeTotals totals(LocalDate fromDay, LocalDate toDay) {
+            if (fromDay.isAfter(toDay)) {
+                return new IncomeTotals(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0);
+            }
+            long clickCount = 0;
+            for (long[] counts : clicks.subMap(fromDay, true, toDay, true).values()) {
+                clickCount += counts[0];
+            }
+            BigDecimal approved = BigDecimal.ZERO;
+            BigDecimal pending = BigDecimal.ZERO;
+            BigDecimal paid = BigDecimal.ZERO;
+            long orders = 0;
+            for (Map<CommissionStatus, IncomeRow> rows : income.subMap(fromDay, true, toDay, true).values()) {
+                for (Map.Entry<CommissionStatus, IncomeRow> entry : rows.entrySet()) {
+                    IncomeRow row = entry.getValue();
+                    switch (entry.getKey()) {
+                        case APPROVED -> {
+                            approved = approved.add(row.commission());
+                            orders += row.orders();
+                        }
+                        case PAID -> {
+                            paid = paid.add(row.commission());
+                            orders += row.orders();
+                        }
+                        case PENDING -> pending = pending.add(row.commission());
+                        default -> {
+                        }
+                    }
+                }
+            }
+            return new IncomeTotals(approved, pending, paid, clickCount, orders);
+        }
+    }
+
+    public boolean isReadEnabled() {
+        return readEnabled;
+    }
+
+    /**
+     * Insert a batch of visits and add them to the click rollups, in one transaction.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void recordVisits(List<AffiliateVisit> visits) {
+        clickBatchRepository.insertVisits(visits);
+        rollupRepository.addClicks(toClickDeltas(visits));
+    }
+
+    /**
+     * Recount the days whose conversions or referral income changed since the last refresh, and drop
+     * expired hourly rows.
+     */
+    @Scheduled(fixedDelayString = "${app.affiliate-stats.refresh-interval-ms:300000}",
+            initialDelayString = "${app.affiliate-stats.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        int failed = 0;
+        try {
+            List<LinkDay> linkDays = rollupRepository.findConvertedVisitDays(lastRefreshAt);
+            for (LinkDay linkDay : linkDays) {
+                try {
+                    rollupRepository.recountLinkDay(linkDay.linkId(), linkDay.day());
+                } catch (Exception e) {
+                    failed++;
+                    log.error("Failed to recount clicks of link {} on {}: {}", linkDay.linkId(), linkDay.day(),
+                              e.getMessage(), e);
+                }
+            }
+            List<AffiliateDay> affiliateDays = rollupRepository.findUpdatedReferralDays(lastRefreshAt);
+            for (AffiliateDay affiliateDay : affiliateDays) {
+                try {
+                    rollupRepository.recountIncomeDay(affiliateDay.affiliateId(), affiliateDay.day());
+                } catch (Exception e) {
+                    failed++;
+                    log.error("Failed to recount income of affiliate {} on {}: {}", affiliateDay.affiliateId(),
+                              affiliateDay.day(), e.getMessage(), e);
+                }
+            }
+            int expired = rollupRepository.deleteHourlyBefore(
+                    startedAt.toLocalDate().minusDays(hourlyRetentionDays).atStartOfDay());
+            if (failed == 0) {
+                lastRefreshAt = startedAt.minusSeconds(REFRESH_OVERLAP_SECONDS);
+            }
+            log.debug("Affiliate stats refresh: {} link days, {} income days, {} expired hourly rows, {} failed",
+                      linkDays.size(), affiliateDays.size(), expired, failed);
+        } catch (Exception e) {
+            log.error("Affiliate stats refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recount every rollup row from the raw visits and referrals, one day per transaction.
+     */
+    @Scheduled(cron = "${app.affiliate-stats.rebuild-cron:-}")
+    public void rebuild() {
+        LocalDate firstDay = rollupRepository.findFirstActivityDay();
+        if (firstDay == null) {
+            log.info("Affiliate stats rebuild: no visits or referrals");
+            return;
+        }
+        log.info("Starting affiliate stats rebuild from {}...", firstDay);
+        LocalDate today = LocalDate.now();
+        int days = 0;
+        int failed = 0;
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            try {
+                rollupRepository.rebuildDay(day);
+                days++;
+            } catch (Exception e) {
+                failed++;
+                log.error("Affiliate stats rebuild failed for {}: {}", day, e.getMessage(), e);
+            }
+        }
+        log.info("Affiliate stats rebuild completed. Days: {}, failed: {}", days, failed);
+    }
+
+    /**
+     * Counts of one link; week and month are the last 7 days and last month up to {@code now}, as hours.
+     */
+    public LinkStats getLinkStats(long linkId, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        LocalDateTime weekStart = now.minusWeeks(1).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime monthStart = now.minusMonths(1).truncatedTo(ChronoUnit.HOURS);
+
+        List<BreakdownRow> breakdown = rollupRepository.findLinkBreakdown(linkId);
+        long totalClicks = 0;
+        long uniqueClicks = 0;
+        long conversions = 0;
+        for (BreakdownRow row : breakdown) {
+            totalClicks += row.clicks();
+            uniqueClicks += row.uniqueClicks();
+            conversions += row.conversions();
+        }
+
+        // Whole days after each window start from the daily rows, the first (partial) day from the hourly rows
+        long[] todayCounts = new long[2];
+        long[] weekCounts = new long[2];
+        long[] monthCounts = new long[2];
+        for (PeriodCount day : rollupRepository.findLinkDailyCounts(linkId, monthStart.toLocalDate())) {
+            LocalDate date = day.start().toLocalDate();
+            if (date.equals(today)) {
+                add(todayCounts, day);
+            }
+            if (date.isAfter(weekStart.toLocalDate())) {
+                add(weekCounts, day);
+            }
+            if (date.isAfter(monthStart.toLocalDate())) {
+                add(monthCounts, day);
+            }
+        }
+        Set<LocalDate> partialDays = new TreeSet<>(List.of(weekStart.toLocalDate(), monthStart.toLocalDate()));
+        for (PeriodCount hour : rollupRepository.findLinkHourlyCounts(linkId, partialDays)) {
+            if (hour.start().toLocalDate().equals(weekStart.toLocalDate()) && !hour.start().isBefore(weekStart)) {
+                add(weekCounts, hour);
+            }
+            if (hour.start().toLocalDate().equals(monthStart.toLocalDate()) && !hour.start().isBefore(monthStart)) {
+                add(monthCounts, hour);
+            }
+        }
+
+        return new LinkStats(totalClicks, uniqueClicks, conversions,
+                             todayCounts[0], weekCounts[0], monthCounts[0],
+                             todayCounts[1], weekCounts[1], monthCounts[1],
+                             breakdown);
+    }
+
+    /**
+     * Daily clicks and income of one affiliate in [fromDay, toDay] (two queries).
+     */
+    public IncomeDays loadIncomeDays(long affiliateId, LocalDate fromDay, LocalDate toDay) {
+        IncomeDays days = new IncomeDays();
+        for (PeriodCount count : rollupRepository.findAffiliateDailyClicks(affiliateId, fromDay, toDay)) {
+            days.clicks.put(count.start().toLocalDate(), new long[]{count.clicks(), count.conversions()});
+        }
+        for (IncomeRow row : rollupRepository.findAffiliateDailyIncome(affiliateId, fromDay, toDay)) {
+            CommissionStatus status;
+            try {
+                status = CommissionStatus.fromValue(row.status());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (status != null) {
+                days.income.computeIfAbsent(row.day(), day -> new HashMap<>()).merge(status, row,
+                        (a, b) -> new IncomeRow(a.day(), a.status(), a.commission().add(b.commission()),
+                                                a.orders() + b.orders()));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Device type stored in the rollups, matching DeviceTypeConverter.
+     */
+    public static DeviceType toDeviceType(String value) {
+        try {
+            return value == null || value.isEmpty() ? DeviceType.UNKNOWN : DeviceType.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return DeviceType.UNKNOWN;
+        }
+    }
+
+    static List<ClickDelta> toClickDeltas(List<AffiliateVisit> visits) {
+        Map<List<Object>, long[]> counts = new HashMap<>();
+        Map<List<Object>, Long> affiliates = new HashMap<>();
+        for (AffiliateVisit visit : visits) {
+            if (visit.getLinkId() == null) {
+                continue;
+            }
+            DeviceType deviceType = visit.getDeviceType() != null ? visit.getDeviceType() : DeviceType.UNKNOWN;
+            List<Object> key = List.of(visit.getCreatedAt().truncatedTo(ChronoUnit.HOURS), visit.getLinkId(),
+                                       visit.getSource() != null ? visit.getSource() : "",
+                                       deviceType.name().toLowerCase(),
+                                       visit.getCountry() != null ? visit.getCountry() : "");
+            long[] count = counts.computeIfAbsent(key, k -> new long[2]);
+            count[0]++;
+            if (Boolean.TRUE.equals(visit.getIsUnique())) {
+                count[1]++;
+            }
+            affiliates.put(key, visit.getAffiliateId());
+        }
+        List<ClickDelta> deltas = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> deltas.add(new ClickDelta((LocalDateTime) key.get(0), affiliates.get(key),
+                                                                 (Long) key.get(1), (String) key.get(2),
+                                                                 (String) key.get(3), (String) key.get(4),
+                                                                 count[0], count[1])));
+        return deltas;
+    }
+
+    private static void add(long[] counts, PeriodCount period) {
+        counts[0] += period.clicks();
+        counts[1] += period.conversions();
+    }
+}
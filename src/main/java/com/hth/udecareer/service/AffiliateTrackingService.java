@@ -28,7 +28,6 @@ public class AffiliateTrackingService {
     private final CookieUtil cookieUtil;
     private final UserAgentParserService userAgentParserService;
     private final UTMParameterParserService utmParameterParserService;
-    private final GeoIPService geoIPService;
 
 
     public ClickTrackingData prepareTrackingData(
@@ -42,12 +41,8 @@ public class AffiliateTrackingService {
         setAffiliateCookies(affiliateLink, request, response);
 
 
+        // Country/city được resolve khi track click (async), không chặn redirect
         String ipAddress = extractIpAddress(request);
-        
-
-        GeoIPService.GeoIPResult geoResult = geoIPService.getLocationFromIP(ipAddress);
-        String country = geoResult != null ? geoResult.getCountryCode() : null;
-        String city = geoResult != null ? geoResult.getCity() : null;
 
 
         UTMParameterParserService.UTMParameters utmParams = utmParameterParserService.parseUTMParameters(landingUrl);
@@ -89,8 +84,6 @@ public class AffiliateTrackingService {
                 .deviceType(deviceType)
                 .browser(browser)
                 .os(os)
-                .country(country)
-                .city(city)
                 .sessionId(sessionId)
                 .cookieValue(cookieValue)
                 .expiresAt(expiresAt)
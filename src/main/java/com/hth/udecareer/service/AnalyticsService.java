@@ -4,11 +4,7 @@ import com.hth.udecareer.model.response.AnalyticsActivityResponse;
 import com.hth.udecareer.model.response.AnalyticsWidgetResponse;
 import com.hth.udecareer.model.response.LeaderboardItemResponse;
 import com.hth.udecareer.model.response.XProfileResponse;
-import com.hth.udecareer.entities.User;
-import com.hth.udecareer.entities.XProfileEntity;
-import com.hth.udecareer.repository.UserMetaRepository;
-import com.hth.udecareer.repository.UserRepository;
-import com.hth.udecareer.repository.XProfileRepository;
+import com.hth.udecareer.service.cache.AuthorProfileResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -29,9 +25,7 @@ import java.util.*;
 public class AnalyticsService {
 
     private final EntityManager entityManager;
-    private final XProfileRepository xProfileRepository;
-    private final UserRepository userRepository;
-    private final UserMetaRepository userMetaRepository;
+    private final AuthorProfileResolver authorProfileResolver;
 
     /**
      * Get overview widget stats
@@ -168,6 +162,12 @@ public class AnalyticsService {
         @SuppressWarnings("unchecked")
         List<Object[]> results = query.getResultList();
 
+        List<Long> userIds = new ArrayList<>(results.size());
+        for (Object[] row : results) {
+            userIds.add(((Number) row[0]).longValue());
+        }
+        Map<Long, XProfileResponse> xprofiles = authorProfileResolver.resolveAll(userIds);
+
         List<LeaderboardItemResponse> items = new ArrayList<>();
         int rank = 1;
         for (Object[] row : results) {
@@ -178,7 +178,7 @@ public class AnalyticsService {
                     .userId(userId)
                     .totalPoints(totalPoints)
                     .rank(rank++)
-                    .xprofile(getXProfile(userId))
+                    .xprofile(xprofiles.get(userId))
                     .build());
         }
 
@@ -355,40 +355,4 @@ public class AnalyticsService {
         Query query = entityManager.createNativeQuery(sql);
         return ((Number) query.getSingleResult()).longValue();
     }
-
-    private XProfileResponse getXProfile(Long userId) {
-        Optional<XProfileEntity> xProfileOpt = xProfileRepository.findByUserId(userId);
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        String finalAvatarFromMeta = userMetaRepository.findByUserIdAndMetaKey(userId, "wpcf-avatar")
-                .map(meta -> meta.getMetaValue())
-                .orElse(null);
-
-        if (xProfileOpt.isPresent()) {
-            XProfileEntity xp = xProfileOpt.get();
-            String finalAvatar = StringUtils.isNotBlank(xp.getAvatar()) ? xp.getAvatar() : finalAvatarFromMeta;
-            String fullName = userOpt.map(User::getDisplayName).orElse(null);
-
-            return XProfileResponse.builder()
-                    .userId(xp.getUserId())
-                    .username(xp.getUsername())
-                    .displayName(xp.getDisplayName())
-                    .fullName(fullName)
-                    .avatar(finalAvatar)
-                    .totalPoints(xp.getTotalPoints())
-                    .isVerified(xp.getIsVerified() != null && xp.getIsVerified() == 1)
-                    .build();
-        } else {
-            return userOpt.map(user -> XProfileResponse.builder()
-                    .userId(user.getId())
-                    .username(user.getUsername())
-                    .displayName(user.getDisplayName())
-                    .fullName(user.getDisplayName())
-                    .avatar(finalAvatarFromMeta)
-                    .totalPoints(0)
-                    .isVerified(false)
-                    .build())
-                    .orElse(null);
-        }
-    }
 }
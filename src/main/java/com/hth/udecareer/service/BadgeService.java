@@ -2,9 +2,7 @@ package com.hth.udecareer.service;
 
 import com.hth.udecareer.entities.BadgeEntity;
 import com.hth.udecareer.entities.TranslationEntity;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.entities.UserBadgeEntity;
-import com.hth.udecareer.entities.XProfileEntity;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.request.AwardBadgeRequest;
@@ -15,9 +13,8 @@ import com.hth.udecareer.model.response.UserBadgeResponse;
 import com.hth.udecareer.model.response.XProfileResponse;
 import com.hth.udecareer.repository.BadgeRepository;
 import com.hth.udecareer.repository.UserBadgeRepository;
-import com.hth.udecareer.repository.UserMetaRepository;
 import com.hth.udecareer.repository.UserRepository;
-import com.hth.udecareer.repository.XProfileRepository;
+import com.hth.udecareer.service.cache.AuthorProfileResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -28,7 +25,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.Normalizer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,9 +40,8 @@ public class BadgeService {
 
     private final BadgeRepository badgeRepository;
     private final UserBadgeRepository userBadgeRepository;
-    private final XProfileRepository xProfileRepository;
     private final UserRepository userRepository;
-    private final UserMetaRepository userMetaRepository;
+    private final AuthorProfileResolver authorProfileResolver;
     private final TranslationService translationService;
 
     private static final List<String> VALID_TYPES = Arrays.asList(
@@ -118,10 +116,7 @@ public class BadgeService {
      */
     @Transactional(readOnly = true)
     public List<UserBadgeResponse> getUserBadges(Long userId) {
-        return userBadgeRepository.findByUserIdOrderByEarnedAtDesc(userId)
-                .stream()
-                .map(this::mapToUserBadgeResponse)
-                .collect(Collectors.toList());
+        return mapToUserBadgeResponses(userBadgeRepository.findByUserIdOrderByEarnedAtDesc(userId));
     }
 
     /**
@@ -129,10 +124,7 @@ public class BadgeService {
      */
     @Transactional(readOnly = true)
     public List<UserBadgeResponse> getFeaturedBadges(Long userId) {
-        return userBadgeRepository.findByUserIdAndIsFeaturedTrueOrderByEarnedAtDesc(userId)
-                .stream()
-                .map(this::mapToUserBadgeResponse)
-                .collect(Collectors.toList());
+        return mapToUserBadgeResponses(userBadgeRepository.findByUserIdAndIsFeaturedTrueOrderByEarnedAtDesc(userId));
     }
 
     /**
@@ -158,9 +150,7 @@ public class BadgeService {
         Pageable pageable = PageRequest.of(page, size);
         Page<UserBadgeEntity> earners = userBadgeRepository.findByBadgeIdOrderByEarnedAtDesc(badgeId, pageable);
 
-        List<UserBadgeResponse> items = earners.getContent().stream()
-                .map(this::mapToUserBadgeResponse)
-                .collect(Collectors.toList());
+        List<UserBadgeResponse> items = mapToUserBadgeResponses(earners.getContent());
 
         return PageResponse.<UserBadgeResponse>builder()
                 .content(items)
@@ -372,62 +362,37 @@ public class BadgeService {
     }
 
     private UserBadgeResponse mapToUserBadgeResponse(UserBadgeEntity userBadge) {
-        BadgeEntity badge = badgeRepository.findById(userBadge.getBadgeId()).orElse(null);
-
-        return UserBadgeResponse.builder()
-                .id(userBadge.getId())
-                .userId(userBadge.getUserId())
-                .xprofile(getXProfile(userBadge.getUserId()))
-                .badgeId(userBadge.getBadgeId())
-                .badge(badge != null ? mapToBadgeResponse(badge) : null)
-                .isFeatured(userBadge.getIsFeatured())
-                .awardedBy(userBadge.getAwardedBy())
-                .note(userBadge.getNote())
-                .earnedAt(userBadge.getEarnedAt())
-                .build();
+        return mapToUserBadgeResponses(List.of(userBadge)).get(0);
     }
 
-    private XProfileResponse getXProfile(Long userId) {
-        Optional<XProfileEntity> xProfileOpt = xProfileRepository.findByUserId(userId);
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        String finalAvatarFromMeta = userMetaRepository.findByUserIdAndMetaKey(userId, "wpcf-avatar")
-                .map(meta -> meta.getMetaValue())
-                .orElse(null);
-
-        if (xProfileOpt.isPresent()) {
-            XProfileEntity xp = xProfileOpt.get();
-            String finalAvatar = StringUtils.isNotBlank(xp.getAvatar()) ? xp.getAvatar() : finalAvatarFromMeta;
-            String fullName = userOpt.map(User::getDisplayName).orElse(null);
-
-            return XProfileResponse.builder()
-                    .userId(xp.getUserId())
-                    .username(xp.getUsername())
-                    .displayName(xp.getDisplayName())
-                    .fullName(fullName)
-                    .avatar(finalAvatar)
-                    .totalPoints(xp.getTotalPoints())
-                    .isVerified(xp.getIsVerified() != null && xp.getIsVerified() == 1)
-                    .build();
-        } else {
-            return userOpt.map(user -> XProfileResponse.builder()
-                    .userId(user.getId())
-                    .username(user.getUsername())
-                    .displayName(user.getDisplayName())
-                    .fullName(user.getDisplayName())
-                    .avatar(finalAvatarFromMeta)
-                    .totalPoints(0)
-                    .isVerified(false)
-                    .build())
-                    .orElse(XProfileResponse.builder()
-                            .userId(userId)
-                            .username("")
-                            .displayName("")
-                            .fullName("")
-                            .avatar(null)
-                            .totalPoints(0)
-                            .isVerified(false)
-                            .build());
+    /**
+     * Map a list of user badges: profiles and badges are loaded once for the whole list,
+     * and each distinct badge is mapped once.
+     */
+    private List<UserBadgeResponse> mapToUserBadgeResponses(List<UserBadgeEntity> userBadges) {
+        if (userBadges.isEmpty()) {
+            return new ArrayList<>();
         }
+        Map<Long, XProfileResponse> profiles = authorProfileResolver.resolveAll(
+                userBadges.stream().map(UserBadgeEntity::getUserId).collect(Collectors.toSet()));
+        Map<Long, BadgeResponse> badges = new HashMap<>();
+        for (BadgeEntity badge : badgeRepository.findAllById(
+                userBadges.stream().map(UserBadgeEntity::getBadgeId).collect(Collectors.toSet()))) {
+            badges.put(badge.getId(), mapToBadgeResponse(badge));
+        }
+
+        return userBadges.stream()
+                .map(userBadge -> UserBadgeResponse.builder()
+                        .id(userBadge.getId())
+                        .userId(userBadge.getUserId())
+                        .xprofile(profiles.get(userBadge.getUserId()))
+                        .badgeId(userBadge.getBadgeId())
+                        .badge(badges.get(userBadge.getBadgeId()))
+                        .isFeatured(userBadge.getIsFeatured())
+                        .awardedBy(userBadge.getAwardedBy())
+                        .note(userBadge.getNote())
+                        .earnedAt(userBadge.getEarnedAt())
+                        .build())
+                .collect(Collectors.toList());
     }
 }
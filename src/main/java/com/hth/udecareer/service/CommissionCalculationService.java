@@ -1,31 +1,44 @@
 package com.hth.udecareer.service;
 
 import com.hth.udecareer.entities.AffiliateCommissionRule;
-import com.hth.udecareer.enums.CommissionType;
-import com.hth.udecareer.enums.RuleType;
-import com.hth.udecareer.repository.AffiliateCommissionRuleRepository;
+import com.hth.udecareer.service.cache.CommissionRuleCache;
+import com.hth.udecareer.service.cache.CommissionRuleTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service để tính toán commission cho affiliate dựa trên rules
+ * (rules được index sẵn trong CommissionRuleCache, không query DB cho mỗi order)
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CommissionCalculationService {
 
-    private final AffiliateCommissionRuleRepository commissionRuleRepository;
+    private final CommissionRuleCache commissionRuleCache;
+
+    /**
+     * Đầu vào tính commission cho 1 order (batch API)
+     *
+     * @param orderedAt Thời điểm dùng để kiểm tra validFrom/validUntil của rule, null = hiện tại
+     */
+    public record CommissionInput(Long affiliateId, BigDecimal orderAmount, Long productId, Long categoryId,
+                                  LocalDateTime orderedAt) {
+    }
+
+    /**
+     * Kết quả tính commission, ruleId null nếu không có rule nào áp dụng
+     */
+    public record CommissionResult(Long ruleId, BigDecimal commission) {
+    }
 
-    @Transactional(readOnly = true)
     public BigDecimal calculateCommission(Long affiliateId,
                                           BigDecimal orderAmount,
                                           Long productId,
@@ -33,22 +46,15 @@ public class CommissionCalculationService {
         log.info("Calculating commission for affiliate {}, order amount: {}, product: {}, category: {}",
                  affiliateId, orderAmount, productId, categoryId);
 
-        // Lấy tất cả rules active
-        List<AffiliateCommissionRule> allRules = commissionRuleRepository.findByIsActiveTrueOrderByPriorityDesc();
-
-        // Lọc rules phù hợp với context
-        List<AffiliateCommissionRule> applicableRules = filterApplicableRules(
-            allRules, affiliateId, productId, categoryId, orderAmount
-        );
+        // Lấy rule có priority cao nhất từ bảng rules đã index
+        AffiliateCommissionRule selectedRule = commissionRuleCache.getTable()
+                .match(affiliateId, productId, categoryId, orderAmount, LocalDateTime.now());
 
-        if (applicableRules.isEmpty()) {
+        if (selectedRule == null) {
             log.warn("No applicable commission rules found for affiliate {}", affiliateId);
             return BigDecimal.ZERO;
         }
 
-        // Lấy rule có priority cao nhất
-        AffiliateCommissionRule selectedRule = applicableRules.get(0);
-
         log.info("Selected rule: {} (priority: {})", selectedRule.getRuleName(), selectedRule.getPriority());
 
         // Tính commission dựa trên rule
@@ -59,69 +65,27 @@ public class CommissionCalculationService {
     }
 
     /**
-     * Lọc các rules áp dụng được
+     * Tính commission cho nhiều order (vd: đối soát cuối tháng) trên cùng 1 bảng rules, kết quả theo thứ tự đầu vào
      */
-    private List<AffiliateCommissionRule> filterApplicableRules(
-            List<AffiliateCommissionRule> rules,
-            Long affiliateId,
-            Long productId,
-            Long categoryId,
-            BigDecimal orderAmount) {
-
+    public List<CommissionResult> calculateCommissions(List<CommissionInput> inputs) {
+        CommissionRuleTable table = commissionRuleCache.getTable();
         LocalDateTime now = LocalDateTime.now();
 
-        return rules.stream()
-            .filter(rule -> {
-                // Check time validity
-                if (rule.getValidFrom() != null && now.isBefore(rule.getValidFrom())) {
-                    return false;
-                }
-                if (rule.getValidUntil() != null && now.isAfter(rule.getValidUntil())) {
-                    return false;
-                }
-
-                // Check minimum order amount
-                if (rule.getMinOrderAmount() != null &&
-                    orderAmount.compareTo(rule.getMinOrderAmount()) < 0) {
-                    return false;
-                }
-
-                // Check rule type matching
-                return isRuleMatching(rule, affiliateId, productId, categoryId);
-            })
-            .collect(Collectors.toList());
-    }
-
-    /**
-     * Kiểm tra rule có match với context không
-     */
-    private boolean isRuleMatching(AffiliateCommissionRule rule,
-                                   Long affiliateId,
-                                   Long productId,
-                                   Long categoryId) {
-        switch (rule.getRuleType()) {
-            case GLOBAL:
-                return true;
-
-            case AFFILIATE:
-                return rule.getAffiliateId() != null &&
-                       rule.getAffiliateId().equals(affiliateId);
-
-            case PRODUCT:
-                return rule.getProductId() != null &&
-                       rule.getProductId().equals(productId);
-
-            case CATEGORY:
-                return rule.getCategoryId() != null &&
-                       rule.getCategoryId().equals(categoryId);
-
-            case TIER:
-                log.warn("TIER rule type not implemented yet");
-                return false;
-
-            default:
-                return false;
+        List<CommissionResult> results = new ArrayList<>(inputs.size());
+        int unmatched = 0;
+        for (CommissionInput input : inputs) {
+            AffiliateCommissionRule rule = table.match(input.affiliateId(), input.productId(), input.categoryId(),
+                    input.orderAmount(), input.orderedAt() != null ? input.orderedAt() : now);
+            if (rule == null) {
+                unmatched++;
+                results.add(new CommissionResult(null, BigDecimal.ZERO));
+            } else {
+                results.add(new CommissionResult(rule.getId(), calculateByRule(rule, input.orderAmount())));
+            }
         }
+
+        log.info("Calculated commission for {} orders ({} without applicable rule)", inputs.size(), unmatched);
+        return results;
     }
 
     private BigDecimal calculateByRule(AffiliateCommissionRule rule, BigDecimal orderAmount) {
@@ -190,18 +154,11 @@ public class CommissionCalculationService {
         return total;
     }
 
-    @Transactional(readOnly = true)
     public AffiliateCommissionRule getApplicableRule(Long affiliateId,
                                                      BigDecimal orderAmount,
                                                      Long productId,
                                                      Long categoryId) {
-        List<AffiliateCommissionRule> allRules = commissionRuleRepository.findByIsActiveTrueOrderByPriorityDesc();
-
-        List<AffiliateCommissionRule> applicableRules = filterApplicableRules(
-            allRules, affiliateId, productId, categoryId, orderAmount
-        );
-
-        return applicableRules.isEmpty() ? null : applicableRules.get(0);
+        return commissionRuleCache.getTable()
+                .match(affiliateId, productId, categoryId, orderAmount, LocalDateTime.now());
     }
 }
-
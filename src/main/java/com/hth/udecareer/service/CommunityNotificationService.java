@@ -2,8 +2,6 @@ package com.hth.udecareer.service;
 
 import com.hth.udecareer.entities.NotificationEntity;
 import com.hth.udecareer.entities.NotificationUserEntity;
-import com.hth.udecareer.entities.User;
-import com.hth.udecareer.entities.XProfileEntity;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.dto.NotificationWithStatusDTO;
@@ -13,9 +11,7 @@ import com.hth.udecareer.model.response.UnreadCountResponse;
 import com.hth.udecareer.model.response.XProfileResponse;
 import com.hth.udecareer.repository.NotificationRepository;
 import com.hth.udecareer.repository.NotificationUserRepository;
-import com.hth.udecareer.repository.UserMetaRepository;
-import com.hth.udecareer.repository.UserRepository;
-import com.hth.udecareer.repository.XProfileRepository;
+import com.hth.udecareer.service.cache.AuthorProfileResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -27,6 +23,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -37,9 +35,7 @@ public class CommunityNotificationService {
 
     private final NotificationRepository notificationRepository;
     private final NotificationUserRepository notificationUserRepository;
-    private final XProfileRepository xProfileRepository;
-    private final UserRepository userRepository;
-    private final UserMetaRepository userMetaRepository;
+    private final AuthorProfileResolver authorProfileResolver;
 
     /**
      * Get notifications for a user with pagination
@@ -55,8 +51,13 @@ public class CommunityNotificationService {
             notifications = notificationRepository.findNotificationDTOsForUser(userId, pageable);
         }
 
+        Map<Long, XProfileResponse> srcUsers = authorProfileResolver.resolveAll(
+                notifications.getContent().stream()
+                        .map(NotificationWithStatusDTO::getSrcUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()));
         List<CommunityNotificationResponse> items = notifications.getContent().stream()
-                .map(this::mapToNotificationResponse)
+                .map(dto -> mapToNotificationResponse(dto, srcUsers))
                 .collect(Collectors.toList());
 
         return PageResponse.<CommunityNotificationResponse>builder()
@@ -115,10 +116,11 @@ public class CommunityNotificationService {
 
     // ============= HELPER METHODS =============
 
-    private CommunityNotificationResponse mapToNotificationResponse(NotificationWithStatusDTO dto) {
+    private CommunityNotificationResponse mapToNotificationResponse(NotificationWithStatusDTO dto,
+            Map<Long, XProfileResponse> srcUsers) {
         XProfileResponse srcUser = null;
         if (dto.getSrcUserId() != null) {
-            srcUser = getXProfile(dto.getSrcUserId());
+            srcUser = srcUsers.get(dto.getSrcUserId());
         }
 
         String route = null;
@@ -145,7 +147,7 @@ public class CommunityNotificationService {
             boolean isRead, java.time.LocalDateTime readAt) {
         XProfileResponse srcUser = null;
         if (entity.getSrcUserId() != null) {
-            srcUser = getXProfile(entity.getSrcUserId());
+            srcUser = authorProfileResolver.resolve(entity.getSrcUserId());
         }
 
         return CommunityNotificationResponse.builder()
@@ -162,40 +164,4 @@ public class CommunityNotificationService {
                 .readAt(readAt)
                 .build();
     }
-
-    private XProfileResponse getXProfile(Long userId) {
-        Optional<XProfileEntity> xProfileOpt = xProfileRepository.findByUserId(userId);
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        String finalAvatarFromMeta = userMetaRepository.findByUserIdAndMetaKey(userId, "wpcf-avatar")
-                .map(meta -> meta.getMetaValue())
-                .orElse(null);
-
-        if (xProfileOpt.isPresent()) {
-            XProfileEntity xp = xProfileOpt.get();
-            String finalAvatar = StringUtils.isNotBlank(xp.getAvatar()) ? xp.getAvatar() : finalAvatarFromMeta;
-            String fullName = userOpt.map(User::getDisplayName).orElse(null);
-
-            return XProfileResponse.builder()
-                    .userId(xp.getUserId())
-                    .username(xp.getUsername())
-                    .displayName(xp.getDisplayName())
-                    .fullName(fullName)
-                    .avatar(finalAvatar)
-                    .totalPoints(xp.getTotalPoints())
-                    .isVerified(xp.getIsVerified() != null && xp.getIsVerified() == 1)
-                    .build();
-        } else {
-            return userOpt.map(user -> XProfileResponse.builder()
-                    .userId(user.getId())
-                    .username(user.getUsername())
-                    .displayName(user.getDisplayName())
-                    .fullName(user.getDisplayName())
-                    .avatar(finalAvatarFromMeta)
-                    .totalPoints(0)
-                    .isVerified(false)
-                    .build())
-                    .orElse(null);
-        }
-    }
 }
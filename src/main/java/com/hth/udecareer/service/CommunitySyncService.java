@@ -4,7 +4,7 @@ import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.response.CommunitySyncResponse;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,7 +25,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class CommunitySyncService {
 
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     /**
      * Sync user session với WordPress community.
@@ -36,7 +36,7 @@ public class CommunitySyncService {
     public CommunitySyncResponse syncSession(String email) {
         log.info("Syncing community session for user: {}", email);
 
-        User user = userRepository.findByEmail(email)
+        User user = currentUserResolver.findUser(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_NOT_FOUND));
 
         // User trong hệ thống này đã được sync với WordPress database
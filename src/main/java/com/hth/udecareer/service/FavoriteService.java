@@ -18,7 +18,7 @@ import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.repository.FavoriteRepository;
 import com.hth.udecareer.repository.PostMetaRepository;
 import com.hth.udecareer.repository.PostRepository;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -41,7 +41,7 @@ import java.util.*;
 @RequiredArgsConstructor
 public class FavoriteService {
 
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final FavoriteRepository favoriteRepository;
     private final PostRepository postRepository;
     private final PostMetaRepository postMetaRepository;
@@ -197,7 +197,7 @@ public class FavoriteService {
     // ==================== Private Helper Methods ====================
     
     private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return currentUserResolver.findUser(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
     }
     
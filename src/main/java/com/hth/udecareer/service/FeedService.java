@@ -10,7 +10,10 @@ import com.hth.udecareer.repository.AffiliateRepository;
 import com.hth.udecareer.model.request.*;
 import com.hth.udecareer.model.response.*;
 import com.hth.udecareer.repository.*;
+import com.hth.udecareer.service.cache.AuthorProfileResolver;
+import com.hth.udecareer.utils.FeedCursor;
 import com.hth.udecareer.utils.HtmlUtil;
+import com.hth.udecareer.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -22,8 +25,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -35,11 +40,15 @@ public class FeedService {
     private static final int DAILY_POST_LIMIT = 100000000;
     private static final int DAILY_COMMENT_LIMIT = 100000000;
     private static final int DAILY_REACTION_LIMIT = 100000000;
+    private static final Set<String> CURSOR_ORDER_TYPES = Set.of("latest", "created_at_desc", "newest");
+    private static final int DEFAULT_NEW_FEEDS = 20;
+    private static final int MAX_NEW_FEEDS = 100;
+    // Delta position before any post, when the feed is empty
+    private static final KeysetCursor FEED_START = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
 
     private final FeedPostRepository feedPostRepository;
     private final PostCommentRepository postCommentRepository;
     private final PostReactionRepository postReactionRepository;
-    private final XProfileRepository xProfileRepository;
     private final SpaceRepository spaceRepository;
     private final SpaceUserRepository spaceUserRepository;
     private final MediaArchiveRepository mediaArchiveRepository;
@@ -49,6 +58,7 @@ public class FeedService {
     private final NotificationService notificationService;
     private final UserPointsService userPointsService;
     private final AffiliateRepository affiliateRepository;
+    private final AuthorProfileResolver authorProfileResolver;
 
     @Value("${app.domain}")
     private String appDomain;
@@ -99,17 +109,17 @@ public class FeedService {
             }
         }
 
-        Pageable pageable = PageRequest.of(page, perPage, sort);
-
         // Resolve space ID if space slug provided (optional)
-        Long spaceId = null;
-        if (StringUtils.isNotBlank(request.getSpace())) {
-            Optional<SpaceEntity> spaceOpt = spaceRepository.findBySlug(request.getSpace());
-            if (spaceOpt.isPresent()) {
-                spaceId = spaceOpt.get().getId();
-            }
+        Long spaceId = resolveSpaceId(request.getSpace());
+
+        // Cursor mode: keyset pages, no OFFSET and no count query
+        if (request.getCursor() != null) {
+            return listFeedsByCursor(request, spaceId, perPage, currentUserId, startTime);
         }
 
+        Pageable pageable = PageRequest.of(page, perPage, sort);
+        String sinceCursor = page == 0 ? newestFeedPosition(spaceId, request.getUserId()) : null;
+
         // Use unified query that handles all optional filters
         // This allows combining multiple filters: space + user + search
         Page<FeedPostEntity> feedPage = feedPostRepository.findFeedsWithFilters(
@@ -121,10 +131,8 @@ public class FeedService {
         );
 
 
-        // Convert to response
-        List<FeedResponse> feedResponses = feedPage.getContent().stream()
-                .map(feed -> convertToFeedResponse(feed, currentUserId))
-                .collect(Collectors.toList());
+        // Convert to response (page-level hydration: constant query count per page)
+        List<FeedResponse> feedResponses = convertToFeedResponses(feedPage.getContent(), currentUserId);
 
         // Build PageResponse using the standard format
         PageResponse<FeedResponse> feedsPageResponse = PageResponse.of(feedResponses, pageable, feedPage.getTotalElements());
@@ -134,6 +142,134 @@ public class FeedService {
         return FeedListResponse.builder()
                 .feeds(feedsPageResponse)
                 .lastFetchedTimestamp(page == 0 ? System.currentTimeMillis() / 1000 : null)
+                .sinceCursor(sinceCursor)
+                .executionTime(executionTime / 1000.0)
+                .build();
+    }
+
+    private Long resolveSpaceId(String spaceSlug) {
+        if (StringUtils.isBlank(spaceSlug)) {
+            return null;
+        }
+        return spaceRepository.findBySlug(spaceSlug).map(SpaceEntity::getId).orElse(null);
+    }
+
+    /**
+     * Feed page in cursor mode, ordered by (isSticky, priority, createdAt, id) descending.
+     * Only the default "latest" ordering can be paged this way.
+     */
+    private FeedListResponse listFeedsByCursor(FeedListRequest request, Long spaceId, int perPage,
+                                               Long currentUserId, long startTime) {
+        String orderType = StringUtils.isNotBlank(request.getOrderByType())
+                ? request.getOrderByType().toLowerCase().trim()
+                : "latest";
+        if (!CURSOR_ORDER_TYPES.contains(orderType)) {
+            throw new AppException(ErrorCode.VALIDATION_ERROR, "order_by_type is not supported with cursor");
+        }
+
+        FeedCursor after = FeedCursor.decode(request.getCursor());
+        boolean firstPage = after == null;
+        String sinceCursor = firstPage ? newestFeedPosition(spaceId, request.getUserId()) : null;
+
+        // Fetch one extra row to know whether there is a next page
+        List<FeedPostEntity> posts = feedPostRepository.findFeedsAfterCursor(
+                spaceId,
+                request.getUserId(),
+                StringUtils.isNotBlank(request.getSearch()) ? request.getSearch() : null,
+                firstPage ? null : after.sticky(),
+                firstPage ? null : after.priority(),
+                firstPage ? null : after.createdAt(),
+                firstPage ? null : after.id(),
+                PageRequest.of(0, perPage + 1));
+        boolean hasNext = posts.size() > perPage;
+        if (hasNext) {
+            posts = posts.subList(0, perPage);
+        }
+
+        List<FeedResponse> feedResponses = convertToFeedResponses(posts, currentUserId);
+        PageResponse<FeedResponse> feedsPageResponse = PageResponse.<FeedResponse>builder()
+                .content(feedResponses)
+                .page(0)
+                .size(perPage)
+                .totalElements(-1)
+                .totalPages(-1)
+                .hasNext(hasNext)
+                .hasPrevious(!firstPage)
+                .first(firstPage)
+                .last(!hasNext)
+                .build();
+
+        long executionTime = System.currentTimeMillis() - startTime;
+
+        return FeedListResponse.builder()
+                .feeds(feedsPageResponse)
+                .lastFetchedTimestamp(firstPage ? startTime / 1000 : null)
+                .sinceCursor(sinceCursor)
+                .nextCursor(hasNext ? FeedCursor.of(posts.get(posts.size() - 1)).encode() : null)
+                .executionTime(executionTime / 1000.0)
+                .build();
+    }
+
+    // ============= NEW FEEDS SINCE =============
+
+    /**
+     * Position of the newest post visible with these filters, returned with the first feed page as the
+     * starting point of GET /feeds/new. Read before the page, so a post published in between is returned
+     * again by the delta rather than skipped.
+     */
+    private String newestFeedPosition(Long spaceId, Long userId) {
+        return feedPostRepository.findNewestFeeds(spaceId, userId, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .map(post -> new KeysetCursor(post.getCreatedAt(), post.getId()))
+                .orElse(FEED_START)
+                .encode();
+    }
+
+    /**
+     * Posts published since the client's last fetch, for pull-to-refresh.
+     * The position is {@code sinceCursor} from the feed's first page or the previous delta, or {@code since}
+     * (last_fetched_timestamp of the feed, epoch seconds, for older clients); reads one index range after it.
+     */
+    @Transactional(readOnly = true)
+    public FeedDeltaResponse listNewFeeds(String space, Long userId, Long since, String sinceCursor,
+                                          Integer limit, Long currentUserId) {
+        long startTime = System.currentTimeMillis();
+
+        KeysetCursor position = KeysetCursor.decode(sinceCursor);
+        if (position == null) {
+            if (since == null) {
+                throw new AppException(ErrorCode.VALIDATION_ERROR, "since or since_cursor is required");
+            }
+            // Every post created in or after that second: the seconds are floored, so posts of the same second
+            // may have been seen already, but are not skipped
+            position = new KeysetCursor(
+                    LocalDateTime.ofInstant(Instant.ofEpochSecond(since), ZoneId.systemDefault()), 0L);
+        }
+        int size = limit != null && limit > 0 ? Math.min(limit, MAX_NEW_FEEDS) : DEFAULT_NEW_FEEDS;
+
+        // Oldest first, so the returned position never skips a post
+        List<FeedPostEntity> posts = feedPostRepository.findFeedsCreatedAfter(
+                resolveSpaceId(space), userId, position.time(), position.id(), PageRequest.of(0, size + 1));
+        boolean hasMore = posts.size() > size;
+        if (hasMore) {
+            posts = posts.subList(0, size);
+        }
+        if (!posts.isEmpty()) {
+            FeedPostEntity newest = posts.get(posts.size() - 1);
+            position = new KeysetCursor(newest.getCreatedAt(), newest.getId());
+        }
+
+        List<FeedPostEntity> newestFirst = new ArrayList<>(posts);
+        Collections.reverse(newestFirst);
+        List<FeedResponse> feedResponses = convertToFeedResponses(newestFirst, currentUserId);
+
+        long executionTime = System.currentTimeMillis() - startTime;
+
+        return FeedDeltaResponse.builder()
+                .feeds(feedResponses)
+                .sinceCursor(position.encode())
+                .hasMore(hasMore)
+                .lastFetchedTimestamp(startTime / 1000)
                 .executionTime(executionTime / 1000.0)
                 .build();
     }
@@ -448,8 +584,10 @@ public class FeedService {
         }
 
         // Convert to response
+        Map<Long, XProfileResponse> commentAuthors = resolveCommentAuthors(commentPage.getContent());
         List<CommentResponse> commentResponses = commentPage.getContent().stream()
-                .map(comment -> convertToCommentResponse(comment, currentUserId))
+                .map(comment -> convertToCommentResponse(comment, currentUserId,
+                                                         commentAuthors.get(comment.getUserId())))
                 .collect(Collectors.toList());
 
         // Build PageResponse using the standard format (same as feed)
@@ -799,8 +937,10 @@ public class FeedService {
         childComments.sort(Comparator.comparing(PostCommentEntity::getCreatedAt));
 
         // Convert child comments to response
+        Map<Long, XProfileResponse> replyAuthors = resolveCommentAuthors(childComments);
         List<CommentResponse> replies = childComments.stream()
-                .map(childComment -> convertToCommentResponse(childComment, currentUserId))
+                .map(childComment -> convertToCommentResponse(childComment, currentUserId,
+                                                              replyAuthors.get(childComment.getUserId())))
                 .collect(Collectors.toList());
 
         commentResponse.setReplies(replies);
@@ -1034,66 +1174,106 @@ public class FeedService {
     }
 
     private FeedResponse convertToFeedResponse(FeedPostEntity feed, Long currentUserId) {
-        // Get xprofile
-        XProfileResponse xprofile = getXProfile(feed.getUserId());
-
-        // Get space
-        SpaceInfoResponse space = null;
-        if (feed.getSpaceId() != null) {
-            space = spaceRepository.findById(feed.getSpaceId())
-                    .map(s -> SpaceInfoResponse.builder()
-                            .id(s.getId())
-                            .title(s.getTitle())
-                            .slug(s.getSlug())
-                            .type(s.getType())
-                            .build())
-                    .orElse(null);
+        return convertToFeedResponses(Collections.singletonList(feed), currentUserId).get(0);
+    }
+
+    /**
+     * Hydrate a page of feeds at once: authors, spaces, media and the current user's
+     * reactions are each resolved with a single IN query, then assembled from in-memory maps.
+     * The number of queries stays constant regardless of page size.
+     */
+    private List<FeedResponse> convertToFeedResponses(List<FeedPostEntity> feeds, Long currentUserId) {
+        if (feeds.isEmpty()) {
+            return new ArrayList<>();
         }
 
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> spaceIds = new HashSet<>();
+        List<Long> feedIds = new ArrayList<>(feeds.size());
+        for (FeedPostEntity feed : feeds) {
+            userIds.add(feed.getUserId());
+            if (feed.getSpaceId() != null) {
+                spaceIds.add(feed.getSpaceId());
+            }
+            feedIds.add(feed.getId());
+        }
+
+        // Get xprofiles
+        Map<Long, XProfileResponse> xprofiles = authorProfileResolver.resolveAll(userIds);
+
+        // Get spaces
+        Map<Long, SpaceInfoResponse> spaces = spaceIds.isEmpty()
+                ? Collections.emptyMap()
+                : spaceRepository.findAllById(spaceIds).stream()
+                        .collect(Collectors.toMap(SpaceEntity::getId, s -> SpaceInfoResponse.builder()
+                                .id(s.getId())
+                                .title(s.getTitle())
+                                .slug(s.getSlug())
+                                .type(s.getType())
+                                .build()));
+
         // Get media
-        List<MediaResponse> media = mediaArchiveRepository.findByFeedId(feed.getId())
+        Map<Long, List<MediaResponse>> mediaByFeed = mediaArchiveRepository.findByFeedIdInOrderByIdAsc(feedIds)
                 .stream()
-                .map(this::convertToMediaResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.groupingBy(MediaArchiveEntity::getFeedId,
+                        Collectors.mapping(this::convertToMediaResponse, Collectors.toList())));
 
-        // Get interactions
-        FeedInteractionsResponse interactions = FeedInteractionsResponse.builder()
-                .like(currentUserId != null && postReactionRepository
-                        .findByUserIdAndObjectIdAndObjectType(currentUserId, feed.getId(), "feed")
-                        .isPresent())
-                .bookmark(currentUserId != null && postReactionRepository
-                        .findByUserIdAndObjectIdAndObjectTypeAndType(currentUserId, feed.getId(), "feed", "bookmark")
-                        .isPresent())
-                .build();
+        // Get interactions of the current user
+        Set<Long> likedFeedIds = new HashSet<>();
+        Set<Long> bookmarkedFeedIds = new HashSet<>();
+        if (currentUserId != null) {
+            for (PostReactionEntity reaction : postReactionRepository
+                    .findByUserIdAndObjectTypeAndObjectIdIn(currentUserId, "feed", feedIds)) {
+                if ("bookmark".equals(reaction.getType())) {
+                    bookmarkedFeedIds.add(reaction.getObjectId());
+                } else {
+                    likedFeedIds.add(reaction.getObjectId());
+                }
+            }
+        }
 
-        return FeedResponse.builder()
-                .id(feed.getId())
-                .userId(feed.getUserId())
-                .title(feed.getTitle())
-                .slug(feed.getSlug())
-                .message(feed.getMessage())
-                .messageRendered(feed.getMessageRendered())
-                .type(feed.getType())
-                .contentType(feed.getContentType())
-                .spaceId(feed.getSpaceId())
-                .privacy(feed.getPrivacy())
-                .status(feed.getStatus())
-                .featuredImage(feed.getFeaturedImage())
-                .commentsCount(feed.getCommentsCount())
-                .reactionsCount(feed.getReactionsCount())
-                .isSticky(feed.getIsSticky())
-                .priority(feed.getPriority())
-                .createdAt(feed.getCreatedAt())
-                .updatedAt(feed.getUpdatedAt())
-                .xprofile(xprofile)
-                .space(space)
-                .media(media)
-                .interactions(interactions)
-                .build();
+        return feeds.stream()
+                .map(feed -> FeedResponse.builder()
+                        .id(feed.getId())
+                        .userId(feed.getUserId())
+                        .title(feed.getTitle())
+                        .slug(feed.getSlug())
+                        .message(feed.getMessage())
+                        .messageRendered(feed.getMessageRendered())
+                        .type(feed.getType())
+                        .contentType(feed.getContentType())
+                        .spaceId(feed.getSpaceId())
+                        .privacy(feed.getPrivacy())
+                        .status(feed.getStatus())
+                        .featuredImage(feed.getFeaturedImage())
+                        .commentsCount(feed.getCommentsCount())
+                        .reactionsCount(feed.getReactionsCount())
+                        .isSticky(feed.getIsSticky())
+                        .priority(feed.getPriority())
+                        .createdAt(feed.getCreatedAt())
+                        .updatedAt(feed.getUpdatedAt())
+                        .xprofile(xprofiles.get(feed.getUserId()))
+                        .space(feed.getSpaceId() != null ? spaces.get(feed.getSpaceId()) : null)
+                        .media(mediaByFeed.getOrDefault(feed.getId(), new ArrayList<>()))
+                        .interactions(FeedInteractionsResponse.builder()
+                                .like(likedFeedIds.contains(feed.getId()))
+                                .bookmark(bookmarkedFeedIds.contains(feed.getId()))
+                                .build())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, XProfileResponse> resolveCommentAuthors(List<PostCommentEntity> comments) {
+        return authorProfileResolver.resolveAll(
+                comments.stream().map(PostCommentEntity::getUserId).collect(Collectors.toSet()));
     }
 
     private CommentResponse convertToCommentResponse(PostCommentEntity comment, Long currentUserId) {
-        XProfileResponse xprofile = getXProfile(comment.getUserId());
+        return convertToCommentResponse(comment, currentUserId, authorProfileResolver.resolve(comment.getUserId()));
+    }
+
+    private CommentResponse convertToCommentResponse(PostCommentEntity comment, Long currentUserId,
+                                                     XProfileResponse xprofile) {
 
         // Check if current user liked this comment
         Integer liked = 0;
@@ -1131,8 +1311,7 @@ public class FeedService {
                 .build();
     }
 
-    private ReactionResponse convertToReactionResponse(PostReactionEntity reaction) {
-        XProfileResponse xprofile = getXProfile(reaction.getUserId());
+    private ReactionResponse convertToReactionResponse(PostReactionEntity reaction, XProfileResponse xprofile) {
 
         return ReactionResponse.builder()
                 .id(reaction.getId())
@@ -1178,66 +1357,6 @@ public class FeedService {
                 .build();
     }
 
-    private XProfileResponse getXProfile(Long userId) {
-        // Try to get from XProfile first
-        Optional<XProfileEntity> xProfileOpt = xProfileRepository.findByUserId(userId);
-        
-        // Get User entity for fallback data
-        Optional<User> userOpt = userRepository.findById(userId);
-        
-        // Get UserMeta for avatar (url_image)
-        String avatarFromMeta = null;
-        List<UserMetaEntity> userMetas = userMetaRepository.findByUserId(userId);
-        for (UserMetaEntity meta : userMetas) {
-            if ("url_image".equals(meta.getMetaKey())) {
-                avatarFromMeta = meta.getMetaValue();
-                break;
-            }
-        }
-        
-        // Make it final for lambda usage
-        final String finalAvatarFromMeta = avatarFromMeta;
-        
-        if (xProfileOpt.isPresent()) {
-            XProfileEntity xp = xProfileOpt.get();
-            // Use avatar from UserMeta if XProfile avatar is null, otherwise use XProfile avatar
-            String finalAvatar = StringUtils.isNotBlank(xp.getAvatar()) ? xp.getAvatar() : finalAvatarFromMeta;
-            
-            // Get fullName from User.displayName
-            String fullName = userOpt.map(User::getDisplayName).orElse(null);
-            
-            return XProfileResponse.builder()
-                    .userId(xp.getUserId())
-                    .username(xp.getUsername())
-                    .displayName(xp.getDisplayName())
-                    .fullName(fullName)
-                    .avatar(finalAvatar)
-                    .totalPoints(xp.getTotalPoints())
-                    .isVerified(xp.getIsVerified() != null && xp.getIsVerified() == 1)
-                    .build();
-        } else {
-            // Fallback to User entity if xprofile doesn't exist
-            return userOpt.map(user -> XProfileResponse.builder()
-                    .userId(user.getId())
-                    .username(user.getUsername())
-                    .displayName(user.getDisplayName())
-                    .fullName(user.getDisplayName()) // Use displayName as fullName
-                    .avatar(finalAvatarFromMeta) // Get from UserMeta
-                    .totalPoints(0)
-                    .isVerified(false)
-                    .build())
-                    .orElse(XProfileResponse.builder()
-                            .userId(userId)
-                            .username("")
-                            .displayName("")
-                            .fullName("")
-                            .avatar(null)
-                            .totalPoints(0)
-                            .isVerified(false)
-                            .build());
-        }
-    }
-
     private String generateSlug(String text) {
         if (StringUtils.isBlank(text)) {
             return UUID.randomUUID().toString();
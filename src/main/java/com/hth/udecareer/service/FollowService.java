@@ -10,9 +10,9 @@ import com.hth.udecareer.model.response.FollowResponse;
 import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.model.response.XProfileResponse;
 import com.hth.udecareer.repository.FollowRepository;
-import com.hth.udecareer.repository.UserMetaRepository;
 import com.hth.udecareer.repository.UserRepository;
 import com.hth.udecareer.repository.XProfileRepository;
+import com.hth.udecareer.service.cache.AuthorProfileResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -24,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -35,7 +36,7 @@ public class FollowService {
     private final FollowRepository followRepository;
     private final XProfileRepository xProfileRepository;
     private final UserRepository userRepository;
-    private final UserMetaRepository userMetaRepository;
+    private final AuthorProfileResolver authorProfileResolver;
 
     /**
      * Follow a user
@@ -90,7 +91,7 @@ public class FollowService {
             return FollowResponse.builder()
                     .success(true)
                     .message("Not following this user")
-                    .xprofile(getXProfile(targetUserId))
+                    .xprofile(authorProfileResolver.resolve(targetUserId))
                     .build();
         }
 
@@ -100,7 +101,7 @@ public class FollowService {
         return FollowResponse.builder()
                 .success(true)
                 .message("Successfully unfollowed user")
-                .xprofile(getXProfile(targetUserId))
+                .xprofile(authorProfileResolver.resolve(targetUserId))
                 .build();
     }
 
@@ -149,7 +150,7 @@ public class FollowService {
             return FollowResponse.builder()
                     .success(true)
                     .message("User is not blocked")
-                    .xprofile(getXProfile(targetUserId))
+                    .xprofile(authorProfileResolver.resolve(targetUserId))
                     .build();
         }
 
@@ -159,7 +160,7 @@ public class FollowService {
         return FollowResponse.builder()
                 .success(true)
                 .message("Successfully unblocked user")
-                .xprofile(getXProfile(targetUserId))
+                .xprofile(authorProfileResolver.resolve(targetUserId))
                 .build();
     }
 
@@ -207,8 +208,10 @@ public class FollowService {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<FollowEntity> followers = followRepository.findFollowersByUserId(targetUserId, pageable);
 
+        Map<Long, XProfileResponse> profiles = authorProfileResolver.resolveAll(
+                followers.getContent().stream().map(FollowEntity::getFollowerId).collect(Collectors.toSet()));
         List<FollowItemResponse> items = followers.getContent().stream()
-                .map(f -> mapToFollowItemResponse(f, f.getFollowerId(), currentUserId))
+                .map(f -> mapToFollowItemResponse(f, f.getFollowerId(), currentUserId, profiles.get(f.getFollowerId())))
                 .collect(Collectors.toList());
 
         return PageResponse.<FollowItemResponse>builder()
@@ -235,8 +238,10 @@ public class FollowService {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<FollowEntity> followings = followRepository.findFollowingsByUserId(targetUserId, pageable);
 
+        Map<Long, XProfileResponse> profiles = authorProfileResolver.resolveAll(
+                followings.getContent().stream().map(FollowEntity::getFollowedId).collect(Collectors.toSet()));
         List<FollowItemResponse> items = followings.getContent().stream()
-                .map(f -> mapToFollowItemResponse(f, f.getFollowedId(), currentUserId))
+                .map(f -> mapToFollowItemResponse(f, f.getFollowedId(), currentUserId, profiles.get(f.getFollowedId())))
                 .collect(Collectors.toList());
 
         return PageResponse.<FollowItemResponse>builder()
@@ -260,8 +265,10 @@ public class FollowService {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<FollowEntity> blocked = followRepository.findBlockedByUserId(currentUserId, pageable);
 
+        Map<Long, XProfileResponse> profiles = authorProfileResolver.resolveAll(
+                blocked.getContent().stream().map(FollowEntity::getFollowedId).collect(Collectors.toSet()));
         List<FollowItemResponse> items = blocked.getContent().stream()
-                .map(f -> mapToFollowItemResponse(f, f.getFollowedId(), currentUserId))
+                .map(f -> mapToFollowItemResponse(f, f.getFollowedId(), currentUserId, profiles.get(f.getFollowedId())))
                 .collect(Collectors.toList());
 
         return PageResponse.<FollowItemResponse>builder()
@@ -314,7 +321,7 @@ public class FollowService {
         User user = getUserByUsername(username);
         Long userId = user.getId();
 
-        XProfileResponse profile = getXProfile(userId);
+        XProfileResponse profile = authorProfileResolver.resolve(userId);
 
         // Add follow information if current user is logged in
         if (currentUserId != null && !currentUserId.equals(userId)) {
@@ -362,13 +369,14 @@ public class FollowService {
                 .followerId(follow.getFollowerId())
                 .followedId(follow.getFollowedId())
                 .level(follow.getLevel())
-                .xprofile(getXProfile(targetUserId))
+                .xprofile(authorProfileResolver.resolve(targetUserId))
                 .message(message)
                 .success(true)
                 .build();
     }
 
-    private FollowItemResponse mapToFollowItemResponse(FollowEntity follow, Long userIdToShow, Long currentUserId) {
+    private FollowItemResponse mapToFollowItemResponse(FollowEntity follow, Long userIdToShow, Long currentUserId,
+                                                       XProfileResponse userProfile) {
         // Get current user's follow status to this user
         Integer myFollowStatus = null;
         Boolean followsMe = false;
@@ -388,66 +396,10 @@ public class FollowService {
                 .followerId(follow.getFollowerId())
                 .followedId(follow.getFollowedId())
                 .level(follow.getLevel())
-                .user(getXProfile(userIdToShow))
+                .user(userProfile)
                 .myFollowStatus(myFollowStatus)
                 .followsMe(followsMe)
                 .createdAt(follow.getCreatedAt())
                 .build();
     }
-
-    /**
-     * Get XProfile for a user - reused pattern from FeedService
-     */
-    private XProfileResponse getXProfile(Long userId) {
-        Optional<XProfileEntity> xProfileOpt = xProfileRepository.findByUserId(userId);
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        // Try to get avatar from UserMeta
-        String finalAvatarFromMeta = userMetaRepository.findByUserIdAndMetaKey(userId, "url_image")
-                .map(meta -> meta.getMetaValue())
-                .orElse(null);
-
-        String finalGender = userMetaRepository.findByUserIdAndMetaKey(userId , "gender")
-                .map(meta -> meta.getMetaValue())
-                .orElse(null);
-
-        if (xProfileOpt.isPresent()) {
-            XProfileEntity xp = xProfileOpt.get();
-            String finalAvatar = StringUtils.isNotBlank(xp.getAvatar()) ? xp.getAvatar() : finalAvatarFromMeta;
-            String fullName = userOpt.map(User::getDisplayName).orElse(null);
-
-
-            return XProfileResponse.builder()
-                    .userId(xp.getUserId())
-                    .username(xp.getUsername())
-                    .displayName(xp.getDisplayName())
-                    .fullName(fullName)
-                    .avatar(finalAvatar)
-                    .gender(finalGender)
-                    .totalPoints(xp.getTotalPoints())
-                    .isVerified(xp.getIsVerified() != null && xp.getIsVerified() == 1)
-                    .build();
-        } else {
-            return userOpt.map(user -> XProfileResponse.builder()
-                    .userId(user.getId())
-                    .username(user.getUsername())
-                    .displayName(user.getDisplayName())
-                    .fullName(user.getDisplayName())
-                    .avatar(finalAvatarFromMeta)
-                    .gender(finalGender)
-                    .totalPoints(0)
-                    .isVerified(false)
-                    .build())
-                    .orElse(XProfileResponse.builder()
-                            .userId(userId)
-                            .username("")
-                            .displayName("")
-                            .fullName("")
-                            .avatar(null)
-                            .gender(finalGender)
-                            .totalPoints(0)
-                            .isVerified(false)
-                            .build());
-        }
-    }
 }
@@ -2,35 +2,63 @@ package com.hth.udecareer.service;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.RequiredArgsConstructor;
+import com.hth.udecareer.service.cache.GeoIPRangeIndex;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Service để lookup country và city từ IP address
- * Sử dụng ip-api.com (free, không cần API key cho basic usage)
- * 
- * Rate limit: 45 requests/minute (đủ cho development)
- * Production nên dùng MaxMind GeoIP2 database hoặc paid API
- * 
- * API endpoint: http://ip-api.com/json/{ip}?fields=status,message,countryCode,city
- * Response format: {"status":"success","countryCode":"VN","city":"Ho Chi Minh City"}
+ * Dùng dataset GeoIP offline nạp vào memory ({@link GeoIPRangeIndex}), không gọi API bên ngoài mỗi click
+ *
+ * Dataset: file CSV cấu hình tại app.geoip.database-path
+ * File được nạp lúc khởi động (không nạp được thì app không khởi động) và tự nạp lại khi thay đổi
+ * (kiểm tra mtime theo app.geoip.reload-check-ms)
+ * Khi chưa cấu hình dataset: fallback về ip-api.com như trước (rate limit 45 requests/minute)
+ * Kết quả của các IP gần đây được giữ trong LRU cache (app.geoip.cache-size), cache đi cùng index đã tạo ra nó
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class GeoIPService {
 
     private static final String IP_API_URL = "http://ip-api.com/json/{ip}?fields=status,message,countryCode,city";
 
+    // Đánh dấu IP đã lookup nhưng không có trong dataset
+    private static final GeoIPResult NOT_FOUND = new GeoIPResult(null, null);
+
     private final RestTemplate restTemplate;
+    private final String databasePath;
+    private final int cacheSize;
+
+    // Index (null = ip-api.com) và cache của nó được thay thế cùng lúc, nên lookup trên index cũ
+    // không thể ghi kết quả cũ vào cache của index mới
+    private volatile Source source;
+    private volatile long loadedModifiedTime = -1;
+
+    public GeoIPService(RestTemplate restTemplate,
+                        @Value("${app.geoip.database-path:}") String databasePath,
+                        @Value("${app.geoip.cache-size:10000}") int cacheSize) {
+        this.restTemplate = restTemplate;
+        this.databasePath = databasePath;
+        this.cacheSize = cacheSize;
+        this.source = new Source(null);
+    }
 
     /**
      * Get country code và city từ IP address
-     * 
+     *
      * @param ipAddress IP address string
      * @return GeoIPResult với country code và city, hoặc null nếu không lookup được
      */
@@ -40,34 +68,129 @@ public class GeoIPService {
             log.debug("IP address is null or empty, skipping GeoIP lookup");
             return null;
         }
+        String ip = ipAddress.trim();
 
-        try {
-            // Call ip-api.com API để lookup country và city
-            ResponseEntity<IPApiResponse> response = restTemplate.getForEntity(
-                    IP_API_URL, 
-                    IPApiResponse.class, 
-                    ipAddress.trim()
-            );
+        Source current = source;
+        GeoIPResult cached = current.get(ip);
+        if (cached == null) {
+            if (current.index != null) {
+                GeoIPResult result = current.index.lookup(ip);
+                cached = result != null ? result : NOT_FOUND;
+                current.put(ip, cached);
+            } else {
+                cached = lookupRemote(ip);
+                if (cached == null) {
+                    // Lỗi tạm thời (rate limit, timeout): không cache, lần sau thử lại
+                    return null;
+                }
+                current.put(ip, cached);
+            }
+        }
+        return cached != NOT_FOUND ? cached : null;
+    }
 
+    /**
+     * Lookup qua ip-api.com, chỉ dùng khi chưa cấu hình dataset.
+     *
+     * @return kết quả, NOT_FOUND nếu API trả về fail (IP private, reserved...), null nếu gọi API lỗi
+     */
+    private GeoIPResult lookupRemote(String ip) {
+        try {
+            ResponseEntity<IPApiResponse> response = restTemplate.getForEntity(IP_API_URL, IPApiResponse.class, ip);
             IPApiResponse apiResponse = response.getBody();
-            if (apiResponse != null && "success".equals(apiResponse.getStatus())) {
-                log.debug("GeoIP lookup successful for IP {}: country={}, city={}", 
-                        ipAddress, apiResponse.getCountryCode(), apiResponse.getCity());
-                return new GeoIPResult(
-                        apiResponse.getCountryCode(),
-                        apiResponse.getCity()
-                );
-            } else {
-                log.warn("GeoIP lookup failed for IP {}: {}", ipAddress, 
-                        apiResponse != null ? apiResponse.getMessage() : "Unknown error");
+            if (apiResponse == null) {
+                return null;
+            }
+            if ("success".equals(apiResponse.getStatus())) {
+                return new GeoIPResult(apiResponse.getCountryCode(), apiResponse.getCity());
             }
+            log.debug("GeoIP lookup failed for IP {}: {}", ip, apiResponse.getMessage());
+            return NOT_FOUND;
         } catch (Exception e) {
             // Log error nhưng không throw - GeoIP failure không nên block tracking
-            // Tracking vẫn tiếp tục dù GeoIP lookup fail
-            log.warn("Error looking up GeoIP for IP {}: {}", ipAddress, e.getMessage());
+            log.warn("Error looking up GeoIP for IP {}: {}", ip, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Nạp dataset lúc khởi động. Đã cấu hình dataset mà không nạp được thì dừng khởi động,
+     * thay vì chạy tiếp mà không có country/city.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (databasePath == null || databasePath.isBlank()) {
+            log.warn("app.geoip.database-path is not set, using ip-api.com for GeoIP lookups "
+                    + "(45 requests/minute); configure a GeoIP dataset for production");
+            return;
+        }
+        try {
+            load(Paths.get(databasePath));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load GeoIP database " + databasePath, e);
+        }
+    }
+
+    /**
+     * Nạp lại dataset nếu file đã thay đổi; index mới được build xong rồi mới thay thế index cũ.
+     * Lỗi khi nạp lại được log ở mỗi lần kiểm tra, index hiện tại vẫn được dùng tiếp.
+     */
+    @Scheduled(fixedDelayString = "${app.geoip.reload-check-ms:60000}",
+            initialDelayString = "${app.geoip.reload-check-ms:60000}")
+    public void reloadIfChanged() {
+        if (databasePath == null || databasePath.isBlank()) {
+            return;
+        }
+        try {
+            load(Paths.get(databasePath));
+        } catch (Exception e) {
+            log.error("Failed to reload GeoIP database {}, keeping the loaded one: {}",
+                    databasePath, e.getMessage(), e);
+        }
+    }
+
+    private synchronized void load(Path path) throws Exception {
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalStateException("GeoIP database not found at " + path);
+        }
+        long modifiedTime = Files.getLastModifiedTime(path).toMillis();
+        if (modifiedTime == loadedModifiedTime) {
+            return;
         }
 
-        return null;
+        long start = System.currentTimeMillis();
+        GeoIPRangeIndex loaded = GeoIPRangeIndex.load(path);
+        source = new Source(loaded);
+        loadedModifiedTime = modifiedTime;
+        log.info("Loaded GeoIP database {}: {} IPv4 ranges, {} IPv6 ranges, {} lines skipped in {}ms",
+                path, loaded.ipv4Ranges(), loaded.ipv6Ranges(), loaded.skippedLines(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Nguồn lookup hiện tại (index, hoặc null = ip-api.com) cùng LRU cache các kết quả của nó.
+     */
+    private final class Source {
+        private final GeoIPRangeIndex index;
+        private final LinkedHashMap<String, GeoIPResult> recentLookups =
+                new LinkedHashMap<>(256, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, GeoIPResult> eldest) {
+                        return size() > cacheSize;
+                    }
+                };
+
+        private Source(GeoIPRangeIndex index) {
+            this.index = index;
+        }
+
+        private synchronized GeoIPResult get(String ip) {
+            return recentLookups.get(ip);
+        }
+
+        private synchronized void put(String ip, GeoIPResult result) {
+            recentLookups.put(ip, result);
+        }
     }
 
     /**
@@ -91,15 +214,14 @@ public class GeoIPService {
     @JsonIgnoreProperties(ignoreUnknown = true)
     private static class IPApiResponse {
         private String status;  // "success" or "fail"
-        
+
         @JsonProperty("message")
         private String message;  // Error message nếu fail
-        
+
         @JsonProperty("countryCode")
         private String countryCode;  // 2-letter country code
-        
+
         @JsonProperty("city")
         private String city;  // City name
     }
 }
-
@@ -0,0 +1,82 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.model.dto.AnswerKey;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Answer-key grading shared by quiz submission, explain-answer and the EIL diagnostic/practice flows.
+ * <p>
+ * Selections ({@code true} = option selected, in answer index order) are packed 64 options at a time and
+ * compared word by word with the precomputed {@link AnswerKey}; nothing is allocated per question.
+ */
+@Component
+public class GradingEngine {
+
+    /**
+     * Result of grading a whole submission. Bit {@code i} of {@code correct} is question {@code i} of the keys.
+     */
+    public record SubmissionResult(BitSet correct, long points, int corrects, int incorrects) {
+    }
+
+    /**
+     * Quiz grading: the selection must have exactly one entry per option and match the key.
+     */
+    public boolean isExactMatch(AnswerKey key, List<Boolean> selections) {
+        return selections != null
+                && selections.size() == key.getOptionCount()
+                && matches(key, selections);
+    }
+
+    /**
+     * EIL grading: all correct options and no incorrect one selected. Missing entries count as not selected
+     * and entries past the last option are ignored; an empty selection or a question without options is wrong.
+     */
+    public boolean isCorrectSelection(AnswerKey key, List<Boolean> selections) {
+        return selections != null
+                && !selections.isEmpty()
+                && key.getOptionCount() > 0
+                && matches(key, selections);
+    }
+
+    /**
+     * Grade every question of a submission with {@link #isExactMatch}. A question without an entry in
+     * {@code selections} is graded as an empty selection.
+     */
+    public SubmissionResult grade(List<AnswerKey> keys, Map<Long, List<Boolean>> selections) {
+        final BitSet correct = new BitSet(keys.size());
+        long points = 0;
+        int corrects = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            final AnswerKey key = keys.get(i);
+            if (isExactMatch(key, Objects.requireNonNullElse(selections.get(key.getQuestionId()), List.of()))) {
+                correct.set(i);
+                points += key.getPoints();
+                corrects++;
+            }
+        }
+        return new SubmissionResult(correct, points, corrects, keys.size() - corrects);
+    }
+
+    private static boolean matches(AnswerKey key, List<Boolean> selections) {
+        final int optionCount = key.getOptionCount();
+        final int selected = Math.min(optionCount, selections.size());
+        long word = 0;
+        for (int i = 0; i < optionCount; i++) {
+            if (i < selected && Boolean.TRUE.equals(selections.get(i))) {
+                word |= 1L << i;
+            }
+            if ((i & 63) == 63 || i == optionCount - 1) {
+                if (word != key.getCorrectWord(i >>> 6)) {
+                    return false;
+                }
+                word = 0;
+            }
+        }
+        return true;
+    }
+}
@@ -10,6 +10,7 @@ import com.hth.udecareer.mapper.LessonMapper;
 import com.hth.udecareer.model.request.CourseNoteRequest;
 import com.hth.udecareer.model.response.*;
 import com.hth.udecareer.repository.*;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.CourseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -32,7 +33,7 @@ public class CourseServiceImpl implements CourseService {
     private final PostMetaRepository postMetaRepository;
     private final FavoriteRepository favoriteRepository;
     private final FavoriteMetaRepository favoriteMetaRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final UserCourseRepository userCourseRepository;
     private final UserActivityRepository userActivityRepository;
 
@@ -43,7 +44,7 @@ public class CourseServiceImpl implements CourseService {
     @Override
     public CourseResponse getCourseInfo(Long courseId, String email) {
 
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
+        User user = currentUserResolver.findUser(email).orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
 
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new AppException(ErrorCode.COURSE_NOT_FOUND));
@@ -97,8 +98,7 @@ public class CourseServiceImpl implements CourseService {
             CoursePreResponse dto = courseMapper.toCoursePreResponse(course);
 
             if(email != null) {
-                Long userId = userRepository.findByEmail(email)
-                        .map(User::getId)
+                Long userId = currentUserResolver.findUserId(email)
                         .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
                 UserCourseEntity userCourseEntity = userCourseRepository.findByUserIdAndCourseId(userId, course.getId()).orElse(null);
@@ -119,7 +119,7 @@ public class CourseServiceImpl implements CourseService {
     public CourseNoteResponse createOrUpdateCourseNote(Long courseId, CourseNoteRequest request,
                                                        Principal principal) {
 
-        User user = userRepository.findByEmail(principal.getName())
+        User user = currentUserResolver.findUser(principal.getName())
                 .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
 
         FavoriteEntity favorite = favoriteRepository
@@ -154,7 +154,7 @@ public class CourseServiceImpl implements CourseService {
 
     @Override
     public CourseNoteResponse getCourseNoteResponse(Long courseId, Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
+        User user = currentUserResolver.findUser(principal.getName())
                 .orElseThrow(() -> new AppException(ErrorCode.NOT_FOUND));
 
         FavoriteEntity favorite = favoriteRepository
@@ -1,13 +1,12 @@
 package com.hth.udecareer.service.Impl;
 
 import com.hth.udecareer.entities.EzNotificationEntity;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.dto.EzNotificationDto;
 import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.repository.EzNotificationRepository;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.EzNotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -24,7 +23,7 @@ import java.security.Principal;
 public class EzNotificationServiceImpl implements EzNotificationService {
 
     private final EzNotificationRepository ezNotificationRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @Override
     public PageResponse<EzNotificationDto> getMyNotifications(Principal principal, int page, int size, boolean unreadOnly) {
@@ -70,16 +69,7 @@ public class EzNotificationServiceImpl implements EzNotificationService {
     }
 
     private Long getUserIdFromPrincipal(Principal principal) {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
 
@@ -3,7 +3,6 @@ package com.hth.udecareer.service.Impl;
 import com.hth.udecareer.entities.OrderEntity;
 import com.hth.udecareer.entities.OrderItemEntity;
 import com.hth.udecareer.entities.RefundRequestEntity;
-import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.enums.NotificationType;
 import com.hth.udecareer.enums.OrderStatus;
@@ -14,7 +13,7 @@ import com.hth.udecareer.model.request.RefundRequestDecisionRequest;
 import com.hth.udecareer.model.response.PageResponse;
 import com.hth.udecareer.repository.OrderRepository;
 import com.hth.udecareer.repository.RefundRequestRepository;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import com.hth.udecareer.service.NotificationService;
 import com.hth.udecareer.service.RefundRequestService;
 import com.hth.udecareer.service.UserAccessService;
@@ -41,7 +40,7 @@ public class RefundRequestServiceImpl implements RefundRequestService {
 
     private final RefundRequestRepository refundRequestRepository;
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final UserAccessService userAccessService;
     private final NotificationService notificationService;
 
@@ -179,15 +178,6 @@ public class RefundRequestServiceImpl implements RefundRequestService {
     }
 
     private Long getUserIdFromPrincipal(Principal principal) {
-        if (principal == null) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-        String email = principal.getName();
-        if (email == null || email.trim().isEmpty()) {
-            throw new AppException(ErrorCode.UNAUTHORIZED);
-        }
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
-        return user.getId();
+        return currentUserResolver.getUserId(principal);
     }
 }
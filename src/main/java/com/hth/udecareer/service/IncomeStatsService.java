@@ -28,6 +28,7 @@ public class IncomeStatsService {
 
     private final AffiliateReferralRepository affiliateReferralRepository;
     private final AffiliateLinkRepository affiliateLinkRepository;
+    private final AffiliateStatsRollupService affiliateStatsRollupService;
 
     public List<PeriodIncomeStatsResponse> calculateAggregateIncomeStats(
             Long affiliateId, PeriodType periodType, LocalDate fromDate, LocalDate toDate) {
@@ -36,24 +37,44 @@ public class IncomeStatsService {
         
         switch (periodType) {
             case YEAR:
-                stats = calculateYearlyStatsAggregate(affiliateId, fromDate.getYear(), toDate.getYear());
+                stats = calculateYearlyStatsAggregate(affiliateId, fromDate.getYear(), toDate.getYear(),
+                        loadRollup(affiliateId, LocalDate.of(fromDate.getYear(), 1, 1), LocalDate.of(toDate.getYear(), 12, 31)));
                 break;
             case MONTH:
-                stats = calculateMonthlyStats(affiliateId, fromDate, toDate);
+                stats = calculateMonthlyStats(affiliateId, fromDate, toDate,
+                        loadRollup(affiliateId, fromDate.withDayOfMonth(1), toDate.withDayOfMonth(toDate.lengthOfMonth())));
                 break;
             case WEEK:
-                stats = calculateWeeklyStats(affiliateId, fromDate, toDate);
+                stats = calculateWeeklyStats(affiliateId, fromDate, toDate,
+                        loadRollup(affiliateId, fromDate.with(WeekFields.of(Locale.getDefault()).dayOfWeek(), 1), toDate.plusDays(6)));
                 break;
         }
         
         return stats;
     }
 
-    private List<PeriodIncomeStatsResponse> calculateYearlyStatsAggregate(Long affiliateId, int fromYear, int toYear) {
+    /**
+     * Daily rollup rows của affiliate trong khoảng ngày (2 queries), null nếu chưa bật đọc rollup
+     */
+    private AffiliateStatsRollupService.IncomeDays loadRollup(Long affiliateId, LocalDate fromDay, LocalDate toDay) {
+        return affiliateStatsRollupService.isReadEnabled()
+                ? affiliateStatsRollupService.loadIncomeDays(affiliateId, fromDay, toDay)
+                : null;
+    }
+
+    private PeriodIncomeStatsResponse buildStatsResponse(AffiliateStatsRollupService.IncomeTotals totals) {
+        return buildStatsResponse(totals.approvedEarnings(), totals.pendingEarnings(), totals.paidEarnings(),
+                totals.clicks(), totals.orders());
+    }
+
+    private List<PeriodIncomeStatsResponse> calculateYearlyStatsAggregate(Long affiliateId, int fromYear, int toYear,
+                                                                          AffiliateStatsRollupService.IncomeDays rollup) {
         List<PeriodIncomeStatsResponse> yearlyStats = new ArrayList<>();
         
         for (int year = fromYear; year <= toYear; year++) {
-            PeriodIncomeStatsResponse stats = calculateStatsForYear(affiliateId, year);
+            PeriodIncomeStatsResponse stats = rollup != null
+                    ? buildStatsResponse(rollup.totals(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)))
+                    : calculateStatsForYear(affiliateId, year);
             stats.setPeriod(String.valueOf(year));
             stats.setPeriodLabel(String.valueOf(year));
             yearlyStats.add(stats);
@@ -62,14 +83,17 @@ public class IncomeStatsService {
         return yearlyStats;
     }
 
-    private List<PeriodIncomeStatsResponse> calculateMonthlyStats(Long affiliateId, LocalDate fromDate, LocalDate toDate) {
+    private List<PeriodIncomeStatsResponse> calculateMonthlyStats(Long affiliateId, LocalDate fromDate, LocalDate toDate,
+                                                                  AffiliateStatsRollupService.IncomeDays rollup) {
         List<PeriodIncomeStatsResponse> monthlyStats = new ArrayList<>();
         
         LocalDate current = fromDate.withDayOfMonth(1); // Đầu tháng
         LocalDate end = toDate.withDayOfMonth(1);
         
         while (!current.isAfter(end)) {
-            PeriodIncomeStatsResponse stats = calculateStatsForYearMonth(affiliateId, current.getYear(), current.getMonthValue());
+            PeriodIncomeStatsResponse stats = rollup != null
+                    ? buildStatsResponse(rollup.totals(current, current.withDayOfMonth(current.lengthOfMonth())))
+                    : calculateStatsForYearMonth(affiliateId, current.getYear(), current.getMonthValue());
             stats.setPeriod(current.format(DateTimeFormatter.ofPattern("yyyy-MM")));
             stats.setPeriodLabel(current.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH)));
             monthlyStats.add(stats);
@@ -80,7 +104,8 @@ public class IncomeStatsService {
         return monthlyStats;
     }
 
-    private List<PeriodIncomeStatsResponse> calculateWeeklyStats(Long affiliateId, LocalDate fromDate, LocalDate toDate) {
+    private List<PeriodIncomeStatsResponse> calculateWeeklyStats(Long affiliateId, LocalDate fromDate, LocalDate toDate,
+                                                                 AffiliateStatsRollupService.IncomeDays rollup) {
         List<PeriodIncomeStatsResponse> weeklyStats = new ArrayList<>();
         
         // Tìm đầu tuần (Monday)
@@ -89,7 +114,9 @@ public class IncomeStatsService {
         while (!current.isAfter(toDate)) {
             LocalDate weekEnd = current.plusDays(6);
             
-            PeriodIncomeStatsResponse stats = calculateStatsForDateRange(affiliateId, current, weekEnd);
+            PeriodIncomeStatsResponse stats = rollup != null
+                    ? buildStatsResponse(rollup.totals(current, weekEnd))
+                    : calculateStatsForDateRange(affiliateId, current, weekEnd);
             
             int weekOfYear = current.get(WeekFields.of(Locale.getDefault()).weekOfYear());
             stats.setPeriod(current.getYear() + "-W" + String.format("%02d", weekOfYear));
@@ -197,8 +224,24 @@ public class IncomeStatsService {
 
     public List<YearlyIncomeStatsResponse> calculateYearlyIncomeStats(Long affiliateId, Integer fromYear, Integer toYear) {
         List<YearlyIncomeStatsResponse> yearlyStats = new ArrayList<>();
+        AffiliateStatsRollupService.IncomeDays rollup = loadRollup(affiliateId, LocalDate.of(fromYear, 1, 1), LocalDate.of(toYear, 12, 31));
         
         for (int year = fromYear; year <= toYear; year++) {
+            if (rollup != null) {
+                PeriodIncomeStatsResponse stats = buildStatsResponse(
+                        rollup.totals(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)));
+                yearlyStats.add(YearlyIncomeStatsResponse.builder()
+                        .year(year)
+                        .totalEarnings(stats.getTotalEarnings())
+                        .pendingEarnings(stats.getPendingEarnings())
+                        .paidEarnings(stats.getPaidEarnings())
+                        .totalClicks(stats.getTotalClicks())
+                        .totalOrders(stats.getTotalOrders())
+                        .conversionRate(stats.getConversionRate())
+                        .build());
+                continue;
+            }
+
             // Tính tổng earnings từ AffiliateReferral (APPROVED status) cho affiliate cụ thể
             BigDecimal totalEarnings = affiliateReferralRepository.sumCommissionByAffiliateAndYearAndStatuses(
                     affiliateId, year, Collections.singletonList(CommissionStatus.APPROVED));
@@ -288,6 +331,21 @@ public class IncomeStatsService {
             end = LocalDateTime.now();
         }
 
+        if (affiliateStatsRollupService.isReadEnabled()) {
+            // Đọc từ daily rollup thay vì aggregate wp_affiliate_referrals
+            PeriodIncomeStatsResponse stats = buildStatsResponse(affiliateStatsRollupService
+                    .loadIncomeDays(affiliateId, start.toLocalDate(), end.toLocalDate())
+                    .totals(start.toLocalDate(), end.toLocalDate()));
+            return IncomeStatsResponse.builder()
+                    .totalEarnings(stats.getTotalEarnings())
+                    .pendingEarnings(stats.getPendingEarnings())
+                    .paidEarnings(stats.getPaidEarnings())
+                    .totalClicks(stats.getTotalClicks())
+                    .totalOrders(stats.getTotalOrders())
+                    .conversionRate(stats.getConversionRate())
+                    .build();
+        }
+
         // Tính tổng earnings từ AffiliateReferral (APPROVED status) cho affiliate cụ thể
         BigDecimal totalEarnings = affiliateReferralRepository.sumCommissionByAffiliateAndDateRangeAndStatuses(
                 affiliateId, start, end, Collections.singletonList(CommissionStatus.APPROVED));
@@ -0,0 +1,531 @@
+package com.hth.udecareer.service;
+
+import com.google.common.collect.Lists;
+import com.hth.udecareer.enums.LeaderBoardType;
+import com.hth.udecareer.repository.UserMetaRepository;
+import com.hth.udecareer.repository.UserStreakRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Leaderboards kept in Redis sorted sets: week/month/year points (one key per period, e.g.
+ * {@code leaderboard:points:week:2026-10-12}) and longest streak. Top-N pages, a user's rank and the window
+ * around a user are O(log n) instead of scanning {@code wp_usermeta} / {@code wp_fcom_user_streaks}.
+ * <p>
+ * The database stays the source of truth. Point and streak changes are applied to the sets after commit;
+ * the rebuild job ({@code app.leaderboard.rebuild-cron}, and at startup for missing sets) reloads every
+ * current set from the database and marks it ready. While a set is rebuilt (its {@code :rebuilding} mark,
+ * which also keeps other instances from rebuilding it at the same time), writes also record the user in the
+ * {@code :touched} set; at the swap those users keep their live score instead of the snapshot one, so a write
+ * is counted once whether or not the snapshot already holds it (see {@link #swap}). A write whose after-commit
+ * hook is delayed past the whole rebuild is still counted twice. Reads return {@code null} while a set is not
+ * ready or Redis fails, and callers fall back to the database queries; a failed write clears the ready mark
+ * so the set is not read until the next rebuild.
+ */
+@Slf4j
+@Component
+public class LeaderboardStore {
+
+    public static final String STREAK_KEY = "leaderboard:streak:longest";
+
+    private static final String POINTS_KEY_PREFIX = "leaderboard:points:";
+    private static final String READY_SUFFIX = ":ready";
+    private static final String REBUILDING_SUFFIX = ":rebuilding";
+    private static final String TOUCHED_SUFFIX = ":touched";
+    private static final String LOAD_SUFFIX = ":load";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(30);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int REBUILD_PASSES = 3;
+    private static final int SWAP_ATTEMPTS = 5;
+    private static final int WRITE_ATTEMPTS = 3;
+
+    // Streak score = longest * STREAK_SCALE + current, so ties on longest are ordered by current streak
+    private static final long STREAK_SCALE = 1L << 20;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final UserMetaRepository userMetaRepository;
+    private final UserStreakRepository userStreakRepository;
+    private final boolean enabled;
+
+    public LeaderboardStore(RedisTemplate<String, Object> redisTemplate,
+                            UserMetaRepository userMetaRepository,
+                            UserStreakRepository userStreakRepository,
+                            @Value("${app.leaderboard.redis-enabled:true}") boolean enabled) {
+        this.redisTemplate = redisTemplate;
+        this.userMetaRepository = userMetaRepository;
+        this.userStreakRepository = userStreakRepository;
+        this.enabled = enabled;
+    }
+
+    public record Entry(long userId, long score) {
+    }
+
+    /**
+     * @param entries Entries of the page, highest score first
+     * @param total   Members of the set
+     */
+    public record Page(List<Entry> entries, long total) {
+    }
+
+    /**
+     * @param score           User's score, 0 when not in the set
+     * @param rank            1-based position in the set, 0 when not in the set
+     * @param higherCount     Members with a higher score
+     * @param nextHigherScore Lowest score above the user's, null when the user is first
+     */
+    public record Position(long score, long rank, long higherCount, Long nextHigherScore) {
+    }
+
+    /**
+     * @param firstRank 1-based rank of the first entry
+     */
+    public record Window(long firstRank, List<Entry> entries) {
+    }
+
+    public static LocalDate periodStart(LeaderBoardType type, LocalDate day) {
+        return switch (type) {
+            case MONTH -> day.withDayOfMonth(1);
+            case YEAR -> day.withDayOfYear(1);
+            default -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    /**
+     * Key of the points set of the period that contains {@code day}.
+     */
+    public static String pointsKey(LeaderBoardType type, LocalDate day) {
+        return POINTS_KEY_PREFIX + type.name().toLowerCase() + ":" + periodStart(type, day);
+    }
+
+    public static double streakScore(int longestStreak, int currentStreak) {
+        return (double) longestStreak * STREAK_SCALE + Math.min(Math.max(currentStreak, 0), STREAK_SCALE - 1);
+    }
+
+    // ============= WRITES =============
+
+    /**
+     * Add (or with a negative delta, remove) points in the current week/month/year sets, after commit.
+     */
+    public void addPoints(Long userId, long delta) {
+        if (!enabled || delta == 0) {
+            return;
+        }
+        final LocalDate today = LocalDate.now();
+        afterCommit(() -> {
+            for (LeaderBoardType type : LeaderBoardType.values()) {
+                final String key = pointsKey(type, today);
+                try {
+                    write(key, userId,
+                          operations -> operations.opsForZSet().incrementScore(key, member(userId), delta));
+                    redisTemplate.expire(key, ttl(type));
+                } catch (Exception e) {
+                    log.warn("Failed to add points of user {} to {}: {}", userId, key, e.getMessage());
+                    markStale(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Store the user's longest and current streak, after commit.
+     */
+    public void setStreak(Long userId, int longestStreak, int currentStreak) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            final double score = streakScore(longestStreak, currentStreak);
+            try {
+                write(STREAK_KEY, userId,
+                      operations -> operations.opsForZSet().add(STREAK_KEY, member(userId), score));
+            } catch (Exception e) {
+                log.warn("Failed to store streak of user {}: {}", userId, e.getMessage());
+                markStale(STREAK_KEY);
+            }
+        });
+    }
+
+    // ============= READS =============
+
+    /**
+     * Entries {@code offset .. offset + count - 1} (highest first) and the set size, or null when not ready.
+     */
+    public Page page(String key, long offset, int count) {
+        if (!isReady(key)) {
+            return null;
+        }
+        try {
+            final Set<TypedTuple<Object>> tuples =
+                    redisTemplate.opsForZSet().reverseRangeWithScores(key, offset, offset + count - 1);
+            final Long total = redisTemplate.opsForZSet().zCard(key);
+            return new Page(toEntries(tuples), total != null ? total : 0L);
+        } catch (Exception e) {
+            log.warn("Failed to read leaderboard {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Score and rank of one user, or null when not ready.
+     */
+    public Position position(String key, Long userId) {
+        if (!isReady(key)) {
+            return null;
+        }
+        try {
+            final Double score = redisTemplate.opsForZSet().score(key, member(userId));
+            final Long reverseRank = score != null ? redisTemplate.opsForZSet().reverseRank(key, member(userId)) : null;
+            final long myScore = score != null ? score.longValue() : 0L;
+            // Scores are whole numbers: "higher" is >= myScore + 1
+            final Long higher = redisTemplate.opsForZSet().count(key, myScore + 1, Double.POSITIVE_INFINITY);
+            final Set<TypedTuple<Object>> next = redisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(key, myScore + 1, Double.POSITIVE_INFINITY, 0, 1);
+            final List<Entry> nextEntries = toEntries(next);
+            return new Position(myScore,
+                                reverseRank != null ? reverseRank + 1 : 0L,
+                                higher != null ? higher : 0L,
+                                nextEntries.isEmpty() ? null : nextEntries.get(0).score());
+        } catch (Exception e) {
+            log.warn("Failed to read rank of user {} in {}: {}", userId, key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Up to {@code radius} entries above and below the user, or null when not ready. Empty when the user is
+     * not in the set.
+     */
+    public Window around(String key, Long userId, int radius) {
+        if (!isReady(key)) {
+            return null;
+        }
+        try {
+            final Long reverseRank = redisTemplate.opsForZSet().reverseRank(key, member(userId));
+            if (reverseRank == null) {
+                return new Window(0L, List.of());
+            }
+            final long start = Math.max(0L, reverseRank - radius);
+            final Set<TypedTuple<Object>> tuples =
+                    redisTemplate.opsForZSet().reverseRangeWithScores(key, start, reverseRank + radius);
+            return new Window(start + 1, toEntries(tuples));
+        } catch (Exception e) {
+            log.warn("Failed to read leaderboard {} around user {}: {}", key, userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 1 + users whose longest streak is higher, or null when not ready.
+     */
+    public Long streakRank(int longestStreak) {
+        if (!isReady(STREAK_KEY)) {
+            return null;
+        }
+        try {
+            final Long higher = redisTemplate.opsForZSet()
+                    .count(STREAK_KEY, streakScore(longestStreak + 1, 0), Double.POSITIVE_INFINITY);
+            return (higher != null ? higher : 0L) + 1;
+        } catch (Exception e) {
+            log.warn("Failed to read streak rank: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // ============= REBUILD =============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            rebuild(true);
+        }
+    }
+
+    /**
+     * Reload every current set from the database (also gives a new period its ready mark).
+     */
+    @Scheduled(cron = "${app.leaderboard.rebuild-cron:0 5 0 * * *}")
+    public void rebuildAll() {
+        if (enabled) {
+            rebuild(false);
+        }
+    }
+
+    synchronized void rebuild(boolean onlyMissing) {
+        final LocalDate today = LocalDate.now();
+        for (LeaderBoardType type : LeaderBoardType.values()) {
+            final String startValue = periodStart(type, today).toString();
+            rebuildSet(pointsKey(type, today), onlyMissing, false, ttl(type), () -> {
+                final List<Object[]> rows = userMetaRepository.findScoresByKeyAndStart(
+                        pointMetaKey(type), pointMetaKey(type) + "_start", startValue);
+                final List<TypedTuple<Object>> tuples = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    final long score = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+                    tuples.add(new DefaultTypedTuple<>(member(((Number) row[0]).longValue()), (double) score));
+                }
+                return tuples;
+            });
+        }
+
+        rebuildSet(STREAK_KEY, onlyMissing, true, null, () -> {
+            final List<Object[]> rows = userStreakRepository.findAllStreakScores();
+            final List<TypedTuple<Object>> tuples = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                final int longest = row[1] != null ? ((Number) row[1]).intValue() : 0;
+                final int current = row[2] != null ? ((Number) row[2]).intValue() : 0;
+                tuples.add(new DefaultTypedTuple<>(member(((Number) row[0]).longValue()),
+                                                   streakScore(longest, current)));
+            }
+            return tuples;
+        });
+    }
+
+    /**
+     * Load the database snapshot of one set into its {@code :load} set and swap it in. A pass that could not
+     * mark the set ready (see {@link #swap}) is repeated, up to {@link #REBUILD_PASSES} times.
+     *
+     * @param absoluteWrites whether writes store the whole score (streaks) rather than add to it (points)
+     */
+    private void rebuildSet(String key, boolean onlyMissing, boolean absoluteWrites, Duration ttl,
+                            Supplier<List<TypedTuple<Object>>> snapshot) {
+        try {
+            if (onlyMissing && isReady(key) || !startRebuild(key)) {
+                return;
+            }
+        } catch (Exception e) {
+            log.error("Failed to rebuild leaderboard {}: {}", key, e.getMessage(), e);
+            return;
+        }
+        try {
+            for (int pass = 1; ; pass++) {
+                // Users written from here on are recorded, so clear both before the database is read
+                redisTemplate.delete(List.of(key + TOUCHED_SUFFIX, key + LOAD_SUFFIX));
+                final List<TypedTuple<Object>> tuples = snapshot.get();
+                for (List<TypedTuple<Object>> batch : Lists.partition(tuples, REBUILD_BATCH_SIZE)) {
+                    redisTemplate.opsForZSet().add(key + LOAD_SUFFIX, new HashSet<>(batch));
+                }
+                if (swap(key, absoluteWrites, ttl)) {
+                    log.info("Leaderboard {} rebuilt: {} users", key, tuples.size());
+                    return;
+                }
+                if (pass == REBUILD_PASSES) {
+                    log.warn("Leaderboard {} changed during {} rebuild passes, left not ready", key, pass);
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to rebuild leaderboard {}: {}", key, e.getMessage(), e);
+        } finally {
+            finishRebuild(key);
+        }
+    }
+
+    /**
+     * Take the rebuild mark of a set; false when another instance is rebuilding it.
+     */
+    private boolean startRebuild(String key) {
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                                         .setIfAbsent(key + REBUILDING_SUFFIX, "1", REBUILD_LOCK_TTL))) {
+            log.info("Leaderboard {} is being rebuilt elsewhere, skipping", key);
+            return false;
+        }
+        return true;
+    }
+
+    private void finishRebuild(String key) {
+        try {
+            redisTemplate.delete(List.of(key + REBUILDING_SUFFIX, key + TOUCHED_SUFFIX, key + LOAD_SUFFIX));
+        } catch (Exception e) {
+            log.warn("Failed to clear rebuild mark of leaderboard {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Rename the {@code :load} set over the live one and mark it ready, in one MULTI/EXEC under WATCH of the
+     * live set, its ready mark and its {@code :touched} set; retried when a write lands in between.
+     * <p>
+     * A touched user was written after the rebuild started, so the snapshot may or may not hold that write.
+     * Their live score is copied over the snapshot instead: it already holds the write, and overwriting (not
+     * adding) counts it once either way. That needs a live score that was correct before the rebuild, i.e. the
+     * set was ready (a failed write clears the mark), or writes that store the whole score. Otherwise touched
+     * users keep the snapshot score and the set is swapped but not marked ready.
+     *
+     * @return true when the set was marked ready
+     */
+    private boolean swap(String key, boolean absoluteWrites, Duration ttl) {
+        final String loadKey = key + LOAD_SUFFIX;
+        final String touchedKey = key + TOUCHED_SUFFIX;
+        for (int attempt = 0; attempt < SWAP_ATTEMPTS; attempt++) {
+            final Boolean ready = redisTemplate.execute(new SessionCallback<Boolean>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Boolean execute(RedisOperations<K, V> ops) {
+                    final RedisOperations<String, Object> operations = (RedisOperations<String, Object>) ops;
+                    operations.watch(List.of(key, key + READY_SUFFIX, touchedKey));
+                    final boolean useLive = absoluteWrites
+                            || Boolean.TRUE.equals(operations.hasKey(key + READY_SUFFIX));
+                    final Set<Object> touched = operations.opsForSet().members(touchedKey);
+                    final Set<TypedTuple<Object>> liveScores = new HashSet<>();
+                    if (useLive && touched != null) {
+                        for (Object user : touched) {
+                            final Double score = operations.opsForZSet().score(key, user);
+                            if (score != null) {
+                                liveScores.add(new DefaultTypedTuple<>(user, score));
+                            }
+                        }
+                    }
+                    final Long loaded = operations.opsForZSet().zCard(loadKey);
+                    final boolean complete = useLive || touched == null || touched.isEmpty();
+
+                    operations.multi();
+                    if (!liveScores.isEmpty()) {
+                        operations.opsForZSet().add(loadKey, liveScores);
+                    }
+                    if (loaded != null && loaded > 0 || !liveScores.isEmpty()) {
+                        operations.rename(loadKey, key);
+                        if (ttl != null) {
+                            operations.expire(key, ttl);
+                        }
+                    } else {
+                        operations.delete(key);
+                    }
+                    if (complete) {
+                        if (ttl != null) {
+                            operations.opsForValue().set(key + READY_SUFFIX, "1", ttl);
+                        } else {
+                            operations.opsForValue().set(key + READY_SUFFIX, "1");
+                        }
+                    }
+                    return committed(operations.exec()) ? complete : null;
+                }
+            });
+            if (ready != null) {
+                return ready;
+            }
+        }
+        throw new IllegalStateException("Leaderboard " + key + " kept changing during the swap");
+    }
+
+    // ============= HELPERS =============
+
+    private boolean isReady(String key) {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(key + READY_SUFFIX));
+        } catch (Exception e) {
+            log.warn("Failed to check leaderboard {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Apply a write to a live set. While the set is being rebuilt the user is also added to its
+     * {@code :touched} set, in the same MULTI/EXEC; WATCH on the rebuild mark keeps a rebuild from starting
+     * between the check and the write.
+     */
+    private void write(String key, Long userId, Consumer<RedisOperations<String, Object>> writes) {
+        for (int attempt = 0; attempt < WRITE_ATTEMPTS; attempt++) {
+            final Boolean written = redisTemplate.execute(new SessionCallback<Boolean>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Boolean execute(RedisOperations<K, V> ops) {
+                    final RedisOperations<String, Object> operations = (RedisOperations<String, Object>) ops;
+                    operations.watch(key + REBUILDING_SUFFIX);
+                    final boolean rebuilding = Boolean.TRUE.equals(operations.hasKey(key + REBUILDING_SUFFIX));
+                    operations.multi();
+                    writes.accept(operations);
+                    if (rebuilding) {
+                        operations.opsForSet().add(key + TOUCHED_SUFFIX, member(userId));
+                        operations.expire(key + TOUCHED_SUFFIX, REBUILD_LOCK_TTL);
+                    }
+                    return committed(operations.exec());
+                }
+            });
+            if (Boolean.TRUE.equals(written)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("Rebuild of " + key + " kept starting or finishing during the write");
+    }
+
+    /**
+     * EXEC returns null or an empty list when a watched key changed and the transaction was discarded.
+     */
+    private static boolean committed(List<Object> results) {
+        return results != null && !results.isEmpty();
+    }
+
+    private void markStale(String key) {
+        try {
+            redisTemplate.delete(key + READY_SUFFIX);
+        } catch (Exception e) {
+            log.warn("Failed to mark leaderboard {} stale: {}", key, e.getMessage());
+        }
+    }
+
+    private static String member(long userId) {
+        return String.valueOf(userId);
+    }
+
+    private static List<Entry> toEntries(Set<TypedTuple<Object>> tuples) {
+        if (tuples == null) {
+            return List.of();
+        }
+        final List<Entry> entries = new ArrayList<>(tuples.size());
+        for (TypedTuple<Object> tuple : tuples) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                entries.add(new Entry(Long.parseLong(String.valueOf(tuple.getValue())), tuple.getScore().longValue()));
+            }
+        }
+        return entries;
+    }
+
+    private static String pointMetaKey(LeaderBoardType type) {
+        return "point_" + type.name().toLowerCase();
+    }
+
+    private static Duration ttl(LeaderBoardType type) {
+        // Period length plus a week, so last period's set is still there shortly after rollover
+        return switch (type) {
+            case MONTH -> Duration.ofDays(38);
+            case YEAR -> Duration.ofDays(373);
+            default -> Duration.ofDays(14);
+        };
+    }
+
+    private static void afterCommit(Runnable onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onCommit.run();
+            }
+        });
+    }
+}
@@ -10,6 +10,7 @@ import com.hth.udecareer.model.request.LessonProgressRequest;
 import com.hth.udecareer.model.response.CourseProgressResponse;
 import com.hth.udecareer.model.response.LessonProgressResponse;
 import com.hth.udecareer.repository.*;
+import com.hth.udecareer.security.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,7 +25,7 @@ public class LessonProgressService {
     private final PostMetaRepository postMetaRepository;
     private final UserActivityRepository userActivityRepository;
     private final UserActivityMetaRepository userActivityMetaRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final UserCourseRepository userCourseRepository;
 
     @Transactional
@@ -33,7 +34,7 @@ public class LessonProgressService {
         Long duration = request.getDuration();
 
 
-        Long userId = userRepository.findByEmail(email).map(u -> u.getId()).orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
+        Long userId = currentUserResolver.findUserId(email).orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
         PostMeta course = postMetaRepository.findByPostIdAndMetaKey(lessonId, "course_id");
         postMetaRepository.findDurationByLessonId(lessonId).orElseGet(() ->{
             PostMeta postMeta = new PostMeta();
@@ -105,8 +106,7 @@ public class LessonProgressService {
     }
 
     public LessonProgressResponse getLessonProgress(String email, Long lessonId) {
-        Long userId = userRepository.findByEmail(email)
-                .map(User::getId)
+        Long userId = currentUserResolver.findUserId(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
         PostMeta courseMeta = postMetaRepository.findByPostIdAndMetaKey(lessonId, "course_id");
@@ -141,8 +141,7 @@ public class LessonProgressService {
     }
 
     public CourseProgressResponse getCourseProgress(String email, Long courseId) {
-        Long userId = userRepository.findByEmail(email)
-                .map(User::getId)
+        Long userId = currentUserResolver.findUserId(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
         UserCourseEntity userCourse = userCourseRepository
@@ -2,8 +2,6 @@ package com.hth.udecareer.service;
 
 import com.hth.udecareer.config.TimezoneConfig;
 import com.hth.udecareer.entities.ReportEntity;
-import com.hth.udecareer.entities.User;
-import com.hth.udecareer.entities.XProfileEntity;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.request.ReportRequest;
@@ -13,9 +11,7 @@ import com.hth.udecareer.model.response.ReportResponse;
 import com.hth.udecareer.model.response.ReportStatsResponse;
 import com.hth.udecareer.model.response.XProfileResponse;
 import com.hth.udecareer.repository.ReportRepository;
-import com.hth.udecareer.repository.UserMetaRepository;
-import com.hth.udecareer.repository.UserRepository;
-import com.hth.udecareer.repository.XProfileRepository;
+import com.hth.udecareer.service.cache.AuthorProfileResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -26,8 +22,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,9 +35,7 @@ import java.util.stream.Collectors;
 public class ModerationService {
 
     private final ReportRepository reportRepository;
-    private final XProfileRepository xProfileRepository;
-    private final UserRepository userRepository;
-    private final UserMetaRepository userMetaRepository;
+    private final AuthorProfileResolver authorProfileResolver;
 
     private static final List<String> VALID_OBJECT_TYPES = Arrays.asList(
             ReportEntity.OBJECT_TYPE_FEED,
@@ -141,9 +138,7 @@ public class ModerationService {
 
         Page<ReportEntity> reports = reportRepository.findReportsWithFilters(status, objectType, pageable);
 
-        List<ReportResponse> items = reports.getContent().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<ReportResponse> items = mapToResponses(reports.getContent());
 
         return PageResponse.<ReportResponse>builder()
                 .content(items)
@@ -252,9 +247,7 @@ public class ModerationService {
         Pageable pageable = PageRequest.of(page, size);
         Page<ReportEntity> reports = reportRepository.findByReporterIdOrderByCreatedAtDesc(userId, pageable);
 
-        List<ReportResponse> items = reports.getContent().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<ReportResponse> items = mapToResponses(reports.getContent());
 
         return PageResponse.<ReportResponse>builder()
                 .content(items)
@@ -272,21 +265,43 @@ public class ModerationService {
     // ============= HELPER METHODS =============
 
     private ReportResponse mapToResponse(ReportEntity report) {
+        return mapToResponses(List.of(report)).get(0);
+    }
+
+    /**
+     * Map a page of reports, resolving reporter, reported user and moderator profiles in one batch.
+     */
+    private List<ReportResponse> mapToResponses(List<ReportEntity> reports) {
+        Set<Long> userIds = new HashSet<>();
+        for (ReportEntity report : reports) {
+            userIds.add(report.getReporterId());
+            userIds.add(report.getReportedUserId());
+            userIds.add(report.getModeratorId());
+        }
+        userIds.remove(null);
+        Map<Long, XProfileResponse> profiles = authorProfileResolver.resolveAll(userIds);
+
+        return reports.stream()
+                .map(report -> mapToResponse(report, profiles))
+                .collect(Collectors.toList());
+    }
+
+    private ReportResponse mapToResponse(ReportEntity report, Map<Long, XProfileResponse> profiles) {
         long reportCount = reportRepository.countByObjectIdAndObjectType(report.getObjectId(), report.getObjectType());
 
         return ReportResponse.builder()
                 .id(report.getId())
                 .reporterId(report.getReporterId())
-                .reporter(getXProfile(report.getReporterId()))
+                .reporter(profiles.get(report.getReporterId()))
                 .reportedUserId(report.getReportedUserId())
-                .reportedUser(report.getReportedUserId() != null ? getXProfile(report.getReportedUserId()) : null)
+                .reportedUser(report.getReportedUserId() != null ? profiles.get(report.getReportedUserId()) : null)
                 .objectId(report.getObjectId())
                 .objectType(report.getObjectType())
                 .reason(report.getReason())
                 .description(report.getDescription())
                 .status(report.getStatus())
                 .moderatorId(report.getModeratorId())
-                .moderator(report.getModeratorId() != null ? getXProfile(report.getModeratorId()) : null)
+                .moderator(report.getModeratorId() != null ? profiles.get(report.getModeratorId()) : null)
                 .moderatorNotes(report.getModeratorNotes())
                 .actionTaken(report.getActionTaken())
                 .reportCount(reportCount)
@@ -295,48 +310,4 @@ public class ModerationService {
                 .updatedAt(report.getUpdatedAt())
                 .build();
     }
-
-    private XProfileResponse getXProfile(Long userId) {
-        Optional<XProfileEntity> xProfileOpt = xProfileRepository.findByUserId(userId);
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        String finalAvatarFromMeta = userMetaRepository.findByUserIdAndMetaKey(userId, "wpcf-avatar")
-                .map(meta -> meta.getMetaValue())
-                .orElse(null);
-
-        if (xProfileOpt.isPresent()) {
-            XProfileEntity xp = xProfileOpt.get();
-            String finalAvatar = StringUtils.isNotBlank(xp.getAvatar()) ? xp.getAvatar() : finalAvatarFromMeta;
-            String fullName = userOpt.map(User::getDisplayName).orElse(null);
-
-            return XProfileResponse.builder()
-                    .userId(xp.getUserId())
-                    .username(xp.getUsername())
-                    .displayName(xp.getDisplayName())
-                    .fullName(fullName)
-                    .avatar(finalAvatar)
-                    .totalPoints(xp.getTotalPoints())
-                    .isVerified(xp.getIsVerified() != null && xp.getIsVerified() == 1)
-                    .build();
-        } else {
-            return userOpt.map(user -> XProfileResponse.builder()
-                    .userId(user.getId())
-                    .username(user.getUsername())
-                    .displayName(user.getDisplayName())
-                    .fullName(user.getDisplayName())
-                    .avatar(finalAvatarFromMeta)
-                    .totalPoints(0)
-                    .isVerified(false)
-                    .build())
-                    .orElse(XProfileResponse.builder()
-                            .userId(userId)
-                            .username("")
-                            .displayName("")
-                            .fullName("")
-                            .avatar(null)
-                            .totalPoints(0)
-                            .isVerified(false)
-                            .build());
-        }
-    }
 }
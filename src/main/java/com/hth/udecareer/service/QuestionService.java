@@ -18,6 +18,7 @@ import com.hth.udecareer.model.response.ExplainAnswerResponse;
 import com.hth.udecareer.model.response.QuestionResponse;
 import com.hth.udecareer.model.response.QuestionResponse.AnswerData;
 import com.hth.udecareer.repository.QuestionRepository;
+import com.hth.udecareer.service.cache.QuestionBankCache;
 
 
 import lombok.RequiredArgsConstructor;
@@ -29,6 +30,8 @@ import lombok.extern.slf4j.Slf4j;
 public class QuestionService {
 
     private final QuestionRepository questionRepository;
+    private final QuestionBankCache questionBankCache;
+    private final GradingEngine gradingEngine;
 
     public ExplainAnswerResponse explainAnswer(String email, @NotNull ExplainAnswerRequest request) throws AppException {
         log.info("explainAnswer: user {}, quizId {}, questionId {}",
@@ -42,13 +45,12 @@ public class QuestionService {
             throw new AppException(ErrorCode.INVALID_KEY, "Question does not belong to the specified quiz");
         }
 
-        final QuestionResponse questionResponse = QuestionResponse.from(questionEntity);
+        final QuestionResponse questionResponse = questionBankCache.get(questionEntity);
 
-        final List<Boolean> userAnswer = request.getAnswerData();
-        final List<Boolean> correctAnswer = getCorrectAnswerFromQuestion(questionResponse);
         final List<AnswerOptionResponse> correctAnswerDetails = getCorrectAnswerDetails(questionResponse);
 
-        final boolean isCorrect = isAnswerCorrect(userAnswer, correctAnswer);
+        final boolean isCorrect = gradingEngine.isExactMatch(questionBankCache.getAnswerKey(questionEntity),
+                                                             request.getAnswerData());
 
         final String explanation = isCorrect
                 ? questionResponse.getCorrectMsg()
@@ -74,36 +76,6 @@ public class QuestionService {
                 .build();
     }
 
-    private boolean isAnswerCorrect(List<Boolean> userAnswer, List<Boolean> correctAnswer) {
-        if (userAnswer == null || correctAnswer == null || userAnswer.size() != correctAnswer.size()) {
-            return false;
-        }
-
-        for (int i = 0; i < userAnswer.size(); i++) {
-            Boolean userChoice = userAnswer.get(i);
-            Boolean correctChoice = correctAnswer.get(i);
-
-            // Sử dụng Objects.equals để tránh null pointer và đảm bảo so sánh chính xác
-            if (!Objects.equals(userChoice, correctChoice)) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    private List<Boolean> getCorrectAnswerFromQuestion(QuestionResponse question) {
-        if (question.getAnswerData() == null || question.getAnswerData().isEmpty()) {
-            return List.of();
-        }
-
-        return question.getAnswerData()
-                .stream()
-                .sorted(Comparator.comparing(AnswerData::getIndex))
-                .map(AnswerData::isCorrect)
-                .collect(Collectors.toList());
-    }
-
     private List<AnswerOptionResponse> getCorrectAnswerDetails(QuestionResponse question) {
         if (question.getAnswerData() == null || question.getAnswerData().isEmpty()) {
             return List.of();
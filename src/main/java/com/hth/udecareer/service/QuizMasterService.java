@@ -21,8 +21,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.Arrays;
 
@@ -33,13 +31,11 @@ import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.model.response.*;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
 
 import com.google.common.collect.ArrayListMultimap;
@@ -55,25 +51,31 @@ import com.hth.udecareer.entities.User;
 import com.hth.udecareer.entities.UserActivityEntity;
 import com.hth.udecareer.entities.UserActivityMetaEntity;
 import com.hth.udecareer.entities.UserPurchasedEntity;
+import com.hth.udecareer.entities.UserQuizProgressEntity;
 import com.hth.udecareer.enums.PostStatus;
 import com.hth.udecareer.exception.AppException;
+import com.hth.udecareer.model.dto.AnswerKey;
 import com.hth.udecareer.model.dto.PurchasedDto;
+import com.hth.udecareer.model.dto.QuizSettings;
 import com.hth.udecareer.model.dto.QuizDto;
 import com.hth.udecareer.model.dto.RevenueCatSubscriberDto;
 import com.hth.udecareer.model.request.SubmitAnswerRequest;
 import com.hth.udecareer.model.request.SubmitAnswerRequest.AnsweredData;
-import com.hth.udecareer.model.response.QuestionResponse.AnswerData;
 import com.hth.udecareer.repository.PostMetaRepository;
 import com.hth.udecareer.repository.QuestionRepository;
 import com.hth.udecareer.repository.QuizMasterRepository;
 import com.hth.udecareer.repository.QuizStatisticRefRepository;
 import com.hth.udecareer.repository.QuizStatisticRepository;
+import com.hth.udecareer.repository.QuizSubmissionBatchRepository;
 import com.hth.udecareer.repository.UserActivityMetaRepository;
 import com.hth.udecareer.repository.UserActivityRepository;
 import com.hth.udecareer.repository.UserPurchasedRepository;
-import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
+import com.hth.udecareer.service.cache.QuestionBankCache;
+import com.hth.udecareer.service.cache.QuizCatalogCache;
+import com.hth.udecareer.service.cache.QuizCatalogSnapshot;
+import com.hth.udecareer.service.cache.QuizMetaCache;
 import com.hth.udecareer.utils.BooleanUtil;
-import com.hth.udecareer.utils.PostMetaUtil;
 import com.hth.udecareer.repository.QuizCategoryRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -88,18 +90,25 @@ public class QuizMasterService {
         private final PostMetaRepository postMetaRepository;
         private final UserActivityRepository userActivityRepository;
         private final UserActivityMetaRepository userActivityMetaRepository;
-        private final UserRepository userRepository;
+        private final CurrentUserResolver currentUserResolver;
         private final QuizStatisticRefRepository quizStatisticRefRepository;
         private final QuizStatisticRepository quizStatisticRepository;
+        private final QuizSubmissionBatchRepository quizSubmissionBatchRepository;
         private final RevenueCatService revenueCatService;
         private final QuizCategoryService quizCategoryService;
         private final UserPurchasedRepository userPurchasedRepository;
         private final QuizCategoryRepository quizCategoryRepository;
+        private final QuizMetaCache quizMetaCache;
+        private final QuizCatalogCache quizCatalogCache;
+        private final QuestionBankCache questionBankCache;
+        private final GradingEngine gradingEngine;
+        private final UserQuizProgressService userQuizProgressService;
+        private final UserChapterStatsService userChapterStatsService;
 
 
     public List<QuizResponse> searchQuiz(String email, String category, String categoryCode, String typeTest) throws AppException {
-        final User user = userRepository
-                .findByEmail(email)
+        final User user = currentUserResolver
+                .findUser(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
         // Logic mới: Ưu tiên categoryCode, nếu không có thì dùng category
@@ -153,12 +162,12 @@ public class QuizMasterService {
         final Map<Long, List<Long>> postIdToQuestionIds =
                 postMetaRepository.findAllByPostIdInAndMetaKey(postIds, "ld_quiz_questions")
                         .stream()
-                        .collect(toMap(PostMeta::getPostId, x -> getQuestionIds(x.getMetaValue())));
+                        .collect(toMap(PostMeta::getPostId, quizMetaCache::getQuestionIds));
 
         final List<PostMeta> postMetas = postMetaRepository.findAllByPostIdInAndMetaKey(postIds, "_sfwd-quiz");
-        final Map<Long, String> postIdToQuizMeta = postMetas
+        final Map<Long, QuizSettings> postIdToQuizSettings = postMetas
                 .stream()
-                .collect(toMap(PostMeta::getPostId, PostMeta::getMetaValue));
+                .collect(toMap(PostMeta::getPostId, quizMetaCache::getSettings));
 
         // Lấy tất cả activities để tách riêng completed và draft
         final List<UserActivityEntity> allActivities = postIds.isEmpty()
@@ -352,14 +361,9 @@ public class QuizMasterService {
             quizResponse.setQuestions(Objects.isNull(questionIds) ? 0L : questionIds.size());
             quizResponse.setTotalPoints(questionEntities.stream().mapToLong(QuestionEntity::getPoints).sum());
 
-            final String quizMeta = postIdToQuizMeta.get(quizResponse.getPostId());
-            if (Objects.nonNull(quizMeta)) {
-                final Map<String, Object> quizMetaMap = PostMetaUtil.getPostMetaValues(quizMeta);
-                final Object passingPercentage = quizMetaMap.get("sfwd-quiz_passingpercentage");
-
-                if (Objects.nonNull(passingPercentage)) {
-                    quizResponse.setPassingPercentage(NumberUtils.toInt(passingPercentage.toString().strip(), 0));
-                }
+            final QuizSettings quizSettings = postIdToQuizSettings.get(quizResponse.getPostId());
+            if (Objects.nonNull(quizSettings) && Objects.nonNull(quizSettings.getPassingPercentage())) {
+                quizResponse.setPassingPercentage(quizSettings.getPassingPercentage());
             }
 
             quizResponse.setAnsweredScore(postIdToScore.get(quizResponse.getPostId()));
@@ -412,17 +416,19 @@ public class QuizMasterService {
     public Page<QuizResponse> searchQuizPaged(String email, String category, String categoryCode, String quizType,
                                          Integer minTimeLimit, Integer maxTimeLimit, Long courseId,
                                          Pageable pageable) throws AppException {
-        final User user = userRepository
-                .findByEmail(email)
+        final User user = currentUserResolver
+                .findUser(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
+                final QuizCatalogSnapshot catalog = quizCatalogCache.getSnapshot();
+
                 // Logic mới: Ưu tiên categoryCode, nếu không có thì dùng category
                 String categoryTitle = null;
                 final boolean useCategory;
                 
                 if (!ObjectUtils.isEmpty(categoryCode)) {
                     // Lấy title từ code
-                    Optional<QuizCategoryEntity> categoryEntity = quizCategoryRepository.findByCode(categoryCode);
+                    Optional<QuizCategoryEntity> categoryEntity = catalog.findCategoryByCode(categoryCode);
                     if (categoryEntity.isEmpty()) {
                         throw new AppException(ErrorCode.INVALID_KEY, "Category code not found: " + categoryCode);
                     }
@@ -432,7 +438,7 @@ public class QuizMasterService {
                 } else if (!ObjectUtils.isEmpty(category)) {
                     // Dùng category (title) như cũ (backward compatible)
                     categoryTitle = category.trim();
-                    if (!quizCategoryRepository.existsByTitle(categoryTitle)) {
+                    if (!catalog.existsCategoryTitle(categoryTitle)) {
                         throw new AppException(ErrorCode.INVALID_KEY, "Category title not found: " + categoryTitle);
                     }
                     useCategory = true;
@@ -475,218 +481,69 @@ public class QuizMasterService {
                 final List<QuizResponse> responses = safeStream(quizDtoPage.getContent()).map(QuizResponse::from)
                                 .toList();
 
-                final Map<Long, List<Long>> postIdToQuestionIds = postMetaRepository
-                                .findAllByPostIdInAndMetaKey(postIds, "ld_quiz_questions")
-                                .stream()
-                                .collect(toMap(PostMeta::getPostId, x -> getQuestionIds(x.getMetaValue())));
+                // Question ids, points, passing percentage and category come from the catalog snapshot
+                final Map<Long, QuizCatalogSnapshot.QuizEntry> postIdToCatalogEntry =
+                                quizCatalogCache.getEntries(quizDtoPage.getContent());
 
-                final List<PostMeta> postMetas = postMetaRepository.findAllByPostIdInAndMetaKey(postIds, "_sfwd-quiz");
-                final Map<Long, String> postIdToQuizMeta = postMetas
-                                .stream()
-                                .collect(toMap(PostMeta::getPostId, PostMeta::getMetaValue));
+                // Tiến độ của user theo từng quiz: một query trên ez_user_quiz_progress
+                final Map<Long, UserQuizProgressEntity> postIdToProgress =
+                                userQuizProgressService.getProgress(user.getId(), postIds);
 
-                // Lấy tất cả activities để tách riêng completed và draft
-                final List<UserActivityEntity> allActivities = postIds.isEmpty()
-                                ? Collections.emptyList()
-                                : userActivityRepository.findAllActivitiesByUserIdAndPostIds(user.getId(), postIds);
-                
-                // Tách riêng completed activities (đã chấm điểm) và draft activities
-                final Map<Long, UserActivityEntity> postIdToCompletedActivity = new HashMap<>();
-                final Map<Long, UserActivityEntity> postIdToDraftActivity = new HashMap<>();
-                
-                // Lấy metadata cho tất cả activities
-                final List<Long> allActivityIds = allActivities.stream()
-                                .map(UserActivityEntity::getId)
-                                .collect(Collectors.toList());
-                final List<UserActivityMetaEntity> allActivityMetaList = allActivityIds.isEmpty()
-                                ? Collections.emptyList()
-                                : userActivityMetaRepository.findAllByActivityIdIn(allActivityIds);
-                final Map<Long, Map<String, String>> allActivityMetaMap = allActivityMetaList
-                                .stream()
-                                .collect(groupingBy(UserActivityMetaEntity::getActivityId,
-                                                toMap(UserActivityMetaEntity::getActivityMetaKey,
-                                                                UserActivityMetaEntity::getActivityMetaValue)));
-                
-                // Phân loại activities
-                for (UserActivityEntity activity : allActivities) {
-                        final Map<String, String> metaMap = allActivityMetaMap.get(activity.getId());
-                        if (metaMap != null) {
-                                String isDraftValue = metaMap.get("is_draft");
-                                String hasGradedValue = metaMap.get("has_graded");
-                                boolean isDraft = "1".equals(isDraftValue) && "0".equals(hasGradedValue);
-                                
-                                // Completed activity: đã nộp và đã chấm điểm
-                                if (activity.getActivityCompleted() != null && activity.getActivityCompleted() > 0
-                                                && ("1".equals(hasGradedValue) || !isDraft)) {
-                                        // Lấy completed activity gần nhất (theo activityCompleted)
-                                        UserActivityEntity existing = postIdToCompletedActivity.get(activity.getPostId());
-                                        if (existing == null || (activity.getActivityCompleted() != null 
-                                                        && existing.getActivityCompleted() != null
-                                                        && activity.getActivityCompleted() > existing.getActivityCompleted())) {
-                                                postIdToCompletedActivity.put(activity.getPostId(), activity);
-                                        }
-                                }
-                                
-                                // Draft activity: chưa nộp hoặc chưa chấm điểm
-                                if (isDraft) {
-                                        // Lấy draft activity mới nhất (theo id)
-                                        UserActivityEntity existing = postIdToDraftActivity.get(activity.getPostId());
-                                        if (existing == null || activity.getId() > existing.getId()) {
-                                                postIdToDraftActivity.put(activity.getPostId(), activity);
-                                        }
-                                }
-                        }
-                }
-                
-                // Lấy metadata cho completed activities (để lấy kết quả)
-                final List<Long> completedActivityIds = new ArrayList<>(postIdToCompletedActivity.values().stream()
-                                .map(UserActivityEntity::getId)
-                                .collect(Collectors.toList()));
-                final List<UserActivityMetaEntity> completedMetaList = completedActivityIds.isEmpty()
-                                ? Collections.emptyList()
-                                : userActivityMetaRepository.findAllByActivityIdIn(completedActivityIds);
-                final Map<Long, Map<String, String>> completedMetaMap = completedMetaList
-                                .stream()
-                                .collect(groupingBy(UserActivityMetaEntity::getActivityId,
-                                                toMap(UserActivityMetaEntity::getActivityMetaKey,
-                                                                UserActivityMetaEntity::getActivityMetaValue)));
-                
-                // Lấy metadata cho draft activities (để lấy thông tin draft)
-                final List<Long> draftActivityIds = new ArrayList<>(postIdToDraftActivity.values().stream()
-                                .map(UserActivityEntity::getId)
-                                .collect(Collectors.toList()));
-                final List<UserActivityMetaEntity> draftMetaList = draftActivityIds.isEmpty()
-                                ? Collections.emptyList()
-                                : userActivityMetaRepository.findAllByActivityIdIn(draftActivityIds);
-                final Map<Long, Map<String, String>> draftMetaMap = draftMetaList
-                                .stream()
-                                .collect(groupingBy(UserActivityMetaEntity::getActivityId,
-                                                toMap(UserActivityMetaEntity::getActivityMetaKey,
-                                                                UserActivityMetaEntity::getActivityMetaValue)));
-
-                // Lấy kết quả từ completed activities
                 final Map<Long, Long> postIdToScore = new HashMap<>();
                 final Map<Long, Long> postIdToPass = new HashMap<>();
-                final Map<Long, Long> statisticRefIdToPostId = new HashMap<>();
                 final Map<Long, Long> postIdToPoint = new HashMap<>();
                 final Map<Long, Double> postIdToPercentage = new HashMap<>();
                 final Map<Long, Long> postIdToAnsweredCount = new HashMap<>();
                 final Map<Long, Boolean> postIdToIsDraft = new HashMap<>();
                 final Map<Long, Map<String, Object>> postIdToSavedAnswers = new HashMap<>();
-                
+                final Map<Long, Long> postIdToCorrect = new HashMap<>();
+                final Map<Long, Long> postIdToActualAnsweredCount = new HashMap<>();
+
                 responses.forEach(quizResponse -> {
-                        // Lấy kết quả từ completed activity
-                        final UserActivityEntity completedActivity = postIdToCompletedActivity.get(quizResponse.getPostId());
-                        if (Objects.nonNull(completedActivity)) {
-                                final Map<String, String> metaMap = completedMetaMap.get(completedActivity.getId());
-                                if (metaMap != null) {
-                                        final Long statisticRefId = getValue(metaMap.get("statistic_ref_id"), Long.class);
-                                        if (Objects.nonNull(statisticRefId)) {
-                                                statisticRefIdToPostId.put(statisticRefId, quizResponse.getPostId());
-                                        }
-                                        postIdToScore.put(quizResponse.getPostId(), getValue(metaMap.get("score"), Long.class));
-                                        postIdToPass.put(quizResponse.getPostId(), getValue(metaMap.get("pass"), Long.class));
-                                        postIdToPoint.put(quizResponse.getPostId(), getValue(metaMap.get("points"), Long.class));
-                                        postIdToPercentage.put(quizResponse.getPostId(),
-                                                        getValue(metaMap.get("percentage"), Double.class));
-                                        postIdToAnsweredCount.put(quizResponse.getPostId(),
-                                                        getValue(metaMap.get("answeredCount"), Long.class));
+                        final Long postId = quizResponse.getPostId();
+                        final UserQuizProgressEntity progress = postIdToProgress.get(postId);
+                        if (progress == null) {
+                                postIdToCorrect.put(postId, 0L);
+                                postIdToIsDraft.put(postId, false);
+                                return;
+                        }
+
+                        // Kết quả bài thi đã chấm gần nhất
+                        if (progress.getLastActivityId() != null) {
+                                postIdToScore.put(postId, progress.getLastScore());
+                                postIdToPass.put(postId, progress.getLastPass());
+                                postIdToPoint.put(postId, progress.getLastPoints());
+                                postIdToPercentage.put(postId, progress.getLastPercentage());
+                                postIdToAnsweredCount.put(postId, progress.getLastAnsweredCount());
+                                if (progress.getLastStatisticAnsweredCount() != null
+                                                && progress.getLastStatisticAnsweredCount() > 0) {
+                                        postIdToActualAnsweredCount.put(postId, progress.getLastStatisticAnsweredCount());
                                 }
                         }
-                        
-                        // Kiểm tra draft và lấy thông tin draft
-                        final UserActivityEntity draftActivity = postIdToDraftActivity.get(quizResponse.getPostId());
-                        if (Objects.nonNull(draftActivity)) {
-                                // Kiểm tra xem draft đã được nộp chưa
-                                boolean draftWasSubmitted = false;
-                                if (completedActivity != null && completedActivity.getId() > draftActivity.getId()) {
-                                        draftWasSubmitted = true;
+                        postIdToCorrect.put(postId, Objects.requireNonNullElse(progress.getLastCorrects(), 0L));
+
+                        // Draft chưa nộp (không lấy answers, chỉ lấy thông tin chung)
+                        postIdToIsDraft.put(postId, progress.hasDraft());
+                        if (progress.hasDraft()) {
+                                final Map<String, Object> savedAnswersMap = new HashMap<>();
+                                if (progress.getDraftStartedAt() != null) {
+                                        savedAnswersMap.put("activityStartTime", progress.getDraftStartedAt());
                                 }
-                                postIdToIsDraft.put(quizResponse.getPostId(), !draftWasSubmitted);
-                                
-                                // Lấy thông tin draft nếu chưa được nộp (không lấy answers, chỉ lấy thông tin chung)
-                                if (!draftWasSubmitted) {
-                                        final Map<String, String> draftMeta = draftMetaMap.get(draftActivity.getId());
-                                        if (draftMeta != null) {
-                                                // Lấy các thông tin khác từ metadata (không lấy answers)
-                                                Long activityStartTime = draftActivity.getActivityStarted();
-                                                Long elapsedTime = getValue(draftMeta.get("elapsed_time"), Long.class);
-                                                Long answeredCount = getValue(draftMeta.get("answeredCount"), Long.class);
-                                                
-                                                // Tạo Map chứa thông tin draft (không có answers)
-                                                Map<String, Object> savedAnswersMap = new HashMap<>();
-                                                if (activityStartTime != null) {
-                                                        savedAnswersMap.put("activityStartTime", activityStartTime);
-                                                }
-                                                if (elapsedTime != null) {
-                                                        savedAnswersMap.put("elapsedTime", elapsedTime);
-                                                }
-                                                if (answeredCount != null) {
-                                                        savedAnswersMap.put("answeredCount", answeredCount);
-                                                }
-                                                
-                                                postIdToSavedAnswers.put(quizResponse.getPostId(), savedAnswersMap);
-                                        }
+                                if (progress.getDraftElapsedTime() != null) {
+                                        savedAnswersMap.put("elapsedTime", progress.getDraftElapsedTime());
                                 }
-                        } else {
-                                postIdToIsDraft.put(quizResponse.getPostId(), false);
-                        }
-                });
-
-                final Multimap<Long, QuizStatisticEntity> multimap = ArrayListMultimap.create();
-                final List<QuizStatisticEntity> quizStatisticEntityList = quizStatisticRepository
-                                .findAllById_StatisticRefIdIn(statisticRefIdToPostId.keySet());
-                quizStatisticEntityList.forEach(quizStatisticEntity -> {
-                        final Long postId = statisticRefIdToPostId.get(quizStatisticEntity.getId().getStatisticRefId());
-                        multimap.put(postId, quizStatisticEntity);
-                });
-
-                final Map<Long, Long> postIdToCorrect = new HashMap<>();
-                final Map<Long, Long> postIdToActualAnsweredCount = new HashMap<>();
-                responses.forEach(quizResponse -> {
-                        final Collection<QuizStatisticEntity> quizStatisticEntities = multimap.get(
-                                        quizResponse.getPostId());
-
-                        final Long corrects = quizStatisticEntities.stream()
-                                        .filter(Objects::nonNull)
-                                        .mapToLong(QuizStatisticEntity::getCorrectCount)
-                                        .sum();
-
-                        postIdToCorrect.put(quizResponse.getPostId(), corrects);
-                        
-                        // Đếm số câu đã trả lời từ QuizStatisticEntity (có answerData không rỗng)
-                        final Long actualAnsweredCount = quizStatisticEntities.stream()
-                                        .filter(Objects::nonNull)
-                                        .filter(stat -> {
-                                                String answerData = stat.getAnswerData();
-                                                return answerData != null && !answerData.isEmpty() 
-                                                        && !answerData.equals("[]") && !answerData.trim().equals("[]");
-                                        })
-                                        .count();
-                        
-                        // Nếu đếm được > 0 thì dùng giá trị đếm được, nếu không thì dùng giá trị từ metadata
-                        if (actualAnsweredCount > 0) {
-                                postIdToActualAnsweredCount.put(quizResponse.getPostId(), actualAnsweredCount);
+                                if (progress.getDraftAnsweredCount() != null) {
+                                        savedAnswersMap.put("answeredCount", progress.getDraftAnsweredCount());
+                                }
+                                postIdToSavedAnswers.put(postId, savedAnswersMap);
                         }
                 });
 
-                final List<Long> allQuestionIdsOnPage = postIdToQuestionIds.values().stream()
-                .flatMap(List::stream)
-                .distinct()
-                .toList();
-
-                final Map<Long, QuestionEntity> questionMap = questionRepository.findAllByIdIn(allQuestionIdsOnPage)
-                .stream()
-                .collect(toMap(QuestionEntity::getId, Function.identity()));
-
                 // ======================= PERFORMANCE OPTIMIZATION =======================
                 // BATCH LOAD PURCHASED STATUS - Tránh N+1 queries
                 // Lấy tất cả category codes unique từ quizzes
-                final Set<String> uniqueCategoryCodes = quizDtoPage.getContent().stream()
-                        .map(quizDto -> {
-                                final Optional<CategoryResponse> categoryOpt = quizCategoryService.getCategory(quizDto);
-                                return categoryOpt.map(CategoryResponse::getCode).orElse(null);
-                        })
+                final Set<String> uniqueCategoryCodes = postIdToCatalogEntry.values().stream()
+                        .map(QuizCatalogSnapshot.QuizEntry::getCategoryCode)
                         .filter(Objects::nonNull)
                         .collect(Collectors.toSet());
 
@@ -724,7 +581,7 @@ public class QuizMasterService {
                                 // Check RevenueCat if needed (only if not purchased from DB)
                                 boolean revenuePurchased = false;
                                 if (!dbPurchased) {
-                                        final Optional<QuizCategoryEntity> categoryEntityOpt = quizCategoryRepository.findByCode(catCode);
+                                        final Optional<QuizCategoryEntity> categoryEntityOpt = catalog.findCategoryByCode(catCode);
                                         if (categoryEntityOpt.isPresent()) {
                                                 final CategoryResponse categoryResp = CategoryResponse.builder()
                                                         .code(categoryEntityOpt.get().getCode())
@@ -747,25 +604,13 @@ public class QuizMasterService {
                 // ======================= END OPTIMIZATION =======================
 
                 responses.forEach(quizResponse -> {
-                        final List<Long> questionIds = postIdToQuestionIds.getOrDefault(quizResponse.getPostId(), Collections.emptyList());
-
-                        final List<QuestionEntity> questionEntities = questionIds.stream()
-                                .map(questionMap::get)
-                                .filter(Objects::nonNull)
-                                .toList();
+                        final QuizCatalogSnapshot.QuizEntry catalogEntry =
+                                        postIdToCatalogEntry.get(quizResponse.getPostId());
 
-                        quizResponse.setTotalPoints(
-                                        questionEntities.stream().mapToLong(QuestionEntity::getPoints).sum());
+                        quizResponse.setTotalPoints(catalogEntry != null ? catalogEntry.getTotalPoints() : 0L);
 
-                        final String quizMeta = postIdToQuizMeta.get(quizResponse.getPostId());
-                        if (Objects.nonNull(quizMeta)) {
-                                final Map<String, Object> quizMetaMap = PostMetaUtil.getPostMetaValues(quizMeta);
-                                final Object passingPercentage = quizMetaMap.get("sfwd-quiz_passingpercentage");
-
-                                if (Objects.nonNull(passingPercentage)) {
-                                        quizResponse.setPassingPercentage(
-                                                        NumberUtils.toInt(passingPercentage.toString().strip(), 0));
-                                }
+                        if (catalogEntry != null && Objects.nonNull(catalogEntry.getPassingPercentage())) {
+                                quizResponse.setPassingPercentage(catalogEntry.getPassingPercentage());
                         }
 
                         quizResponse.setAnsweredScore(postIdToScore.get(quizResponse.getPostId()));
@@ -801,17 +646,15 @@ public class QuizMasterService {
                                 .findFirst()
                                 .orElse(null);
                         if (quizDto != null) {
-                        // 1. Populate Category (Giữ nguyên)
-                                final Optional<CategoryResponse> categoryOpt = quizCategoryService.getCategory(quizDto);
-                                if (categoryOpt.isPresent()) {
-                                        final CategoryResponse categoryResponse = categoryOpt.get();
+                        // 1. Populate Category từ catalog snapshot
+                                if (catalogEntry != null && catalogEntry.hasCategory()) {
                                         quizResponse.setCategory(CategorySimple.builder()
-                                                .code(categoryResponse.getCode())
-                                                .title(categoryResponse.getTitle())
+                                                .code(catalogEntry.getCategoryCode())
+                                                .title(catalogEntry.getCategoryTitle())
                                                 .build());
 
                                         // 2. OPTIMIZED: Lookup purchased status from pre-loaded cache (map.get - tức thì)
-                                        Boolean isPurchased = categoryToPurchasedStatus.get(categoryResponse.getCode());
+                                        Boolean isPurchased = categoryToPurchasedStatus.get(catalogEntry.getCategoryCode());
                                         quizResponse.setIsPurchased(isPurchased != null ? isPurchased : false);
                                 } else {
                                         // No category found, set purchased as false
@@ -857,22 +700,18 @@ public class QuizMasterService {
                                 .findActiveQuizById(quizId, List.of(PostStatus.PUBLISH, PostStatus.PRIVATE))
                                 .orElseThrow(() -> new AppException(ErrorCode.QUIZ_NOT_FOUND));
 
-                final User user = userRepository
-                                .findByEmail(email)
+                final User user = currentUserResolver
+                                .findUser(email)
                                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
                 if (!isPermission(user.getEmail(), user.getId(), quizDto)) {
                         return QuizInfoResponse.from(quizDto);
                 }
 
-                List<QuestionEntity> questionEntities = Collections.emptyList();
+                // Câu hỏi đã parse sẵn từ question bank, theo thứ tự của quiz
                 final List<Long> questionsIds = getQuestionIds(quizDto.getPostId());
-                if (!CollectionUtils.isEmpty(questionsIds)) {
-                        questionEntities = questionRepository.findAllByIdIn(questionsIds);
-                }
-
-                final List<QuestionResponse> questionResponses = questionEntities
+                final List<QuestionResponse> questionResponses = questionBankCache
+                                .getAll(questionsIds)
                                 .stream()
-                                .map(item -> QuestionResponse.from(item, quizMaster.getAnswerRandom()))
                                 .collect(Collectors.collectingAndThen(Collectors.toCollection(ArrayList::new),
                                                 list -> {
                                                         // Shuffle questions - Currently disabled
@@ -882,186 +721,58 @@ public class QuizMasterService {
                                                         return list;
                                                 }));
 
-                // ========== PHẦN 1: Lấy kết quả bài thi gần nhất (completed, not draft) ==========
+                // Tiến độ của user với quiz này: một dòng ez_user_quiz_progress (như listing)
+                final UserQuizProgressEntity progress = userQuizProgressService
+                                .getProgress(user.getId(), List.of(quizDto.getPostId()))
+                                .get(quizDto.getPostId());
+
+                // ========== PHẦN 1: Kết quả bài thi đã chấm gần nhất ==========
                 Long answeredQuestions = null;
                 Double percentage = null;
                 Long answeredCorrects = null;
                 Long answeredScore = null;
                 Long pass = null;
-                Long latestCompletedActivityId = null;
 
-                // Lấy tất cả activities để tìm completed activity gần nhất
-                final List<UserActivityEntity> allActivities = 
-                        userActivityRepository.findAllActivitiesByUserIdAndPostIds(user.getId(), List.of(quizDto.getPostId()));
-                
-                // Lấy metadata cho tất cả activities
-                final List<Long> allActivityIds = allActivities.stream()
-                                .map(UserActivityEntity::getId)
-                                .collect(Collectors.toList());
-                final List<UserActivityMetaEntity> allActivityMetaList = allActivityIds.isEmpty()
-                                ? Collections.emptyList()
-                                : userActivityMetaRepository.findAllByActivityIdIn(allActivityIds);
-                final Map<Long, Map<String, String>> allActivityMetaMap = allActivityMetaList
-                                .stream()
-                                .collect(groupingBy(UserActivityMetaEntity::getActivityId,
-                                                toMap(UserActivityMetaEntity::getActivityMetaKey,
-                                                                UserActivityMetaEntity::getActivityMetaValue)));
-                
-                // Tìm completed activity gần nhất (đã nộp và đã chấm điểm)
-                UserActivityEntity completedActivity = null;
-                for (UserActivityEntity activity : allActivities) {
-                        final Map<String, String> metaMap = allActivityMetaMap.get(activity.getId());
-                        if (metaMap != null) {
-                                String isDraftValue = metaMap.get("is_draft");
-                                String hasGradedValue = metaMap.get("has_graded");
-                                boolean isDraft = "1".equals(isDraftValue) && "0".equals(hasGradedValue);
-                                
-                                // Completed activity: đã nộp và đã chấm điểm
-                                if (activity.getActivityCompleted() != null && activity.getActivityCompleted() > 0
-                                                && ("1".equals(hasGradedValue) || !isDraft)) {
-                                        // Lấy completed activity gần nhất (theo activityCompleted)
-                                        if (completedActivity == null || (activity.getActivityCompleted() != null 
-                                                        && completedActivity.getActivityCompleted() != null
-                                                        && activity.getActivityCompleted() > completedActivity.getActivityCompleted())) {
-                                                completedActivity = activity;
-                                        }
+                if (progress != null && progress.getLastActivityId() != null) {
+                        answeredQuestions = progress.getLastAnsweredCount();
+                        percentage = progress.getLastPercentage();
+                        answeredScore = progress.getLastScore();
+                        pass = progress.getLastPass();
+                        if (progress.getLastStatisticRefId() != null) {
+                                answeredCorrects = progress.getLastCorrects();
+                                // Số câu đã làm đếm từ statistics (answerData không rỗng) nếu có
+                                if (progress.getLastStatisticAnsweredCount() != null
+                                                && progress.getLastStatisticAnsweredCount() > 0) {
+                                        answeredQuestions = progress.getLastStatisticAnsweredCount();
                                 }
                         }
                 }
 
-                if (completedActivity != null) {
-                    latestCompletedActivityId = completedActivity.getId();
-                    log.info("Found latest completed activity (ID: {}) completed at {} for user {}, quizId {}", 
-                        completedActivity.getId(), completedActivity.getActivityCompleted(), email, quizId);
-
-                    final Map<String, String> completedMetaMap = allActivityMetaMap.get(completedActivity.getId());
-
-                    if (completedMetaMap != null) {
-                        // Lấy các trường thống kê từ metadata
-                        answeredQuestions = getValue(completedMetaMap.get("answeredCount"), Long.class);
-                        percentage = getValue(completedMetaMap.get("percentage"), Double.class);
-                        answeredScore = getValue(completedMetaMap.get("score"), Long.class);
-                        pass = getValue(completedMetaMap.get("pass"), Long.class);
-
-                        // Lấy answeredCorrects từ QuizStatisticEntity
-                        final Optional<UserActivityMetaEntity> statisticRefMetaOpt = 
-                                userActivityMetaRepository.findByActivityIdAndActivityMetaKey(
-                                    completedActivity.getId(), "statistic_ref_id");
-                        if (statisticRefMetaOpt.isPresent()) {
-                            Long statisticRefId = Long.parseLong(statisticRefMetaOpt.get().getActivityMetaValue());
-                            final List<QuizStatisticEntity> stats = 
-                                    quizStatisticRepository.findAllById_StatisticRefId(statisticRefId);
-                            answeredCorrects = stats.stream()
-                                    .filter(Objects::nonNull)
-                                    .mapToLong(QuizStatisticEntity::getCorrectCount)
-                                    .sum();
-                            
-                            // Đếm số câu đã làm từ QuizStatisticEntity (có answerData không rỗng)
-                            final Long actualAnsweredCount = stats.stream()
-                                    .filter(Objects::nonNull)
-                                    .filter(stat -> {
-                                            String answerData = stat.getAnswerData();
-                                            return answerData != null && !answerData.isEmpty() 
-                                                    && !answerData.equals("[]") && !answerData.trim().equals("[]");
-                                    })
-                                    .count();
-                            
-                            // Nếu đếm được > 0 thì dùng giá trị đếm được
-                            if (actualAnsweredCount > 0) {
-                                    answeredQuestions = actualAnsweredCount;
-                            }
-                        }
-                    }
-                }
-
-                // ========== PHẦN 2: Lấy draft mới nhất (nếu có và chưa được nộp) ==========
+                // ========== PHẦN 2: Draft mới nhất chưa được nộp ==========
                 Map<Long, List<Integer>> answeredDataMap = Collections.emptyMap();
                 Long activityStartTime = null;
                 Long elapsedTime = null;
 
-                final Optional<UserActivityEntity> draftActivityOpt =
-                        userActivityRepository.findLatestUncompletedActivity(user.getId(), quizDto.getPostId());
-
-                if (draftActivityOpt.isPresent()) {
-                    final UserActivityEntity draftActivity = draftActivityOpt.get();
-                    log.info("Found uncompleted activity (ID: {}) with status: {}, completed: {} for user {}, quizId {}",
-                        draftActivity.getId(), draftActivity.getActivityStatus(), draftActivity.getActivityCompleted(), email, quizId);
-
-                    final Optional<UserActivityMetaEntity> isDraftMetaOpt =
-                            userActivityMetaRepository.findByActivityIdAndActivityMetaKey(draftActivity.getId(), "is_draft");
-                    final Optional<UserActivityMetaEntity> hasGradedMetaOpt =
-                            userActivityMetaRepository.findByActivityIdAndActivityMetaKey(draftActivity.getId(), "has_graded");
-
-                    log.info("Draft metadata check - is_draft: {}, has_graded: {}",
-                        isDraftMetaOpt.map(UserActivityMetaEntity::getActivityMetaValue).orElse("NOT_FOUND"),
-                        hasGradedMetaOpt.map(UserActivityMetaEntity::getActivityMetaValue).orElse("NOT_FOUND"));
-
-                    boolean isActualDraft = isDraftMetaOpt.isPresent() && "1".equals(isDraftMetaOpt.get().getActivityMetaValue()) &&
-                                           hasGradedMetaOpt.isPresent() && "0".equals(hasGradedMetaOpt.get().getActivityMetaValue());
-
-                    if (isActualDraft) {
-                        // Kiểm tra xem draft đã được nộp chưa (có completed activity mới hơn draft)
-                        boolean draftWasSubmitted = false;
-                        if (latestCompletedActivityId != null) {
-                            // Nếu completed activity có id lớn hơn draft activity id, nghĩa là draft đã được nộp
-                            if (latestCompletedActivityId > draftActivity.getId()) {
-                                draftWasSubmitted = true;
-                                log.info("Draft (ID: {}) was already submitted as completed activity (ID: {}). savedAnswers will be empty.",
-                                    draftActivity.getId(), latestCompletedActivityId);
-                            }
-                        }
-
-                        if (!draftWasSubmitted) {
-                            log.info("✅ Confirmed valid draft activity (ID: {}) for user {}, quizId {}", draftActivity.getId(), email, quizId);
-
-                            final Optional<UserActivityMetaEntity> elapsedTimeMetaOpt =
-                                    userActivityMetaRepository.findByActivityIdAndActivityMetaKey(draftActivity.getId(), "elapsed_time");
-                            if (elapsedTimeMetaOpt.isPresent()) {
-                                elapsedTime = Long.parseLong(elapsedTimeMetaOpt.get().getActivityMetaValue());
-                                log.info("✅ Found draft elapsed time: {} seconds", elapsedTime);
-                            }
-
-                            final Optional<UserActivityMetaEntity> refMetaOpt =
-                                    userActivityMetaRepository.findByActivityIdAndActivityMetaKey(draftActivity.getId(), "statistic_ref_id");
-
-                            if (refMetaOpt.isPresent()) {
-                                Long statisticRefId = Long.parseLong(refMetaOpt.get().getActivityMetaValue());
-                                activityStartTime = draftActivity.getActivityStarted();
-                                log.info("Loading draft statistics for statisticRefId: {}", statisticRefId);
-
-                                final List<QuizStatisticEntity> stats =
-                                        quizStatisticRepository.findAllById_StatisticRefId(statisticRefId);
-
-                                log.info("Found {} quiz statistics records for draft", stats.size());
-                                for (QuizStatisticEntity stat : stats) {
-                                    log.info("Draft Statistic - QuestionId: {}, AnswerData: {}",
-                                        stat.getId().getQuestionId(), stat.getAnswerData());
-                                }
-
-                                answeredDataMap = stats.stream()
-                                        .collect(Collectors.toMap(
-                                                stat -> stat.getId().getQuestionId(),
-                                                stat -> convertAnswerDataToList(stat.getAnswerData())
-                                        ));
-
-                                log.info("Final draft answeredDataMap: {}", answeredDataMap);
-                                log.info("Successfully loaded {} saved answers from draft activityId {}", answeredDataMap.size(), draftActivity.getId());
-                            } else {
-                                log.warn("No statistic_ref_id metadata found for draft activityId: {}", draftActivity.getId());
-                            }
+                if (progress != null && progress.hasDraft()) {
+                        final Long draftActivityId = progress.getDraftActivityId();
+                        elapsedTime = progress.getDraftElapsedTime();
+
+                        // Câu trả lời đã lưu nằm trong statistics của draft
+                        final Optional<UserActivityMetaEntity> refMetaOpt = userActivityMetaRepository
+                                        .findByActivityIdAndActivityMetaKey(draftActivityId, "statistic_ref_id");
+                        if (refMetaOpt.isPresent()) {
+                                final Long statisticRefId = Long.parseLong(refMetaOpt.get().getActivityMetaValue());
+                                activityStartTime = progress.getDraftStartedAt();
+                                answeredDataMap = quizStatisticRepository.findAllById_StatisticRefId(statisticRefId)
+                                                .stream()
+                                                .collect(Collectors.toMap(
+                                                                stat -> stat.getId().getQuestionId(),
+                                                                stat -> convertAnswerDataToList(stat.getAnswerData())));
+                                log.debug("Loaded {} saved answers from draft activityId {}",
+                                                answeredDataMap.size(), draftActivityId);
                         } else {
-                            // Draft đã được nộp, savedAnswers = {}
-                            answeredDataMap = Collections.emptyMap();
-                            activityStartTime = null;
-                            elapsedTime = null;
-                            log.info("Draft was submitted, savedAnswers set to empty map");
+                                log.warn("No statistic_ref_id metadata found for draft activityId: {}", draftActivityId);
                         }
-                    } else {
-                        log.info("Found uncompleted activity (ID: {}) but not a valid draft for user {}, quizId {}",
-                            draftActivity.getId(), email, quizId);
-                    }
-                } else {
-                    log.info("No uncompleted activity found for user {}, quizId {}", email, quizId);
                 }
 
             return QuizInfoResponse.from(quizDto, questionResponses, answeredDataMap, 
@@ -1116,8 +827,8 @@ public class QuizMasterService {
         }
 
         public CategoryInfo getCategoryInfo(String email, String categoryCode) throws AppException {
-                final User user = userRepository
-                                .findByEmail(email)
+                final User user = currentUserResolver
+                                .findUser(email)
                                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
                 // Lấy category entity từ code
@@ -1275,69 +986,41 @@ public class QuizMasterService {
 
         private List<Long> getQuestionIds(final Long postId) {
                 final PostMeta postMeta = postMetaRepository.findByPostIdAndMetaKey(postId, "ld_quiz_questions");
-                return getQuestionIds(postMeta.getMetaValue());
-        }
-
-        private static List<Long> getQuestionIds(final String questionIdsValue) {
-                final Pattern pattern = Pattern.compile("i:(\\d+);");
-                if (questionIdsValue != null) {
-                        final List<Long> questionsIds = new ArrayList<>();
-                        final Matcher matcher = pattern.matcher(questionIdsValue);
-                        int i = 0;
-                        while (matcher.find()) {
-                                ++i;
-                                if (i > 0 && i % 2 == 0) {
-                                        questionsIds.add(Long.parseLong(matcher.group(1)));
-                                }
-                        }
-                        return questionsIds;
-                }
-                return Collections.emptyList();
+                return quizMetaCache.getQuestionIds(postMeta);
         }
 
         @Transactional(rollbackFor = Exception.class)
         public SubmitAnswerResponse submitAnswer(String email,
                         @NotNull Long quizId,
                         @NotNull SubmitAnswerRequest request) throws AppException {
-                final boolean isDraft = request.getIsDraft() != null && request.getIsDraft();
-
-                final User user = userRepository
-                                .findByEmail(email)
+                final User user = currentUserResolver
+                                .findUser(email)
                                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
-                final QuizDto quizDto = quizMasterRepository
+                final QuizDto quizDto = findActiveQuiz(quizId);
+
+                return recordSubmission(user, quizDto, request, grade(quizDto, request));
+        }
+
+        public QuizDto findActiveQuiz(@NotNull Long quizId) throws AppException {
+                return quizMasterRepository
                                 .findActiveQuizById(quizId, List.of(PostStatus.PUBLISH, PostStatus.PRIVATE))
                                 .orElseThrow(() -> new AppException(ErrorCode.QUIZ_NOT_FOUND));
+        }
 
+        /**
+         * Ghi các bản ghi tương thích LearnDash (statistic ref, statistics, activity, activity meta) cho một bài nộp
+         * đã chấm điểm bằng {@link #grade}. Không chấm lại.
+         */
+        @Transactional(rollbackFor = Exception.class)
+        public SubmitAnswerResponse recordSubmission(@NotNull User user,
+                        @NotNull QuizDto quizDto,
+                        @NotNull SubmitAnswerRequest request,
+                        @NotNull GradedAnswers graded) {
+                final boolean isDraft = request.getIsDraft() != null && request.getIsDraft();
+                final Long quizId = quizDto.getId();
                 final Long postId = quizDto.getPostId();
 
-                List<QuestionEntity> questionEntities = Collections.emptyList();
-                final List<Long> questionsIds = getQuestionIds(quizDto.getPostId());
-                if (!CollectionUtils.isEmpty(questionsIds)) {
-                        questionEntities = questionRepository.findAllByIdIn(questionsIds);
-                }
-
-                final Set<Long> requestQuestionIds = request.getData()
-                                .stream()
-                                .map(AnsweredData::getQuestionId)
-                                .collect(Collectors.toSet());
-                final List<QuestionResponse> questionResponses = questionEntities.stream()
-                                .filter(x -> requestQuestionIds.contains(x.getId()))
-                                .map(QuestionResponse::from)
-                                .toList();
-
-                final PostMeta postMeta = postMetaRepository.findByPostIdAndMetaKey(quizDto.getPostId(), "_sfwd-quiz");
-                final String quizMeta = postMeta.getMetaValue();
-                int passPercentage = 0;
-                if (Objects.nonNull(quizMeta)) {
-                        final Map<String, Object> quizMetaMap = PostMetaUtil.getPostMetaValues(quizMeta);
-                        final Object passingPercentage = quizMetaMap.get("sfwd-quiz_passingpercentage");
-
-                        if (Objects.nonNull(passingPercentage)) {
-                                passPercentage = Integer.parseInt(passingPercentage.toString());
-                        }
-                }
-
                 final QuizStatisticRefEntity quizStatisticRefEntity = new QuizStatisticRefEntity();
                 quizStatisticRefEntity.setQuizId(quizId);
                 quizStatisticRefEntity.setQuizPostId(quizDto.getPostId());
@@ -1348,19 +1031,10 @@ public class QuizMasterService {
                 quizStatisticRefEntity.setFormData(null);
                 quizStatisticRefRepository.save(quizStatisticRefEntity);
 
-                final Map<Long, AnsweredData> answeredDataMap = request.getData()
-                                .stream()
-                                .collect(toMap(AnsweredData::getQuestionId,
-                                                Function.identity()));
-                final Long answeredCount = request.getData().stream()
-                                .filter(x -> x.getAnswerData() != null
-                                                && x.getAnswerData().contains(Boolean.TRUE))
-                                .count();
-                final List<QuizStatisticEntity> quizStatisticEntities = questionResponses.stream()
-                                .map(x -> createQuizStatistic(x, answeredDataMap.get(x.getId()),
-                                                quizStatisticRefEntity.getId()))
-                                .toList();
-                quizStatisticRepository.saveAll(quizStatisticEntities);
+                final Long answeredCount = graded.answeredCount();
+                final List<QuizStatisticEntity> quizStatisticEntities = graded.statistics();
+                quizStatisticEntities.forEach(x -> x.getId().setStatisticRefId(quizStatisticRefEntity.getId()));
+                quizSubmissionBatchRepository.insertStatistics(quizStatisticEntities);
 
                 final UserActivityEntity userActivityEntity = new UserActivityEntity();
                 userActivityEntity.setUserId(user.getId());
@@ -1370,12 +1044,12 @@ public class QuizMasterService {
                 userActivityEntity.setPostId(postId);
 
                 if (isDraft) {
-                    log.info("Creating DRAFT activity for user {}, quizId {}", email, quizId);
+                    log.info("Creating DRAFT activity for user {}, quizId {}", user.getId(), quizId);
                     userActivityEntity.setActivityCompleted(null);
                     userActivityEntity.setActivityUpdated(Instant.now().getEpochSecond());
                     userActivityEntity.setActivityStatus(0);
                 } else {
-                    log.info("Creating FINAL activity for user {}, quizId {}", email, quizId);
+                    log.info("Creating FINAL activity for user {}, quizId {}", user.getId(), quizId);
                     userActivityEntity.setActivityCompleted(request.getEndTime());
                     userActivityEntity.setActivityUpdated(request.getEndTime());
                     userActivityEntity.setActivityStatus(1);
@@ -1421,35 +1095,19 @@ public class QuizMasterService {
 
                 log.info("Draft timing - startTime: {}, endTime: {}, elapsedTime: {} seconds",
                         startTime, endTime, elapsedTime);
+
+                userQuizProgressService.recordDraft(user.getId(), postId, activityId, startTime, elapsedTime,
+                        answeredCount);
             } else {
                 log.info("Saving FINAL SUBMISSION with is_draft=0 for activityId: {}", activityId);
 
-                final Long points = quizStatisticEntities.stream()
-                                .filter(Objects::nonNull)
-                                .mapToLong(QuizStatisticEntity::getPoints)
-                                .sum();
-                final Long corrects = quizStatisticEntities.stream()
-                                .filter(Objects::nonNull)
-                                .mapToLong(QuizStatisticEntity::getCorrectCount)
-                                .sum();
-                final Long inCorrects = quizStatisticEntities.stream()
-                                .filter(Objects::nonNull)
-                                .mapToLong(QuizStatisticEntity::getIncorrectCount)
-                                .sum();
-                final Long totalPoints = questionEntities.stream()
-                        .filter(Objects::nonNull)
-                        .mapToLong(QuestionEntity::getPoints)
-                        .sum();
-
-                final BigDecimal percentage = (totalPoints > 0)
-                        ? new BigDecimal(points * 100.0 / totalPoints).setScale(2, RoundingMode.HALF_EVEN)
-                        : BigDecimal.ZERO;
-                final boolean pass = percentage.compareTo(new BigDecimal(passPercentage)) >= 0;
+                final Long points = graded.points();
+                final Long corrects = graded.corrects();
+                final Long totalPoints = graded.totalPoints();
+                final BigDecimal percentage = graded.percentage();
+                final boolean pass = graded.pass();
 
-                long totalAnsweredTime = 0;
-                if (request.getEndTime() != null && request.getStartTime() != null && request.getEndTime() > request.getStartTime()) {
-                    totalAnsweredTime = request.getEndTime() - request.getStartTime();
-                }
+                final long totalAnsweredTime = answeredTime(request);
 
                 log.info("Final submission timing - startTime: {}, endTime: {}, totalTime: {} seconds",
                     request.getStartTime(), request.getEndTime(), totalAnsweredTime);
@@ -1457,7 +1115,7 @@ public class QuizMasterService {
                 activityMetaEntities.add(createActivityMeta(activityId, "score", String.valueOf(points)));
                 activityMetaEntities.add(createActivityMeta(activityId, "points", String.valueOf(points)));
                 activityMetaEntities.add(createActivityMeta(activityId, "corrects", String.valueOf(corrects)));
-                activityMetaEntities.add(createActivityMeta(activityId, "inCorrects", String.valueOf(inCorrects)));
+                activityMetaEntities.add(createActivityMeta(activityId, "inCorrects", String.valueOf(graded.inCorrects())));
                 activityMetaEntities.add(createActivityMeta(activityId, "percentage", percentage.toString()));
                 activityMetaEntities.add(createActivityMeta(activityId, "pass", pass ? "1" : "0"));
                 activityMetaEntities.add(
@@ -1465,10 +1123,10 @@ public class QuizMasterService {
 
                 activityMetaEntities.add(createActivityMeta(activityId, "total_points", String.valueOf(totalPoints)));
                 activityMetaEntities.add(
-                                createActivityMeta(activityId, "count", String.valueOf(questionEntities.size())));
+                                createActivityMeta(activityId, "count", String.valueOf(graded.questionCount())));
                 activityMetaEntities.add(
                                 createActivityMeta(activityId, "question_show_count",
-                                                String.valueOf(questionEntities.size())));
+                                                String.valueOf(graded.questionCount())));
 
                 activityMetaEntities.add(
                                 createActivityMeta(activityId, "time", String.valueOf(request.getEndTime())));
@@ -1478,43 +1136,124 @@ public class QuizMasterService {
                                 createActivityMeta(activityId, "completed", String.valueOf(request.getEndTime())));
                 activityMetaEntities.add(createActivityMeta(activityId, "timespent", String.valueOf(totalAnsweredTime)));
                 activityMetaEntities.add(createActivityMeta(activityId, "client_end_time", String.valueOf(request.getEndTime())));
+
+                userQuizProgressService.recordGradedAttempt(user.getId(), postId,
+                        UserQuizProgressService.GradedAttempt.builder()
+                                .activityId(activityId)
+                                .completedAt(request.getEndTime())
+                                .statisticRefId(quizStatisticRefEntity.getId())
+                                .score(points)
+                                .percentage(percentage.doubleValue())
+                                .pass(pass)
+                                .answeredCount(answeredCount)
+                                .statisticAnsweredCount(quizStatisticEntities.stream()
+                                        .filter(stat -> UserQuizProgressService.hasAnswerData(stat.getAnswerData()))
+                                        .count())
+                                .corrects(corrects)
+                                .build());
+                userChapterStatsService.recordGradedAttempt(user.getId(), quizStatisticEntities);
             }
 
-                userActivityMetaRepository.saveAll(activityMetaEntities);
+                quizSubmissionBatchRepository.insertActivityMeta(activityMetaEntities);
 
             if (isDraft) {
                 return SubmitAnswerResponse.builder()
                                 .activityId(activityId)
                                 .build();
-            } else {
-                final Long points = quizStatisticEntities.stream().filter(Objects::nonNull).mapToLong(QuizStatisticEntity::getPoints).sum();
-                final Long corrects = quizStatisticEntities.stream().filter(Objects::nonNull).mapToLong(QuizStatisticEntity::getCorrectCount).sum();
-                final Long inCorrects = quizStatisticEntities.stream().filter(Objects::nonNull).mapToLong(QuizStatisticEntity::getIncorrectCount).sum();
-                final Long totalPoints = questionEntities.stream().filter(Objects::nonNull).mapToLong(QuestionEntity::getPoints).sum();
+            }
+            return graded.toResponse(activityId, request);
+        }
+
+        /**
+         * Chấm điểm bài nộp trong bộ nhớ, không ghi DB.
+         */
+        public GradedAnswers grade(final QuizDto quizDto, final SubmitAnswerRequest request) {
+                final List<Long> questionsIds = getQuestionIds(quizDto.getPostId());
+                final Set<Long> requestQuestionIds = request.getData()
+                                .stream()
+                                .map(AnsweredData::getQuestionId)
+                                .collect(Collectors.toSet());
+                final List<AnswerKey> quizAnswerKeys = questionBankCache.getAnswerKeys(questionsIds);
+                final List<AnswerKey> answerKeys = quizAnswerKeys.stream()
+                                .filter(x -> requestQuestionIds.contains(x.getQuestionId()))
+                                .toList();
+
+                final PostMeta postMeta = postMetaRepository.findByPostIdAndMetaKey(quizDto.getPostId(), "_sfwd-quiz");
+                final int passPercentage = quizMetaCache.getSettings(postMeta).getPassingPercentageOrDefault(0);
+
+                final Map<Long, AnsweredData> answeredDataMap = request.getData()
+                                .stream()
+                                .collect(toMap(AnsweredData::getQuestionId,
+                                                Function.identity()));
+                final Map<Long, List<Boolean>> selections = new HashMap<>(answeredDataMap.size() * 2);
+                answeredDataMap.forEach((questionId, answered) -> selections.put(questionId, answered.getAnswerData()));
+                final Long answeredCount = request.getData().stream()
+                                .filter(x -> x.getAnswerData() != null
+                                                && x.getAnswerData().contains(Boolean.TRUE))
+                                .count();
+
+                final GradingEngine.SubmissionResult result = gradingEngine.grade(answerKeys, selections);
+                // statistic_ref_id được gán khi ghi (recordSubmission)
+                final List<QuizStatisticEntity> quizStatisticEntities = new ArrayList<>(answerKeys.size());
+                for (int i = 0; i < answerKeys.size(); i++) {
+                        final AnswerKey key = answerKeys.get(i);
+                        quizStatisticEntities.add(createQuizStatistic(key, selections.get(key.getQuestionId()),
+                                                                      result.correct().get(i), null));
+                }
+
+                final Long points = result.points();
+                final Long corrects = (long) result.corrects();
+                final Long inCorrects = (long) result.incorrects();
+                final Long totalPoints = quizAnswerKeys.stream()
+                        .mapToLong(AnswerKey::getPoints)
+                        .sum();
 
                 final BigDecimal percentage = (totalPoints > 0)
                         ? new BigDecimal(points * 100.0 / totalPoints).setScale(2, RoundingMode.HALF_EVEN)
                         : BigDecimal.ZERO;
                 final boolean pass = percentage.compareTo(new BigDecimal(passPercentage)) >= 0;
-                long answeredTime = 0;
-                if (request.getEndTime() > request.getStartTime()) {
-                    answeredTime = request.getEndTime() - request.getStartTime();
+
+                return new GradedAnswers(quizStatisticEntities, quizAnswerKeys.size(), answeredCount, points,
+                                corrects, inCorrects, totalPoints, percentage, passPercentage, pass);
+        }
+
+        private static long answeredTime(final SubmitAnswerRequest request) {
+                if (request.getEndTime() != null && request.getStartTime() != null
+                                && request.getEndTime() > request.getStartTime()) {
+                        return request.getEndTime() - request.getStartTime();
                 }
+                return 0;
+        }
 
-                return SubmitAnswerResponse.builder()
-                                .activityId(activityId)
-                                .point(points)
-                                .totalPoint(totalPoints)
-                                .percentage(percentage.doubleValue())
-                                .passPercentage(passPercentage)
-                                .pass(pass)
-                                .corrects(corrects)
-                                .inCorrects(inCorrects)
-                                .questions((long) questionEntities.size())
-                                .answeredQuestions(answeredCount)
-                                .answeredTime(answeredTime)
-                                .build();
-            }
+        /**
+         * Kết quả chấm điểm một bài nộp. Statistics chưa có statistic_ref_id.
+         */
+        public record GradedAnswers(List<QuizStatisticEntity> statistics,
+                                     int questionCount,
+                                     Long answeredCount,
+                                     Long points,
+                                     Long corrects,
+                                     Long inCorrects,
+                                     Long totalPoints,
+                                     BigDecimal percentage,
+                                     int passPercentage,
+                                     boolean pass) {
+
+                public SubmitAnswerResponse toResponse(final Long activityId, final SubmitAnswerRequest request) {
+                        return SubmitAnswerResponse.builder()
+                                        .activityId(activityId)
+                                        .point(points)
+                                        .totalPoint(totalPoints)
+                                        .percentage(percentage.doubleValue())
+                                        .passPercentage(passPercentage)
+                                        .pass(pass)
+                                        .corrects(corrects)
+                                        .inCorrects(inCorrects)
+                                        .questions((long) questionCount)
+                                        .answeredQuestions(answeredCount)
+                                        .answeredTime(answeredTime(request))
+                                        .build();
+                }
         }
 
         private static UserActivityMetaEntity createActivityMeta(final Long activityId,
@@ -1528,33 +1267,18 @@ public class QuizMasterService {
                 return entity;
         }
 
-        private static QuizStatisticEntity createQuizStatistic(final @NotNull QuestionResponse question,
-                        final AnsweredData answeredData,
+        private static QuizStatisticEntity createQuizStatistic(final @NotNull AnswerKey key,
+                        final List<Boolean> selections,
+                        final boolean correct,
                         final Long refId) {
                 final QuizStatisticId id = new QuizStatisticId();
-                id.setQuestionId(question.getId());
+                id.setQuestionId(key.getQuestionId());
                 id.setStatisticRefId(refId);
 
-                final List<Integer> selectedList = (Objects.isNull(answeredData)
-                                || Objects.isNull(answeredData.getAnswerData())) ? List.of()
-                                                : answeredData.getAnswerData()
-                                                                .stream()
-                                                                .map(QuizMasterService::booleanToInt)
-                                                                .toList();
-                final List<Integer> correctList = (Objects.isNull(question.getAnswerData())) ? List.of()
-                                : question.getAnswerData()
-                                                .stream()
-                                                .sorted(Comparator.comparing(
-                                                                AnswerData::getIndex))
-                                                .map(x -> booleanToInt(x.isCorrect()))
-                                                .toList();
-
-                final boolean correct = selectedList.toString().equals(correctList.toString());
-
                 final QuizStatisticEntity entity = new QuizStatisticEntity();
                 entity.setId(id);
-                entity.setPoints(correct ? Objects.requireNonNullElse(question.getPoints(), 0).longValue() : 0L);
-                entity.setAnswerData(selectedList.toString());
+                entity.setPoints(correct ? key.getPoints() : 0L);
+                entity.setAnswerData(toAnswerDataString(selections));
                 entity.setHintCount(0L);
                 entity.setCorrectCount(correct ? 1L : 0L);
                 entity.setIncorrectCount(!correct ? 1L : 0L);
@@ -1564,8 +1288,21 @@ public class QuizMasterService {
                 return entity;
         }
 
-        private static int booleanToInt(final Boolean value) {
-                return Boolean.TRUE.equals(value) ? 1 : 0;
+        /**
+         * Định dạng lưu answer_data của statistic, ví dụ "[1, 0, 0, 1]".
+         */
+        private static String toAnswerDataString(final List<Boolean> selections) {
+                if (selections == null || selections.isEmpty()) {
+                        return "[]";
+                }
+                final StringBuilder sb = new StringBuilder(selections.size() * 3 + 2).append('[');
+                for (int i = 0; i < selections.size(); i++) {
+                        if (i > 0) {
+                                sb.append(", ");
+                        }
+                        sb.append(Boolean.TRUE.equals(selections.get(i)) ? '1' : '0');
+                }
+                return sb.append(']').toString();
         }
 
         /**
@@ -1575,8 +1312,8 @@ public class QuizMasterService {
         public Page<QuizHistoryResponse> getQuizHistory(String email, Long quizId, String categoryCode,
                                                         Long fromDate, Long toDate, String sortBy, String sortDirection, Pageable pageable)
                         throws AppException {
-                final User user = userRepository
-                                .findByEmail(email)
+                final User user = currentUserResolver
+                                .findUser(email)
                                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
                 // Lấy danh sách activities đã hoàn thành (không lấy draft)
@@ -1652,11 +1389,9 @@ public class QuizMasterService {
                                 "_sfwd-quiz");
                 final Map<Long, Integer> postIdToPassingPercentage = new HashMap<>();
                 quizMetaList.forEach(pm -> {
-                        final Map<String, Object> quizMetaMap = PostMetaUtil.getPostMetaValues(pm.getMetaValue());
-                        final Object passingPercentage = quizMetaMap.get("sfwd-quiz_passingpercentage");
+                        final Integer passingPercentage = quizMetaCache.getSettings(pm).getPassingPercentage();
                         if (Objects.nonNull(passingPercentage)) {
-                                postIdToPassingPercentage.put(pm.getPostId(),
-                                                NumberUtils.toInt(passingPercentage.toString().strip(), 0));
+                                postIdToPassingPercentage.put(pm.getPostId(), passingPercentage);
                         }
                 });
 
@@ -1665,7 +1400,7 @@ public class QuizMasterService {
                                 .findAllByPostIdInAndMetaKey(postIds, "ld_quiz_questions")
                                 .stream()
                                 .collect(toMap(PostMeta::getPostId,
-                                                x -> getQuestionIds(x.getMetaValue())));
+                                                quizMetaCache::getQuestionIds));
 
                 // Lấy statistic để đếm số câu đúng
                 final List<Long> statisticRefIds = new ArrayList<>();
@@ -1873,8 +1608,8 @@ public class QuizMasterService {
          * Lấy chi tiết kết quả làm bài - từng câu hỏi với đáp án và giải thích
          */
         public QuizResultDetailResponse getQuizResultDetail(String email, Long activityId) throws AppException {
-                final User user = userRepository
-                                .findByEmail(email)
+                final User user = currentUserResolver
+                                .findUser(email)
                                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
                 // Lấy activity
@@ -1960,7 +1695,7 @@ public class QuizMasterService {
                                         final QuizStatisticEntity statistic = statisticMap.get(qId);
 
                                         // Parse answer data
-                                        final QuestionResponse questionResponse = QuestionResponse.from(question);
+                                        final QuestionResponse questionResponse = questionBankCache.get(question);
                                         final List<QuestionResponse.AnswerData> answerDataList = questionResponse.getAnswerData();
 
                                         // FIXED: Sort answerDataList theo index gốc để đảm bảo consistency với submit logic
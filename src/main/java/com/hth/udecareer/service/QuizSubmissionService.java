@@ -0,0 +1,295 @@
+package com.hth.udecareer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hth.udecareer.entities.QuizSubmissionEntity;
+import com.hth.udecareer.entities.User;
+import com.hth.udecareer.enums.ErrorCode;
+import com.hth.udecareer.enums.QuizSubmissionStatus;
+import com.hth.udecareer.exception.AppException;
+import com.hth.udecareer.model.dto.QuizDto;
+import com.hth.udecareer.model.request.SubmitAnswerRequest;
+import com.hth.udecareer.model.response.SubmitAnswerResponse;
+import com.hth.udecareer.repository.QuizSubmissionRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in async quiz submission.
+ * <p>
+ * When {@code app.quiz-submission.async-enabled} is on and a final submission carries a {@code submissionId},
+ * the request is graded in memory, stored as a compact {@link QuizSubmissionEntity} and answered right away.
+ * A bounded worker pool then writes the LearnDash rows through {@link QuizSubmissionWriter}. Submissions that
+ * do not fit in the queue, fail, or were left behind by a restart stay in the table and are picked up by
+ * {@link #sweep()}. Every other request goes through {@link QuizMasterService#submitAnswer} as before.
+ */
+@Slf4j
+@Service
+public class QuizSubmissionService {
+
+    private static final int MAX_SUBMISSION_ID_LENGTH = 64;
+    private static final List<QuizSubmissionStatus> OPEN_STATUSES =
+            List.of(QuizSubmissionStatus.PENDING, QuizSubmissionStatus.PROCESSING);
+
+    private final QuizMasterService quizMasterService;
+    private final QuizSubmissionWriter quizSubmissionWriter;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean asyncEnabled;
+    private final int workerThreads;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long staleAfterMillis;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+    private Timer lagTimer;
+    private Counter failedCounter;
+    private volatile long pendingCount;
+    private volatile long oldestOpenAgeSeconds;
+
+    public QuizSubmissionService(QuizMasterService quizMasterService,
+                                 QuizSubmissionWriter quizSubmissionWriter,
+                                 QuizSubmissionRepository quizSubmissionRepository,
+                                 CurrentUserResolver currentUserResolver,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.quiz-submission.async-enabled:false}") boolean asyncEnabled,
+                                 @Value("${app.quiz-submission.worker-threads:4}") int workerThreads,
+                                 @Value("${app.quiz-submission.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${app.quiz-submission.batch-size:200}") int batchSize,
+                                 @Value("${app.quiz-submission.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.quiz-submission.retry-delay-ms:10000}") long retryDelayMillis,
+                                 @Value("${app.quiz-submission.stale-after-ms:300000}") long staleAfterMillis) {
+        this.quizMasterService = quizMasterService;
+        this.quizSubmissionWriter = quizSubmissionWriter;
+        this.quizSubmissionRepository = quizSubmissionRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.asyncEnabled = asyncEnabled;
+        this.workerThreads = workerThreads;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.staleAfterMillis = staleAfterMillis;
+    }
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+                                          new ArrayBlockingQueue<>(queueCapacity),
+                                          new CustomizableThreadFactory("quiz-submit-"),
+                                          new ThreadPoolExecutor.AbortPolicy());
+
+        lagTimer = Timer.builder("quiz.submission.lag")
+                .description("Time from accepting an async submission to its LearnDash rows being written")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("quiz.submission.failed_attempts")
+                .description("Async submission write attempts that failed")
+                .register(meterRegistry);
+        Gauge.builder("quiz.submission.queue.depth", executor, e -> e.getQueue().size())
+                .description("Submissions waiting in the worker queue")
+                .register(meterRegistry);
+        Gauge.builder("quiz.submission.active_workers", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently writing a submission")
+                .register(meterRegistry);
+        Gauge.builder("quiz.submission.pending", this, s -> s.pendingCount)
+                .description("PENDING submissions in the table, as of the last sweep")
+                .register(meterRegistry);
+        Gauge.builder("quiz.submission.oldest_open_age_seconds", this, s -> s.oldestOpenAgeSeconds)
+                .description("Age of the oldest PENDING/PROCESSING submission, as of the last sweep")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Queued ids are still PENDING in the table and are picked up again after restart
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Submit quiz answers. Uses the async path when enabled and the request is a final submission
+     * with a client submission id; otherwise delegates to {@link QuizMasterService#submitAnswer}.
+     */
+    public SubmitAnswerResponse submit(String email, Long quizId, SubmitAnswerRequest request) throws AppException {
+        final boolean isDraft = Boolean.TRUE.equals(request.getIsDraft());
+        if (!asyncEnabled || isDraft || !StringUtils.hasText(request.getSubmissionId())) {
+            return quizMasterService.submitAnswer(email, quizId, request);
+        }
+        if (request.getSubmissionId().length() > MAX_SUBMISSION_ID_LENGTH) {
+            throw new AppException(ErrorCode.VALIDATION_ERROR,
+                                   "submissionId must be at most " + MAX_SUBMISSION_ID_LENGTH + " characters");
+        }
+
+        final User user = currentUserResolver.findUser(email)
+                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
+
+        // Client retry: return what was accepted the first time
+        final QuizSubmissionEntity existing = quizSubmissionRepository
+                .findBySubmissionId(request.getSubmissionId())
+                .orElse(null);
+        if (existing != null) {
+            return toResponse(existing, user, quizId);
+        }
+
+        final QuizDto quizDto = quizMasterService.findActiveQuiz(quizId);
+        final QuizMasterService.GradedAnswers graded = quizMasterService.grade(quizDto, request);
+        final SubmitAnswerResponse response = graded.toResponse(null, request);
+        response.setSubmissionId(request.getSubmissionId());
+        response.setSubmissionStatus(QuizSubmissionStatus.PENDING);
+
+        final QuizSubmissionEntity submission = new QuizSubmissionEntity();
+        submission.setSubmissionId(request.getSubmissionId());
+        submission.setUserId(user.getId());
+        submission.setQuizId(quizId);
+        submission.setStatus(QuizSubmissionStatus.PENDING);
+        submission.setPayload(toJson(request));
+        submission.setGraded(toJson(graded));
+        submission.setResponse(toJson(response));
+        try {
+            quizSubmissionRepository.saveAndFlush(submission);
+        } catch (DataIntegrityViolationException e) {
+            // Same submission id accepted concurrently by another request
+            return quizSubmissionRepository.findBySubmissionId(request.getSubmissionId())
+                    .map(accepted -> toResponse(accepted, user, quizId))
+                    .orElseThrow(() -> e);
+        }
+
+        enqueue(submission.getId());
+        return response;
+    }
+
+    /**
+     * Current state of an async submission of the user.
+     */
+    public SubmitAnswerResponse getSubmission(String email, String submissionId) throws AppException {
+        final User user = currentUserResolver.findUser(email)
+                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
+        final QuizSubmissionEntity submission = quizSubmissionRepository.findBySubmissionId(submissionId)
+                .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
+        return toResponse(submission, user, submission.getQuizId());
+    }
+
+    /**
+     * Re-queue submissions that were rejected by a full queue, failed with retries left, or were
+     * stuck in PROCESSING by a worker that died, and refresh the backlog gauges.
+     */
+    @Scheduled(fixedDelayString = "${app.quiz-submission.sweep-interval-ms:5000}")
+    public void sweep() {
+        if (!asyncEnabled) {
+            return;
+        }
+        try {
+            final LocalDateTime now = LocalDateTime.now();
+            final int released = quizSubmissionRepository.releaseStale(
+                    now.minus(Duration.ofMillis(staleAfterMillis)), now);
+            if (released > 0) {
+                log.warn("Released {} quiz submissions stuck in PROCESSING", released);
+            }
+
+            final int free = executor.getQueue().remainingCapacity();
+            if (free > 0) {
+                final List<Long> ids = quizSubmissionRepository.findIdsByStatusAndUpdatedBefore(
+                        QuizSubmissionStatus.PENDING, now.minus(Duration.ofMillis(retryDelayMillis)),
+                        PageRequest.of(0, Math.min(free, batchSize)));
+                ids.forEach(this::enqueue);
+            }
+
+            pendingCount = quizSubmissionRepository.countByStatus(QuizSubmissionStatus.PENDING);
+            final LocalDateTime oldest = quizSubmissionRepository.findOldestCreatedAt(OPEN_STATUSES);
+            oldestOpenAgeSeconds = oldest == null ? 0 : Duration.between(oldest, now).getSeconds();
+        } catch (Exception e) {
+            log.error("Quiz submission sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void enqueue(Long id) {
+        if (!inFlight.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    inFlight.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+            log.warn("Quiz submission queue full, submission {} left for the sweeper", id);
+        }
+    }
+
+    private void process(Long id) {
+        if (quizSubmissionRepository.claim(id, LocalDateTime.now()) == 0) {
+            return;
+        }
+        try {
+            final QuizSubmissionEntity written = quizSubmissionWriter.write(id);
+            lagTimer.record(Duration.between(written.getCreatedAt(), LocalDateTime.now()));
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("Quiz submission {} write failed: {}", id, e.getMessage());
+            quizSubmissionWriter.markFailed(id, e, maxAttempts);
+        }
+    }
+
+    private SubmitAnswerResponse toResponse(QuizSubmissionEntity submission, User user, Long quizId) {
+        // A submission id belongs to one user and one quiz
+        if (!submission.getUserId().equals(user.getId()) || !submission.getQuizId().equals(quizId)) {
+            throw new AppException(ErrorCode.DUPLICATE_RESOURCE);
+        }
+        try {
+            final SubmitAnswerResponse response = objectMapper.readValue(submission.getResponse(),
+                                                                         SubmitAnswerResponse.class);
+            response.setSubmissionId(submission.getSubmissionId());
+            response.setSubmissionStatus(submission.getStatus());
+            response.setActivityId(submission.getActivityId());
+            return response;
+        } catch (JsonProcessingException e) {
+            throw new AppException(ErrorCode.INTERNAL_ERROR);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new AppException(ErrorCode.INTERNAL_ERROR);
+        }
+    }
+}
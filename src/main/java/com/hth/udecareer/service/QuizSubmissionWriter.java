@@ -0,0 +1,90 @@
+package com.hth.udecareer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hth.udecareer.entities.QuizSubmissionEntity;
+import com.hth.udecareer.entities.User;
+import com.hth.udecareer.enums.ErrorCode;
+import com.hth.udecareer.enums.QuizSubmissionStatus;
+import com.hth.udecareer.exception.AppException;
+import com.hth.udecareer.model.request.SubmitAnswerRequest;
+import com.hth.udecareer.model.response.SubmitAnswerResponse;
+import com.hth.udecareer.repository.QuizSubmissionRepository;
+import com.hth.udecareer.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional steps of the async submission worker, kept in their own bean so the
+ * calls from {@link QuizSubmissionService} go through the transaction proxy.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuizSubmissionWriter {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final UserRepository userRepository;
+    private final QuizMasterService quizMasterService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write the LearnDash rows of a claimed submission from the answers graded at accept time, and mark it
+     * COMPLETED in the same transaction, so a submission is either fully written and completed or not written
+     * at all.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public QuizSubmissionEntity write(Long id) throws AppException, JsonProcessingException {
+        final QuizSubmissionEntity submission = quizSubmissionRepository.findById(id)
+                .orElseThrow(() -> new AppException(ErrorCode.RESOURCE_NOT_FOUND));
+        if (submission.getStatus() != QuizSubmissionStatus.PROCESSING) {
+            return submission;
+        }
+
+        final SubmitAnswerRequest request = objectMapper.readValue(submission.getPayload(), SubmitAnswerRequest.class);
+        final User user = userRepository.findById(submission.getUserId())
+                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
+        final QuizMasterService.GradedAnswers graded =
+                objectMapper.readValue(submission.getGraded(), QuizMasterService.GradedAnswers.class);
+        final SubmitAnswerResponse recorded = quizMasterService.recordSubmission(
+                user, quizMasterService.findActiveQuiz(submission.getQuizId()), request, graded);
+
+        final SubmitAnswerResponse response = submission.getResponse() != null
+                ? objectMapper.readValue(submission.getResponse(), SubmitAnswerResponse.class)
+                : recorded;
+        response.setActivityId(recorded.getActivityId());
+        response.setSubmissionStatus(QuizSubmissionStatus.COMPLETED);
+
+        submission.setActivityId(recorded.getActivityId());
+        submission.setResponse(objectMapper.writeValueAsString(response));
+        submission.setStatus(QuizSubmissionStatus.COMPLETED);
+        submission.setLastError(null);
+        submission.setProcessedAt(LocalDateTime.now());
+        return quizSubmissionRepository.save(submission);
+    }
+
+    /**
+     * Record a failed attempt: back to PENDING for another try, or FAILED once attempts are used up.
+     */
+    @Transactional
+    public void markFailed(Long id, Exception error, int maxAttempts) {
+        quizSubmissionRepository.findById(id).ifPresent(submission -> {
+            final boolean exhausted = submission.getAttempts() >= maxAttempts;
+            submission.setStatus(exhausted ? QuizSubmissionStatus.FAILED : QuizSubmissionStatus.PENDING);
+            final String message = String.valueOf(error.getMessage());
+            submission.setLastError(message.length() > MAX_ERROR_LENGTH
+                                            ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            quizSubmissionRepository.save(submission);
+            if (exhausted) {
+                log.error("Quiz submission {} failed after {} attempts: {}",
+                          submission.getSubmissionId(), submission.getAttempts(), message);
+            }
+        });
+    }
+}
@@ -6,8 +6,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hth.udecareer.config.TimezoneConfig;
 import com.hth.udecareer.entities.ScheduledPostEntity;
 import com.hth.udecareer.entities.SpaceEntity;
-import com.hth.udecareer.entities.User;
-import com.hth.udecareer.entities.XProfileEntity;
 import com.hth.udecareer.enums.ErrorCode;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.model.request.ScheduledPostRequest;
@@ -16,9 +14,7 @@ import com.hth.udecareer.model.response.ScheduledPostResponse;
 import com.hth.udecareer.model.response.XProfileResponse;
 import com.hth.udecareer.repository.ScheduledPostRepository;
 import com.hth.udecareer.repository.SpaceRepository;
-import com.hth.udecareer.repository.UserMetaRepository;
-import com.hth.udecareer.repository.UserRepository;
-import com.hth.udecareer.repository.XProfileRepository;
+import com.hth.udecareer.service.cache.AuthorProfileResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -32,6 +28,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -42,9 +39,7 @@ public class ScheduledPostService {
 
     private final ScheduledPostRepository scheduledPostRepository;
     private final SpaceRepository spaceRepository;
-    private final XProfileRepository xProfileRepository;
-    private final UserRepository userRepository;
-    private final UserMetaRepository userMetaRepository;
+    private final AuthorProfileResolver authorProfileResolver;
     private final ObjectMapper objectMapper;
 
     private static final List<String> VALID_PRIVACY = Arrays.asList(
@@ -124,9 +119,7 @@ public class ScheduledPostService {
             posts = scheduledPostRepository.findByUserIdOrderByScheduledAtAsc(userId, pageable);
         }
 
-        List<ScheduledPostResponse> items = posts.getContent().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<ScheduledPostResponse> items = mapToResponses(posts.getContent());
 
         return PageResponse.<ScheduledPostResponse>builder()
                 .content(items)
@@ -150,9 +143,7 @@ public class ScheduledPostService {
         LocalDateTime now = TimezoneConfig.getCurrentVietnamTime();
         Page<ScheduledPostEntity> posts = scheduledPostRepository.findUpcomingPosts(userId, now, pageable);
 
-        List<ScheduledPostResponse> items = posts.getContent().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<ScheduledPostResponse> items = mapToResponses(posts.getContent());
 
         return PageResponse.<ScheduledPostResponse>builder()
                 .content(items)
@@ -294,6 +285,18 @@ public class ScheduledPostService {
     // ============= HELPER METHODS =============
 
     private ScheduledPostResponse mapToResponse(ScheduledPostEntity post) {
+        return mapToResponse(post, authorProfileResolver.resolve(post.getUserId()));
+    }
+
+    private List<ScheduledPostResponse> mapToResponses(List<ScheduledPostEntity> posts) {
+        Map<Long, XProfileResponse> profiles = authorProfileResolver.resolveAll(
+                posts.stream().map(ScheduledPostEntity::getUserId).collect(Collectors.toSet()));
+        return posts.stream()
+                .map(post -> mapToResponse(post, profiles.get(post.getUserId())))
+                .collect(Collectors.toList());
+    }
+
+    private ScheduledPostResponse mapToResponse(ScheduledPostEntity post, XProfileResponse xprofile) {
         // Parse media and topicIds from JSON
         List<String> media = Collections.emptyList();
         List<Long> topicIds = Collections.emptyList();
@@ -320,7 +323,7 @@ public class ScheduledPostService {
         return ScheduledPostResponse.builder()
                 .id(post.getId())
                 .userId(post.getUserId())
-                .xprofile(getXProfile(post.getUserId()))
+                .xprofile(xprofile)
                 .spaceId(post.getSpaceId())
                 .spaceName(spaceName)
                 .title(post.getTitle())
@@ -337,48 +340,4 @@ public class ScheduledPostService {
                 .updatedAt(post.getUpdatedAt())
                 .build();
     }
-
-    private XProfileResponse getXProfile(Long userId) {
-        Optional<XProfileEntity> xProfileOpt = xProfileRepository.findByUserId(userId);
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        String finalAvatarFromMeta = userMetaRepository.findByUserIdAndMetaKey(userId, "wpcf-avatar")
-                .map(meta -> meta.getMetaValue())
-                .orElse(null);
-
-        if (xProfileOpt.isPresent()) {
-            XProfileEntity xp = xProfileOpt.get();
-            String finalAvatar = StringUtils.isNotBlank(xp.getAvatar()) ? xp.getAvatar() : finalAvatarFromMeta;
-            String fullName = userOpt.map(User::getDisplayName).orElse(null);
-
-            return XProfileResponse.builder()
-                    .userId(xp.getUserId())
-                    .username(xp.getUsername())
-                    .displayName(xp.getDisplayName())
-                    .fullName(fullName)
-                    .avatar(finalAvatar)
-                    .totalPoints(xp.getTotalPoints())
-                    .isVerified(xp.getIsVerified() != null && xp.getIsVerified() == 1)
-                    .build();
-        } else {
-            return userOpt.map(user -> XProfileResponse.builder()
-                    .userId(user.getId())
-                    .username(user.getUsername())
-                    .displayName(user.getDisplayName())
-                    .fullName(user.getDisplayName())
-                    .avatar(finalAvatarFromMeta)
-                    .totalPoints(0)
-                    .isVerified(false)
-                    .build())
-                    .orElse(XProfileResponse.builder()
-                            .userId(userId)
-                            .username("")
-                            .displayName("")
-                            .fullName("")
-                            .avatar(null)
-                            .totalPoints(0)
-                            .isVerified(false)
-                            .build());
-        }
-    }
 }
@@ -28,6 +28,7 @@ public class StreakService {
     private final StreakBadgeIntegrationService streakBadgeIntegrationService;
     private final StreakGoalService streakGoalService;
     private final ObjectMapper objectMapper;
+    private final LeaderboardStore leaderboardStore;
 
     /**
      * Update streak when user performs any activity.
@@ -91,6 +92,7 @@ public class StreakService {
 
         // Save streak
         userStreakRepository.save(streak);
+        leaderboardStore.setStreak(userId, streak.getLongestStreak(), streak.getCurrentStreak());
 
         // Log today's activity
         logActivity(userId, today, streak.getCurrentStreak());
@@ -129,7 +131,11 @@ public class StreakService {
         UserStreakEntity streak = userStreakRepository.findByUserId(userId)
                 .orElseGet(() -> initializeStreak(userId));
 
-        Long rank = userStreakRepository.getUserRankByLongestStreak(userId);
+        // Redis ZSET (O(log n)), COUNT trên DB nếu leaderboard chưa sẵn sàng
+        Long rank = streak.getId() != null ? leaderboardStore.streakRank(streak.getLongestStreak()) : null;
+        if (rank == null) {
+            rank = userStreakRepository.getUserRankByLongestStreak(userId);
+        }
 
         return StreakStatsResponse.builder()
                 .currentStreak(streak.getCurrentStreak())
@@ -167,13 +173,31 @@ public class StreakService {
     @Transactional(readOnly = true)
     public StreakLeaderboardResponse getLeaderboard(int page, int size) {
         int offset = page * size;
-        List<UserStreakEntity> topStreaks = userStreakRepository.findTopLongestStreaks(size, offset);
+        List<UserStreakEntity> topStreaks;
+        Map<Long, User> users = new HashMap<>();
+
+        // Redis ZSET, query DB nếu leaderboard chưa sẵn sàng
+        LeaderboardStore.Page storePage = leaderboardStore.page(LeaderboardStore.STREAK_KEY, offset, size);
+        if (storePage != null) {
+            List<Long> userIds = storePage.entries().stream().map(LeaderboardStore.Entry::userId).toList();
+            Map<Long, UserStreakEntity> streaks = new HashMap<>();
+            for (UserStreakEntity streak : userStreakRepository.findByUserIdIn(userIds)) {
+                streaks.put(streak.getUserId(), streak);
+            }
+            topStreaks = userIds.stream().map(streaks::get).filter(Objects::nonNull).toList();
+        } else {
+            topStreaks = userStreakRepository.findTopLongestStreaks(size, offset);
+        }
+        // Load users một lần thay vì findById cho từng dòng
+        for (User user : userRepository.findAllById(topStreaks.stream().map(UserStreakEntity::getUserId).toList())) {
+            users.put(user.getId(), user);
+        }
 
         List<StreakLeaderboardItemResponse> items = new ArrayList<>();
         int rank = offset + 1;
 
         for (UserStreakEntity streak : topStreaks) {
-            User user = userRepository.findById(streak.getUserId()).orElse(null);
+            User user = users.get(streak.getUserId());
             if (user != null) {
                 items.add(StreakLeaderboardItemResponse.builder()
                         .rank(rank++)
@@ -0,0 +1,219 @@
+package com.hth.udecareer.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.persistence.Tuple;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.Lists;
+import com.hth.udecareer.entities.QuizMetaEntity;
+import com.hth.udecareer.entities.QuizStatisticEntity;
+import com.hth.udecareer.entities.UserChapterStatsEntity;
+import com.hth.udecareer.repository.QuizMetaRepository;
+import com.hth.udecareer.repository.QuizStatisticRepository;
+import com.hth.udecareer.repository.UserChapterStatsRepository;
+import com.hth.udecareer.service.cache.QuestionBankCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains {@link UserChapterStatsEntity}, the per (user, chapter) answer counts read by the AI analytics.
+ * <p>
+ * Each graded statistic row counts once for the chapter of its question, matched by normalized question
+ * title in {@code ez_quizmeta}. Submits add to the rows in the caller's transaction; {@link #rebuildForUser(Long)}
+ * recomputes them with one aggregation over the user's statistics. Reads go to the projection only when
+ * {@code app.chapter-stats.read-enabled} is set, i.e. after the backfill has run.
+ */
+@Slf4j
+@Service
+public class UserChapterStatsService {
+
+    private static final int TITLE_BATCH_SIZE = 1000;
+
+    private final UserChapterStatsRepository userChapterStatsRepository;
+    private final QuizStatisticRepository quizStatisticRepository;
+    private final QuizMetaRepository quizMetaRepository;
+    private final QuestionBankCache questionBankCache;
+    private final boolean readEnabled;
+
+    public UserChapterStatsService(UserChapterStatsRepository userChapterStatsRepository,
+                                   QuizStatisticRepository quizStatisticRepository,
+                                   QuizMetaRepository quizMetaRepository,
+                                   QuestionBankCache questionBankCache,
+                                   @Value("${app.chapter-stats.read-enabled:false}") boolean readEnabled) {
+        this.userChapterStatsRepository = userChapterStatsRepository;
+        this.quizStatisticRepository = quizStatisticRepository;
+        this.quizMetaRepository = quizMetaRepository;
+        this.questionBankCache = questionBankCache;
+        this.readEnabled = readEnabled;
+    }
+
+    public record ChapterStat(int chapterIdx, long total, long correct) {
+
+        public double accuracy() {
+            return total == 0 ? 0D : (correct * 100.0) / total;
+        }
+    }
+
+    /**
+     * Chapter counts of one user, by chapter index. Reads the projection when enabled, otherwise aggregates
+     * the statistics directly.
+     */
+    @Transactional(readOnly = true)
+    public List<ChapterStat> getChapterStats(Long userId) {
+        if (readEnabled) {
+            return userChapterStatsRepository.findAllByUserIdOrderByChapterIdx(userId)
+                    .stream()
+                    .map(row -> new ChapterStat(row.getChapterIdx(), row.getTotalCount(), row.getCorrectCount()))
+                    .toList();
+        }
+        final List<ChapterStat> stats = new ArrayList<>();
+        aggregate(userId).forEach((chapterIdx, acc) -> stats.add(new ChapterStat(chapterIdx, acc.total, acc.correct)));
+        return stats;
+    }
+
+    /**
+     * Add the statistic rows of a graded attempt. Must run inside the submit transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordGradedAttempt(Long userId, Collection<QuizStatisticEntity> statistics) {
+        if (statistics.isEmpty()) {
+            return;
+        }
+        final Map<Long, String> titles = questionBankCache.getTitles(
+                statistics.stream().map(stat -> stat.getId().getQuestionId()).toList());
+        final Map<String, Integer> chapters = chaptersByTitle(titles.values());
+
+        final Map<Integer, ChapterAccumulator> chapterMap = new TreeMap<>();
+        for (QuizStatisticEntity stat : statistics) {
+            final Integer chapterIdx = chapters.get(normalize(titles.get(stat.getId().getQuestionId())));
+            if (chapterIdx != null) {
+                chapterMap.computeIfAbsent(chapterIdx, c -> new ChapterAccumulator())
+                        .add(1, Objects.requireNonNullElse(stat.getCorrectCount(), 0L) > 0 ? 1 : 0);
+            }
+        }
+        chapterMap.forEach((chapterIdx, acc) ->
+                userChapterStatsRepository.increment(userId, chapterIdx, acc.total, acc.correct));
+    }
+
+    /**
+     * Recompute all rows of one user from the quiz statistics, and delete rows of chapters without answers.
+     * <p>
+     * A row for every known chapter is created and the user's rows are locked before the statistics are read
+     * (read committed), so a submit committed earlier is part of the read and a later one waits for this
+     * transaction instead of being overwritten.
+     */
+    @Transactional(rollbackFor = Exception.class, isolation = Isolation.READ_COMMITTED)
+    public int rebuildForUser(Long userId) {
+        quizMetaRepository.findDistinctChapterIdx()
+                .stream()
+                .sorted()
+                .forEach(chapterIdx -> userChapterStatsRepository.insertIfAbsent(userId, chapterIdx));
+        final List<UserChapterStatsEntity> rows = userChapterStatsRepository.findAllByUserIdForUpdate(userId);
+
+        final Map<Integer, ChapterAccumulator> chapterMap = aggregate(userId);
+
+        int written = 0;
+        for (UserChapterStatsEntity row : rows) {
+            final ChapterAccumulator acc = chapterMap.remove(row.getChapterIdx());
+            if (acc == null) {
+                userChapterStatsRepository.delete(row);
+                continue;
+            }
+            row.setTotalCount(acc.total);
+            row.setCorrectCount(acc.correct);
+            written++;
+        }
+        // Chapters added to ez_quizmeta after the rows were created
+        for (Map.Entry<Integer, ChapterAccumulator> entry : chapterMap.entrySet()) {
+            userChapterStatsRepository.increment(userId, entry.getKey(), entry.getValue().total,
+                                                 entry.getValue().correct);
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Fold the per-title sums of the user's statistics into chapters, ordered by chapter index.
+     */
+    private Map<Integer, ChapterAccumulator> aggregate(Long userId) {
+        final Map<String, ChapterAccumulator> byTitle = new HashMap<>();
+        for (Tuple row : quizStatisticRepository.sumResultsByQuestionTitle(userId)) {
+            final String title = normalize(row.get(0, String.class));
+            if (StringUtils.isBlank(title)) {
+                continue;
+            }
+            byTitle.computeIfAbsent(title, t -> new ChapterAccumulator())
+                    .add(toLong(row.get(1)), toLong(row.get(2)));
+        }
+
+        final Map<String, Integer> chapters = chaptersByTitle(byTitle.keySet());
+        final Map<Integer, ChapterAccumulator> chapterMap = new TreeMap<>();
+        int unmatched = 0;
+        for (Map.Entry<String, ChapterAccumulator> entry : byTitle.entrySet()) {
+            final Integer chapterIdx = chapters.get(entry.getKey());
+            if (chapterIdx == null) {
+                unmatched++;
+                continue;
+            }
+            chapterMap.computeIfAbsent(chapterIdx, c -> new ChapterAccumulator())
+                    .add(entry.getValue().total, entry.getValue().correct);
+        }
+        log.debug("Chapter stats for user {}: {} titles, {} unmatched", userId, byTitle.size(), unmatched);
+        return chapterMap;
+    }
+
+    /**
+     * Chapter index by normalized question title; the first ez_quizmeta row wins when a title repeats.
+     */
+    private Map<String, Integer> chaptersByTitle(Collection<String> titles) {
+        final Set<String> normalized = new LinkedHashSet<>();
+        for (String title : titles) {
+            final String key = normalize(title);
+            if (StringUtils.isNotBlank(key)) {
+                normalized.add(key);
+            }
+        }
+        final Map<String, Integer> chapters = new HashMap<>();
+        for (List<String> batch : Lists.partition(new ArrayList<>(normalized), TITLE_BATCH_SIZE)) {
+            for (QuizMetaEntity meta : quizMetaRepository.findAllByQuestionTitleIn(batch)) {
+                if (meta.getChapterIdx() != null) {
+                    chapters.putIfAbsent(normalize(meta.getQuestionTitle()), meta.getChapterIdx());
+                }
+            }
+        }
+        return chapters;
+    }
+
+    private static String normalize(String title) {
+        return StringUtils.upperCase(StringUtils.strip(title));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static final class ChapterAccumulator {
+        private long total;
+        private long correct;
+
+        private void add(long total, long correct) {
+            this.total += total;
+            this.correct += correct;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.hth.udecareer.model.response.*;
 import com.hth.udecareer.repository.FcomUserActivityRepository;
 import com.hth.udecareer.repository.UserMetaRepository;
 import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -23,7 +24,9 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -42,12 +45,14 @@ public class UserPointsService {
     private static final String KEY_POINT_YEAR_START = "point_year_start";
 
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final UserMetaRepository userMetaRepository;
     private final FcomUserActivityRepository fcomUserActivitiesRepository;
+    private final LeaderboardStore leaderboardStore;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void addPoints(String email, int pointsToAdd, String actionName, Long feedId, Long relatedId) {
-        User user = userRepository.findByEmail(email)
+        User user = currentUserResolver.findUser(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_NOT_FOUND));
 
         // Check if points already added and return early (no exception, no rollback)
@@ -69,6 +74,7 @@ public class UserPointsService {
         incrementMeta(user.getId(), KEY_POINT_WEEK, pointsToAdd);
         incrementMeta(user.getId(), KEY_POINT_MONTH, pointsToAdd);
         incrementMeta(user.getId(), KEY_POINT_YEAR, pointsToAdd);
+        leaderboardStore.addPoints(user.getId(), pointsToAdd);
 
         FcomUserActivitiesEntity activity = FcomUserActivitiesEntity.builder()
                 .userId(user.getId())
@@ -84,7 +90,7 @@ public class UserPointsService {
 
     @Transactional
     public void removePoints(String email, int pointsToRemove, String actionName, Long feedId, Long relatedId) {
-        User user = userRepository.findByEmail(email)
+        User user = currentUserResolver.findUser(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_NOT_FOUND));
 
         // Find and delete the activity record
@@ -113,6 +119,7 @@ public class UserPointsService {
         incrementMeta(user.getId(), KEY_POINT_WEEK, -pointsToRemove);
         incrementMeta(user.getId(), KEY_POINT_MONTH, -pointsToRemove);
         incrementMeta(user.getId(), KEY_POINT_YEAR, -pointsToRemove);
+        leaderboardStore.addPoints(user.getId(), -pointsToRemove);
     }
 
     public List<LeaderBoardResponse> getLeaderboard(LeaderBoardType type) {
@@ -120,39 +127,108 @@ public class UserPointsService {
             type = LeaderBoardType.WEEK;
         }
 
-        String pointKey;
-        String startKey;
-        String startValue;
+        // Redis ZSET, query DB nếu leaderboard chưa sẵn sàng
+        LeaderboardStore.Page page = leaderboardStore.page(LeaderboardStore.pointsKey(type, LocalDate.now()), 0, 10);
+        if (page != null) {
+            return toLeaderboardResponses(page.entries(), 1);
+        }
+
+        PeriodKeys keys = periodKeys(type);
+        List<Object[]> rows = userMetaRepository.findTopUsersByKeyAndStart(keys.pointKey(), keys.startKey(), keys.startValue());
+        return mapToLeaderboard(rows, 1);
+    }
 
+    /**
+     * Leaderboard quanh user hiện tại: tối đa radius người phía trên và phía dưới
+     * @param email Email của user
+     * @param type Loại leaderboard (WEEK/MONTH/YEAR)
+     * @param radius Số người mỗi phía (1-50)
+     * @return Danh sách xếp hạng, rỗng nếu user chưa có điểm trong kỳ
+     */
+    public List<LeaderBoardResponse> getLeaderboardAroundUser(String email, LeaderBoardType type, int radius) {
+        User user = currentUserResolver.findUser(email)
+                .orElseThrow(() -> new AppException(ErrorCode.EMAIL_NOT_FOUND));
+        if (type == null) {
+            type = LeaderBoardType.WEEK;
+        }
+        radius = Math.max(1, Math.min(radius, 50));
+
+        LeaderboardStore.Window window = leaderboardStore.around(
+                LeaderboardStore.pointsKey(type, LocalDate.now()), user.getId(), radius);
+        if (window != null) {
+            return toLeaderboardResponses(window.entries(), (int) window.firstRank());
+        }
+
+        PeriodKeys keys = periodKeys(type);
+        String myScoreStr = userMetaRepository.findMyScoreByPeriod(
+                user.getId(), keys.pointKey(), keys.startKey(), keys.startValue());
+        if (myScoreStr == null || myScoreStr.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long countHigher = userMetaRepository.countUsersHigherPeriod(
+                keys.pointKey(), Long.parseLong(myScoreStr), keys.startKey(), keys.startValue());
+        int offset = (int) Math.max(0, countHigher - radius);
+        List<Object[]> rows = userMetaRepository.findUsersByKeyAndStartWithPagination(
+                keys.pointKey(), keys.startKey(), keys.startValue(), 2 * radius + 1, offset);
+        return mapToLeaderboard(rows, offset + 1);
+    }
+
+    /**
+     * Map entries của Redis leaderboard sang response (2 queries: users và avatar)
+     * @param firstRank Rank của entry đầu tiên
+     */
+    public List<LeaderBoardResponse> toLeaderboardResponses(List<LeaderboardStore.Entry> entries, int firstRank) {
+        if (entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> userIds = entries.stream().map(LeaderboardStore.Entry::userId).collect(Collectors.toList());
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+        Map<Long, String> avatars = new HashMap<>();
+        for (UserMetaEntity meta : userMetaRepository.findByUserIdInAndMetaKey(userIds, "url_image")) {
+            avatars.putIfAbsent(meta.getUserId(), meta.getMetaValue());
+        }
+
+        List<LeaderBoardResponse> leaderboard = new ArrayList<>();
+        int rank = firstRank;
+        for (LeaderboardStore.Entry entry : entries) {
+            User user = users.get(entry.userId());
+            int entryRank = rank++;
+            if (user == null) {
+                continue; // User đã bị xóa
+            }
+            leaderboard.add(LeaderBoardResponse.builder()
+                    .rank(entryRank)
+                    .userId(user.getId())
+                    .username(user.getUsername() != null ? user.getUsername() : "")
+                    .displayName(user.getDisplayName() != null ? user.getDisplayName() : "Unknown User")
+                    .totalPoints(entry.score())
+                    .avatarUrl(avatars.getOrDefault(user.getId(), ""))
+                    .build());
+        }
+        return leaderboard;
+    }
+
+    private record PeriodKeys(String pointKey, String startKey, String startValue) {
+    }
+
+    private PeriodKeys periodKeys(LeaderBoardType type) {
         switch (type) {
-            case WEEK:
-                pointKey = KEY_POINT_WEEK;
-                startKey = KEY_POINT_WEEK_START;
-                startValue = getWeekStartToday().toString();
-                break;
             case MONTH:
-                pointKey = KEY_POINT_MONTH;
-                startKey = KEY_POINT_MONTH_START;
-                startValue = getMonthStartToday().toString();
-                break;
+                return new PeriodKeys(KEY_POINT_MONTH, KEY_POINT_MONTH_START, getMonthStartToday().toString());
             case YEAR:
-                pointKey = KEY_POINT_YEAR;
-                startKey = KEY_POINT_YEAR_START;
-                startValue = getYearStartToday().toString();
-                break;
+                return new PeriodKeys(KEY_POINT_YEAR, KEY_POINT_YEAR_START, getYearStartToday().toString());
+            case WEEK:
             default:
-                pointKey = KEY_POINT_WEEK;
-                startKey = KEY_POINT_WEEK_START;
-                startValue = getWeekStartToday().toString();
+                return new PeriodKeys(KEY_POINT_WEEK, KEY_POINT_WEEK_START, getWeekStartToday().toString());
         }
-
-        List<Object[]> rows = userMetaRepository.findTopUsersByKeyAndStart(pointKey, startKey, startValue);
-        return mapToLeaderboard(rows);
     }
 
-    private List<LeaderBoardResponse> mapToLeaderboard(List<Object[]> rows) {
+    private List<LeaderBoardResponse> mapToLeaderboard(List<Object[]> rows, int firstRank) {
         List<LeaderBoardResponse> leaderboard = new ArrayList<>();
-        int rank = 1;
+        int rank = firstRank;
         for (Object[] row : rows) {
             Long userId = row[0] != null ? ((Number) row[0]).longValue() : 0L;
             String username = row[1] != null ? (String) row[1] : "";
@@ -247,7 +323,7 @@ public class UserPointsService {
 
 
     public UserPointsResponse getUserPoints(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = currentUserResolver.findUser(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_NOT_FOUND));
 
         long currentPoints = getPointsValue(user.getId(), KEY_CURRENT_POINTS);
@@ -289,7 +365,7 @@ public class UserPointsService {
      * @return PageResponse chứa danh sách lịch sử điểm
      */
     public PageResponse<PointHistoryResponse> getUserPointHistory(String email, int page, int size) {
-        User user = userRepository.findByEmail(email)
+        User user = currentUserResolver.findUser(email)
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_NOT_FOUND));
 
         // Validate pagination
@@ -422,6 +498,12 @@ public class UserPointsService {
 
 
     private Integer getUserRankByType(Long userId, LeaderBoardType type) {
+        LeaderboardStore.Position position = leaderboardStore.position(
+                LeaderboardStore.pointsKey(type, LocalDate.now()), userId);
+        if (position != null) {
+            return position.rank() > 0 ? (int) position.rank() : null;
+        }
+
         List<LeaderBoardResponse> leaderboard = getLeaderboard(type);
         for (int i = 0; i < leaderboard.size(); i++) {
             if (leaderboard.get(i).getUserId().equals(userId)) {
@@ -0,0 +1,53 @@
+package com.hth.udecareer.service;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hth.udecareer.repository.UserActivityRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfill job cho bảng ez_user_quiz_progress: dựng lại progress của từng user từ các bảng LearnDash.
+ * Tắt mặc định; bật bằng app.quiz-progress.backfill-cron, chạy xong thì bật app.quiz-progress.read-enabled.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserQuizProgressBackfillScheduler {
+
+    private static final int USER_BATCH_SIZE = 500;
+
+    private final UserActivityRepository userActivityRepository;
+    private final UserQuizProgressService userQuizProgressService;
+
+    @Scheduled(cron = "${app.quiz-progress.backfill-cron:-}")
+    public void backfill() {
+        log.info("Starting user quiz progress backfill...");
+        long afterUserId = 0L;
+        int users = 0;
+        int rows = 0;
+        int failed = 0;
+
+        List<Long> userIds;
+        do {
+            userIds = userActivityRepository.findQuizUserIdsAfter(afterUserId, USER_BATCH_SIZE);
+            for (Long userId : userIds) {
+                try {
+                    // Mỗi user một transaction riêng
+                    rows += userQuizProgressService.rebuildForUser(userId);
+                    users++;
+                } catch (Exception e) {
+                    failed++;
+                    log.error("Quiz progress backfill failed for user {}: {}", userId, e.getMessage(), e);
+                }
+                afterUserId = userId;
+            }
+        } while (userIds.size() == USER_BATCH_SIZE);
+
+        log.info("User quiz progress backfill completed. Users: {}, rows: {}, failed: {}", users, rows, failed);
+    }
+}
@@ -0,0 +1,345 @@
+package com.hth.udecareer.service;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hth.udecareer.entities.QuizStatisticEntity;
+import com.hth.udecareer.entities.UserActivityEntity;
+import com.hth.udecareer.entities.UserActivityMetaEntity;
+import com.hth.udecareer.entities.UserQuizProgressEntity;
+import com.hth.udecareer.repository.QuizStatisticRepository;
+import com.hth.udecareer.repository.UserActivityMetaRepository;
+import com.hth.udecareer.repository.UserActivityRepository;
+import com.hth.udecareer.repository.UserQuizProgressRepository;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains {@link UserQuizProgressEntity}, the per (user, quiz) projection read by quiz listings and quiz info.
+ * <p>
+ * Submits update the row in the caller's transaction; {@link #rebuildForUser(Long)} recomputes a user's
+ * rows from the LearnDash activity tables (used by the backfill job). Reads go to the projection only when
+ * {@code app.quiz-progress.read-enabled} is set, i.e. after the backfill has run.
+ */
+@Slf4j
+@Service
+public class UserQuizProgressService {
+
+    private static final String ACTIVITY_TYPE_QUIZ = "quiz";
+
+    private final UserQuizProgressRepository userQuizProgressRepository;
+    private final UserActivityRepository userActivityRepository;
+    private final UserActivityMetaRepository userActivityMetaRepository;
+    private final QuizStatisticRepository quizStatisticRepository;
+    private final boolean readEnabled;
+
+    public UserQuizProgressService(UserQuizProgressRepository userQuizProgressRepository,
+                                   UserActivityRepository userActivityRepository,
+                                   UserActivityMetaRepository userActivityMetaRepository,
+                                   QuizStatisticRepository quizStatisticRepository,
+                                   @Value("${app.quiz-progress.read-enabled:false}") boolean readEnabled) {
+        this.userQuizProgressRepository = userQuizProgressRepository;
+        this.userActivityRepository = userActivityRepository;
+        this.userActivityMetaRepository = userActivityMetaRepository;
+        this.quizStatisticRepository = quizStatisticRepository;
+        this.readEnabled = readEnabled;
+    }
+
+    /**
+     * Progress per quiz post id for one user. Quizzes the user never opened have no entry.
+     * Reads the projection when enabled, otherwise derives the same values from the activity tables.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, UserQuizProgressEntity> getProgress(Long userId, List<Long> quizPostIds) {
+        if (quizPostIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (readEnabled) {
+            return userQuizProgressRepository.findAllByUserIdAndQuizPostIdIn(userId, quizPostIds)
+                    .stream()
+                    .collect(toMap(UserQuizProgressEntity::getQuizPostId, Function.identity()));
+        }
+        return computeFromActivities(userId,
+                userActivityRepository.findAllActivitiesByUserIdAndPostIds(userId, quizPostIds));
+    }
+
+    /**
+     * Record a saved draft. Must run inside the submit transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDraft(Long userId, Long quizPostId, Long activityId, Long startedAt,
+                            Long elapsedTime, Long answeredCount) {
+        final UserQuizProgressEntity progress = lockRow(userId, quizPostId);
+        progress.setDraftActivityId(activityId);
+        progress.setDraftStartedAt(startedAt);
+        progress.setDraftElapsedTime(elapsedTime);
+        progress.setDraftAnsweredCount(answeredCount);
+        userQuizProgressRepository.save(progress);
+    }
+
+    /**
+     * Record a graded attempt. Must run inside the submit transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordGradedAttempt(Long userId, Long quizPostId, GradedAttempt attempt) {
+        final UserQuizProgressEntity progress = lockRow(userId, quizPostId);
+        applyGradedAttempt(progress, attempt);
+        // Submitting supersedes any open draft of this quiz
+        progress.clearDraft();
+        userQuizProgressRepository.save(progress);
+    }
+
+    /**
+     * Recompute all rows of one user from wp_learndash_user_activity(_meta) and the quiz statistics, and
+     * delete rows of quizzes that no longer have an attempt or open draft.
+     * <p>
+     * The user's rows are locked before the activities are read (read committed), so a submit committed
+     * earlier is part of the read and a later one waits for this transaction instead of being overwritten.
+     */
+    @Transactional(rollbackFor = Exception.class, isolation = Isolation.READ_COMMITTED)
+    public int rebuildForUser(Long userId) {
+        userActivityRepository.findDistinctPostIdsByUserIdAndActivityType(userId, ACTIVITY_TYPE_QUIZ)
+                .stream()
+                .sorted()
+                .forEach(quizPostId -> userQuizProgressRepository.insertIfAbsent(userId, quizPostId));
+        final List<UserQuizProgressEntity> rows = userQuizProgressRepository.findAllByUserIdForUpdate(userId);
+
+        final List<UserActivityEntity> activities =
+                userActivityRepository.findAllByUserIdAndActivityType(userId, ACTIVITY_TYPE_QUIZ);
+        final Map<Long, UserQuizProgressEntity> computed = computeFromActivities(userId, activities);
+
+        int written = 0;
+        for (UserQuizProgressEntity target : rows) {
+            final UserQuizProgressEntity source = computed.get(target.getQuizPostId());
+            if (source == null) {
+                userQuizProgressRepository.delete(target);
+                continue;
+            }
+            copy(source, target);
+            userQuizProgressRepository.save(target);
+            written++;
+        }
+        return written;
+    }
+
+    private UserQuizProgressEntity lockRow(Long userId, Long quizPostId) {
+        userQuizProgressRepository.insertIfAbsent(userId, quizPostId);
+        return userQuizProgressRepository.findForUpdate(userId, quizPostId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Quiz progress row missing for user " + userId + ", quiz " + quizPostId));
+    }
+
+    /**
+     * Derive progress rows (not persisted) from a user's quiz activities: latest graded attempt by
+     * completion time, best attempt by percentage, and the newest draft that was not submitted since.
+     */
+    private Map<Long, UserQuizProgressEntity> computeFromActivities(Long userId,
+                                                                    List<UserActivityEntity> activities) {
+        if (activities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<Long> activityIds = activities.stream().map(UserActivityEntity::getId).toList();
+        final Map<Long, Map<String, String>> metaByActivity = userActivityMetaRepository
+                .findAllByActivityIdIn(activityIds)
+                .stream()
+                .collect(groupingBy(UserActivityMetaEntity::getActivityId,
+                        toMap(UserActivityMetaEntity::getActivityMetaKey,
+                                UserActivityMetaEntity::getActivityMetaValue, (a, b) -> b)));
+
+        final Map<Long, UserActivityEntity> latestCompleted = new HashMap<>();
+        final Map<Long, UserActivityEntity> latestDraft = new HashMap<>();
+        final Map<Long, UserQuizProgressEntity> result = new HashMap<>();
+
+        for (UserActivityEntity activity : activities) {
+            final Map<String, String> meta = metaByActivity.get(activity.getId());
+            if (meta == null) {
+                continue;
+            }
+            final String hasGraded = meta.get("has_graded");
+            final boolean isDraft = "1".equals(meta.get("is_draft")) && "0".equals(hasGraded);
+
+            if (activity.getActivityCompleted() != null && activity.getActivityCompleted() > 0
+                    && ("1".equals(hasGraded) || !isDraft)) {
+                final UserQuizProgressEntity progress = result.computeIfAbsent(activity.getPostId(),
+                        postId -> newProgress(userId, postId));
+                progress.setAttemptCount(progress.getAttemptCount() + 1);
+
+                final Double percentage = parseDouble(meta.get("percentage"));
+                if (percentage != null
+                        && (progress.getBestPercentage() == null || percentage > progress.getBestPercentage())) {
+                    progress.setBestActivityId(activity.getId());
+                    progress.setBestPercentage(percentage);
+                    progress.setBestScore(parseLong(meta.get("score")));
+                }
+
+                final UserActivityEntity existing = latestCompleted.get(activity.getPostId());
+                if (existing == null || (existing.getActivityCompleted() != null
+                        && activity.getActivityCompleted() > existing.getActivityCompleted())) {
+                    latestCompleted.put(activity.getPostId(), activity);
+                }
+            }
+
+            if (isDraft) {
+                final UserActivityEntity existing = latestDraft.get(activity.getPostId());
+                if (existing == null || activity.getId() > existing.getId()) {
+                    latestDraft.put(activity.getPostId(), activity);
+                }
+            }
+        }
+
+        // Latest graded attempt: meta values plus corrects / answered rows from the statistics
+        final Map<Long, Long> refIdToPostId = new HashMap<>();
+        latestCompleted.forEach((postId, activity) -> {
+            final Map<String, String> meta = metaByActivity.get(activity.getId());
+            final UserQuizProgressEntity progress = result.get(postId);
+            progress.setLastActivityId(activity.getId());
+            progress.setLastCompletedAt(activity.getActivityCompleted());
+            progress.setLastStatisticRefId(parseLong(meta.get("statistic_ref_id")));
+            progress.setLastScore(parseLong(meta.get("score")));
+            progress.setLastPoints(parseLong(meta.get("points")));
+            progress.setLastPass(parseLong(meta.get("pass")));
+            progress.setLastPercentage(parseDouble(meta.get("percentage")));
+            progress.setLastAnsweredCount(parseLong(meta.get("answeredCount")));
+            progress.setLastCorrects(0L);
+            progress.setLastStatisticAnsweredCount(0L);
+            if (progress.getLastStatisticRefId() != null) {
+                refIdToPostId.put(progress.getLastStatisticRefId(), postId);
+            }
+        });
+        if (!refIdToPostId.isEmpty()) {
+            for (QuizStatisticEntity stat : quizStatisticRepository.findAllById_StatisticRefIdIn(refIdToPostId.keySet())) {
+                final UserQuizProgressEntity progress =
+                        result.get(refIdToPostId.get(stat.getId().getStatisticRefId()));
+                progress.setLastCorrects(progress.getLastCorrects() + Objects.requireNonNullElse(stat.getCorrectCount(), 0L));
+                if (hasAnswerData(stat.getAnswerData())) {
+                    progress.setLastStatisticAnsweredCount(progress.getLastStatisticAnsweredCount() + 1);
+                }
+            }
+        }
+
+        // Open draft: newest draft that no later graded attempt has superseded
+        latestDraft.forEach((postId, draft) -> {
+            final UserActivityEntity completed = latestCompleted.get(postId);
+            if (completed != null && completed.getId() > draft.getId()) {
+                return;
+            }
+            final Map<String, String> meta = metaByActivity.get(draft.getId());
+            final UserQuizProgressEntity progress = result.computeIfAbsent(postId, id -> newProgress(userId, id));
+            progress.setDraftActivityId(draft.getId());
+            progress.setDraftStartedAt(draft.getActivityStarted());
+            progress.setDraftElapsedTime(parseLong(meta.get("elapsed_time")));
+            progress.setDraftAnsweredCount(parseLong(meta.get("answeredCount")));
+        });
+
+        return result;
+    }
+
+    private static void applyGradedAttempt(UserQuizProgressEntity progress, GradedAttempt attempt) {
+        progress.setAttemptCount(Objects.requireNonNullElse(progress.getAttemptCount(), 0) + 1);
+
+        if (attempt.percentage != null
+                && (progress.getBestPercentage() == null || attempt.percentage > progress.getBestPercentage())) {
+            progress.setBestActivityId(attempt.activityId);
+            progress.setBestPercentage(attempt.percentage);
+            progress.setBestScore(attempt.score);
+        }
+
+        // Listings show the attempt with the latest completion time, which is not always the newest row
+        if (progress.getLastCompletedAt() == null || attempt.completedAt == null
+                || attempt.completedAt > progress.getLastCompletedAt()) {
+            progress.setLastActivityId(attempt.activityId);
+            progress.setLastCompletedAt(attempt.completedAt);
+            progress.setLastStatisticRefId(attempt.statisticRefId);
+            progress.setLastScore(attempt.score);
+            progress.setLastPoints(attempt.score);
+            progress.setLastPass(attempt.pass ? 1L : 0L);
+            progress.setLastPercentage(attempt.percentage);
+            progress.setLastAnsweredCount(attempt.answeredCount);
+            progress.setLastStatisticAnsweredCount(attempt.statisticAnsweredCount);
+            progress.setLastCorrects(attempt.corrects);
+        }
+    }
+
+    private static UserQuizProgressEntity newProgress(Long userId, Long quizPostId) {
+        final UserQuizProgressEntity progress = new UserQuizProgressEntity();
+        progress.setUserId(userId);
+        progress.setQuizPostId(quizPostId);
+        progress.setAttemptCount(0);
+        return progress;
+    }
+
+    private static void copy(UserQuizProgressEntity source, UserQuizProgressEntity target) {
+        target.setAttemptCount(source.getAttemptCount());
+        target.setLastActivityId(source.getLastActivityId());
+        target.setLastCompletedAt(source.getLastCompletedAt());
+        target.setLastStatisticRefId(source.getLastStatisticRefId());
+        target.setLastScore(source.getLastScore());
+        target.setLastPoints(source.getLastPoints());
+        target.setLastPass(source.getLastPass());
+        target.setLastPercentage(source.getLastPercentage());
+        target.setLastAnsweredCount(source.getLastAnsweredCount());
+        target.setLastStatisticAnsweredCount(source.getLastStatisticAnsweredCount());
+        target.setLastCorrects(source.getLastCorrects());
+        target.setBestActivityId(source.getBestActivityId());
+        target.setBestScore(source.getBestScore());
+        target.setBestPercentage(source.getBestPercentage());
+        target.setDraftActivityId(source.getDraftActivityId());
+        target.setDraftStartedAt(source.getDraftStartedAt());
+        target.setDraftElapsedTime(source.getDraftElapsedTime());
+        target.setDraftAnsweredCount(source.getDraftAnsweredCount());
+    }
+
+    /**
+     * Same rule as the listing: a statistic row counts as answered when its answer data is not "[]".
+     */
+    public static boolean hasAnswerData(String answerData) {
+        return answerData != null && !answerData.isEmpty() && !answerData.trim().equals("[]");
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return value == null ? null : Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return value == null ? null : Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Result of a graded submit, as written to the activity meta.
+     */
+    @Builder
+    public static class GradedAttempt {
+        private final Long activityId;
+        private final Long completedAt;
+        private final Long statisticRefId;
+        private final Long score;
+        private final Double percentage;
+        private final boolean pass;
+        private final Long answeredCount;
+        private final Long statisticAnsweredCount;
+        private final Long corrects;
+    }
+}
@@ -26,6 +26,7 @@ import org.springframework.data.domain.Pageable;
 import com.hth.udecareer.repository.AffiliateRepository;
 import com.hth.udecareer.repository.FcomUserActivityRepository;
 import com.hth.udecareer.repository.UserMetaRepository;
+import com.hth.udecareer.service.cache.AuthorProfileResolver;
 import com.hth.udecareer.service.cache.CountryCache;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
@@ -34,6 +35,7 @@ import com.hth.udecareer.entities.User;
 import com.hth.udecareer.enums.VerificationCodeType;
 import com.hth.udecareer.exception.AppException;
 import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.security.JwtPrincipalCache;
 import com.hth.udecareer.security.PhpPasswordEncoder;
 import com.hth.udecareer.model.dto.google.GoogleUserInfo;
 
@@ -61,8 +63,11 @@ public class UserService {
     private final VerificationCodeService verificationCodeService;
     private final UserMetaRepository userMetaRepository;
     private final CountryCache countryCache;
+    private final AuthorProfileResolver authorProfileResolver;
+    private final JwtPrincipalCache jwtPrincipalCache;
     private final FcomUserActivityRepository fcomUserActivitiesRepository;
     private final UserPointsService userPointsService;
+    private final LeaderboardStore leaderboardStore;
     private final AffiliateRepository affiliateRepository;
     private final com.hth.udecareer.eil.service.ReadinessService readinessService;
 
@@ -238,6 +243,9 @@ public class UserService {
         if (request.getGender() != null) {
             saveOrUpdateUserMeta(user.getId(), "gender", request.getGender().name());
         }
+
+        // Display name / avatar / gender changed: refresh cached community author profile
+        authorProfileResolver.evict(user.getId());
     }
 
     private void saveOrUpdateUserMeta(Long userId, String key, String value) {
@@ -275,6 +283,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(request.getNewPass()));
         userRepository.save(user);
+        jwtPrincipalCache.invalidate(user.getEmail());
     }
 
     public void resetPass(@NotNull ResetPasswordRequest request) throws AppException {
@@ -287,6 +296,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         userRepository.save(user);
+        jwtPrincipalCache.invalidate(user.getEmail());
 
         verificationCodeService.deleteVerificationCodeAfterUse(request.getEmail(), request.getVerificationCode(),
                 VerificationCodeType.RESET_PASS);
@@ -304,6 +314,7 @@ public class UserService {
                 .orElseThrow(() -> new AppException(ErrorCode.EMAIL_USER_NOT_FOUND));
 
         userRepository.delete(user);
+        jwtPrincipalCache.invalidate(user.getEmail());
     }
 
     public void generateVerificationCode(@NotNull String email,
@@ -456,27 +467,43 @@ public class UserService {
                 startValue = getWeekStartToday().toString();
         }
 
-        List<Object[]> rows = userMetaRepository.findTopUsersByKeyAndStart(pointKey, startKey, startValue);
+        // Redis ZSET, query DB nếu leaderboard chưa sẵn sàng
+        String storeKey = LeaderboardStore.pointsKey(type, LocalDate.now());
+        LeaderboardStore.Page storePage = leaderboardStore.page(storeKey, 0, 10);
 
-        List<LeaderBoardResponse> topUsers = mapToLeaderboard(rows);
+        List<LeaderBoardResponse> topUsers;
+        if (storePage != null) {
+            topUsers = userPointsService.toLeaderboardResponses(storePage.entries(), 1);
+        } else {
+            List<Object[]> rows = userMetaRepository.findTopUsersByKeyAndStart(pointKey, startKey, startValue);
+            topUsers = mapToLeaderboard(rows);
+        }
 
         UserRankDetail myRankDetail = null;
         if (email != null) {
             User user = userRepository.findByEmail(email).orElse(null);
             if (user != null) {
-                String myScoreStr = userMetaRepository.findMyScoreByPeriod(user.getId(), pointKey, startKey, startValue);
-
-
-                long myScore = (myScoreStr != null && !myScoreStr.isEmpty()) ? Long.parseLong(myScoreStr) : 0L;
-
+                LeaderboardStore.Position position = storePage != null
+                        ? leaderboardStore.position(storeKey, user.getId()) : null;
+                long myScore;
+                long countHigher;
+                Long nextHigherScore;
+                if (position != null) {
+                    myScore = position.score();
+                    countHigher = position.higherCount();
+                    nextHigherScore = position.nextHigherScore();
+                } else {
+                    String myScoreStr = userMetaRepository.findMyScoreByPeriod(user.getId(), pointKey, startKey, startValue);
+                    myScore = (myScoreStr != null && !myScoreStr.isEmpty()) ? Long.parseLong(myScoreStr) : 0L;
+                    countHigher = userMetaRepository.countUsersHigherPeriod(pointKey, myScore, startKey, startValue);
+                    nextHigherScore = userMetaRepository.findNextHigherScorePeriod(pointKey, myScore, startKey, startValue);
+                }
 
-                long countHigher = userMetaRepository.countUsersHigherPeriod(pointKey, myScore, startKey, startValue);
                 int myRank = 0;
                 if(myScore > 0) {
                     myRank = (int) (countHigher + 1);
                 }
 
-                Long nextHigherScore = userMetaRepository.findNextHigherScorePeriod(pointKey, myScore, startKey, startValue);
                 long pointsToNext = (nextHigherScore != null) ? (nextHigherScore - myScore + 1) : 0;
 
                 String avatar = getMeta(user.getId(), "url_image");
@@ -544,11 +571,25 @@ public class UserService {
         }
 
         int offset = page * size;
-        List<Object[]> rows = userMetaRepository.findUsersByKeyAndStartWithPagination(pointKey, startKey, startValue, size, offset);
-        long total = userMetaRepository.countUsersByKeyAndStart(pointKey, startKey, startValue);
+
+        // Redis ZSET, query DB nếu leaderboard chưa sẵn sàng
+        String storeKey = LeaderboardStore.pointsKey(type, LocalDate.now());
+        LeaderboardStore.Page storePage = leaderboardStore.page(storeKey, offset, size);
+
+        List<Object[]> rows;
+        long total;
+        List<LeaderBoardResponse> topUsers;
+        if (storePage != null) {
+            rows = List.of();
+            total = storePage.total();
+            topUsers = userPointsService.toLeaderboardResponses(storePage.entries(), offset + 1);
+        } else {
+            rows = userMetaRepository.findUsersByKeyAndStartWithPagination(pointKey, startKey, startValue, size, offset);
+            total = userMetaRepository.countUsersByKeyAndStart(pointKey, startKey, startValue);
+            topUsers = new ArrayList<>();
+        }
 
         // Calculate rank for each user (rank = offset + index + 1)
-        List<LeaderBoardResponse> topUsers = new ArrayList<>();
         int rank = offset + 1;
         for (Object[] row : rows) {
             Long userId = row[0] != null ? ((Number) row[0]).longValue() : 0L;
@@ -571,17 +612,27 @@ public class UserService {
         if (email != null) {
             User user = userRepository.findByEmail(email).orElse(null);
             if (user != null) {
-                String myScoreStr = userMetaRepository.findMyScoreByPeriod(user.getId(), pointKey, startKey, startValue);
-
-                long myScore = (myScoreStr != null && !myScoreStr.isEmpty()) ? Long.parseLong(myScoreStr) : 0L;
+                LeaderboardStore.Position position = storePage != null
+                        ? leaderboardStore.position(storeKey, user.getId()) : null;
+                long myScore;
+                long countHigher;
+                Long nextHigherScore;
+                if (position != null) {
+                    myScore = position.score();
+                    countHigher = position.higherCount();
+                    nextHigherScore = position.nextHigherScore();
+                } else {
+                    String myScoreStr = userMetaRepository.findMyScoreByPeriod(user.getId(), pointKey, startKey, startValue);
+                    myScore = (myScoreStr != null && !myScoreStr.isEmpty()) ? Long.parseLong(myScoreStr) : 0L;
+                    countHigher = userMetaRepository.countUsersHigherPeriod(pointKey, myScore, startKey, startValue);
+                    nextHigherScore = userMetaRepository.findNextHigherScorePeriod(pointKey, myScore, startKey, startValue);
+                }
 
-                long countHigher = userMetaRepository.countUsersHigherPeriod(pointKey, myScore, startKey, startValue);
                 int myRank = 0;
                 if(myScore > 0) {
                     myRank = (int) (countHigher + 1);
                 }
 
-                Long nextHigherScore = userMetaRepository.findNextHigherScorePeriod(pointKey, myScore, startKey, startValue);
                 long pointsToNext = (nextHigherScore != null) ? (nextHigherScore - myScore + 1) : 0;
 
                 String avatar = getMeta(user.getId(), "url_image");
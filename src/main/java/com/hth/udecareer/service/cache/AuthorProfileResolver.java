@@ -0,0 +1,220 @@
+package com.hth.udecareer.service.cache;
+
+import com.hth.udecareer.entities.User;
+import com.hth.udecareer.entities.UserMetaEntity;
+import com.hth.udecareer.entities.XProfileEntity;
+import com.hth.udecareer.model.response.XProfileResponse;
+import com.hth.udecareer.repository.UserMetaRepository;
+import com.hth.udecareer.repository.UserRepository;
+import com.hth.udecareer.repository.XProfileRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves community author profiles (xprofile + user + avatar/gender usermeta) for many users at once.
+ * <p>
+ * Profiles are batch-loaded with one query per table and kept in a bounded, in-process LRU cache
+ * with a short TTL, so listings and leaderboards render authors without per-row DB hits.
+ * Callers that change profile data must call {@link #evict(Long)}.
+ */
+@Component
+public class AuthorProfileResolver {
+
+    private static final String META_URL_IMAGE = "url_image";
+    private static final String META_WPCF_AVATAR = "wpcf-avatar";
+    private static final String META_GENDER = "gender";
+    private static final List<String> PROFILE_META_KEYS = List.of(META_URL_IMAGE, META_WPCF_AVATAR, META_GENDER);
+
+    private final XProfileRepository xProfileRepository;
+    private final UserRepository userRepository;
+    private final UserMetaRepository userMetaRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<Long, CachedProfile> cache;
+
+    public AuthorProfileResolver(XProfileRepository xProfileRepository,
+                                 UserRepository userRepository,
+                                 UserMetaRepository userMetaRepository,
+                                 @Value("${app.author-profile-cache.max-size:10000}") int maxSize,
+                                 @Value("${app.author-profile-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.xProfileRepository = xProfileRepository;
+        this.userRepository = userRepository;
+        this.userMetaRepository = userMetaRepository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedProfile> eldest) {
+                return size() > AuthorProfileResolver.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Resolve a single author profile. Never returns null; unknown users get an empty profile.
+     */
+    public XProfileResponse resolve(Long userId) {
+        return resolveAll(Collections.singleton(userId)).get(userId);
+    }
+
+    /**
+     * Resolve author profiles for all given user ids. Cache misses are loaded in one pass
+     * (one IN query each on xprofile, users and usermeta). Every id gets an entry in the result,
+     * and each call returns fresh response objects, so callers may mutate them.
+     */
+    public Map<Long, XProfileResponse> resolveAll(Collection<Long> userIds) {
+        Map<Long, XProfileResponse> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+
+        long now = System.currentTimeMillis();
+        Set<Long> misses = new HashSet<>();
+        synchronized (cache) {
+            for (Long userId : userIds) {
+                if (userId == null) {
+                    continue;
+                }
+                CachedProfile cached = cache.get(userId);
+                if (cached != null && cached.expiresAt > now) {
+                    result.put(userId, cached.toResponse());
+                } else {
+                    misses.add(userId);
+                }
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<Long, CachedProfile> loaded = load(misses, now + ttlMillis);
+            synchronized (cache) {
+                cache.putAll(loaded);
+            }
+            loaded.forEach((userId, profile) -> result.put(userId, profile.toResponse()));
+        }
+        return result;
+    }
+
+    /**
+     * Write-through invalidation: drop the cached profile so the next read reloads it.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.remove(userId);
+        }
+    }
+
+    public void evictAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private Map<Long, CachedProfile> load(Set<Long> userIds, long expiresAt) {
+        Map<Long, XProfileEntity> xProfiles = xProfileRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(XProfileEntity::getUserId, Function.identity(), (a, b) -> a));
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<Long, Map<String, String>> metas = new HashMap<>();
+        for (UserMetaEntity meta : userMetaRepository.findByUserIdInAndMetaKeyIn(userIds, PROFILE_META_KEYS)) {
+            if (StringUtils.isNotBlank(meta.getMetaValue())) {
+                metas.computeIfAbsent(meta.getUserId(), k -> new HashMap<>())
+                        .putIfAbsent(meta.getMetaKey(), meta.getMetaValue());
+            }
+        }
+
+        Map<Long, CachedProfile> loaded = new HashMap<>();
+        for (Long userId : userIds) {
+            XProfileEntity xp = xProfiles.get(userId);
+            User user = users.get(userId);
+            Map<String, String> userMetas = metas.getOrDefault(userId, Collections.emptyMap());
+
+            // Prefer url_image (written by the app), fall back to the legacy wpcf-avatar field
+            String avatarFromMeta = userMetas.getOrDefault(META_URL_IMAGE, userMetas.get(META_WPCF_AVATAR));
+            String gender = userMetas.get(META_GENDER);
+
+            CachedProfile profile;
+            if (xp != null) {
+                profile = new CachedProfile(
+                        xp.getUserId(),
+                        xp.getUsername(),
+                        xp.getDisplayName(),
+                        user != null ? user.getDisplayName() : null,
+                        StringUtils.isNotBlank(xp.getAvatar()) ? xp.getAvatar() : avatarFromMeta,
+                        gender,
+                        xp.getTotalPoints(),
+                        xp.getIsVerified() != null && xp.getIsVerified() == 1,
+                        expiresAt);
+            } else if (user != null) {
+                profile = new CachedProfile(
+                        user.getId(),
+                        user.getUsername(),
+                        user.getDisplayName(),
+                        user.getDisplayName(),
+                        avatarFromMeta,
+                        gender,
+                        0,
+                        false,
+                        expiresAt);
+            } else {
+                profile = new CachedProfile(userId, "", "", "", null, gender, 0, false, expiresAt);
+            }
+            loaded.put(userId, profile);
+        }
+        return loaded;
+    }
+
+    private static final class CachedProfile {
+        private final Long userId;
+        private final String username;
+        private final String displayName;
+        private final String fullName;
+        private final String avatar;
+        private final String gender;
+        private final Integer totalPoints;
+        private final boolean verified;
+        private final long expiresAt;
+
+        private CachedProfile(Long userId, String username, String displayName, String fullName,
+                              String avatar, String gender, Integer totalPoints, boolean verified,
+                              long expiresAt) {
+            this.userId = userId;
+            this.username = username;
+            this.displayName = displayName;
+            this.fullName = fullName;
+            this.avatar = avatar;
+            this.gender = gender;
+            this.totalPoints = totalPoints;
+            this.verified = verified;
+            this.expiresAt = expiresAt;
+        }
+
+        private XProfileResponse toResponse() {
+            return XProfileResponse.builder()
+                    .userId(userId)
+                    .username(username)
+                    .displayName(displayName)
+                    .fullName(fullName)
+                    .avatar(avatar)
+                    .gender(gender)
+                    .totalPoints(totalPoints)
+                    .isVerified(verified)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hth.udecareer.service.cache;
+
+import com.hth.udecareer.repository.AffiliateCommissionRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the current {@link CommissionRuleTable} so commission calculation does not read the rules per order.
+ * <p>
+ * The table is built at startup and rebuilt when the rule table signature changes (rules are managed in
+ * WordPress). Rebuilds publish a new table with a single volatile write.
+ */
+@Slf4j
+@Component
+public class CommissionRuleCache {
+
+    private final AffiliateCommissionRuleRepository commissionRuleRepository;
+
+    private volatile CommissionRuleTable table;
+
+    public CommissionRuleCache(AffiliateCommissionRuleRepository commissionRuleRepository) {
+        this.commissionRuleRepository = commissionRuleRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Will be loaded lazily on first access
+            log.error("Failed to load commission rules at startup: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild the table if a rule was added, removed or edited.
+     */
+    @Scheduled(fixedDelayString = "${app.commission-rules.refresh-interval-ms:60000}",
+            initialDelayString = "${app.commission-rules.refresh-interval-ms:60000}")
+    public void refreshIfChanged() {
+        try {
+            final CommissionRuleTable current = table;
+            if (current == null || !current.getSignature().equals(commissionRuleRepository.findChangeSignature())) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Commission rule refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reload the active rules, then atomic swap.
+     */
+    public synchronized CommissionRuleTable rebuild() {
+        final long start = System.currentTimeMillis();
+        // Signature first: a change made while loading triggers another rebuild
+        final String signature = commissionRuleRepository.findChangeSignature();
+        final CommissionRuleTable built = CommissionRuleTable.build(
+                signature, commissionRuleRepository.findByIsActiveTrueOrderByPriorityDesc());
+        table = built;
+        log.info("Commission rules rebuilt: {} rules in {} ms", built.getSize(), System.currentTimeMillis() - start);
+        return built;
+    }
+
+    /**
+     * Current table, built synchronously if none is loaded yet.
+     */
+    public CommissionRuleTable getTable() {
+        final CommissionRuleTable current = table;
+        return current != null ? current : rebuild();
+    }
+}
@@ -0,0 +1,142 @@
+package com.hth.udecareer.service.cache;
+
+import com.hth.udecareer.entities.AffiliateCommissionRule;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the active commission rules: GLOBAL rules, and AFFILIATE/PRODUCT/CATEGORY rules keyed
+ * by their target id. Built and swapped by {@link CommissionRuleCache}; the rule entities are detached and
+ * shared, so callers must not modify them.
+ * <p>
+ * Each list is in priority order (highest first, ties in database order). A lookup walks the GLOBAL list and
+ * the lists of the order's affiliate, product and category, and returns the first rule in that order that is
+ * valid at the given time and meets the minimum order amount, i.e. the same rule as a linear scan of all
+ * active rules.
+ */
+@Slf4j
+public final class CommissionRuleTable {
+
+    @Getter
+    private final String signature;
+    @Getter
+    private final long builtAt;
+    @Getter
+    private final int size;
+    private final List<RankedRule> global;
+    private final Map<Long, List<RankedRule>> byAffiliate;
+    private final Map<Long, List<RankedRule>> byProduct;
+    private final Map<Long, List<RankedRule>> byCategory;
+
+    private record RankedRule(int rank, AffiliateCommissionRule rule) {
+    }
+
+    private CommissionRuleTable(String signature, long builtAt, int size, List<RankedRule> global,
+                                Map<Long, List<RankedRule>> byAffiliate, Map<Long, List<RankedRule>> byProduct,
+                                Map<Long, List<RankedRule>> byCategory) {
+        this.signature = signature;
+        this.builtAt = builtAt;
+        this.size = size;
+        this.global = global;
+        this.byAffiliate = byAffiliate;
+        this.byProduct = byProduct;
+        this.byCategory = byCategory;
+    }
+
+    /**
+     * Index the given active rules. Rules that can never match (TIER, or a target type without a target id)
+     * are left out.
+     */
+    public static CommissionRuleTable build(String signature, List<AffiliateCommissionRule> activeRules) {
+        List<AffiliateCommissionRule> sorted = new ArrayList<>(activeRules);
+        // Stable: equal priorities keep the database order
+        sorted.sort(Comparator.comparing(AffiliateCommissionRule::getPriority,
+                                         Comparator.nullsLast(Comparator.reverseOrder())));
+
+        List<RankedRule> global = new ArrayList<>();
+        Map<Long, List<RankedRule>> byAffiliate = new HashMap<>();
+        Map<Long, List<RankedRule>> byProduct = new HashMap<>();
+        Map<Long, List<RankedRule>> byCategory = new HashMap<>();
+        int indexed = 0;
+        int skipped = 0;
+        for (AffiliateCommissionRule rule : sorted) {
+            RankedRule ranked = new RankedRule(indexed, rule);
+            boolean added = false;
+            if (rule.getRuleType() != null) {
+                switch (rule.getRuleType()) {
+                    case GLOBAL -> added = global.add(ranked);
+                    case AFFILIATE -> added = put(byAffiliate, rule.getAffiliateId(), ranked);
+                    case PRODUCT -> added = put(byProduct, rule.getProductId(), ranked);
+                    case CATEGORY -> added = put(byCategory, rule.getCategoryId(), ranked);
+                    default -> {
+                    }
+                }
+            }
+            if (added) {
+                indexed++;
+            } else {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            log.warn("{} active commission rules can never match (TIER rules are not implemented yet)", skipped);
+        }
+        return new CommissionRuleTable(signature, System.currentTimeMillis(), indexed,
+                                       Collections.unmodifiableList(global), byAffiliate, byProduct, byCategory);
+    }
+
+    /**
+     * Highest priority rule applicable to the order at {@code at}, or null.
+     */
+    public AffiliateCommissionRule match(Long affiliateId, Long productId, Long categoryId,
+                                         BigDecimal orderAmount, LocalDateTime at) {
+        RankedRule best = first(global, null, orderAmount, at);
+        best = first(lookup(byAffiliate, affiliateId), best, orderAmount, at);
+        best = first(lookup(byProduct, productId), best, orderAmount, at);
+        best = first(lookup(byCategory, categoryId), best, orderAmount, at);
+        return best != null ? best.rule() : null;
+    }
+
+    /**
+     * First applicable rule of {@code rules} ranked before {@code best}, else {@code best}.
+     */
+    private static RankedRule first(List<RankedRule> rules, RankedRule best, BigDecimal orderAmount,
+                                    LocalDateTime at) {
+        for (RankedRule ranked : rules) {
+            if (best != null && ranked.rank() >= best.rank()) {
+                break;
+            }
+            if (isApplicable(ranked.rule(), orderAmount, at)) {
+                return ranked;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isApplicable(AffiliateCommissionRule rule, BigDecimal orderAmount, LocalDateTime at) {
+        if (rule.getValidFrom() != null && at.isBefore(rule.getValidFrom())) {
+            return false;
+        }
+        if (rule.getValidUntil() != null && at.isAfter(rule.getValidUntil())) {
+            return false;
+        }
+        return rule.getMinOrderAmount() == null || orderAmount.compareTo(rule.getMinOrderAmount()) >= 0;
+    }
+
+    private static List<RankedRule> lookup(Map<Long, List<RankedRule>> index, Long id) {
+        return id != null ? index.getOrDefault(id, List.of()) : List.of();
+    }
+
+    private static boolean put(Map<Long, List<RankedRule>> index, Long id, RankedRule ranked) {
+        return id != null && index.computeIfAbsent(id, key -> new ArrayList<>()).add(ranked);
+    }
+}
@@ -0,0 +1,431 @@
+package com.hth.udecareer.service.cache;
+
+import com.hth.udecareer.service.GeoIPService.GeoIPResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable IP range → country/city index, answered by binary search over sorted primitive arrays.
+ * <p>
+ * IPv4 ranges are held as unsigned 32-bit values in {@code long[]}, IPv6 ranges as (high, low) 64-bit
+ * halves compared unsigned. Each range points into a shared, de-duplicated location table.
+ * <p>
+ * Dataset: CSV, one range per line, either {@code network/prefix,country_code[,city]} or
+ * {@code start_ip,end_ip,country_code[,city]} (IPv4 or IPv6; fields may be quoted). Lines starting
+ * with {@code #} and lines that do not parse (e.g. a header) are skipped. Ranges must not overlap.
+ */
+public final class GeoIPRangeIndex {
+
+    public static final GeoIPRangeIndex EMPTY = new Builder().build();
+
+    private static final long V4_MASK = 0xFFFFFFFFL;
+
+    private final long[] v4Start;
+    private final long[] v4End;
+    private final int[] v4Location;
+
+    private final long[] v6StartHi;
+    private final long[] v6StartLo;
+    private final long[] v6EndHi;
+    private final long[] v6EndLo;
+    private final int[] v6Location;
+
+    private final GeoIPResult[] locations;
+    private final int skippedLines;
+
+    private GeoIPRangeIndex(Builder builder) {
+        int[] v4Order = builder.order(builder.v4Count, builder::compareV4);
+        this.v4Start = new long[v4Order.length];
+        this.v4End = new long[v4Order.length];
+        this.v4Location = new int[v4Order.length];
+        for (int i = 0; i < v4Order.length; i++) {
+            int row = v4Order[i];
+            v4Start[i] = builder.v4Start[row];
+            v4End[i] = builder.v4End[row];
+            v4Location[i] = builder.v4Location[row];
+        }
+
+        int[] v6Order = builder.order(builder.v6Count, builder::compareV6);
+        this.v6StartHi = new long[v6Order.length];
+        this.v6StartLo = new long[v6Order.length];
+        this.v6EndHi = new long[v6Order.length];
+        this.v6EndLo = new long[v6Order.length];
+        this.v6Location = new int[v6Order.length];
+        for (int i = 0; i < v6Order.length; i++) {
+            int row = v6Order[i];
+            v6StartHi[i] = builder.v6StartHi[row];
+            v6StartLo[i] = builder.v6StartLo[row];
+            v6EndHi[i] = builder.v6EndHi[row];
+            v6EndLo[i] = builder.v6EndLo[row];
+            v6Location[i] = builder.v6Location[row];
+        }
+
+        this.locations = builder.locations.toArray(new GeoIPResult[0]);
+        this.skippedLines = builder.skippedLines;
+    }
+
+    /**
+     * Load a dataset file.
+     */
+    public static GeoIPRangeIndex load(Path path) throws IOException {
+        Builder builder = new Builder();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.addLine(line);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Location of an IP address literal, or {@code null} when it is not covered (or not an IP literal).
+     * Never resolves host names.
+     */
+    public GeoIPResult lookup(String ipAddress) {
+        if (ipAddress == null || ipAddress.isEmpty()) {
+            return null;
+        }
+        long v4 = parseIPv4(ipAddress);
+        if (v4 >= 0) {
+            return lookupV4(v4);
+        }
+        byte[] bytes = parseIPv6(ipAddress);
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == 4) {
+            // IPv4-mapped IPv6 address
+            return lookupV4(toLong(bytes, 0, 4));
+        }
+        return lookupV6(toLong(bytes, 0, 8), toLong(bytes, 8, 8));
+    }
+
+    public int ipv4Ranges() {
+        return v4Start.length;
+    }
+
+    public int ipv6Ranges() {
+        return v6Location.length;
+    }
+
+    public int skippedLines() {
+        return skippedLines;
+    }
+
+    private GeoIPResult lookupV4(long ip) {
+        // Last range starting at or before ip
+        int low = 0;
+        int high = v4Start.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (v4Start[mid] <= ip) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found >= 0 && ip <= v4End[found] ? locations[v4Location[found]] : null;
+    }
+
+    private GeoIPResult lookupV6(long hi, long lo) {
+        int low = 0;
+        int high = v6Location.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare128(v6StartHi[mid], v6StartLo[mid], hi, lo) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found >= 0 && compare128(hi, lo, v6EndHi[found], v6EndLo[found]) <= 0
+                ? locations[v6Location[found]]
+                : null;
+    }
+
+    private static int compare128(long aHi, long aLo, long bHi, long bLo) {
+        int cmp = Long.compareUnsigned(aHi, bHi);
+        return cmp != 0 ? cmp : Long.compareUnsigned(aLo, bLo);
+    }
+
+    /**
+     * Strict dotted-quad IPv4 parser; -1 when the text is not one.
+     */
+    static long parseIPv4(String text) {
+        long value = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 3) {
+                value = (value << 8) | octet;
+                octets++;
+                octet = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (octet < 0 || octets != 3) {
+            return -1;
+        }
+        return (value << 8) | octet;
+    }
+
+    /**
+     * IPv6 literal bytes (16, or 4 for an IPv4-mapped address); {@code null} when not a literal.
+     * Only hex digits, ':' and '.' are passed to InetAddress, which parses such text as a literal
+     * and never falls back to a DNS lookup.
+     */
+    private static byte[] parseIPv6(String text) {
+        if (text.indexOf(':') < 0) {
+            return null;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != ':' && c != '.' && Character.digit(c, 16) < 0) {
+                return null;
+            }
+        }
+        try {
+            return InetAddress.getByName(text).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static long toLong(byte[] bytes, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Collects ranges before they are sorted into the index.
+     */
+    public static final class Builder {
+
+        private long[] v4Start = new long[64];
+        private long[] v4End = new long[64];
+        private int[] v4Location = new int[64];
+        private int v4Count;
+        private long[] v6StartHi = new long[16];
+        private long[] v6StartLo = new long[16];
+        private long[] v6EndHi = new long[16];
+        private long[] v6EndLo = new long[16];
+        private int[] v6Location = new int[16];
+        private int v6Count;
+        private final List<GeoIPResult> locations = new ArrayList<>();
+        private final Map<String, Integer> locationIds = new HashMap<>();
+        private int skippedLines;
+
+        public Builder addLine(String line) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                return this;
+            }
+            List<String> fields = splitCsv(trimmed);
+            boolean cidr = !fields.isEmpty() && fields.get(0).indexOf('/') > 0;
+            int countryField = cidr ? 1 : 2;
+            if (fields.size() <= countryField
+                    || !(cidr ? addNetwork(fields.get(0), fields.get(1), field(fields, 2))
+                              : addRange(fields.get(0), fields.get(1), fields.get(2), field(fields, 3)))) {
+                skippedLines++;
+            }
+            return this;
+        }
+
+        public boolean addNetwork(String network, String countryCode, String city) {
+            int slash = network.indexOf('/');
+            int prefix;
+            try {
+                prefix = Integer.parseInt(network.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            long[] address = parseAddress(network.substring(0, slash));
+            if (address == null) {
+                return false;
+            }
+            if (address.length == 1) {
+                if (prefix < 0 || prefix > 32) {
+                    return false;
+                }
+                long hostMask = prefix == 0 ? V4_MASK : (1L << (32 - prefix)) - 1;
+                long start = address[0] & ~hostMask & V4_MASK;
+                return addV4(start, start | hostMask, countryCode, city);
+            }
+            if (prefix < 0 || prefix > 128) {
+                return false;
+            }
+            long hiHostMask = prefix >= 64 ? 0 : (prefix == 0 ? -1L : -1L >>> prefix);
+            long loHostMask = prefix >= 128 ? 0 : (prefix <= 64 ? -1L : -1L >>> (prefix - 64));
+            long startHi = address[0] & ~hiHostMask;
+            long startLo = address[1] & ~loHostMask;
+            return addV6(startHi, startLo, startHi | hiHostMask, startLo | loHostMask, countryCode, city);
+        }
+
+        public boolean addRange(String startIp, String endIp, String countryCode, String city) {
+            long[] start = parseAddress(startIp);
+            long[] end = parseAddress(endIp);
+            if (start == null || end == null || start.length != end.length) {
+                return false;
+            }
+            if (start.length == 1) {
+                return start[0] <= end[0] && addV4(start[0], end[0], countryCode, city);
+            }
+            return compare128(start[0], start[1], end[0], end[1]) <= 0
+                    && addV6(start[0], start[1], end[0], end[1], countryCode, city);
+        }
+
+        public GeoIPRangeIndex build() {
+            return new GeoIPRangeIndex(this);
+        }
+
+        private boolean addV4(long start, long end, String countryCode, String city) {
+            Integer location = location(countryCode, city);
+            if (location == null) {
+                return false;
+            }
+            if (v4Count == v4Start.length) {
+                int capacity = v4Count * 2;
+                v4Start = Arrays.copyOf(v4Start, capacity);
+                v4End = Arrays.copyOf(v4End, capacity);
+                v4Location = Arrays.copyOf(v4Location, capacity);
+            }
+            v4Start[v4Count] = start;
+            v4End[v4Count] = end;
+            v4Location[v4Count] = location;
+            v4Count++;
+            return true;
+        }
+
+        private boolean addV6(long startHi, long startLo, long endHi, long endLo, String countryCode, String city) {
+            Integer location = location(countryCode, city);
+            if (location == null) {
+                return false;
+            }
+            if (v6Count == v6Location.length) {
+                int capacity = v6Count * 2;
+                v6StartHi = Arrays.copyOf(v6StartHi, capacity);
+                v6StartLo = Arrays.copyOf(v6StartLo, capacity);
+                v6EndHi = Arrays.copyOf(v6EndHi, capacity);
+                v6EndLo = Arrays.copyOf(v6EndLo, capacity);
+                v6Location = Arrays.copyOf(v6Location, capacity);
+            }
+            v6StartHi[v6Count] = startHi;
+            v6StartLo[v6Count] = startLo;
+            v6EndHi[v6Count] = endHi;
+            v6EndLo[v6Count] = endLo;
+            v6Location[v6Count] = location;
+            v6Count++;
+            return true;
+        }
+
+        private Integer location(String countryCode, String city) {
+            if (countryCode == null || countryCode.isEmpty()) {
+                return null;
+            }
+            String cityName = city == null || city.isEmpty() ? null : city;
+            return locationIds.computeIfAbsent(countryCode + '\u0000' + (cityName != null ? cityName : ""), key -> {
+                locations.add(new GeoIPResult(countryCode, cityName));
+                return locations.size() - 1;
+            });
+        }
+
+        /**
+         * {@code [ipv4]} or {@code [high, low]} for IPv6; {@code null} when not an IP literal.
+         */
+        private static long[] parseAddress(String text) {
+            long v4 = parseIPv4(text);
+            if (v4 >= 0) {
+                return new long[]{v4};
+            }
+            byte[] bytes = parseIPv6(text);
+            if (bytes == null) {
+                return null;
+            }
+            return bytes.length == 4
+                    ? new long[]{toLong(bytes, 0, 4)}
+                    : new long[]{toLong(bytes, 0, 8), toLong(bytes, 8, 8)};
+        }
+
+        private int compareV4(int a, int b) {
+            return Long.compare(v4Start[a], v4Start[b]);
+        }
+
+        private int compareV6(int a, int b) {
+            return compare128(v6StartHi[a], v6StartLo[a], v6StartHi[b], v6StartLo[b]);
+        }
+
+        /**
+         * Row order by range start; datasets are usually sorted already, which skips the sort.
+         */
+        private int[] order(int size, Comparator<Integer> comparator) {
+            boolean sorted = true;
+            for (int i = 1; i < size && sorted; i++) {
+                sorted = comparator.compare(i - 1, i) <= 0;
+            }
+            if (sorted) {
+                int[] identity = new int[size];
+                Arrays.setAll(identity, i -> i);
+                return identity;
+            }
+            Integer[] rows = new Integer[size];
+            Arrays.setAll(rows, i -> i);
+            Arrays.sort(rows, comparator);
+            return Arrays.stream(rows).mapToInt(Integer::intValue).toArray();
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index < fields.size() ? fields.get(index) : null;
+        }
+
+        private static List<String> splitCsv(String line) {
+            List<String> fields = new ArrayList<>(4);
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = !quoted;
+                    }
+                } else if (c == ',' && !quoted) {
+                    fields.add(current.toString().trim());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            fields.add(current.toString().trim());
+            return fields;
+        }
+    }
+}
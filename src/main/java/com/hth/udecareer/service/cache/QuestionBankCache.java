@@ -0,0 +1,207 @@
+package com.hth.udecareer.service.cache;
+
+import com.google.common.collect.Lists;
+import com.hth.udecareer.entities.QuestionEntity;
+import com.hth.udecareer.model.dto.AnswerKey;
+import com.hth.udecareer.model.response.QuestionResponse;
+import com.hth.udecareer.repository.QuestionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Parsed {@link QuestionResponse} per pro-quiz question, so answer blobs and HTML are processed once.
+ * <p>
+ * {@code wp_learndash_pro_quiz_question} has no modification column, so each entry carries a fingerprint
+ * of the row's content: {@link #get(QuestionEntity)} reparses when the row it is given differs. Lookups by
+ * id trust the entry until it is older than the max age; {@link QuizCatalogCache} also clears the cache
+ * when the quiz/question post signature changes. Callers always get a copy they are free to modify.
+ * Each entry also holds the question's {@link AnswerKey} for grading.
+ */
+@Component
+public class QuestionBankCache {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final QuestionRepository questionRepository;
+    private final int maxSize;
+    private final long maxAgeMillis;
+    private final LinkedHashMap<Long, Entry> cache;
+
+    public QuestionBankCache(QuestionRepository questionRepository,
+                             @Value("${app.question-bank-cache.max-size:20000}") int maxSize,
+                             @Value("${app.question-bank-cache.max-age-ms:1800000}") long maxAgeMillis) {
+        this.questionRepository = questionRepository;
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+        this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > QuestionBankCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Parsed form of a row the caller already loaded; reparsed if the row changed since it was cached.
+     */
+    public QuestionResponse get(QuestionEntity entity) {
+        return entry(entity).response().copy();
+    }
+
+    /**
+     * Answer key of a row the caller already loaded, see {@link #get(QuestionEntity)}.
+     */
+    public AnswerKey getAnswerKey(QuestionEntity entity) {
+        return entry(entity).answerKey();
+    }
+
+    public Optional<QuestionResponse> findById(Long id) {
+        return findEntry(id).map(entry -> entry.response().copy());
+    }
+
+    public Optional<AnswerKey> findAnswerKey(Long id) {
+        return findEntry(id).map(Entry::answerKey);
+    }
+
+    /**
+     * Parsed questions in the order of {@code ids}; unknown ids are skipped. Misses are loaded in batches.
+     */
+    public List<QuestionResponse> getAll(Collection<Long> ids) {
+        final List<QuestionResponse> result = new ArrayList<>(ids == null ? 0 : ids.size());
+        for (Entry entry : entries(ids)) {
+            result.add(entry.response().copy());
+        }
+        return result;
+    }
+
+    /**
+     * Answer keys in the order of {@code ids}, loaded like {@link #getAll(Collection)}. Keys are shared, not copied.
+     */
+    public List<AnswerKey> getAnswerKeys(Collection<Long> ids) {
+        final List<AnswerKey> result = new ArrayList<>(ids == null ? 0 : ids.size());
+        for (Entry entry : entries(ids)) {
+            result.add(entry.answerKey());
+        }
+        return result;
+    }
+
+    /**
+     * Question titles by id, loaded like {@link #getAll(Collection)}.
+     */
+    public Map<Long, String> getTitles(Collection<Long> ids) {
+        final Map<Long, String> titles = new HashMap<>();
+        for (Entry entry : entries(ids)) {
+            titles.put(entry.response().getId(), entry.response().getTitle());
+        }
+        return titles;
+    }
+
+    public void evictAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private Entry entry(QuestionEntity entity) {
+        final long stamp = stamp(entity);
+        synchronized (cache) {
+            final Entry cached = cache.get(entity.getId());
+            if (cached != null && cached.stamp() == stamp) {
+                return cached;
+            }
+        }
+        return put(entity, stamp);
+    }
+
+    private Optional<Entry> findEntry(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        final List<Entry> found = entries(List.of(id));
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    private List<Entry> entries(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        final long now = System.currentTimeMillis();
+        final Map<Long, Entry> found = new HashMap<>(ids.size() * 2);
+        final Set<Long> misses = new LinkedHashSet<>();
+        synchronized (cache) {
+            for (Long id : ids) {
+                if (id == null) {
+                    continue;
+                }
+                final Entry cached = cache.get(id);
+                if (cached != null && now - cached.loadedAt() <= maxAgeMillis) {
+                    found.put(id, cached);
+                } else {
+                    misses.add(id);
+                }
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            // Load and parse outside the lock; a concurrent duplicate load is harmless
+            for (List<Long> batch : Lists.partition(new ArrayList<>(misses), BATCH_SIZE)) {
+                for (QuestionEntity entity : questionRepository.findAllByIdIn(batch)) {
+                    found.put(entity.getId(), put(entity, stamp(entity)));
+                }
+            }
+        }
+
+        final List<Entry> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            final Entry entry = id != null ? found.get(id) : null;
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private Entry put(QuestionEntity entity, long stamp) {
+        final QuestionResponse parsed = QuestionResponse.from(entity);
+        final Entry entry = new Entry(stamp, System.currentTimeMillis(), parsed, AnswerKey.from(parsed));
+        synchronized (cache) {
+            cache.put(entity.getId(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Content fingerprint of every column {@link QuestionResponse#from(QuestionEntity)} reads.
+     */
+    private static long stamp(QuestionEntity entity) {
+        final int hash = Objects.hash(entity.getQuizId(), entity.getSort(), entity.getTitle(), entity.getPoints(),
+                                      entity.getQuestion(), entity.getCorrectMsg(), entity.getIncorrectMsg(),
+                                      entity.getCorrectSameText(), entity.getTipEnabled(), entity.getTipMsg(),
+                                      entity.getAnswerType(), entity.getShowPointsInBox(),
+                                      entity.getAnswerPointsActivated(), entity.getAnswerData(),
+                                      entity.getCategoryId(), entity.getAnswerPointsDiffModusActivated(),
+                                      entity.getDisableCorrect(), entity.getMatrixSortAnswerCriteriaWidth());
+        final int length = entity.getAnswerData() == null ? -1 : entity.getAnswerData().length();
+        return ((long) hash << 32) | (length & 0xFFFFFFFFL);
+    }
+
+    private record Entry(long stamp, long loadedAt, QuestionResponse response, AnswerKey answerKey) {
+    }
+}
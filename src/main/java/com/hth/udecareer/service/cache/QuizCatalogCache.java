@@ -0,0 +1,231 @@
+package com.hth.udecareer.service.cache;
+
+import com.google.common.collect.Lists;
+import com.hth.udecareer.entities.PostMeta;
+import com.hth.udecareer.entities.QuizCategoryEntity;
+import com.hth.udecareer.enums.PostStatus;
+import com.hth.udecareer.model.dto.QuizDto;
+import com.hth.udecareer.repository.PostMetaRepository;
+import com.hth.udecareer.repository.QuestionRepository;
+import com.hth.udecareer.repository.QuizCategoryRepository;
+import com.hth.udecareer.repository.QuizMasterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Holds the current {@link QuizCatalogSnapshot} so quiz listings only query per-user data per request.
+ * <p>
+ * The snapshot is built at startup and rebuilt when the catalog signature (quiz/question post count and
+ * max {@code post_modified}, category table) changes, or when it is older than the max age. Rebuilds
+ * publish a new snapshot with a single volatile write. Quizzes published after the last rebuild are loaded
+ * on first access and merged into the current snapshot. A signature change also clears the
+ * {@link QuestionBankCache}.
+ */
+@Slf4j
+@Component
+public class QuizCatalogCache {
+
+    private static final List<PostStatus> ACTIVE_STATUSES = List.of(PostStatus.PUBLISH, PostStatus.PRIVATE);
+    private static final String QUIZ_POST_TYPE = "sfwd-quiz";
+    private static final String META_QUESTIONS = "ld_quiz_questions";
+    private static final String META_SETTINGS = "_sfwd-quiz";
+    private static final int BATCH_SIZE = 1000;
+
+    private final QuizMasterRepository quizMasterRepository;
+    private final PostMetaRepository postMetaRepository;
+    private final QuestionRepository questionRepository;
+    private final QuizCategoryRepository quizCategoryRepository;
+    private final QuizMetaCache quizMetaCache;
+    private final QuestionBankCache questionBankCache;
+    private final long maxAgeMillis;
+
+    private volatile QuizCatalogSnapshot snapshot;
+
+    public QuizCatalogCache(QuizMasterRepository quizMasterRepository,
+                            PostMetaRepository postMetaRepository,
+                            QuestionRepository questionRepository,
+                            QuizCategoryRepository quizCategoryRepository,
+                            QuizMetaCache quizMetaCache,
+                            QuestionBankCache questionBankCache,
+                            @Value("${app.quiz-catalog.max-age-ms:1800000}") long maxAgeMillis) {
+        this.quizMasterRepository = quizMasterRepository;
+        this.postMetaRepository = postMetaRepository;
+        this.questionRepository = questionRepository;
+        this.quizCategoryRepository = quizCategoryRepository;
+        this.quizMetaCache = quizMetaCache;
+        this.questionBankCache = questionBankCache;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Will be loaded lazily on first access
+            log.error("Failed to load quiz catalog at startup: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild the snapshot if the catalog changed in WordPress or the snapshot is too old.
+     */
+    @Scheduled(fixedDelayString = "${app.quiz-catalog.refresh-interval-ms:60000}",
+            initialDelayString = "${app.quiz-catalog.refresh-interval-ms:60000}")
+    public void refreshIfChanged() {
+        try {
+            final QuizCatalogSnapshot current = snapshot;
+            if (current == null
+                    || System.currentTimeMillis() - current.getBuiltAt() > maxAgeMillis
+                    || !current.getSignature().equals(readSignature())) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Quiz catalog refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Full rebuild of all active quizzes, then atomic swap.
+     */
+    public synchronized QuizCatalogSnapshot rebuild() {
+        final long start = System.currentTimeMillis();
+        final String signature = readSignature();
+        final QuizCatalogSnapshot previous = snapshot;
+        if (previous != null && !previous.getSignature().equals(signature)) {
+            // A quiz or question post was edited; parsed questions may be stale
+            questionBankCache.evictAll();
+        }
+
+        final List<QuizCategoryEntity> categories = quizCategoryRepository.findAll();
+        final List<QuizCategoryEntity> activeCategories = activeCategories(categories);
+        final List<QuizDto> quizzes = quizMasterRepository.findActiveQuizzes(ACTIVE_STATUSES, QUIZ_POST_TYPE);
+
+        final QuizCatalogSnapshot built = new QuizCatalogSnapshot(
+                signature, start, loadEntries(quizzes, activeCategories), categories, activeCategories);
+        snapshot = built;
+        log.info("Quiz catalog rebuilt: {} quizzes in {} ms", built.size(), System.currentTimeMillis() - start);
+        return built;
+    }
+
+    /**
+     * Current snapshot, built synchronously if none is loaded yet.
+     */
+    public QuizCatalogSnapshot getSnapshot() {
+        final QuizCatalogSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Catalog entries for the given quizzes, keyed by post id. Quizzes missing from the snapshot are
+     * loaded from the database and merged in, so the result covers every quiz passed in.
+     */
+    public Map<Long, QuizCatalogSnapshot.QuizEntry> getEntries(Collection<QuizDto> quizzes) {
+        final QuizCatalogSnapshot current = getSnapshot();
+        final Map<Long, QuizCatalogSnapshot.QuizEntry> result = new HashMap<>();
+        final List<QuizDto> misses = new ArrayList<>();
+        for (QuizDto quiz : quizzes) {
+            final QuizCatalogSnapshot.QuizEntry entry = current.getByPostId(quiz.getPostId());
+            if (entry != null) {
+                result.put(quiz.getPostId(), entry);
+            } else {
+                misses.add(quiz);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            final Map<Long, QuizCatalogSnapshot.QuizEntry> loaded = loadEntries(misses, current.getActiveCategories());
+            result.putAll(loaded);
+            synchronized (this) {
+                // Only merge into the snapshot we loaded against; a concurrent rebuild already has them
+                if (snapshot == current) {
+                    snapshot = current.withEntries(loaded);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, QuizCatalogSnapshot.QuizEntry> loadEntries(Collection<QuizDto> quizzes,
+                                                                 List<QuizCategoryEntity> activeCategories) {
+        final Map<Long, QuizCatalogSnapshot.QuizEntry> entries = new HashMap<>(quizzes.size() * 2);
+        if (quizzes.isEmpty()) {
+            return entries;
+        }
+        final List<Long> postIds = quizzes.stream().map(QuizDto::getPostId).distinct().toList();
+
+        final Map<Long, List<Long>> postIdToQuestionIds = new HashMap<>();
+        final Map<Long, Integer> postIdToPassingPercentage = new HashMap<>();
+        for (List<Long> batch : Lists.partition(postIds, BATCH_SIZE)) {
+            for (PostMeta meta : postMetaRepository.findAllByPostIdInAndMetaKey(batch, META_QUESTIONS)) {
+                postIdToQuestionIds.putIfAbsent(meta.getPostId(), quizMetaCache.getQuestionIds(meta));
+            }
+            for (PostMeta meta : postMetaRepository.findAllByPostIdInAndMetaKey(batch, META_SETTINGS)) {
+                final Integer passingPercentage = quizMetaCache.getSettings(meta).getPassingPercentage();
+                if (passingPercentage != null) {
+                    postIdToPassingPercentage.putIfAbsent(meta.getPostId(), passingPercentage);
+                }
+            }
+        }
+
+        final Set<Long> questionIds = new LinkedHashSet<>();
+        postIdToQuestionIds.values().forEach(questionIds::addAll);
+        final Map<Long, Long> questionPoints = new HashMap<>(questionIds.size() * 2);
+        for (List<Long> batch : Lists.partition(new ArrayList<>(questionIds), BATCH_SIZE)) {
+            for (Tuple tuple : questionRepository.findPointsByIdIn(batch)) {
+                final Number points = tuple.get(1, Number.class);
+                questionPoints.put(tuple.get(0, Long.class), points == null ? 0L : points.longValue());
+            }
+        }
+
+        for (QuizDto quiz : quizzes) {
+            final List<Long> quizQuestionIds = postIdToQuestionIds.getOrDefault(quiz.getPostId(), List.of());
+            final long totalPoints = quizQuestionIds.stream()
+                    .map(questionPoints::get)
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::longValue)
+                    .sum();
+            final QuizCategoryEntity category = activeCategories.stream()
+                    .filter(cat -> quiz.isCategory(cat.getTitle()))
+                    .findFirst()
+                    .orElse(null);
+
+            entries.put(quiz.getPostId(), new QuizCatalogSnapshot.QuizEntry(
+                    quiz.getId(),
+                    quiz.getPostId(),
+                    quizQuestionIds,
+                    totalPoints,
+                    postIdToPassingPercentage.get(quiz.getPostId()),
+                    category != null ? category.getCode() : null,
+                    category != null ? category.getTitle() : null));
+        }
+        return entries;
+    }
+
+    private static List<QuizCategoryEntity> activeCategories(List<QuizCategoryEntity> categories) {
+        return categories.stream()
+                .filter(cat -> Boolean.TRUE.equals(cat.getEnable()))
+                .sorted(Comparator.comparing(QuizCategoryEntity::getOrder,
+                                             Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private String readSignature() {
+        return quizMasterRepository.findCatalogSignature() + "|" + quizCategoryRepository.findChangeSignature();
+    }
+}
@@ -0,0 +1,107 @@
+package com.hth.udecareer.service.cache;
+
+import com.hth.udecareer.entities.QuizCategoryEntity;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable view of the quiz catalog: the per-quiz data that only changes when editors publish in WordPress
+ * (question ids, point totals, passing percentage, category). Built and swapped by {@link QuizCatalogCache}.
+ */
+public final class QuizCatalogSnapshot {
+
+    @Getter
+    private final String signature;
+    @Getter
+    private final long builtAt;
+    private final Map<Long, QuizEntry> byPostId;
+    private final Map<Long, Long> quizIdToPostId;
+    private final Map<String, QuizCategoryEntity> categoriesByCode;
+    @Getter
+    private final List<QuizCategoryEntity> activeCategories;
+
+    QuizCatalogSnapshot(String signature, long builtAt, Map<Long, QuizEntry> byPostId,
+                        List<QuizCategoryEntity> categories, List<QuizCategoryEntity> activeCategories) {
+        this.signature = signature;
+        this.builtAt = builtAt;
+        this.byPostId = byPostId;
+        this.activeCategories = Collections.unmodifiableList(activeCategories);
+
+        final Map<Long, Long> quizIds = new HashMap<>(byPostId.size() * 2);
+        byPostId.values().forEach(entry -> quizIds.put(entry.getQuizId(), entry.getPostId()));
+        this.quizIdToPostId = quizIds;
+
+        // Codes are matched case-insensitively, as the database lookup did
+        final Map<String, QuizCategoryEntity> byCode = new HashMap<>(categories.size() * 2);
+        categories.stream()
+                .filter(category -> category.getCode() != null)
+                .forEach(category -> byCode.putIfAbsent(normalizeCode(category.getCode()), category));
+        this.categoriesByCode = byCode;
+    }
+
+    /**
+     * Copy of this snapshot with extra entries (quizzes published after the last rebuild).
+     */
+    QuizCatalogSnapshot withEntries(Map<Long, QuizEntry> extra) {
+        final Map<Long, QuizEntry> merged = new HashMap<>(byPostId);
+        merged.putAll(extra);
+        return new QuizCatalogSnapshot(signature, builtAt, merged,
+                                       List.copyOf(categoriesByCode.values()), activeCategories);
+    }
+
+    public QuizEntry getByPostId(Long postId) {
+        return byPostId.get(postId);
+    }
+
+    public Long getPostIdByQuizId(Long quizId) {
+        return quizIdToPostId.get(quizId);
+    }
+
+    public Optional<QuizCategoryEntity> findCategoryByCode(String code) {
+        return code != null ? Optional.ofNullable(categoriesByCode.get(normalizeCode(code))) : Optional.empty();
+    }
+
+    private static String normalizeCode(String code) {
+        return code.toLowerCase(Locale.ROOT);
+    }
+
+    public boolean existsCategoryTitle(String title) {
+        return categoriesByCode.values().stream().anyMatch(c -> title.equalsIgnoreCase(c.getTitle()));
+    }
+
+    public int size() {
+        return byPostId.size();
+    }
+
+    @Getter
+    public static final class QuizEntry {
+        private final Long quizId;
+        private final Long postId;
+        private final List<Long> questionIds;
+        private final long totalPoints;
+        private final Integer passingPercentage;
+        private final String categoryCode;
+        private final String categoryTitle;
+
+        QuizEntry(Long quizId, Long postId, List<Long> questionIds, long totalPoints,
+                  Integer passingPercentage, String categoryCode, String categoryTitle) {
+            this.quizId = quizId;
+            this.postId = postId;
+            this.questionIds = questionIds;
+            this.totalPoints = totalPoints;
+            this.passingPercentage = passingPercentage;
+            this.categoryCode = categoryCode;
+            this.categoryTitle = categoryTitle;
+        }
+
+        public boolean hasCategory() {
+            return categoryCode != null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hth.udecareer.service.cache;
+
+import com.hth.udecareer.entities.PostMeta;
+import com.hth.udecareer.model.dto.QuizSettings;
+import com.hth.udecareer.utils.PhpSerializedParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Parsed-form cache for the serialized quiz post metas ({@code _sfwd-quiz}, {@code ld_quiz_questions}).
+ * <p>
+ * Entries are keyed by (post id, meta id, value hash/length), so an edited meta row misses the cache
+ * naturally and no explicit invalidation is needed; the LRU bound keeps stale entries from piling up.
+ */
+@Slf4j
+@Component
+public class QuizMetaCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, Object> cache;
+
+    public QuizMetaCache(@Value("${app.quiz-meta-cache.max-size:5000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > QuizMetaCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Settings of a {@code _sfwd-quiz} meta row. Never null; a missing row gives {@link QuizSettings#EMPTY}.
+     */
+    public QuizSettings getSettings(PostMeta postMeta) {
+        if (postMeta == null || postMeta.getMetaValue() == null) {
+            return QuizSettings.EMPTY;
+        }
+        return get(postMeta, value -> QuizSettings.from(PhpSerializedParser.parseSettings(value)));
+    }
+
+    /**
+     * Pro-quiz question ids of a {@code ld_quiz_questions} meta row, in quiz order. Never null.
+     */
+    public List<Long> getQuestionIds(PostMeta postMeta) {
+        if (postMeta == null || postMeta.getMetaValue() == null) {
+            return Collections.emptyList();
+        }
+        return get(postMeta, value -> {
+            try {
+                return Collections.unmodifiableList(PhpSerializedParser.parseLongValues(value));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid ld_quiz_questions for post {}: {}", postMeta.getPostId(), e.getMessage());
+                return Collections.<Long>emptyList();
+            }
+        });
+    }
+
+    public void evictAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(PostMeta postMeta, Function<String, T> parser) {
+        final String value = postMeta.getMetaValue();
+        final Key key = new Key(postMeta.getPostId(), postMeta.getId(), postMeta.getMetaKey(),
+                                value.hashCode(), value.length());
+        synchronized (cache) {
+            final Object cached = cache.get(key);
+            if (cached != null) {
+                return (T) cached;
+            }
+        }
+
+        // Parse outside the lock; a concurrent duplicate parse is harmless
+        final T parsed = parser.apply(value);
+        synchronized (cache) {
+            cache.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    private static final class Key {
+        private final Long postId;
+        private final Long metaId;
+        private final String metaKey;
+        private final int valueHash;
+        private final int valueLength;
+
+        private Key(Long postId, Long metaId, String metaKey, int valueHash, int valueLength) {
+            this.postId = postId;
+            this.metaId = metaId;
+            this.metaKey = metaKey;
+            this.valueHash = valueHash;
+            this.valueLength = valueLength;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return valueHash == other.valueHash
+                    && valueLength == other.valueLength
+                    && Objects.equals(postId, other.postId)
+                    && Objects.equals(metaId, other.metaId)
+                    && Objects.equals(metaKey, other.metaKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(postId, metaId, metaKey, valueHash);
+        }
+    }
+}
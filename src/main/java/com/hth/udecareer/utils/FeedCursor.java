@@ -0,0 +1,54 @@
+package com.hth.udecareer.utils;
+
+import com.hth.udecareer.entities.FeedPostEntity;
+import com.hth.udecareer.enums.ErrorCode;
+import com.hth.udecareer.exception.AppException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the feed ordered by {@code (isSticky DESC, priority DESC, createdAt DESC, id DESC)}:
+ * the last post of the previous page, sent to clients as an opaque URL-safe string.
+ */
+public record FeedCursor(int sticky, int priority, LocalDateTime createdAt, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static FeedCursor of(FeedPostEntity post) {
+        return new FeedCursor(
+                post.getIsSticky() != null ? post.getIsSticky() : 0,
+                post.getPriority() != null ? post.getPriority() : 0,
+                post.getCreatedAt(),
+                post.getId());
+    }
+
+    public String encode() {
+        String raw = sticky + SEPARATOR + priority + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor from a request; {@code null} or blank means the first page.
+     *
+     * @throws AppException VALIDATION_ERROR when the cursor was not produced by {@link #encode()}
+     */
+    public static FeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new AppException(ErrorCode.VALIDATION_ERROR);
+            }
+            return new FeedCursor(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AppException(ErrorCode.VALIDATION_ERROR);
+        }
+    }
+}
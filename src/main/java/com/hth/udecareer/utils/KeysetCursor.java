@@ -0,0 +1,50 @@
+package com.hth.udecareer.utils;
+
+import com.hth.udecareer.enums.ErrorCode;
+import com.hth.udecareer.exception.AppException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by {@code (time DESC, id DESC)}: the last row of the previous page.
+ * <p>
+ * Sent to clients as an opaque URL-safe string; the next page is the rows strictly after this
+ * position, which the database reads as one index range.
+ *
+ * @param time Sort timestamp of the last row
+ * @param id   Primary key of the last row (tie-breaker)
+ */
+public record KeysetCursor(LocalDateTime time, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = time.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor from a request; {@code null} or blank means the first page.
+     *
+     * @throws AppException VALIDATION_ERROR when the cursor was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) throws AppException {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new AppException(ErrorCode.VALIDATION_ERROR);
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AppException(ErrorCode.VALIDATION_ERROR);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.hth.udecareer.utils;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass reader for PHP {@code serialize()} output as stored in wp_postmeta / LearnDash tables.
+ * <p>
+ * Understands {@code N; b: i: d: s: a: O:} (objects are read as maps of their properties) and nested
+ * arrays. String lengths are PHP byte lengths (UTF-8); when a stored length is wrong, e.g. after a
+ * charset migration, the reader falls back to the next {@code ";} terminator instead of failing.
+ */
+@UtilityClass
+public class PhpSerializedParser {
+
+    /**
+     * Parse one serialized value. Arrays and objects come back as {@link LinkedHashMap} (keys are
+     * {@link Long} or {@link String}), integers as {@link Long}.
+     *
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    @Nullable
+    public static Object parse(String value) {
+        final Reader reader = new Reader(value);
+        final Object result = reader.readValue();
+        reader.skipWhitespace();
+        if (!reader.atEnd()) {
+            throw reader.error("trailing data");
+        }
+        return result;
+    }
+
+    /**
+     * Read the string-keyed scalar entries of a serialized array (e.g. {@code _sfwd-quiz}), or of a bare
+     * {@code key;value;key;value;} fragment such as the body of a serialized object.
+     * <p>
+     * Values are {@link String}, {@link Integer} (or {@link Long} if out of int range) and {@link Boolean};
+     * nested arrays, nulls and doubles are skipped. Malformed input yields the entries read so far.
+     */
+    public static Map<String, Object> parseSettings(String value) {
+        final Map<String, Object> settings = new HashMap<>();
+        if (value == null || value.isEmpty()) {
+            return settings;
+        }
+
+        final List<Object> tokens = new ArrayList<>();
+        final Reader reader = new Reader(value);
+        try {
+            reader.skipWhitespace();
+            while (!reader.atEnd()) {
+                tokens.add(reader.readValue());
+                reader.skipWhitespace();
+            }
+        } catch (IllegalArgumentException e) {
+            // keep whatever was read before the broken token
+        }
+
+        if (tokens.size() == 1 && tokens.get(0) instanceof Map) {
+            ((Map<?, ?>) tokens.get(0)).forEach((k, v) -> putSetting(settings, k, v));
+        } else {
+            for (int i = 0; i + 1 < tokens.size(); i += 2) {
+                putSetting(settings, tokens.get(i), tokens.get(i + 1));
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Read the values of a serialized array as longs, in order (e.g. {@code ld_quiz_questions}, which maps
+     * question post id to pro-quiz question id). Numeric strings are accepted; other values are skipped.
+     *
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static List<Long> parseLongValues(String value) {
+        if (value == null || value.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Object parsed = parse(value);
+        if (!(parsed instanceof Map)) {
+            return Collections.emptyList();
+        }
+
+        final Map<?, ?> map = (Map<?, ?>) parsed;
+        final List<Long> result = new ArrayList<>(map.size());
+        for (Object v : map.values()) {
+            if (v instanceof Long) {
+                result.add((Long) v);
+            } else if (v instanceof String) {
+                try {
+                    result.add(Long.parseLong(((String) v).trim()));
+                } catch (NumberFormatException ignored) {
+                    // not an id
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void putSetting(Map<String, Object> settings, Object key, Object value) {
+        if (!(key instanceof String) || value == null) {
+            return;
+        }
+        if (value instanceof Long) {
+            final long l = (Long) value;
+            settings.put((String) key, l == (int) l ? Integer.valueOf((int) l) : value);
+        } else if (value instanceof String || value instanceof Boolean) {
+            settings.put((String) key, value);
+        }
+    }
+
+    private static final class Reader {
+        private final String s;
+        private final int length;
+        private int pos;
+
+        private Reader(String s) {
+            this.s = s;
+            this.length = s.length();
+        }
+
+        private boolean atEnd() {
+            return pos >= length;
+        }
+
+        private void skipWhitespace() {
+            while (pos < length && Character.isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private Object readValue() {
+            if (pos + 1 >= length) {
+                throw error("unexpected end");
+            }
+            final char type = s.charAt(pos);
+            if (type == 'N') {
+                pos++;
+                expect(';');
+                return null;
+            }
+            pos++;
+            expect(':');
+            switch (type) {
+                case 'b': {
+                    final long b = readLong(';');
+                    return b != 0;
+                }
+                case 'i':
+                    return readLong(';');
+                case 'd':
+                    return readDouble();
+                case 's':
+                    return readString(';');
+                case 'a': {
+                    final int count = (int) readLong(':');
+                    return readEntries(count);
+                }
+                case 'O': {
+                    // O:<len>:"<class>":<count>:{...}
+                    readString(':');
+                    final int count = (int) readLong(':');
+                    return readEntries(count);
+                }
+                case 'r':
+                case 'R':
+                    readLong(';');
+                    return null;
+                default:
+                    throw error("unsupported type '" + type + "'");
+            }
+        }
+
+        private Map<Object, Object> readEntries(int count) {
+            expect('{');
+            final Map<Object, Object> map = new LinkedHashMap<>(Math.max(4, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                final Object key = readValue();
+                final Object value = readValue();
+                map.put(key, value);
+            }
+            expect('}');
+            return map;
+        }
+
+        private long readLong(char terminator) {
+            final int start = pos;
+            boolean negative = false;
+            if (pos < length && (s.charAt(pos) == '-' || s.charAt(pos) == '+')) {
+                negative = s.charAt(pos) == '-';
+                pos++;
+            }
+            long result = 0;
+            int digits = 0;
+            while (pos < length) {
+                final char c = s.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                result = result * 10 + (c - '0');
+                digits++;
+                pos++;
+            }
+            if (digits == 0) {
+                pos = start;
+                throw error("expected number");
+            }
+            expect(terminator);
+            return negative ? -result : result;
+        }
+
+        private double readDouble() {
+            final int end = s.indexOf(';', pos);
+            if (end < 0) {
+                throw error("unterminated double");
+            }
+            final String raw = s.substring(pos, end);
+            pos = end + 1;
+            switch (raw) {
+                case "INF":
+                    return Double.POSITIVE_INFINITY;
+                case "-INF":
+                    return Double.NEGATIVE_INFINITY;
+                case "NAN":
+                    return Double.NaN;
+                default:
+                    try {
+                        return Double.parseDouble(raw);
+                    } catch (NumberFormatException e) {
+                        throw error("bad double '" + raw + "'");
+                    }
+            }
+        }
+
+        /**
+         * Reads {@code <byteLen>:"<bytes>"} followed by {@code terminator}.
+         */
+        private String readString(char terminator) {
+            final long byteLength = readLong(':');
+            expect('"');
+            final int start = pos;
+
+            // Walk forward byteLength UTF-8 bytes without re-encoding the string
+            long bytes = 0;
+            int end = start;
+            while (end < length && bytes < byteLength) {
+                final char c = s.charAt(end);
+                if (c < 0x80) {
+                    bytes += 1;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c) && end + 1 < length
+                        && Character.isLowSurrogate(s.charAt(end + 1))) {
+                    bytes += 4;
+                    end++;
+                } else {
+                    bytes += 3;
+                }
+                end++;
+            }
+
+            if (bytes != byteLength || !closesAt(end, terminator)) {
+                // Stored length does not match the content: take the next "<terminator> instead
+                end = s.indexOf("\"" + terminator, start);
+                if (end < 0) {
+                    throw error("unterminated string");
+                }
+            }
+            pos = end + 2;
+            return s.substring(start, end);
+        }
+
+        private boolean closesAt(int index, char terminator) {
+            return index + 1 < length && s.charAt(index) == '"' && s.charAt(index + 1) == terminator;
+        }
+
+        private void expect(char c) {
+            if (pos >= length || s.charAt(pos) != c) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid PHP serialized value at " + pos + ": " + message);
+        }
+    }
+}
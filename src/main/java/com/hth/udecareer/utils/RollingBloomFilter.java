@@ -0,0 +1,130 @@
+package com.hth.udecareer.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over 64-bit hashes split into generations, so entries age out without deletes.
+ * <p>
+ * New entries go into the current generation; {@link #rotate()} drops the oldest generation and starts
+ * an empty one. Rotating every {@code window / (generations - 1)} keeps every entry for at least
+ * {@code window}. Bits are set with CAS, so readers and writers never block; two threads adding the same
+ * key at the same moment may both see it as new. False positives are bounded by the sizing, false
+ * negatives do not happen within the window.
+ */
+public class RollingBloomFilter {
+
+    private final AtomicLongArray[] generations;
+    private final int bitsPerGeneration;
+    private final int hashes;
+    private volatile int current;
+
+    /**
+     * @param generations          Number of generations kept (at least 2)
+     * @param expectedPerGeneration Entries expected to be added between two rotations
+     * @param falsePositiveRate    Target false positive rate of one generation
+     */
+    public RollingBloomFilter(int generations, long expectedPerGeneration, double falsePositiveRate) {
+        if (generations < 2 || expectedPerGeneration <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid rolling Bloom filter sizing");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedPerGeneration * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitsPerGeneration = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashes = (int) Math.max(1, Math.round((double) bitsPerGeneration / expectedPerGeneration * ln2));
+        this.generations = new AtomicLongArray[generations];
+        for (int i = 0; i < generations; i++) {
+            this.generations[i] = new AtomicLongArray((bitsPerGeneration + 63) >>> 6);
+        }
+    }
+
+    /**
+     * Add a hash to the current generation.
+     *
+     * @return {@code true} when the hash was (probably) already present in any generation
+     */
+    public boolean putIfAbsent(long hash) {
+        if (mightContain(hash)) {
+            return true;
+        }
+        AtomicLongArray bits = generations[current];
+        long h2 = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = bitIndex(hash + i * h2);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long value = bits.get(word);
+            while ((value & mask) == 0 && !bits.compareAndSet(word, value, value | mask)) {
+                value = bits.get(word);
+            }
+        }
+        return false;
+    }
+
+    public boolean mightContain(long hash) {
+        long h2 = mix(hash) | 1;
+        for (AtomicLongArray bits : generations) {
+            if (contains(bits, hash, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clear the oldest generation and make it the current one.
+     */
+    public synchronized void rotate() {
+        int next = (current + 1) % generations.length;
+        AtomicLongArray bits = generations[next];
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0L);
+        }
+        current = next;
+    }
+
+    public int getBitsPerGeneration() {
+        return bitsPerGeneration;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    private boolean contains(AtomicLongArray bits, long hash, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            int bit = bitIndex(hash + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bitIndex(long combined) {
+        return (int) Long.remainderUnsigned(combined, bitsPerGeneration);
+    }
+
+    /**
+     * 64-bit finalizer (SplitMix64), also used to hash keys before they are added.
+     */
+    public static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Fold a string into a running 64-bit hash; {@code null} hashes differently from the empty string.
+     */
+    public static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash ^ 0x5BD1E995L);
+        }
+        long h = hash;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h ^ value.length());
+    }
+}
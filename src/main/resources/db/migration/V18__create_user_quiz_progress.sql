@@ -0,0 +1,31 @@
+-- V18: Per (user, quiz) progress projection
+-- Maintained on quiz submit and by the backfill job in UserQuizProgressService.
+-- Quiz listings read one row per quiz instead of wp_learndash_user_activity,
+-- wp_learndash_user_activity_meta and wp_learndash_pro_quiz_statistic.
+
+CREATE TABLE IF NOT EXISTS ez_user_quiz_progress (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL COMMENT 'References wp_users.ID',
+  `quiz_post_id` bigint NOT NULL COMMENT 'References wp_posts.ID (sfwd-quiz)',
+  `attempt_count` int NOT NULL DEFAULT 0 COMMENT 'Number of graded attempts',
+  `last_activity_id` bigint DEFAULT NULL COMMENT 'Latest graded wp_learndash_user_activity.activity_id',
+  `last_completed_at` bigint DEFAULT NULL COMMENT 'activity_completed of the latest graded attempt (epoch seconds)',
+  `last_statistic_ref_id` bigint DEFAULT NULL,
+  `last_score` bigint DEFAULT NULL,
+  `last_points` bigint DEFAULT NULL,
+  `last_pass` bigint DEFAULT NULL,
+  `last_percentage` double DEFAULT NULL,
+  `last_answered_count` bigint DEFAULT NULL COMMENT 'answeredCount activity meta',
+  `last_statistic_answered_count` bigint DEFAULT NULL COMMENT 'Statistic rows with answer data',
+  `last_corrects` bigint DEFAULT NULL,
+  `best_activity_id` bigint DEFAULT NULL,
+  `best_score` bigint DEFAULT NULL,
+  `best_percentage` double DEFAULT NULL,
+  `draft_activity_id` bigint DEFAULT NULL COMMENT 'Open draft activity, NULL when none',
+  `draft_started_at` bigint DEFAULT NULL,
+  `draft_elapsed_time` bigint DEFAULT NULL,
+  `draft_answered_count` bigint DEFAULT NULL,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_user_quiz` (`user_id`,`quiz_post_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
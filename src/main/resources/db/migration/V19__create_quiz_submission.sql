@@ -0,0 +1,23 @@
+-- V19: Async quiz submissions
+-- One row per client submission id. The API grades and stores the request and its graded result here,
+-- a worker writes the LearnDash statistic/activity rows from that result afterwards (QuizSubmissionService).
+
+CREATE TABLE IF NOT EXISTS ez_quiz_submission (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `submission_id` varchar(64) NOT NULL COMMENT 'Client-supplied idempotency key',
+  `user_id` bigint NOT NULL COMMENT 'References wp_users.ID',
+  `quiz_id` bigint NOT NULL COMMENT 'References wp_learndash_pro_quiz_master.id',
+  `status` varchar(20) NOT NULL COMMENT 'PENDING, PROCESSING, COMPLETED, FAILED',
+  `payload` mediumtext NOT NULL COMMENT 'SubmitAnswerRequest JSON',
+  `graded` mediumtext NOT NULL COMMENT 'Graded answers JSON, written to LearnDash as is',
+  `response` text DEFAULT NULL COMMENT 'SubmitAnswerResponse JSON returned to the client',
+  `activity_id` bigint DEFAULT NULL COMMENT 'wp_learndash_user_activity.activity_id once written',
+  `attempts` int NOT NULL DEFAULT 0,
+  `last_error` varchar(500) DEFAULT NULL,
+  `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `processed_at` datetime DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_submission_id` (`submission_id`),
+  KEY `idx_status_updated` (`status`,`updated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,15 @@
+-- V20: Per (user, chapter) answer counts for the AI weakness analysis
+-- Maintained on quiz submit and by the backfill job in UserChapterStatsService.
+-- Chapters come from ez_quizmeta (question title -> chapter_idx); getStudentStats reads
+-- one row per chapter instead of replaying every quiz result.
+
+CREATE TABLE IF NOT EXISTS ez_user_chapter_stats (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL COMMENT 'References wp_users.ID',
+  `chapter_idx` int NOT NULL COMMENT 'ez_quizmeta.chapter_idx',
+  `total_count` bigint NOT NULL DEFAULT 0 COMMENT 'Graded statistic rows of questions in this chapter',
+  `correct_count` bigint NOT NULL DEFAULT 0 COMMENT 'Of which answered correctly',
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_user_chapter` (`user_id`,`chapter_idx`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,11 @@
+-- V21: Indexes for keyset-paginated diagnostic and practice history
+-- History pages read completed rows of one user ordered by (end_time DESC, id DESC) and continue
+-- after the last (end_time, id) of the previous page, so each page is one bounded index range scan.
+
+CREATE INDEX idx_eil_diag_user_completed
+ON eil_diagnostic_attempts(user_id, status, end_time DESC, id DESC)
+COMMENT 'Keyset pagination of completed diagnostics per user';
+
+CREATE INDEX idx_eil_practice_user_completed
+ON eil_practice_sessions(user_id, status, end_time DESC, id DESC)
+COMMENT 'Keyset pagination of completed practice sessions per user';
@@ -0,0 +1,12 @@
+-- V22: Indexes for the cursor (keyset) mode of GET /feeds and the "new posts since" delta
+-- Cursor pages continue after the last (is_sticky, priority, created_at, id) of the previous page and
+-- the delta reads posts after the last seen (created_at, id), so each request is one index range scan
+-- with no OFFSET and no count query.
+
+CREATE INDEX idx_fcom_posts_feed_keyset
+ON wp_fcom_posts(status, is_sticky DESC, priority DESC, created_at DESC, id DESC)
+COMMENT 'Keyset pagination of the published feed';
+
+CREATE INDEX idx_fcom_posts_created
+ON wp_fcom_posts(status, created_at, id)
+COMMENT 'New published posts since a position (feed delta)';
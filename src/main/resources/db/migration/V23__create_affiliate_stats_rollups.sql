@@ -0,0 +1,68 @@
+-- V23: Pre-aggregated affiliate statistics for the link stats and income endpoints
+-- Click rows are added to by the batched click flush (AffiliateClickAggregator); conversions and
+-- referral income are recounted for the days that changed by AffiliateStatsRollupService, which also
+-- has the full rebuild job. Empty source/country are stored as '' so they can be part of the unique keys.
+
+CREATE TABLE IF NOT EXISTS ez_affiliate_click_stats_hourly (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `bucket_start` datetime NOT NULL COMMENT 'Start of the hour',
+  `affiliate_id` bigint NOT NULL,
+  `link_id` bigint NOT NULL COMMENT 'References wp_affiliate_links.link_id',
+  `source` varchar(255) NOT NULL DEFAULT '',
+  `device_type` varchar(20) NOT NULL DEFAULT 'unknown',
+  `country` varchar(2) NOT NULL DEFAULT '',
+  `clicks` bigint NOT NULL DEFAULT 0,
+  `unique_clicks` bigint NOT NULL DEFAULT 0,
+  `conversions` bigint NOT NULL DEFAULT 0 COMMENT 'Visits of this hour that converted',
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_click_stats_hourly` (`link_id`,`bucket_start`,`source`,`device_type`,`country`),
+  KEY `idx_click_stats_hourly_bucket` (`bucket_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS ez_affiliate_click_stats_daily (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `bucket_date` date NOT NULL,
+  `affiliate_id` bigint NOT NULL,
+  `link_id` bigint NOT NULL COMMENT 'References wp_affiliate_links.link_id',
+  `source` varchar(255) NOT NULL DEFAULT '',
+  `device_type` varchar(20) NOT NULL DEFAULT 'unknown',
+  `country` varchar(2) NOT NULL DEFAULT '',
+  `clicks` bigint NOT NULL DEFAULT 0,
+  `unique_clicks` bigint NOT NULL DEFAULT 0,
+  `conversions` bigint NOT NULL DEFAULT 0 COMMENT 'Visits of this day that converted',
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_click_stats_daily` (`link_id`,`bucket_date`,`source`,`device_type`,`country`),
+  KEY `idx_click_stats_daily_affiliate` (`affiliate_id`,`bucket_date`),
+  KEY `idx_click_stats_daily_date` (`bucket_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS ez_affiliate_income_stats_daily (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `affiliate_id` bigint NOT NULL,
+  `stat_date` date NOT NULL COMMENT 'Day the referrals were created',
+  `status` varchar(20) NOT NULL COMMENT 'wp_affiliate_referrals.status',
+  `commission` decimal(15,2) NOT NULL DEFAULT 0,
+  `orders` bigint NOT NULL DEFAULT 0,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_income_stats_daily` (`affiliate_id`,`stat_date`,`status`),
+  KEY `idx_income_stats_daily_date` (`stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_ez_affiliate_visits_created
+ON wp_affiliate_visits(created_at)
+COMMENT 'Recount of one day of visits (rollup rebuild)';
+
+CREATE INDEX idx_ez_affiliate_visits_converted
+ON wp_affiliate_visits(converted_at)
+COMMENT 'Visits converted since the last rollup refresh';
+
+CREATE INDEX idx_ez_affiliate_referrals_updated
+ON wp_affiliate_referrals(updated_at)
+COMMENT 'Referrals changed since the last rollup refresh';
+
+CREATE INDEX idx_ez_affiliate_referrals_created
+ON wp_affiliate_referrals(created_at)
+COMMENT 'Recount of one day of referral income';
@@ -0,0 +1,112 @@
+package com.hth.udecareer.eil.algorithm;
+
+import com.hth.udecareer.eil.enums.DifficultyLevel;
+import com.hth.udecareer.eil.enums.TestType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the double core of MasteryCalculator and PassProbabilityCalculator,
+ * checked against the BigDecimal step-by-step math it replaces.
+ */
+class MasteryCalculatorTest {
+
+    private static final DifficultyLevel[] DIFFICULTIES = DifficultyLevel.values();
+
+    private MasteryCalculator calculator;
+    private final PassProbabilityCalculator passProbabilityCalculator = new PassProbabilityCalculator();
+
+    @BeforeEach
+    void setUp() {
+        calculator = new MasteryCalculator();
+        ReflectionTestUtils.setField(calculator, "baseAlpha", 0.3);
+        ReflectionTestUtils.setField(calculator, "initialMasteryLevel", 0.5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 500})
+    void nextMastery_shouldStayWithinRoundingOfPerStepBigDecimal(int skillCount) {
+        Random random = new Random(skillCount);
+
+        for (int skill = 0; skill < skillCount; skill++) {
+            BigDecimal stored = calculator.getInitialMastery();
+            double value = calculator.getInitialMasteryLevel();
+            for (int attempt = 0; attempt < 40; attempt++) {
+                boolean correct = random.nextBoolean();
+                DifficultyLevel difficulty = DIFFICULTIES[random.nextInt(DIFFICULTIES.length)];
+                stored = calculator.calculateNewMastery(stored, correct, difficulty, attempt);
+                value = calculator.nextMastery(value, correct, difficulty, attempt);
+            }
+            // Rounding each step to 4 decimals drifts by at most 0.00005 / alpha
+            assertEquals(stored.doubleValue(), value, 2e-4);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 500})
+    void averages_shouldMatchBigDecimalWrappers(int skillCount) {
+        Random random = new Random(skillCount);
+        BigDecimal[] decimals = new BigDecimal[skillCount];
+        double[] values = new double[skillCount];
+        int[] weights = new int[skillCount];
+        for (int i = 0; i < skillCount; i++) {
+            values[i] = random.nextInt(10001) / 10000.0;
+            decimals[i] = BigDecimal.valueOf(values[i]).setScale(4, RoundingMode.HALF_UP);
+            weights[i] = random.nextInt(5);
+        }
+
+        assertEquals(calculator.calculateWeightedAverage(decimals, weights),
+                     calculator.toDecimal(calculator.weightedAverage(values, weights, skillCount)));
+        assertEquals(calculator.calculateSimpleAverage(decimals),
+                     calculator.toDecimal(calculator.simpleAverage(values, skillCount)));
+    }
+
+    @Test
+    void averages_shouldSkipNullsAndFallBackToInitial() {
+        BigDecimal[] decimals = {new BigDecimal("0.2000"), null, new BigDecimal("0.6000")};
+
+        assertEquals(new BigDecimal("0.4000"), calculator.calculateSimpleAverage(decimals));
+        assertEquals(new BigDecimal("0.3000"), calculator.calculateWeightedAverage(decimals, new int[]{3, 9, 1}));
+        assertEquals(calculator.getInitialMastery(), calculator.calculateWeightedAverage(decimals, new int[]{0, 5, 0}));
+        assertEquals(0.5, calculator.simpleAverage(new double[0], 0));
+    }
+
+    @Test
+    void calculateConfidence_shouldGrowFromInitialToCap() {
+        assertEquals(0.1, calculator.calculateConfidence(0), 1e-12);
+        assertTrue(calculator.calculateConfidence(5) < calculator.calculateConfidence(50));
+        assertTrue(calculator.calculateConfidence(100000) <= 0.95);
+    }
+
+    @Test
+    void calculatePrediction_shouldMatchBetweenDecimalAndDoubleInputs() {
+        for (int l = 0; l <= 20; l++) {
+            for (int r = 0; r <= 20; r += 5) {
+                BigDecimal listening = BigDecimal.valueOf(l * 0.05);
+                BigDecimal reading = BigDecimal.valueOf(r * 0.05);
+                for (TestType testType : new TestType[]{TestType.TOEIC, TestType.IELTS}) {
+                    assertEquals(
+                            passProbabilityCalculator.calculatePrediction(listening, reading, null, testType),
+                            passProbabilityCalculator.calculatePrediction(l * 0.05, r * 0.05, null, testType));
+                }
+            }
+        }
+        assertEquals(passProbabilityCalculator.calculatePrediction(null, null, 700, TestType.TOEIC),
+                     passProbabilityCalculator.calculatePrediction(0.5, 0.5, 700, TestType.TOEIC));
+    }
+
+    @Test
+    void sigmoid_shouldBeCenteredAtZero() {
+        assertEquals(0.5, PassProbabilityCalculator.sigmoid(0), 1e-12);
+        assertEquals(1.0 - PassProbabilityCalculator.sigmoid(-2), PassProbabilityCalculator.sigmoid(2), 1e-12);
+    }
+}
@@ -0,0 +1,83 @@
+package com.hth.udecareer.eil.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QuestionSelector question picking and RecentQuestions.
+ */
+class QuestionSelectorTest {
+
+    private final QuestionSelector selector = new QuestionSelector(new MasteryCalculator());
+
+    @Test
+    void pickQuestion_shouldNeverReturnRecentWhileUnseenRemain() {
+        long[] pool = {10, 11, 12, 13, 14};
+        RecentQuestions recent = new RecentQuestions(50);
+        recent.add(10);
+        recent.add(11);
+        recent.add(13);
+        recent.add(14);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(12L, selector.pickQuestion(pool, recent));
+        }
+    }
+
+    @Test
+    void pickQuestion_shouldCoverUnseenQuestionsOfLargePool() {
+        long[] pool = new long[10000];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = i;
+        }
+        RecentQuestions recent = new RecentQuestions(50);
+        for (long id = 0; id < 50; id++) {
+            recent.add(id);
+        }
+
+        Set<Long> picked = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            long questionId = selector.pickQuestion(pool, recent);
+            assertTrue(questionId >= 50);
+            picked.add(questionId);
+        }
+        assertTrue(picked.size() > 400);
+    }
+
+    @Test
+    void pickQuestion_shouldFallBackWhenAllSeenOrEmpty() {
+        long[] pool = {1, 2};
+        RecentQuestions recent = new RecentQuestions(50);
+        recent.add(1);
+        recent.add(2);
+
+        long questionId = selector.pickQuestion(pool, recent);
+        assertTrue(questionId == 1 || questionId == 2);
+        assertEquals(QuestionSelector.NO_QUESTION, selector.pickQuestion(new long[0], recent));
+        assertEquals(2L, selector.pickQuestion(new long[]{2}, null));
+    }
+
+    @Test
+    void recentQuestions_shouldDropOldestBeyondCapacity() {
+        RecentQuestions recent = new RecentQuestions(3);
+        recent.add(1);
+        recent.add(2);
+        recent.add(2);
+        recent.add(3);
+        recent.add(4);
+
+        assertEquals(3, recent.size());
+        assertFalse(recent.contains(1));
+        assertTrue(recent.contains(2));
+        assertTrue(recent.contains(4));
+
+        RecentQuestions copy = new RecentQuestions(recent);
+        recent.add(5);
+        assertTrue(copy.contains(2));
+        assertFalse(copy.contains(5));
+    }
+}
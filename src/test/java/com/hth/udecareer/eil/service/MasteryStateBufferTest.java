@@ -0,0 +1,149 @@
+package com.hth.udecareer.eil.service;
+
+import com.hth.udecareer.eil.algorithm.MasteryCalculator;
+import com.hth.udecareer.eil.entities.EilSkillMasteryEntity;
+import com.hth.udecareer.eil.enums.DifficultyLevel;
+import com.hth.udecareer.eil.model.dto.UserMasterySnapshot;
+import com.hth.udecareer.eil.repository.EilSkillMasteryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MasteryStateBuffer.
+ */
+class MasteryStateBufferTest {
+
+    private static final Long USER_ID = 42L;
+
+    private EilSkillMasteryRepository masteryRepository;
+    private MasteryStateWriter masteryStateWriter;
+    private MasteryCalculator masteryCalculator;
+
+    @BeforeEach
+    void setUp() {
+        masteryRepository = mock(EilSkillMasteryRepository.class);
+        masteryStateWriter = mock(MasteryStateWriter.class);
+        masteryCalculator = new MasteryCalculator();
+        ReflectionTestUtils.setField(masteryCalculator, "baseAlpha", 0.3);
+        ReflectionTestUtils.setField(masteryCalculator, "initialMasteryLevel", 0.5);
+
+        EilSkillMasteryEntity row = EilSkillMasteryEntity.builder()
+                .userId(USER_ID)
+                .skillId(1L)
+                .masteryLevel(new BigDecimal("0.6000"))
+                .attempts(4)
+                .correctCount(3)
+                .streak(2)
+                .build();
+        when(masteryRepository.findByUserId(USER_ID)).thenReturn(List.of(row));
+    }
+
+    @Test
+    void update_shouldCoalesceAnswersIntoOneWritePerFlush() {
+        MasteryStateBuffer buffer = buffer(true);
+
+        MasteryStateBuffer.MasteryStep first = buffer.update(USER_ID, 1L, true, DifficultyLevel.MEDIUM);
+        buffer.update(USER_ID, 1L, false, DifficultyLevel.MEDIUM);
+        buffer.update(USER_ID, 1L, false, DifficultyLevel.MEDIUM);
+        buffer.update(USER_ID, 2L, true, DifficultyLevel.MEDIUM);
+
+        assertEquals(0.6, first.before(), 1e-9);
+        assertEquals(masteryCalculator.nextMastery(0.6, true, DifficultyLevel.MEDIUM, 4), first.after(), 1e-12);
+        verifyNoInteractions(masteryStateWriter);
+
+        buffer.flush(USER_ID);
+        buffer.flush(USER_ID);
+
+        List<MasteryStateBuffer.DirtySkill> rows = captureWrite(1).stream()
+                .sorted(Comparator.comparingLong(MasteryStateBuffer.DirtySkill::skillId))
+                .toList();
+        assertEquals(2, rows.size());
+        assertEquals(7, rows.get(0).attempts());
+        assertEquals(4, rows.get(0).correctCount());
+        assertEquals(-2, rows.get(0).streak());
+        assertEquals(1, rows.get(1).attempts());
+        assertNotNull(rows.get(1).lastPracticedAt());
+        verify(masteryRepository, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void snapshot_shouldNotSeeLaterChanges() {
+        MasteryStateBuffer buffer = buffer(true);
+
+        UserMasterySnapshot before = buffer.snapshot(USER_ID);
+        buffer.update(USER_ID, 2L, true, DifficultyLevel.MEDIUM);
+        UserMasterySnapshot after = buffer.snapshot(USER_ID);
+
+        assertEquals(1, before.size());
+        assertEquals(UserMasterySnapshot.NOT_FOUND, before.indexOf(2L));
+        assertEquals(2, after.size());
+        assertEquals(1, after.getAttempts(after.indexOf(2L)));
+        assertEquals(0.6, after.getMasteryOf(1L, 0.5), 1e-9);
+        assertEquals(0.5, after.getMasteryOf(99L, 0.5), 1e-9);
+    }
+
+    @Test
+    void flush_shouldKeepRowsAfterFailure() {
+        MasteryStateBuffer buffer = buffer(true);
+        doThrow(new IllegalStateException("db down")).doNothing()
+                .when(masteryStateWriter).write(eq(USER_ID), anyList());
+
+        buffer.update(USER_ID, 1L, true, DifficultyLevel.MEDIUM);
+        buffer.flush(USER_ID);
+        buffer.flushDirty();
+
+        assertEquals(1, captureWrite(2).size());
+    }
+
+    @Test
+    void update_shouldWriteThroughWhenWriteBehindDisabled() {
+        MasteryStateBuffer buffer = buffer(false);
+
+        buffer.update(USER_ID, 1L, true, DifficultyLevel.MEDIUM);
+        buffer.update(USER_ID, 1L, true, DifficultyLevel.MEDIUM);
+
+        verify(masteryStateWriter, times(2)).write(eq(USER_ID), anyList());
+    }
+
+    @Test
+    void flushDirty_shouldEvictIdleCleanUsers() {
+        MasteryStateBuffer buffer = new MasteryStateBuffer(masteryRepository, masteryStateWriter, masteryCalculator,
+                                                           new SimpleMeterRegistry(), true, -1L);
+        buffer.registerMetrics();
+
+        buffer.update(USER_ID, 1L, true, DifficultyLevel.MEDIUM);
+        buffer.flushDirty();
+        buffer.snapshot(USER_ID);
+
+        assertEquals(1, buffer.size());
+        verify(masteryStateWriter, times(1)).write(anyLong(), anyList());
+        verify(masteryRepository, times(2)).findByUserId(USER_ID);
+    }
+
+    private MasteryStateBuffer buffer(boolean writeBehindEnabled) {
+        MasteryStateBuffer buffer = new MasteryStateBuffer(masteryRepository, masteryStateWriter, masteryCalculator,
+                                                           new SimpleMeterRegistry(), writeBehindEnabled, 1800000L);
+        buffer.registerMetrics();
+        return buffer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MasteryStateBuffer.DirtySkill> captureWrite(int times) {
+        ArgumentCaptor<List<MasteryStateBuffer.DirtySkill>> captor = ArgumentCaptor.forClass(List.class);
+        verify(masteryStateWriter, times(times)).write(eq(USER_ID), captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,108 @@
+package com.hth.udecareer.eil.service;
+
+import com.hth.udecareer.eil.model.dto.DiagnosticSessionState;
+import com.hth.udecareer.eil.model.dto.PracticeSessionState;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SessionStateStore and the session state DTOs.
+ */
+class SessionStateStoreTest {
+
+    @Test
+    void localStore_shouldReturnTypedStateAndEvictLeastRecentlyUsed() {
+        SessionStateStore store = new SessionStateStore(null, false, 180, 2);
+        PracticeSessionState first = new PracticeSessionState();
+        store.put("a", first);
+        store.put("b", new PracticeSessionState());
+
+        assertSame(first, store.get("a", PracticeSessionState.class));
+        assertNull(store.get("a", DiagnosticSessionState.class));
+
+        store.put("c", new PracticeSessionState());
+        assertNotNull(store.get("a", PracticeSessionState.class));
+        assertNull(store.get("b", PracticeSessionState.class));
+
+        store.remove("a");
+        assertNull(store.get("a", PracticeSessionState.class));
+    }
+
+    @Test
+    void put_shouldWaitForCommitAndDropOnRollback() {
+        SessionStateStore store = new SessionStateStore(null, false, 180, 10);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.put("committed", new PracticeSessionState());
+            store.put("rolledBack", new PracticeSessionState());
+            assertNull(store.get("committed", PracticeSessionState.class));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNotNull(store.get("committed", PracticeSessionState.class));
+        assertNull(store.get("rolledBack", PracticeSessionState.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisStore_shouldTreatFailuresAsMiss() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, Object> valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.get(anyString())).thenThrow(new RuntimeException("down"));
+        doThrow(new RuntimeException("down")).when(valueOps).set(anyString(), any(), any(Duration.class));
+
+        SessionStateStore store = new SessionStateStore(redisTemplate, true, 180, 10);
+        store.put("x", new PracticeSessionState());
+
+        assertNull(store.get("x", PracticeSessionState.class));
+        verify(redisTemplate).delete("eil:session-state:x");
+    }
+
+    @Test
+    void diagnosticState_shouldTrackConsecutiveWrongAndTerminateSkills() {
+        DiagnosticSessionState state = new DiagnosticSessionState();
+
+        assertFalse(state.recordAnswer(1L, 10L, false, 5));
+        assertTrue(state.recordAnswer(2L, 10L, false, 5));
+        assertFalse(state.recordAnswer(3L, 10L, false, 5));
+        assertEquals(3, state.getConsecutiveWrong());
+
+        assertFalse(state.recordAnswer(4L, 20L, true, 5));
+        assertEquals(0, state.getConsecutiveWrong());
+        assertEquals(3, state.skillWrongCount(10L));
+        assertEquals(0, state.skillWrongCount(20L));
+        assertEquals(4, state.getAnsweredQuestions());
+        assertEquals(1, state.getCorrectCount());
+        assertEquals(20, state.getTimeSpentSeconds());
+        assertTrue(state.getTerminatedSkills().contains(10L));
+        assertTrue(state.getAnsweredQuestionIds().contains(3L));
+    }
+
+    @Test
+    void practiceState_shouldKeepBoundedRecentQuestions() {
+        PracticeSessionState state = new PracticeSessionState();
+        state.recordAttempt(1, 7L, 2);
+        state.recordAttempt(2, null, 2);
+        state.recordAttempt(2, 8L, 2);
+        state.recordAttempt(3, 7L, 2);
+
+        assertEquals(List.of(2L, 3L), state.getRecentQuestionIds());
+        assertEquals(2, state.getSkillIds().size());
+    }
+}
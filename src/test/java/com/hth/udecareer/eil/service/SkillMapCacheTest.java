@@ -0,0 +1,140 @@
+package com.hth.udecareer.eil.service;
+
+import com.hth.udecareer.eil.algorithm.MasteryCalculator;
+import com.hth.udecareer.eil.entities.EilSkillEntity;
+import com.hth.udecareer.eil.entities.EilSkillMasteryEntity;
+import com.hth.udecareer.eil.enums.DifficultyLevel;
+import com.hth.udecareer.eil.model.response.SkillMapResponse;
+import com.hth.udecareer.eil.model.response.SkillMasteryResponse;
+import com.hth.udecareer.eil.repository.EilSkillMasteryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SkillMapCache.
+ */
+class SkillMapCacheTest {
+
+    private static final Long USER_ID = 42L;
+    private static final String[] CATEGORIES = {"LISTENING", "READING", "GRAMMAR"};
+    private static final DifficultyLevel[] DIFFICULTIES = DifficultyLevel.values();
+
+    private SkillService skillService;
+    private MasteryStateBuffer buffer;
+    private SkillMapCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MasteryCalculator masteryCalculator = calculator();
+
+        List<EilSkillEntity> skills = new ArrayList<>();
+        List<EilSkillMasteryEntity> rows = new ArrayList<>();
+        Map<Long, EilSkillEntity> skillById = new HashMap<>();
+        for (long id = 1; id <= 12; id++) {
+            EilSkillEntity skill = EilSkillEntity.builder()
+                    .id(id)
+                    .code("SK" + id)
+                    .name("Skill " + id)
+                    .category(CATEGORIES[(int) (id % CATEGORIES.length)])
+                    .build();
+            skills.add(skill);
+            skillById.put(id, skill);
+            rows.add(EilSkillMasteryEntity.builder()
+                             .userId(USER_ID)
+                             .skillId(id)
+                             .masteryLevel(BigDecimal.valueOf(75 * id, 3))
+                             .attempts((int) id % 3)
+                             .correctCount(0)
+                             .streak(0)
+                             .build());
+        }
+
+        EilSkillMasteryRepository masteryRepository = mock(EilSkillMasteryRepository.class);
+        when(masteryRepository.findByUserId(USER_ID)).thenReturn(rows);
+
+        skillService = mock(SkillService.class);
+        when(skillService.getSkillsByIds(anyCollection())).thenReturn(skillById);
+        when(skillService.getAllActiveSkills()).thenReturn(skills);
+        when(skillService.getAllActiveCategories()).thenReturn(List.of(CATEGORIES));
+
+        buffer = new MasteryStateBuffer(masteryRepository, mock(MasteryStateWriter.class), masteryCalculator,
+                                        new SimpleMeterRegistry(), true, 1800000L);
+        buffer.registerMetrics();
+        cache = new SkillMapCache(skillService, masteryCalculator, 100, 600000L);
+    }
+
+    @Test
+    void onMasteryChanged_shouldMatchFullRebuild() {
+        cache.build(USER_ID, buffer.snapshot(USER_ID));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            long skillId = 1 + random.nextInt(12);
+            MasteryStateBuffer.MasteryStep step = buffer.update(USER_ID, skillId, random.nextBoolean(),
+                                                                DIFFICULTIES[random.nextInt(DIFFICULTIES.length)]);
+            cache.onMasteryChanged(USER_ID, skillId, step);
+        }
+
+        SkillMapResponse incremental = cache.get(USER_ID, buffer.version(USER_ID));
+        assertNotNull(incremental);
+
+        SkillMapResponse rebuilt = new SkillMapCache(skillService, calculator(), 100, 600000L)
+                .build(USER_ID, buffer.snapshot(USER_ID));
+        assertEquals(rebuilt, incremental);
+        verify(skillService, times(2)).getSkillsByIds(anyCollection());
+    }
+
+    @Test
+    void get_shouldMissWhenStateMovedWithoutDelta() {
+        cache.build(USER_ID, buffer.snapshot(USER_ID));
+        long built = buffer.version(USER_ID);
+        assertNotNull(cache.get(USER_ID, built));
+
+        // A skill the entry does not have: the step cannot be applied
+        MasteryStateBuffer.MasteryStep step = buffer.update(USER_ID, 99L, true, DifficultyLevel.MEDIUM);
+        cache.onMasteryChanged(USER_ID, 99L, step);
+
+        assertNull(cache.get(USER_ID, buffer.version(USER_ID)));
+        assertNull(cache.get(7L, 1L));
+    }
+
+    @Test
+    void build_shouldRankWeakAndStrongSkills() {
+        SkillMapResponse map = cache.build(USER_ID, buffer.snapshot(USER_ID));
+
+        // Masteries are 0.075 * id
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), skillIds(map.getWeakSkills()));
+        assertEquals(List.of(12L, 11L), skillIds(map.getStrongSkills()));
+        assertNull(map.getWeakSkills().get(0).getConfidence());
+        assertEquals(12, map.getSkills().size());
+        assertNull(map.getCategoryMastery().getVocabulary());
+        // LISTENING holds ids 3, 6, 9 and 12
+        assertEquals(new BigDecimal("0.5625"), map.getCategoryMastery().getListening());
+        assertEquals(Boolean.TRUE, map.getDiagnosticCompleted());
+        assertEquals(12, map.getTotalQuestionsAnswered());
+    }
+
+    private static MasteryCalculator calculator() {
+        MasteryCalculator calculator = new MasteryCalculator();
+        ReflectionTestUtils.setField(calculator, "baseAlpha", 0.3);
+        ReflectionTestUtils.setField(calculator, "initialMasteryLevel", 0.5);
+        return calculator;
+    }
+
+    private static List<Long> skillIds(List<SkillMasteryResponse> skills) {
+        return skills.stream().map(SkillMasteryResponse::getSkillId).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.hth.udecareer.repository;
+
+import com.hth.udecareer.entities.QuizStatisticEntity;
+import com.hth.udecareer.entities.QuizStatisticId;
+import com.hth.udecareer.entities.UserActivityMetaEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Round-trip counts of the submitAnswer write path for a 100-question mock exam.
+ * With saveAll the same rows took one INSERT per row, plus one SELECT per statistic row (merge).
+ */
+class QuizSubmissionBatchRepositoryTest {
+
+    private static final int QUESTIONS = 100;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private QuizSubmissionBatchRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.prepareStatement(anyString(), anyInt())).thenReturn(statement);
+        repository = new QuizSubmissionBatchRepository(new JdbcTemplate(dataSource));
+    }
+
+    @Test
+    void insertStatistics_shouldSendOneBatchForAllQuestions() throws Exception {
+        List<QuizStatisticEntity> statistics = new ArrayList<>();
+        for (long questionId = 1; questionId <= QUESTIONS; questionId++) {
+            statistics.add(statistic(42L, questionId));
+        }
+
+        repository.insertStatistics(statistics);
+
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(statement, times(QUESTIONS)).addBatch();
+        verify(statement, times(1)).executeBatch();
+        verify(statement, never()).executeUpdate();
+    }
+
+    @Test
+    void insertActivityMeta_shouldSendOneBatchAndAssignGeneratedIds() throws Exception {
+        List<UserActivityMetaEntity> metas = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            UserActivityMetaEntity meta = new UserActivityMetaEntity();
+            meta.setActivityId(7L);
+            meta.setActivityMetaKey("key" + i);
+            meta.setActivityMetaValue(String.valueOf(i));
+            metas.add(meta);
+        }
+        ResultSet keys = mock(ResultSet.class);
+        AtomicLong nextId = new AtomicLong(1000);
+        AtomicLong remaining = new AtomicLong(metas.size());
+        when(statement.getGeneratedKeys()).thenReturn(keys);
+        when(keys.next()).thenAnswer(inv -> remaining.getAndDecrement() > 0);
+        when(keys.getLong(1)).thenAnswer(inv -> nextId.getAndIncrement());
+
+        repository.insertActivityMeta(metas);
+
+        verify(connection, times(1)).prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS));
+        verify(statement, times(1)).executeBatch();
+        assertEquals(1000L, metas.get(0).getId());
+        assertEquals(1023L, metas.get(23).getId());
+    }
+
+    @Test
+    void insert_shouldSkipEmptyInput() throws Exception {
+        repository.insertStatistics(List.of());
+        repository.insertActivityMeta(List.of());
+
+        verifyNoInteractions(connection);
+    }
+
+    private static QuizStatisticEntity statistic(Long refId, Long questionId) {
+        QuizStatisticId id = new QuizStatisticId();
+        id.setStatisticRefId(refId);
+        id.setQuestionId(questionId);
+        QuizStatisticEntity entity = new QuizStatisticEntity();
+        entity.setId(id);
+        entity.setQuestionPostId(0L);
+        entity.setCorrectCount(1L);
+        entity.setIncorrectCount(0L);
+        entity.setHintCount(0L);
+        entity.setPoints(1L);
+        entity.setQuestionTime(0L);
+        entity.setAnswerData("[1, 0, 0, 0]");
+        return entity;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hth.udecareer.security;
+
+import com.hth.udecareer.entities.User;
+import com.hth.udecareer.exception.AppException;
+import com.hth.udecareer.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.Principal;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CurrentUserResolver.
+ */
+class CurrentUserResolverTest {
+
+    private static final String EMAIL = "testuser@example.com";
+
+    private UserRepository userRepository;
+    private CurrentUserResolver resolver;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        resolver = new CurrentUserResolver(userRepository);
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void authenticate() {
+        request.setAttribute(CurrentUser.REQUEST_ATTRIBUTE, CurrentUser.builder()
+                .id(7L)
+                .email(EMAIL)
+                .username("testuser")
+                .roles(Set.of("ROLE_SUBSCRIBER"))
+                .build());
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+
+    @Test
+    void findUserId_forCurrentUser_shouldNotQuery() {
+        authenticate();
+
+        assertEquals(Optional.of(7L), resolver.findUserId(EMAIL));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findUser_forCurrentUser_shouldQueryOncePerRequest() {
+        authenticate();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(7L, EMAIL)));
+
+        User first = resolver.findUser(EMAIL).orElseThrow();
+        User second = resolver.findUser(EMAIL).orElseThrow();
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void findUser_forOtherEmail_shouldQueryEveryTime() {
+        authenticate();
+        when(userRepository.findByEmail("other@example.com")).thenReturn(Optional.of(user(8L, "other@example.com")));
+
+        resolver.findUser("other@example.com");
+        resolver.findUser("other@example.com");
+
+        verify(userRepository, times(2)).findByEmail("other@example.com");
+    }
+
+    @Test
+    void findUserId_outsideRequest_shouldFallBackToRepository() {
+        RequestContextHolder.resetRequestAttributes();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(7L, EMAIL)));
+
+        assertEquals(Optional.of(7L), resolver.findUserId(EMAIL));
+    }
+
+    @Test
+    void getUserId_withoutPrincipal_shouldThrow() {
+        assertThrows(AppException.class, () -> resolver.getUserId((Principal) null));
+    }
+}
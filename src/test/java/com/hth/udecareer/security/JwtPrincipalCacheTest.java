@@ -0,0 +1,70 @@
+package com.hth.udecareer.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JwtPrincipalCache.
+ */
+class JwtPrincipalCacheTest {
+
+    private static final String EMAIL = "testuser@example.com";
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private UserDetails load() {
+        loads.incrementAndGet();
+        return new JwtUserPrincipal(1L, EMAIL, "password", Collections.emptyList());
+    }
+
+    @Test
+    void get_shouldLoadOncePerSubjectAndIssuedAt() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(100, 60);
+
+        UserDetails first = cache.get(EMAIL, 1000L, this::load);
+        UserDetails second = cache.get(EMAIL, 1000L, this::load);
+        cache.get(EMAIL, 2000L, this::load);
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldMatchPrincipalUsername() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(100, 60);
+        // Token issued for the login username, principal resolved to the email
+        cache.get("testuser", 1000L, this::load);
+
+        cache.invalidate(EMAIL);
+        cache.get("testuser", 1000L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_withZeroTtl_shouldNotCache() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(100, 0);
+
+        cache.get(EMAIL, 1000L, this::load);
+        cache.get(EMAIL, 1000L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedBeyondMaxSize() {
+        JwtPrincipalCache cache = new JwtPrincipalCache(2, 60);
+
+        cache.get(EMAIL, 1L, this::load);
+        cache.get(EMAIL, 2L, this::load);
+        cache.get(EMAIL, 3L, this::load);
+
+        assertEquals(2, cache.size());
+    }
+}
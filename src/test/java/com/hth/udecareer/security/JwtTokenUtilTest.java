@@ -4,12 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -187,6 +189,34 @@ class JwtTokenUtilTest {
         assertTrue(jwtTokenUtil.validateToken(token2, userDetails));
     }
 
+    @Test
+    void generateToken_forJwtUserPrincipal_shouldEmbedUserIdAndRoles() {
+        // given
+        UserDetails principal = new JwtUserPrincipal(42L, TEST_USERNAME, "password",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMINISTRATOR")));
+
+        // when
+        String token = jwtTokenUtil.generateToken(principal);
+        JwtUserPrincipal fromClaims = jwtTokenUtil.getPrincipalFromClaims(jwtTokenUtil.getClaimsFromToken(token));
+
+        // then
+        assertNotNull(fromClaims);
+        assertEquals(42L, fromClaims.getUserId());
+        assertEquals(TEST_USERNAME, fromClaims.getUsername());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMINISTRATOR")),
+                List.copyOf(fromClaims.getAuthorities()));
+        assertTrue(jwtTokenUtil.validateToken(token, fromClaims));
+    }
+
+    @Test
+    void getPrincipalFromClaims_withoutEmbeddedClaims_shouldReturnNull() {
+        // given - tokens issued for plain UserDetails carry no uid/roles
+        String token = jwtTokenUtil.generateToken(createTestUserDetails());
+
+        // when & then
+        assertNull(jwtTokenUtil.getPrincipalFromClaims(jwtTokenUtil.getClaimsFromToken(token)));
+    }
+
     @Test
     void tokenValidityConstant_shouldBe7Days() {
         // Verify the constant is set correctly
@@ -0,0 +1,105 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.entities.AffiliateVisit;
+import com.hth.udecareer.repository.AffiliateClickBatchRepository;
+import com.hth.udecareer.repository.AffiliateClickBatchRepository.ClickCountDelta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AffiliateClickAggregator.
+ */
+class AffiliateClickAggregatorTest {
+
+    private AffiliateClickBatchRepository batchRepository;
+    private AffiliateStatsRollupService statsRollupService;
+    private AffiliateClickAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        batchRepository = mock(AffiliateClickBatchRepository.class);
+        statsRollupService = mock(AffiliateStatsRollupService.class);
+        aggregator = new AffiliateClickAggregator(batchRepository, statsRollupService, new SimpleMeterRegistry(),
+                                                  2, 100, 24, 5, 10_000, 0.01);
+        aggregator.registerMetrics();
+    }
+
+    @Test
+    void record_shouldDetectRepeatsAndFlushDeltasAndBatches() {
+        assertTrue(aggregator.record(visit(1L, "10.0.0.1", "Chrome")));
+        assertFalse(aggregator.record(visit(1L, "10.0.0.1", "Chrome")));
+        assertTrue(aggregator.record(visit(1L, "10.0.0.1", "Firefox")));
+        assertTrue(aggregator.record(visit(2L, "10.0.0.1", "Chrome")));
+
+        List<List<AffiliateVisit>> batches = new ArrayList<>();
+        doAnswer(invocation -> batches.add(new ArrayList<>(invocation.<List<AffiliateVisit>>getArgument(0))))
+                .when(statsRollupService).recordVisits(anyList());
+
+        aggregator.flush();
+
+        ArgumentCaptor<Collection<ClickCountDelta>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(batchRepository).addClickCounts(deltas.capture());
+        assertTrue(deltas.getValue().contains(new ClickCountDelta(1L, 3, 2)));
+        assertTrue(deltas.getValue().contains(new ClickCountDelta(2L, 1, 1)));
+        assertEquals(List.of(2, 2), batches.stream().map(List::size).toList());
+        assertEquals(Boolean.FALSE, batches.get(0).get(1).getIsUnique());
+        assertNotNull(batches.get(0).get(0).getCreatedAt());
+
+        // Nothing new: no writes
+        aggregator.flush();
+        verify(batchRepository, times(1)).addClickCounts(anyCollection());
+    }
+
+    @Test
+    void flush_shouldRetryFailedWrites() {
+        aggregator.record(visit(1L, "10.0.0.1", "Chrome"));
+        doThrow(new RuntimeException("db down")).when(batchRepository).addClickCounts(anyCollection());
+        doThrow(new RuntimeException("db down")).when(statsRollupService).recordVisits(anyList());
+
+        aggregator.flush();
+        assertEquals(1, aggregator.pendingVisits());
+
+        reset(batchRepository, statsRollupService);
+        aggregator.record(visit(1L, "10.0.0.2", "Chrome"));
+        aggregator.flush();
+
+        verify(batchRepository).addClickCounts(List.of(new ClickCountDelta(1L, 2, 2)));
+        assertEquals(0, aggregator.pendingVisits());
+    }
+
+    @Test
+    void record_shouldDropVisitWithoutWritingWhenQueueIsFull() {
+        AffiliateClickAggregator small = new AffiliateClickAggregator(
+                batchRepository, statsRollupService, new SimpleMeterRegistry(), 2, 1, 24, 5, 10_000, 0.01);
+        small.registerMetrics();
+
+        small.record(visit(1L, "10.0.0.1", "Chrome"));
+        small.record(visit(1L, "10.0.0.2", "Chrome"));
+
+        // The click thread never writes; the dropped visit is still counted
+        verifyNoInteractions(batchRepository, statsRollupService);
+        assertEquals(1, small.pendingVisits());
+        small.flush();
+        verify(batchRepository).addClickCounts(List.of(new ClickCountDelta(1L, 2, 2)));
+    }
+
+    private static AffiliateVisit visit(Long linkId, String ip, String userAgent) {
+        AffiliateVisit visit = new AffiliateVisit();
+        visit.setAffiliateId(9L);
+        visit.setLinkId(linkId);
+        visit.setIpAddress(ip);
+        visit.setUserAgent(userAgent);
+        return visit;
+    }
+}
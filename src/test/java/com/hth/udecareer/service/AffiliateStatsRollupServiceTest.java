@@ -0,0 +1,127 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.entities.AffiliateVisit;
+import com.hth.udecareer.enums.DeviceType;
+import com.hth.udecareer.repository.AffiliateClickBatchRepository;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.BreakdownRow;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.ClickDelta;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.IncomeRow;
+import com.hth.udecareer.repository.AffiliateStatsRollupRepository.PeriodCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AffiliateStatsRollupService.
+ */
+class AffiliateStatsRollupServiceTest {
+
+    private AffiliateStatsRollupRepository rollupRepository;
+    private AffiliateStatsRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(AffiliateStatsRollupRepository.class);
+        service = new AffiliateStatsRollupService(mock(AffiliateClickBatchRepository.class), rollupRepository,
+                                                  true, 48, 40);
+    }
+
+    @Test
+    void toClickDeltas_shouldGroupVisitsByHourAndDimensions() {
+        LocalDateTime time = LocalDateTime.of(2026, 5, 1, 10, 15);
+        List<ClickDelta> deltas = AffiliateStatsRollupService.toClickDeltas(List.of(
+                visit(1L, time, "facebook", DeviceType.MOBILE, "VN", true),
+                visit(1L, time.plusMinutes(30), "facebook", DeviceType.MOBILE, "VN", false),
+                visit(1L, time.plusHours(1), null, null, null, true)));
+
+        assertEquals(2, deltas.size());
+        assertTrue(deltas.contains(new ClickDelta(LocalDateTime.of(2026, 5, 1, 10, 0), 7L, 1L, "facebook",
+                                                  "mobile", "VN", 2, 1)));
+        assertTrue(deltas.contains(new ClickDelta(LocalDateTime.of(2026, 5, 1, 11, 0), 7L, 1L, "",
+                                                  "unknown", "", 1, 1)));
+    }
+
+    @Test
+    void getLinkStats_shouldCombineDailyRowsWithPartialFirstDay() {
+        LocalDateTime now = LocalDateTime.of(2026, 5, 20, 14, 30);
+        when(rollupRepository.findLinkBreakdown(1L)).thenReturn(List.of(
+                new BreakdownRow("facebook", "mobile", "VN", 10, 8, 2),
+                new BreakdownRow("", "desktop", "", 5, 5, 1)));
+        when(rollupRepository.findLinkDailyCounts(eq(1L), any())).thenReturn(List.of(
+                day(LocalDate.of(2026, 4, 20), 100, 9),
+                day(LocalDate.of(2026, 5, 1), 4, 1),
+                day(LocalDate.of(2026, 5, 13), 7, 2),
+                day(LocalDate.of(2026, 5, 14), 3, 0),
+                day(LocalDate.of(2026, 5, 20), 2, 1)));
+        when(rollupRepository.findLinkHourlyCounts(eq(1L), anyCollection())).thenReturn(List.of(
+                new PeriodCount(LocalDateTime.of(2026, 5, 13, 13, 0), 5, 1),
+                new PeriodCount(LocalDateTime.of(2026, 5, 13, 14, 0), 2, 1),
+                new PeriodCount(LocalDateTime.of(2026, 4, 20, 16, 0), 1, 0)));
+
+        AffiliateStatsRollupService.LinkStats stats = service.getLinkStats(1L, now);
+
+        assertEquals(15, stats.totalClicks());
+        assertEquals(13, stats.uniqueClicks());
+        assertEquals(3, stats.totalConversions());
+        assertEquals(2, stats.clicksToday());
+        assertEquals(1, stats.conversionsToday());
+        // May 14 and 20 from daily rows, May 13 from 14:00
+        assertEquals(7, stats.clicksThisWeek());
+        assertEquals(2, stats.conversionsThisWeek());
+        // May 1, 13, 14, 20 from daily rows, April 20 from 14:00
+        assertEquals(17, stats.clicksThisMonth());
+    }
+
+    @Test
+    void loadIncomeDays_shouldSumStatusesOverSubRanges() {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 12, 31);
+        when(rollupRepository.findAffiliateDailyClicks(9L, from, to)).thenReturn(List.of(
+                day(LocalDate.of(2026, 1, 5), 40, 0),
+                day(LocalDate.of(2026, 2, 5), 60, 0)));
+        when(rollupRepository.findAffiliateDailyIncome(9L, from, to)).thenReturn(List.of(
+                new IncomeRow(LocalDate.of(2026, 1, 5), "approved", new BigDecimal("10.00"), 2),
+                new IncomeRow(LocalDate.of(2026, 1, 6), "pending", new BigDecimal("3.50"), 1),
+                new IncomeRow(LocalDate.of(2026, 2, 5), "paid", new BigDecimal("7.00"), 1),
+                new IncomeRow(LocalDate.of(2026, 2, 5), "rejected", new BigDecimal("99.00"), 5)));
+
+        AffiliateStatsRollupService.IncomeDays days = service.loadIncomeDays(9L, from, to);
+
+        AffiliateStatsRollupService.IncomeTotals january = days.totals(from, LocalDate.of(2026, 1, 31));
+        assertEquals(new BigDecimal("10.00"), january.approvedEarnings());
+        assertEquals(new BigDecimal("3.50"), january.pendingEarnings());
+        assertEquals(40, january.clicks());
+        assertEquals(2, january.orders());
+
+        AffiliateStatsRollupService.IncomeTotals year = days.totals(from, to);
+        assertEquals(new BigDecimal("7.00"), year.paidEarnings());
+        assertEquals(100, year.clicks());
+        assertEquals(3, year.orders());
+    }
+
+    private static PeriodCount day(LocalDate date, long clicks, long conversions) {
+        return new PeriodCount(date.atStartOfDay(), clicks, conversions);
+    }
+
+    private static AffiliateVisit visit(Long linkId, LocalDateTime createdAt, String source, DeviceType deviceType,
+                                        String country, boolean unique) {
+        AffiliateVisit visit = new AffiliateVisit();
+        visit.setAffiliateId(7L);
+        visit.setLinkId(linkId);
+        visit.setCreatedAt(createdAt);
+        visit.setSource(source);
+        visit.setDeviceType(deviceType);
+        visit.setCountry(country);
+        visit.setIsUnique(unique);
+        return visit;
+    }
+}
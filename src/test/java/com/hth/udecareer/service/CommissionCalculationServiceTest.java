@@ -0,0 +1,101 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.entities.AffiliateCommissionRule;
+import com.hth.udecareer.enums.CommissionType;
+import com.hth.udecareer.enums.RuleType;
+import com.hth.udecareer.repository.AffiliateCommissionRuleRepository;
+import com.hth.udecareer.service.CommissionCalculationService.CommissionInput;
+import com.hth.udecareer.service.CommissionCalculationService.CommissionResult;
+import com.hth.udecareer.service.cache.CommissionRuleCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CommissionCalculationService with the indexed rule table.
+ */
+class CommissionCalculationServiceTest {
+
+    private AffiliateCommissionRuleRepository ruleRepository;
+    private CommissionRuleCache ruleCache;
+    private CommissionCalculationService service;
+
+    @BeforeEach
+    void setUp() {
+        ruleRepository = mock(AffiliateCommissionRuleRepository.class);
+        when(ruleRepository.findChangeSignature()).thenReturn("v1");
+        when(ruleRepository.findByIsActiveTrueOrderByPriorityDesc()).thenReturn(List.of(
+                rule(1L, RuleType.AFFILIATE, 7L, 30, "20"),
+                rule(2L, RuleType.CATEGORY, 3L, 20, "15"),
+                rule(3L, RuleType.PRODUCT, 5L, 10, "12"),
+                rule(4L, RuleType.GLOBAL, null, 0, "10"),
+                rule(5L, RuleType.TIER, null, 100, "50")));
+        ruleCache = new CommissionRuleCache(ruleRepository);
+        service = new CommissionCalculationService(ruleCache);
+    }
+
+    @Test
+    void calculateCommission_shouldPickHighestPriorityMatchingRule() {
+        assertEquals(new BigDecimal("20.00"), service.calculateCommission(7L, new BigDecimal("100"), 5L, 3L));
+        assertEquals(new BigDecimal("15.00"), service.calculateCommission(8L, new BigDecimal("100"), 5L, 3L));
+        assertEquals(new BigDecimal("12.00"), service.calculateCommission(8L, new BigDecimal("100"), 5L, 4L));
+        assertEquals(new BigDecimal("10.00"), service.calculateCommission(null, new BigDecimal("100"), null, null));
+        assertEquals(4L, service.getApplicableRule(8L, new BigDecimal("100"), 6L, 4L).getId());
+
+        // Rules are loaded once, not per order
+        verify(ruleRepository, times(1)).findByIsActiveTrueOrderByPriorityDesc();
+    }
+
+    @Test
+    void calculateCommissions_shouldFallBackWhenRuleIsNotValidAtOrderTime() {
+        AffiliateCommissionRule expiring = rule(6L, RuleType.AFFILIATE, 9L, 50, "30");
+        expiring.setValidUntil(LocalDateTime.of(2026, 1, 31, 23, 59));
+        AffiliateCommissionRule minOrder = rule(7L, RuleType.AFFILIATE, 9L, 40, "25");
+        minOrder.setMinOrderAmount(new BigDecimal("500"));
+        when(ruleRepository.findByIsActiveTrueOrderByPriorityDesc()).thenReturn(List.of(
+                expiring, minOrder, rule(4L, RuleType.GLOBAL, null, 0, "10")));
+        ruleCache.rebuild();
+
+        List<CommissionResult> results = service.calculateCommissions(List.of(
+                new CommissionInput(9L, new BigDecimal("100"), null, null, LocalDateTime.of(2026, 1, 15, 10, 0)),
+                new CommissionInput(9L, new BigDecimal("100"), null, null, LocalDateTime.of(2026, 2, 15, 10, 0)),
+                new CommissionInput(9L, new BigDecimal("1000"), null, null, LocalDateTime.of(2026, 2, 15, 10, 0))));
+
+        assertEquals(List.of(new CommissionResult(6L, new BigDecimal("30.00")),
+                             new CommissionResult(4L, new BigDecimal("10.00")),
+                             new CommissionResult(7L, new BigDecimal("250.00"))), results);
+    }
+
+    @Test
+    void refreshIfChanged_shouldRebuildOnlyWhenSignatureChanges() {
+        ruleCache.rebuild();
+        ruleCache.refreshIfChanged();
+        verify(ruleRepository, times(1)).findByIsActiveTrueOrderByPriorityDesc();
+
+        when(ruleRepository.findChangeSignature()).thenReturn("v2");
+        when(ruleRepository.findByIsActiveTrueOrderByPriorityDesc()).thenReturn(List.of());
+        ruleCache.refreshIfChanged();
+
+        assertEquals(BigDecimal.ZERO, service.calculateCommission(7L, new BigDecimal("100"), 5L, 3L));
+    }
+
+    private static AffiliateCommissionRule rule(Long id, RuleType type, Long targetId, int priority, String rate) {
+        AffiliateCommissionRule rule = new AffiliateCommissionRule();
+        rule.setId(id);
+        rule.setRuleName("rule-" + id);
+        rule.setRuleType(type);
+        rule.setAffiliateId(type == RuleType.AFFILIATE ? targetId : null);
+        rule.setProductId(type == RuleType.PRODUCT ? targetId : null);
+        rule.setCategoryId(type == RuleType.CATEGORY ? targetId : null);
+        rule.setCommissionType(CommissionType.PERCENTAGE);
+        rule.setCommissionRate(new BigDecimal(rate));
+        rule.setPriority(priority);
+        return rule;
+    }
+}
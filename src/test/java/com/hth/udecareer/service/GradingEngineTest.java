@@ -0,0 +1,121 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.model.dto.AnswerKey;
+import com.hth.udecareer.model.response.QuestionResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GradingEngine, checked against the list comparison it replaces.
+ */
+class GradingEngineTest {
+
+    private final GradingEngine engine = new GradingEngine();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100, 200})
+    void grade_shouldMatchListComparison(int questionCount) {
+        Random random = new Random(questionCount);
+        List<AnswerKey> keys = new ArrayList<>();
+        Map<Long, List<Boolean>> selections = new HashMap<>();
+        long expectedPoints = 0;
+        int expectedCorrects = 0;
+
+        for (long id = 1; id <= questionCount; id++) {
+            int optionCount = 2 + random.nextInt(4);
+            List<Boolean> correct = randomFlags(random, optionCount);
+            keys.add(AnswerKey.from(question(id, correct, 2)));
+
+            // Half the answers are the key itself, the rest random (sometimes the wrong length)
+            List<Boolean> selected = random.nextBoolean()
+                    ? new ArrayList<>(correct)
+                    : randomFlags(random, optionCount + (random.nextInt(5) == 0 ? 1 : 0));
+            selections.put(id, selected);
+            if (selected.equals(correct)) {
+                expectedPoints += 2;
+                expectedCorrects++;
+            }
+        }
+
+        GradingEngine.SubmissionResult result = engine.grade(keys, selections);
+
+        assertEquals(expectedPoints, result.points());
+        assertEquals(expectedCorrects, result.corrects());
+        assertEquals(questionCount - expectedCorrects, result.incorrects());
+        for (int i = 0; i < questionCount; i++) {
+            AnswerKey key = keys.get(i);
+            assertEquals(engine.isExactMatch(key, selections.get(key.getQuestionId())), result.correct().get(i));
+        }
+    }
+
+    @Test
+    void answerKey_shouldFollowAnswerIndexOrder() {
+        QuestionResponse question = QuestionResponse.builder()
+                .id(1L)
+                .points(1)
+                .answerData(new ArrayList<>(List.of(
+                        answer(1, true),
+                        answer(0, false))))
+                .build();
+
+        AnswerKey key = AnswerKey.from(question);
+
+        assertTrue(engine.isExactMatch(key, List.of(false, true)));
+        assertFalse(engine.isExactMatch(key, List.of(true, false)));
+    }
+
+    @Test
+    void isExactMatch_shouldHandleMoreThan64Options() {
+        List<Boolean> correct = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            correct.add(i == 3 || i == 66);
+        }
+        AnswerKey key = AnswerKey.from(question(1L, correct, 1));
+
+        List<Boolean> wrong = new ArrayList<>(correct);
+        wrong.set(66, false);
+
+        assertTrue(engine.isExactMatch(key, correct));
+        assertFalse(engine.isExactMatch(key, wrong));
+    }
+
+    @Test
+    void isCorrectSelection_shouldToleratePaddingAndMissingEntries() {
+        AnswerKey key = AnswerKey.from(question(1L, List.of(true, false, false), 1));
+
+        assertTrue(engine.isCorrectSelection(key, List.of(true)));
+        assertTrue(engine.isCorrectSelection(key, List.of(true, false, false, true)));
+        assertFalse(engine.isCorrectSelection(key, List.of(true, true)));
+        assertFalse(engine.isCorrectSelection(key, List.of()));
+        assertFalse(engine.isExactMatch(key, List.of(true)));
+    }
+
+    private static List<Boolean> randomFlags(Random random, int size) {
+        List<Boolean> flags = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            flags.add(random.nextBoolean());
+        }
+        return flags;
+    }
+
+    private static QuestionResponse question(Long id, List<Boolean> correct, int points) {
+        List<QuestionResponse.AnswerData> answers = new ArrayList<>();
+        for (int i = 0; i < correct.size(); i++) {
+            answers.add(answer(i, correct.get(i)));
+        }
+        return QuestionResponse.builder().id(id).points(points).answerData(answers).build();
+    }
+
+    private static QuestionResponse.AnswerData answer(int index, boolean correct) {
+        return QuestionResponse.AnswerData.builder().index(index).correct(correct).build();
+    }
+}
@@ -0,0 +1,243 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.enums.LeaderBoardType;
+import com.hth.udecareer.repository.UserMetaRepository;
+import com.hth.udecareer.repository.UserStreakRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LeaderboardStore.
+ */
+class LeaderboardStoreTest {
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private ZSetOperations<String, Object> zSetOps;
+    private ValueOperations<String, Object> valueOps;
+    private SetOperations<String, Object> setOps;
+    private UserMetaRepository userMetaRepository;
+    private UserStreakRepository userStreakRepository;
+    private LeaderboardStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        zSetOps = mock(ZSetOperations.class);
+        valueOps = mock(ValueOperations.class);
+        setOps = mock(SetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(valueOps.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+        // Sessions run against the template itself, so WATCH/MULTI/EXEC show up on the mock
+        when(redisTemplate.execute(any(SessionCallback.class)))
+                .thenAnswer(invocation -> ((SessionCallback<?>) invocation.getArgument(0)).execute(redisTemplate));
+        when(redisTemplate.exec()).thenReturn(List.of("OK"));
+        userMetaRepository = mock(UserMetaRepository.class);
+        userStreakRepository = mock(UserStreakRepository.class);
+        store = new LeaderboardStore(redisTemplate, userMetaRepository, userStreakRepository, true);
+    }
+
+    @Test
+    void pointsKey_shouldUsePeriodStart() {
+        LocalDate sunday = LocalDate.of(2026, 10, 18);
+        assertEquals("leaderboard:points:week:2026-10-12", LeaderboardStore.pointsKey(LeaderBoardType.WEEK, sunday));
+        assertEquals("leaderboard:points:month:2026-10-01", LeaderboardStore.pointsKey(LeaderBoardType.MONTH, sunday));
+        assertEquals("leaderboard:points:year:2026-01-01", LeaderboardStore.pointsKey(LeaderBoardType.YEAR, sunday));
+
+        // Longest streak first, current streak breaks ties
+        assertTrue(LeaderboardStore.streakScore(10, 0) > LeaderboardStore.streakScore(9, 9));
+        assertTrue(LeaderboardStore.streakScore(10, 3) > LeaderboardStore.streakScore(10, 2));
+    }
+
+    @Test
+    void page_shouldReturnNullUntilSetIsReady() {
+        String key = "leaderboard:points:week:2026-10-12";
+        when(redisTemplate.hasKey(key + ":ready")).thenReturn(false);
+        assertNull(store.page(key, 0, 10));
+        verify(zSetOps, never()).reverseRangeWithScores(anyString(), anyLong(), anyLong());
+
+        when(redisTemplate.hasKey(key + ":ready")).thenReturn(true);
+        Set<TypedTuple<Object>> tuples = new LinkedHashSet<>();
+        tuples.add(new DefaultTypedTuple<>("7", 120.0));
+        tuples.add(new DefaultTypedTuple<>("3", 80.0));
+        when(zSetOps.reverseRangeWithScores(key, 10, 19)).thenReturn(tuples);
+        when(zSetOps.zCard(key)).thenReturn(42L);
+
+        LeaderboardStore.Page page = store.page(key, 10, 10);
+
+        assertEquals(List.of(new LeaderboardStore.Entry(7L, 120), new LeaderboardStore.Entry(3L, 80)), page.entries());
+        assertEquals(42L, page.total());
+    }
+
+    @Test
+    void position_shouldCountHigherScoresAndFindNextScore() {
+        String key = "leaderboard:points:month:2026-10-01";
+        when(redisTemplate.hasKey(key + ":ready")).thenReturn(true);
+        when(zSetOps.score(key, "5")).thenReturn(50.0);
+        when(zSetOps.reverseRank(key, "5")).thenReturn(3L);
+        when(zSetOps.count(key, 51.0, Double.POSITIVE_INFINITY)).thenReturn(3L);
+        Set<TypedTuple<Object>> next = new LinkedHashSet<>();
+        next.add(new DefaultTypedTuple<>("8", 60.0));
+        when(zSetOps.rangeByScoreWithScores(key, 51.0, Double.POSITIVE_INFINITY, 0, 1)).thenReturn(next);
+
+        assertEquals(new LeaderboardStore.Position(50, 4, 3, 60L), store.position(key, 5L));
+    }
+
+    @Test
+    void rebuild_shouldReplaceSetFromDatabaseAndMarkReady() {
+        String weekKey = LeaderboardStore.pointsKey(LeaderBoardType.WEEK, LocalDate.now());
+        String monthKey = LeaderboardStore.pointsKey(LeaderBoardType.MONTH, LocalDate.now());
+        when(userMetaRepository.findScoresByKeyAndStart(eq("point_week"), eq("point_week_start"), anyString()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 30L}, new Object[]{2L, 10L}));
+        when(userMetaRepository.findScoresByKeyAndStart(eq("point_month"), anyString(), anyString()))
+                .thenReturn(List.of());
+        when(userMetaRepository.findScoresByKeyAndStart(eq("point_year"), anyString(), anyString()))
+                .thenReturn(List.of());
+        when(userStreakRepository.findAllStreakScores()).thenReturn(List.<Object[]>of(new Object[]{1L, 7, 2}));
+        when(zSetOps.zCard(weekKey + ":load")).thenReturn(2L);
+        when(zSetOps.zCard(LeaderboardStore.STREAK_KEY + ":load")).thenReturn(1L);
+
+        store.rebuildAll();
+
+        Set<TypedTuple<Object>> weekScores = Set.of(new DefaultTypedTuple<>("1", 30.0),
+                                                    new DefaultTypedTuple<>("2", 10.0));
+        InOrder week = inOrder(valueOps, redisTemplate, zSetOps, userMetaRepository);
+        week.verify(valueOps).setIfAbsent(eq(weekKey + ":rebuilding"), eq("1"), any(Duration.class));
+        week.verify(redisTemplate).delete(List.of(weekKey + ":touched", weekKey + ":load"));
+        week.verify(userMetaRepository).findScoresByKeyAndStart(eq("point_week"), anyString(), anyString());
+        week.verify(zSetOps).add(weekKey + ":load", weekScores);
+        week.verify(redisTemplate).watch(List.of(weekKey, weekKey + ":ready", weekKey + ":touched"));
+        week.verify(redisTemplate).multi();
+        week.verify(redisTemplate).rename(weekKey + ":load", weekKey);
+        week.verify(valueOps).set(weekKey + ":ready", "1", Duration.ofDays(14));
+        week.verify(redisTemplate).exec();
+        week.verify(redisTemplate).delete(List.of(weekKey + ":rebuilding", weekKey + ":touched", weekKey + ":load"));
+        verify(redisTemplate).delete(monthKey);
+        verify(redisTemplate).rename(LeaderboardStore.STREAK_KEY + ":load", LeaderboardStore.STREAK_KEY);
+        verify(valueOps).set(LeaderboardStore.STREAK_KEY + ":ready", "1");
+        verify(zSetOps, never()).unionAndStore(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void rebuild_shouldCountPointsCommittedBetweenMarkAndSnapshotOnce() {
+        String weekKey = LeaderboardStore.pointsKey(LeaderBoardType.WEEK, LocalDate.now());
+        when(redisTemplate.hasKey(weekKey + ":ready")).thenReturn(true);
+        when(redisTemplate.hasKey(weekKey + ":rebuilding")).thenReturn(true);
+        // User 1 had 30 points; 5 more commit after the mark is taken, before the snapshot is read
+        when(userMetaRepository.findScoresByKeyAndStart(eq("point_week"), eq("point_week_start"), anyString()))
+                .thenAnswer(invocation -> {
+                    store.addPoints(1L, 5);
+                    return List.<Object[]>of(new Object[]{1L, 35L}, new Object[]{2L, 10L});
+                });
+        when(userMetaRepository.findScoresByKeyAndStart(eq("point_month"), anyString(), anyString()))
+                .thenReturn(List.of());
+        when(userMetaRepository.findScoresByKeyAndStart(eq("point_year"), anyString(), anyString()))
+                .thenReturn(List.of());
+        when(userStreakRepository.findAllStreakScores()).thenReturn(List.of());
+        when(setOps.members(weekKey + ":touched")).thenReturn(Set.of("1"));
+        when(zSetOps.score(weekKey, "1")).thenReturn(35.0);
+        when(zSetOps.zCard(weekKey + ":load")).thenReturn(2L);
+
+        store.rebuildAll();
+
+        verify(zSetOps).incrementScore(weekKey, "1", 5.0);
+        verify(setOps).add(weekKey + ":touched", "1");
+
+        // Replay the ZADDs into the loaded set: the touched user's live score overwrites the snapshot one
+        ArgumentCaptor<Set<TypedTuple<Object>>> adds = ArgumentCaptor.forClass((Class) Set.class);
+        verify(zSetOps, times(2)).add(eq(weekKey + ":load"), adds.capture());
+        Map<Object, Double> loaded = new HashMap<>();
+        for (Set<TypedTuple<Object>> batch : adds.getAllValues()) {
+            for (TypedTuple<Object> tuple : batch) {
+                loaded.put(tuple.getValue(), tuple.getScore());
+            }
+        }
+        assertEquals(Map.of("1", 35.0, "2", 10.0), loaded);
+        verify(redisTemplate).rename(weekKey + ":load", weekKey);
+        verify(valueOps).set(weekKey + ":ready", "1", Duration.ofDays(14));
+    }
+
+    @Test
+    void rebuild_shouldLeaveSetNotReadyWhenUsersKeepChangingBeforeItWasReady() {
+        String weekKey = LeaderboardStore.pointsKey(LeaderBoardType.WEEK, LocalDate.now());
+        when(userMetaRepository.findScoresByKeyAndStart(anyString(), anyString(), anyString()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 30L}));
+        when(userStreakRepository.findAllStreakScores()).thenReturn(List.of());
+        when(setOps.members(weekKey + ":touched")).thenReturn(Set.of("1"));
+        when(zSetOps.zCard(weekKey + ":load")).thenReturn(1L);
+
+        store.rebuildAll();
+
+        // Live scores are not trusted, so each pass swaps the snapshot in but does not mark it ready
+        verify(userMetaRepository, times(3)).findScoresByKeyAndStart(eq("point_week"), anyString(), anyString());
+        verify(redisTemplate, times(3)).rename(weekKey + ":load", weekKey);
+        verify(zSetOps, never()).score(anyString(), any());
+        verify(valueOps, never()).set(eq(weekKey + ":ready"), any(), any(Duration.class));
+    }
+
+    @Test
+    void rebuild_shouldSkipSetsRebuiltByAnotherInstance() {
+        when(valueOps.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(false);
+
+        store.rebuildAll();
+
+        verifyNoInteractions(userMetaRepository, userStreakRepository);
+        verify(redisTemplate, never()).rename(anyString(), anyString());
+        verify(redisTemplate, never()).delete(anyCollection());
+    }
+
+    @Test
+    void addPoints_shouldRecordTouchedUserWhileRebuilding() {
+        String weekKey = LeaderboardStore.pointsKey(LeaderBoardType.WEEK, LocalDate.now());
+        when(redisTemplate.hasKey(weekKey + ":rebuilding")).thenReturn(true);
+
+        store.addPoints(9L, 15);
+
+        InOrder order = inOrder(redisTemplate, zSetOps, setOps);
+        order.verify(redisTemplate).watch(weekKey + ":rebuilding");
+        order.verify(redisTemplate).multi();
+        order.verify(zSetOps).incrementScore(weekKey, "9", 15.0);
+        order.verify(setOps).add(weekKey + ":touched", "9");
+        order.verify(redisTemplate).exec();
+        // Month and year sets are not being rebuilt
+        verify(zSetOps, times(3)).incrementScore(anyString(), eq("9"), eq(15.0));
+        verify(setOps, times(1)).add(anyString(), any());
+    }
+
+    @Test
+    void addPoints_shouldIncrementEveryPeriodAndMarkStaleOnFailure() {
+        String yearKey = LeaderboardStore.pointsKey(LeaderBoardType.YEAR, LocalDate.now());
+        when(zSetOps.incrementScore(eq(yearKey), any(), anyDouble())).thenThrow(new RuntimeException("redis down"));
+
+        store.addPoints(9L, 15);
+
+        verify(zSetOps, times(3)).incrementScore(anyString(), eq("9"), eq(15.0));
+        verify(redisTemplate).delete(yearKey + ":ready");
+        verify(redisTemplate, never()).delete(
+                LeaderboardStore.pointsKey(LeaderBoardType.WEEK, LocalDate.now()) + ":ready");
+    }
+}
@@ -0,0 +1,151 @@
+package com.hth.udecareer.service;
+
+import com.hth.udecareer.entities.QuizMetaEntity;
+import com.hth.udecareer.entities.QuizStatisticEntity;
+import com.hth.udecareer.entities.QuizStatisticId;
+import com.hth.udecareer.entities.UserChapterStatsEntity;
+import com.hth.udecareer.repository.QuizMetaRepository;
+import com.hth.udecareer.repository.QuizStatisticRepository;
+import com.hth.udecareer.repository.UserChapterStatsRepository;
+import com.hth.udecareer.service.cache.QuestionBankCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import javax.persistence.Tuple;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserChapterStatsService.
+ */
+class UserChapterStatsServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private UserChapterStatsRepository userChapterStatsRepository;
+    private QuizStatisticRepository quizStatisticRepository;
+    private QuizMetaRepository quizMetaRepository;
+    private QuestionBankCache questionBankCache;
+    private UserChapterStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        userChapterStatsRepository = mock(UserChapterStatsRepository.class);
+        quizStatisticRepository = mock(QuizStatisticRepository.class);
+        quizMetaRepository = mock(QuizMetaRepository.class);
+        questionBankCache = mock(QuestionBankCache.class);
+        service = new UserChapterStatsService(userChapterStatsRepository, quizStatisticRepository,
+                                              quizMetaRepository, questionBankCache, false);
+        when(quizMetaRepository.findAllByQuestionTitleIn(anyCollection())).thenReturn(List.of(
+                meta("PSM_A_1_N", 1), meta(" psm_b_1_n ", 2), meta("PSM_A_1_N", 9)));
+    }
+
+    @Test
+    void getChapterStats_shouldFoldTitlesIntoChaptersWithOneAggregation() {
+        when(quizStatisticRepository.sumResultsByQuestionTitle(USER_ID)).thenReturn(List.of(
+                row("psm_a_1_n", 4, 3),
+                row("PSM_A_1_N ", 2, 0),
+                row("PSM_B_1_N", 5, 5),
+                row("UNKNOWN", 10, 1)));
+
+        List<UserChapterStatsService.ChapterStat> stats = service.getChapterStats(USER_ID);
+
+        assertEquals(2, stats.size());
+        assertEquals(new UserChapterStatsService.ChapterStat(1, 6, 3), stats.get(0));
+        assertEquals(new UserChapterStatsService.ChapterStat(2, 5, 5), stats.get(1));
+        assertEquals(50.0, stats.get(0).accuracy());
+        verify(quizStatisticRepository, times(1)).sumResultsByQuestionTitle(USER_ID);
+        verifyNoInteractions(userChapterStatsRepository);
+    }
+
+    @Test
+    void recordGradedAttempt_shouldIncrementOncePerChapter() {
+        when(questionBankCache.getTitles(anyCollection())).thenReturn(Map.of(
+                11L, "PSM_A_1_N", 12L, "PSM_A_1_N", 13L, "PSM_B_1_N", 14L, "UNKNOWN"));
+
+        service.recordGradedAttempt(USER_ID, List.of(
+                statistic(11L, 1), statistic(12L, 0), statistic(13L, 1), statistic(14L, 1)));
+
+        verify(userChapterStatsRepository).increment(USER_ID, 1, 2L, 1L);
+        verify(userChapterStatsRepository).increment(USER_ID, 2, 1L, 1L);
+        verify(userChapterStatsRepository, times(2)).increment(eq(USER_ID), anyInt(), anyLong(), anyLong());
+    }
+
+    @Test
+    void rebuildForUser_shouldLockRowsBeforeReadingStatistics() {
+        when(quizMetaRepository.findDistinctChapterIdx()).thenReturn(List.of(3, 1, 2, 9));
+        UserChapterStatsEntity chapter1 = chapterRow(1, 50, 40);
+        UserChapterStatsEntity chapter2 = chapterRow(2, 0, 0);
+        UserChapterStatsEntity chapter3 = chapterRow(3, 8, 8);
+        when(userChapterStatsRepository.findAllByUserIdForUpdate(USER_ID))
+                .thenReturn(List.of(chapter1, chapter2, chapter3));
+        when(quizStatisticRepository.sumResultsByQuestionTitle(USER_ID)).thenReturn(List.of(
+                row("PSM_A_1_N", 6, 3),
+                row("PSM_B_1_N", 5, 5)));
+
+        assertEquals(2, service.rebuildForUser(USER_ID));
+
+        // Missing rows are created and all rows locked before the statistics are aggregated
+        InOrder order = inOrder(quizMetaRepository, userChapterStatsRepository, quizStatisticRepository);
+        order.verify(quizMetaRepository).findDistinctChapterIdx();
+        order.verify(userChapterStatsRepository).insertIfAbsent(USER_ID, 1);
+        order.verify(userChapterStatsRepository).insertIfAbsent(USER_ID, 2);
+        order.verify(userChapterStatsRepository).insertIfAbsent(USER_ID, 3);
+        order.verify(userChapterStatsRepository).insertIfAbsent(USER_ID, 9);
+        order.verify(userChapterStatsRepository).findAllByUserIdForUpdate(USER_ID);
+        order.verify(quizStatisticRepository).sumResultsByQuestionTitle(USER_ID);
+
+        // Counts are replaced, not added to, and chapters without answers are dropped
+        assertEquals(6L, chapter1.getTotalCount());
+        assertEquals(3L, chapter1.getCorrectCount());
+        assertEquals(5L, chapter2.getTotalCount());
+        assertEquals(5L, chapter2.getCorrectCount());
+        verify(userChapterStatsRepository).delete(chapter3);
+        verify(userChapterStatsRepository, never()).increment(anyLong(), anyInt(), anyLong(), anyLong());
+    }
+
+    private static UserChapterStatsEntity chapterRow(int chapterIdx, long total, long correct) {
+        UserChapterStatsEntity row = new UserChapterStatsEntity();
+        row.setUserId(USER_ID);
+        row.setChapterIdx(chapterIdx);
+        row.setTotalCount(total);
+        row.setCorrectCount(correct);
+        return row;
+    }
+
+    private static QuizMetaEntity meta(String title, int chapterIdx) {
+        QuizMetaEntity meta = new QuizMetaEntity();
+        meta.setQuestionTitle(title);
+        meta.setChapterIdx(chapterIdx);
+        meta.setQuizCategoryId(1L);
+        return meta;
+    }
+
+    private static Tuple row(String title, long total, long correct) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get(0, String.class)).thenReturn(title);
+        when(tuple.get(1)).thenReturn(BigInteger.valueOf(total));
+        when(tuple.get(2)).thenReturn(BigDecimal.valueOf(correct));
+        return tuple;
+    }
+
+    private static QuizStatisticEntity statistic(Long questionId, long correctCount) {
+        QuizStatisticId id = new QuizStatisticId();
+        id.setStatisticRefId(100L);
+        id.setQuestionId(questionId);
+        QuizStatisticEntity entity = new QuizStatisticEntity();
+        entity.setId(id);
+        entity.setCorrectCount(correctCount);
+        return entity;
+    }
+}
@@ -0,0 +1,120 @@
+package com.hth.udecareer.service.cache;
+
+import com.hth.udecareer.service.GeoIPService;
+import com.hth.udecareer.service.GeoIPService.GeoIPResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GeoIPRangeIndex and GeoIPService reload/fallback.
+ */
+class GeoIPRangeIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lookup_shouldResolveCidrAndRangeLines() {
+        GeoIPRangeIndex index = new GeoIPRangeIndex.Builder()
+                .addLine("network,country_code,city")
+                .addLine("# comment")
+                .addLine("14.160.0.0/11,VN,Hanoi")
+                .addLine("\"8.8.8.0\",\"8.8.8.255\",\"US\",\"Mountain View, CA\"")
+                .addLine("1.0.0.0,1.0.0.255,AU")
+                .build();
+
+        assertEquals(new GeoIPResult("VN", "Hanoi"), index.lookup("14.160.0.0"));
+        assertEquals(new GeoIPResult("VN", "Hanoi"), index.lookup("14.191.255.255"));
+        assertNull(index.lookup("14.192.0.0"));
+        assertEquals(new GeoIPResult("US", "Mountain View, CA"), index.lookup("8.8.8.8"));
+        assertEquals(new GeoIPResult("AU", null), index.lookup("1.0.0.1"));
+        assertNull(index.lookup("1.0.1.0"));
+        assertEquals(3, index.ipv4Ranges());
+        assertEquals(1, index.skippedLines());
+    }
+
+    @Test
+    void lookup_shouldResolveIpv6AndMappedIpv4() {
+        GeoIPRangeIndex index = new GeoIPRangeIndex.Builder()
+                .addLine("2001:ee0::/32,VN,Ho Chi Minh City")
+                .addLine("2400:cb00::,2400:cb00:ffff:ffff:ffff:ffff:ffff:ffff,SG")
+                .addLine("113.160.0.0/11,VN")
+                .build();
+
+        assertEquals("Ho Chi Minh City", index.lookup("2001:ee0:1::1").getCity());
+        assertNull(index.lookup("2001:ee1::1"));
+        assertEquals("SG", index.lookup("2400:cb00:1234::").getCountryCode());
+        assertEquals("VN", index.lookup("::ffff:113.161.1.1").getCountryCode());
+        assertEquals(2, index.ipv6Ranges());
+    }
+
+    @Test
+    void lookup_shouldHandleUnsortedInputAndRejectNonLiterals() {
+        GeoIPRangeIndex index = new GeoIPRangeIndex.Builder()
+                .addLine("200.0.0.0/8,BR")
+                .addLine("10.0.0.0/8,ZZ")
+                .addLine("100.0.0.0/8,US")
+                .build();
+
+        assertEquals("ZZ", index.lookup("10.1.2.3").getCountryCode());
+        assertEquals("US", index.lookup("100.255.255.255").getCountryCode());
+        assertEquals("BR", index.lookup("200.0.0.0").getCountryCode());
+        assertNull(index.lookup("9.255.255.255"));
+        assertNull(index.lookup("example.com"));
+        assertNull(index.lookup("10.0.0.256"));
+        assertNull(index.lookup("10.0.0"));
+        assertNull(GeoIPRangeIndex.EMPTY.lookup("10.0.0.1"));
+    }
+
+    @Test
+    void geoIPService_shouldReloadChangedFile() throws Exception {
+        Path file = tempDir.resolve("geoip.csv");
+        Files.writeString(file, "10.0.0.0/8,VN,Hanoi\n");
+        GeoIPService service = new GeoIPService(mock(RestTemplate.class), file.toString(), 100);
+        service.loadOnStartup();
+
+        assertEquals("VN", service.getLocationFromIP(" 10.0.0.1 ").getCountryCode());
+        assertNull(service.getLocationFromIP("11.0.0.1"));
+
+        Files.writeString(file, "11.0.0.0/8,US\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        service.reloadIfChanged();
+
+        assertNull(service.getLocationFromIP("10.0.0.1"));
+        assertEquals("US", service.getLocationFromIP("11.0.0.1").getCountryCode());
+    }
+
+    @Test
+    void geoIPService_shouldFallBackToApiWithoutDatabase() {
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.getForEntity(anyString(), any(), anyString()))
+                .thenThrow(new RestClientException("rate limited"));
+        GeoIPService service = new GeoIPService(restTemplate, "", 100);
+        service.loadOnStartup();
+
+        assertNull(service.getLocationFromIP("10.0.0.1"));
+        assertNull(service.getLocationFromIP(null));
+        // Failed calls are not cached
+        assertNull(service.getLocationFromIP("10.0.0.1"));
+        verify(restTemplate, times(2)).getForEntity(anyString(), any(), anyString());
+    }
+
+    @Test
+    void geoIPService_shouldFailStartupWhenConfiguredDatabaseIsMissing() {
+        GeoIPService service = new GeoIPService(mock(RestTemplate.class),
+                                                tempDir.resolve("missing.csv").toString(), 100);
+
+        assertThrows(IllegalStateException.class, service::loadOnStartup);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hth.udecareer.service.cache;
+
+import com.hth.udecareer.entities.QuestionEntity;
+import com.hth.udecareer.model.response.QuestionResponse;
+import com.hth.udecareer.repository.QuestionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for QuestionBankCache.
+ */
+class QuestionBankCacheTest {
+
+    private static final String ANSWERS = "a:2:{"
+            + "i:0;O:27:\"WpProQuiz_Model_AnswerTypes\":3:{s:10:\"\0*\0_answer\";s:3:\"Yes\";"
+            + "s:10:\"\0*\0_points\";i:1;s:11:\"\0*\0_correct\";b:1;}"
+            + "i:1;O:27:\"WpProQuiz_Model_AnswerTypes\":3:{s:10:\"\0*\0_answer\";s:2:\"No\";"
+            + "s:10:\"\0*\0_points\";i:0;s:11:\"\0*\0_correct\";b:0;}}";
+
+    private QuestionRepository questionRepository;
+    private QuestionBankCache cache;
+
+    @BeforeEach
+    void setUp() {
+        questionRepository = mock(QuestionRepository.class);
+        cache = new QuestionBankCache(questionRepository, 100, 60_000);
+    }
+
+    @Test
+    void getAll_shouldLoadMissesOnceAndKeepRequestedOrder() {
+        when(questionRepository.findAllByIdIn(anyList())).thenReturn(List.of(question(1L), question(2L)));
+
+        List<QuestionResponse> first = cache.getAll(List.of(2L, 1L, 3L));
+        List<QuestionResponse> second = cache.getAll(List.of(1L, 2L));
+
+        assertEquals(List.of(2L, 1L), first.stream().map(QuestionResponse::getId).toList());
+        assertEquals(List.of(1L, 2L), second.stream().map(QuestionResponse::getId).toList());
+        assertEquals(2, second.get(0).getAnswerData().size());
+        assertTrue(second.get(0).getAnswerData().get(0).isCorrect());
+        verify(questionRepository, times(1)).findAllByIdIn(anyList());
+    }
+
+    @Test
+    void get_shouldReparseWhenRowChanged() {
+        QuestionEntity entity = question(1L);
+        assertEquals("Question 1", cache.get(entity).getQuestion());
+
+        entity.setQuestion("Edited");
+
+        assertEquals("Edited", cache.get(entity).getQuestion());
+        verifyNoInteractions(questionRepository);
+    }
+
+    @Test
+    void get_shouldReturnCopiesCallersCanModify() {
+        QuestionEntity entity = question(1L);
+        QuestionResponse first = cache.get(entity);
+        first.getAnswerData().get(0).setCorrect(false);
+        first.getAnswerData().clear();
+
+        QuestionResponse second = cache.get(entity);
+
+        assertEquals(2, second.getAnswerData().size());
+        assertTrue(second.getAnswerData().get(0).isCorrect());
+    }
+
+    @Test
+    void evictAll_shouldForceReload() {
+        when(questionRepository.findAllByIdIn(anyList())).thenReturn(List.of(question(1L)));
+        cache.findById(1L);
+
+        cache.evictAll();
+        cache.findById(1L);
+
+        verify(questionRepository, times(2)).findAllByIdIn(anyList());
+    }
+
+    private static QuestionEntity question(Long id) {
+        QuestionEntity entity = new QuestionEntity();
+        entity.setId(id);
+        entity.setQuizId(10L);
+        entity.setTitle("Q" + id);
+        entity.setPoints(1);
+        entity.setQuestion("Question " + id);
+        entity.setAnswerData(ANSWERS);
+        return entity;
+    }
+}
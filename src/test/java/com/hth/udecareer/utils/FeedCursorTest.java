@@ -0,0 +1,38 @@
+package com.hth.udecareer.utils;
+
+import com.hth.udecareer.entities.FeedPostEntity;
+import com.hth.udecareer.exception.AppException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FeedCursor.
+ */
+class FeedCursorTest {
+
+    @Test
+    void of_shouldRoundTripPostPosition() {
+        FeedPostEntity post = FeedPostEntity.builder()
+                .id(981L)
+                .isSticky(1)
+                .priority(5)
+                .createdAt(LocalDateTime.of(2026, 5, 2, 8, 0, 1))
+                .build();
+
+        FeedCursor cursor = FeedCursor.decode(FeedCursor.of(post).encode());
+
+        assertEquals(new FeedCursor(1, 5, LocalDateTime.of(2026, 5, 2, 8, 0, 1), 981L), cursor);
+        assertNull(FeedCursor.decode(""));
+    }
+
+    @Test
+    void decode_shouldRejectKeysetCursorAndGarbage() {
+        String other = new KeysetCursor(LocalDateTime.of(2026, 5, 2, 8, 0), 1L).encode();
+
+        assertThrows(AppException.class, () -> FeedCursor.decode(other));
+        assertThrows(AppException.class, () -> FeedCursor.decode("%%%"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.hth.udecareer.utils;
+
+import com.hth.udecareer.enums.ErrorCode;
+import com.hth.udecareer.exception.AppException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeysetCursor.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void encode_shouldRoundTrip() throws AppException {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_000_000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="));
+        assertEquals(cursor, KeysetCursor.decode(encoded));
+    }
+
+    @Test
+    void decode_shouldTreatBlankAsFirstPage() throws AppException {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void decode_shouldRejectTamperedCursor() {
+        for (String cursor : new String[]{"not base64!", "bm8tc2VwYXJhdG9y", "MjAyNi0wMy0wMXw0Mg"}) {
+            AppException e = assertThrows(AppException.class, () -> KeysetCursor.decode(cursor));
+            assertEquals(ErrorCode.VALIDATION_ERROR, e.getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.hth.udecareer.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PhpSerializedParser.
+ * Covers the quiz meta formats read through PostMetaUtil and QuizMetaCache.
+ */
+class PhpSerializedParserTest {
+
+    private static final String QUIZ_META =
+            "a:4:{s:24:\"sfwd-quiz_repeats_enable\";b:1;s:27:\"sfwd-quiz_passingpercentage\";s:2:\"80\";"
+                    + "s:16:\"sfwd-quiz_course\";i:123;s:19:\"sfwd-quiz_materials\";s:0:\"\";}";
+
+    @Test
+    void parseSettings_shouldReadTypedScalars() {
+        Map<String, Object> settings = PhpSerializedParser.parseSettings(QUIZ_META);
+
+        assertEquals(Boolean.TRUE, settings.get("sfwd-quiz_repeats_enable"));
+        assertEquals("80", settings.get("sfwd-quiz_passingpercentage"));
+        assertEquals(123, settings.get("sfwd-quiz_course"));
+        assertEquals("", settings.get("sfwd-quiz_materials"));
+    }
+
+    @Test
+    void parseSettings_shouldSkipNestedArraysAndKeepSiblings() {
+        String value = "a:3:{s:1:\"a\";a:2:{i:0;s:1:\"x\";i:1;s:3:\"y;z\";}s:1:\"b\";i:7;s:1:\"c\";N;}";
+
+        Map<String, Object> settings = PhpSerializedParser.parseSettings(value);
+
+        assertEquals(Map.of("b", 7), settings);
+    }
+
+    @Test
+    void parseSettings_shouldHandleStringsContainingDelimiters() {
+        String value = "a:1:{s:4:\"html\";s:13:\"<p>a;b\";c</p>\";}";
+
+        Map<String, Object> settings = PhpSerializedParser.parseSettings(value);
+
+        assertEquals("<p>a;b\";c</p>", settings.get("html"));
+    }
+
+    @Test
+    void parseSettings_shouldUseUtf8ByteLengths() {
+        // "Đúng" is 4 chars but 6 bytes in UTF-8
+        String value = "a:1:{s:6:\"answer\";s:6:\"Đúng\";}";
+
+        assertEquals("Đúng", PhpSerializedParser.parseSettings(value).get("answer"));
+    }
+
+    @Test
+    void parseSettings_shouldFallBackWhenStoredLengthIsWrong() {
+        String value = "a:2:{s:6:\"answer\";s:99:\"broken\";s:7:\"_points\";i:1;}";
+
+        Map<String, Object> settings = PhpSerializedParser.parseSettings(value);
+
+        assertEquals("broken", settings.get("answer"));
+        assertEquals(1, settings.get("_points"));
+    }
+
+    @Test
+    void parseSettings_shouldReadObjectPropertyFragment() {
+        String fragment = "s:10:\"\0*\0_answer\";s:3:\"Yes\";s:8:\"\0*\0_html\";b:0;"
+                + "s:10:\"\0*\0_points\";i:2;s:11:\"\0*\0_correct\";b:1;";
+
+        Map<String, Object> settings = PhpSerializedParser.parseSettings(fragment);
+
+        assertEquals("Yes", settings.get("\0*\0_answer"));
+        assertEquals(Boolean.FALSE, settings.get("\0*\0_html"));
+        assertEquals(2, settings.get("\0*\0_points"));
+        assertEquals(Boolean.TRUE, settings.get("\0*\0_correct"));
+    }
+
+    @Test
+    void parseSettings_shouldReturnEntriesReadBeforeMalformedToken() {
+        Map<String, Object> settings = PhpSerializedParser.parseSettings("s:1:\"a\";i:1;s:1:\"b\";i:x;");
+
+        assertEquals(Map.of("a", 1), settings);
+    }
+
+    @Test
+    void parseLongValues_shouldReturnQuestionIdsInOrder() {
+        String value = "a:3:{i:5012;i:41;i:5010;i:39;i:5011;s:2:\"40\";}";
+
+        assertEquals(List.of(41L, 39L, 40L), PhpSerializedParser.parseLongValues(value));
+    }
+
+    @Test
+    void parseLongValues_shouldReturnEmptyForEmptyArray() {
+        assertTrue(PhpSerializedParser.parseLongValues("a:0:{}").isEmpty());
+        assertTrue(PhpSerializedParser.parseLongValues(null).isEmpty());
+    }
+
+    @Test
+    void parse_shouldRejectTruncatedValue() {
+        assertThrows(IllegalArgumentException.class, () -> PhpSerializedParser.parse("a:2:{i:1;i:2;"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.hth.udecareer.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RollingBloomFilter.
+ */
+class RollingBloomFilterTest {
+
+    @Test
+    void putIfAbsent_shouldReportRepeatsAndStayNearTargetRate() {
+        RollingBloomFilter filter = new RollingBloomFilter(3, 10_000, 0.01);
+
+        for (long i = 0; i < 10_000; i++) {
+            filter.putIfAbsent(RollingBloomFilter.mix(i));
+        }
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(filter.putIfAbsent(RollingBloomFilter.mix(i)));
+        }
+
+        int falsePositives = 0;
+        for (long i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain(RollingBloomFilter.mix(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void rotate_shouldKeepEntriesForAllButTheOldestGeneration() {
+        RollingBloomFilter filter = new RollingBloomFilter(3, 1_000, 0.001);
+        long key = RollingBloomFilter.mix(RollingBloomFilter.mix(42L), "10.0.0.1");
+
+        assertFalse(filter.putIfAbsent(key));
+        filter.rotate();
+        assertTrue(filter.mightContain(key));
+        filter.rotate();
+        assertTrue(filter.mightContain(key));
+        filter.rotate();
+        assertFalse(filter.mightContain(key));
+    }
+
+    @Test
+    void mix_shouldSeparateNullAndEmptyStrings() {
+        long base = RollingBloomFilter.mix(7L);
+
+        assertNotEquals(RollingBloomFilter.mix(base, null), RollingBloomFilter.mix(base, ""));
+        assertNotEquals(RollingBloomFilter.mix(base, "ab"), RollingBloomFilter.mix(base, "ba"));
+        assertEquals(RollingBloomFilter.mix(base, "Chrome"), RollingBloomFilter.mix(base, "Chrome"));
+    }
+}